@@ -0,0 +1,234 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.ast.NullValue;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.AggregatorMode;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.DistinctCountAggregator;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ExactPercentileAggregator;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ValuesAggregator;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Encoder;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.expressions.Aggregator;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.MetadataBuilder;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares aggregators fed with the whole input row against aggregators fed with only the columns they need, for
+ * <code>stats dc(a) values(b) exactperc95(c) by host</code> over rows with a wide <code>_raw</code>. The difference
+ * between the <code>rawLength</code> parameters shows how much of the cost comes from deserializing unused columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AggregatorInputBenchmark.ROWS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AggregatorInputBenchmark {
+
+    static final int ROWS = 100000;
+
+    @Param({
+            "256", "4096"
+    })
+    public int rawLength;
+
+    private final StructType schema = new StructType(new StructField[] {
+            new StructField("_time", DataTypes.TimestampType, false, new MetadataBuilder().build()),
+            new StructField("_raw", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("host", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("a", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("b", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("c", DataTypes.LongType, false, new MetadataBuilder().build())
+    });
+
+    private SparkSession sparkSession;
+    private Dataset<Row> dataset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.sparkSession = SparkSession
+                .builder()
+                .appName("pth_10 benchmark")
+                .master("local[*]")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .config("spark.ui.enabled", "false")
+                .getOrCreate();
+        sparkSession.sparkContext().setLogLevel("ERROR");
+
+        final StringBuilder raw = new StringBuilder(rawLength);
+        while (raw.length() < rawLength) {
+            raw.append("Oct 17 12:00:00 host sshd[1234]: Accepted publickey for user from 192.168.1.1 ");
+        }
+        raw.setLength(rawLength);
+
+        final Timestamp time = Timestamp.from(Instant.now());
+        final List<Row> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            final String host = "host-" + (i % 100);
+            final String a = "user" + (i % 1000);
+            final String b = "sshd:" + (i % 10);
+            rows.add(RowFactory.create(time, raw.toString(), host, a, b, (long) i));
+        }
+        this.dataset = sparkSession.createDataFrame(rows, schema).cache();
+        dataset.count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.unpersist();
+        sparkSession.stop();
+    }
+
+    @Benchmark
+    public long wholeRowInput() {
+        final Column dc = new RowInput<>(
+                new DistinctCountAggregator(new NullValue()),
+                "a",
+                String::valueOf
+        ).toColumn();
+        final Column values = new RowInput<>(
+                new ValuesAggregator(AggregatorMode.ValuesAggregatorMode.VALUES),
+                "b",
+                String::valueOf
+        ).toColumn();
+        final Column perc = new RowInput<>(
+                new ExactPercentileAggregator(0.95d),
+                "c",
+                value -> ((Long) value).doubleValue()
+        ).toColumn();
+
+        return dataset.groupBy("host").agg(dc, values, perc).count();
+    }
+
+    @Benchmark
+    public long projectedInput() {
+        final Column dc = functions
+                .udaf(new DistinctCountAggregator(new NullValue()), Encoders.STRING())
+                .apply(functions.col("a").cast(DataTypes.StringType));
+        final Column values = functions
+                .udaf(new ValuesAggregator(AggregatorMode.ValuesAggregatorMode.VALUES), Encoders.STRING())
+                .apply(functions.col("b").cast(DataTypes.StringType));
+        final Column perc = functions
+                .udaf(new ExactPercentileAggregator(0.95d), Encoders.DOUBLE())
+                .apply(functions.col("c").cast(DataTypes.DoubleType));
+
+        return dataset.groupBy("host").agg(dc, values, perc).count();
+    }
+
+    /**
+     * Whole-row input as used before the aggregators took typed column inputs: the aggregator is applied with
+     * <code>toColumn()</code>, so Spark deserializes the entire row for it.
+     */
+    private static final class RowInput<I, B, O> extends Aggregator<Row, B, O> {
+
+        private final Aggregator<I, B, O> aggregator;
+        private final String colName;
+        private final SerializableFunction<Object, I> conversion;
+
+        private RowInput(
+                final Aggregator<I, B, O> aggregator,
+                final String colName,
+                final SerializableFunction<Object, I> conversion
+        ) {
+            this.aggregator = aggregator;
+            this.colName = colName;
+            this.conversion = conversion;
+        }
+
+        @Override
+        public B zero() {
+            return aggregator.zero();
+        }
+
+        @Override
+        public B reduce(final B buffer, final Row input) {
+            return aggregator.reduce(buffer, conversion.apply(input.getAs(colName)));
+        }
+
+        @Override
+        public B merge(final B buffer, final B another) {
+            return aggregator.merge(buffer, another);
+        }
+
+        @Override
+        public O finish(final B buffer) {
+            return aggregator.finish(buffer);
+        }
+
+        @Override
+        public Encoder<B> bufferEncoder() {
+            return aggregator.bufferEncoder();
+        }
+
+        @Override
+        public Encoder<O> outputEncoder() {
+            return aggregator.outputEncoder();
+        }
+    }
+
+    private interface SerializableFunction<T, R> extends Function<T, R>, Serializable {
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_03.antlr.DPLLexer;
+import com.teragrep.pth_03.antlr.DPLParser;
+import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.CharStreams;
+import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.CommonTokenStream;
+import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.tree.ParseTree;
+import com.teragrep.pth_10.ast.DPLAuditInformation;
+import com.teragrep.pth_10.ast.DPLParserCatalystContext;
+import com.teragrep.pth_10.ast.DPLParserCatalystVisitor;
+import com.teragrep.pth_10.ast.bo.TranslationResultNode;
+import com.teragrep.pth_10.datasources.CustomDatasetImpl;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.streaming.DataStreamWriter;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.MetadataBuilder;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end benchmark running DPL pipelines through DPLParserCatalystVisitor on a local SparkSession. Each invocation
+ * processes {@link #ROWS} generated events, so the reported throughput is rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PipelineBenchmark.ROWS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PipelineBenchmark {
+
+    static final int ROWS = 100000;
+
+    private final StructType schema = new StructType(new StructField[] {
+            new StructField("_time", DataTypes.TimestampType, false, new MetadataBuilder().build()),
+            new StructField("_raw", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("index", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("sourcetype", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("host", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("source", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("partition", DataTypes.StringType, false, new MetadataBuilder().build()),
+            new StructField("offset", DataTypes.LongType, false, new MetadataBuilder().build()),
+            new StructField("origin", DataTypes.StringType, false, new MetadataBuilder().build())
+    });
+
+    @Param({
+            "index=benchmark sshd",
+            "index=benchmark | eval a = offset + 1",
+            "index=benchmark | where offset > 50000",
+            "index=benchmark | rex field=_raw \"sshd\\[(?<pid>\\d+)\\]\"",
+            "index=benchmark | stats count(offset) avg(offset) dc(host) by host",
+            "index=benchmark | stats values(sourcetype) exactperc95(offset) by host"
+    })
+    public String query;
+
+    private SparkSession sparkSession;
+    private List<Object[]> values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.sparkSession = SparkSession
+                .builder()
+                .appName("pth_10 benchmark")
+                .master("local[*]")
+                .config("spark.sql.session.timeZone", "UTC")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .config("spark.ui.enabled", "false")
+                .getOrCreate();
+        sparkSession.sparkContext().setLogLevel("ERROR");
+
+        final Timestamp time = Timestamp.from(Instant.now());
+        this.values = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            final String host = "host-" + (i % 100);
+            values.add(new Object[] {
+                    time,
+                    "Oct 17 12:00:00 " + host + " sshd[" + i + "]: Accepted publickey for user" + (i % 1000)
+                            + " from 192.168.1." + (i % 255),
+                    "benchmark",
+                    "benchmark:sshd:" + (i % 10),
+                    host,
+                    "benchmark",
+                    "0",
+                    (long) i,
+                    "benchmark-origin"
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sparkSession.stop();
+    }
+
+    @Benchmark
+    public long pipeline() throws Exception {
+        final DPLParserCatalystContext ctx = new DPLParserCatalystContext(sparkSession, "benchmarkQuery");
+        ctx.setEarliest("-1Y");
+        ctx.setTestingMode(true);
+        ctx.setDs(new CustomDatasetImpl(schema, values, ctx).asStreamingDataset());
+
+        final DPLAuditInformation dai = new DPLAuditInformation();
+        dai.setQuery(query);
+        dai.setReason("benchmark");
+        dai.setUser("benchmark");
+        dai.setTeragrepAuditPluginClassName("benchmark");
+        ctx.setAuditInformation(dai);
+
+        final AtomicLong resultRows = new AtomicLong();
+        final DPLParserCatalystVisitor visitor = new DPLParserCatalystVisitor(ctx);
+        visitor.setConsumer((ds, aggregatesUsed) -> resultRows.addAndGet(ds.count()));
+
+        final DPLParser parser = new DPLParser(new CommonTokenStream(new DPLLexer(CharStreams.fromString(query))));
+        final ParseTree tree = parser.root();
+        final TranslationResultNode n = (TranslationResultNode) visitor.visit(tree);
+        final DataStreamWriter<Row> dsw = n.stepList.execute();
+
+        final StreamingQuery sq = dsw.start();
+        sq.processAllAvailable();
+        ctx.flush();
+        sq.stop();
+        return resultRows.get();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.steps.Projection;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.catalyst.plans.logical.LogicalPlan;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis time of rewriting every column of a dataset, with a withColumn call per column versus a single
+ * {@link Projection}. Only the plan is analyzed, no rows are processed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({
+            "10", "50", "100", "200"
+    })
+    public int columns;
+
+    private SparkSession sparkSession;
+    private Dataset<Row> dataset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.sparkSession = SparkSession
+                .builder()
+                .appName("pth_10 benchmark")
+                .master("local[*]")
+                .config("spark.sql.session.timeZone", "UTC")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .config("spark.ui.enabled", "false")
+                .getOrCreate();
+        sparkSession.sparkContext().setLogLevel("ERROR");
+
+        final StructField[] fields = new StructField[columns];
+        final Object[] values = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            fields[i] = DataTypes.createStructField("field" + i, DataTypes.StringType, true);
+            values[i] = "value" + i;
+        }
+        this.dataset = sparkSession
+                .createDataFrame(Collections.singletonList(RowFactory.create(values)), new StructType(fields));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sparkSession.stop();
+    }
+
+    @Benchmark
+    public LogicalPlan withColumnChain() {
+        Dataset<Row> ds = dataset;
+        for (final String column : dataset.columns()) {
+            ds = ds.withColumn(column, functions.upper(functions.col(column)));
+        }
+        return ds.queryExecution().analyzed();
+    }
+
+    @Benchmark
+    public LogicalPlan projection() {
+        final Projection projection = new Projection(dataset);
+        for (final String column : dataset.columns()) {
+            projection.withColumn(column, functions.upper(projection.column(column)));
+        }
+        return projection.build().queryExecution().analyzed();
+    }
+}
@@ -43,55 +43,41 @@
  * Teragrep, the applicable Commercial License may apply to this file if you as
  * a licensee so wish it.
  */
-package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.ast.commands.transformstatement.rex.RexExtractModeUDF;
+import org.openjdk.jmh.annotations.*;
 
-import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
- * An abstract class to base Map-based Aggregation buffers on
- * 
- * @author eemhu
- * @param <K> type of key in map
- * @param <V> type of value in map
+ * Microbenchmark for rex extraction of named groups from a short syslog line.
  */
-public abstract class MapBuffer<K, V> implements Serializable {
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RexExtractModeUDFBenchmark {
 
-    private static final long serialVersionUID = 1L;
-    protected Map<K, V> map;
+    private static final String INPUT = "Oct 17 12:00:00 host-01 sshd[1234]: Accepted publickey for user from 192.168.1.1";
 
-    // Required constructors & methods for Java Bean compliance
+    @Param({
+            "(?<host>host-\\d+)", "(?<host>host-\\d+) (?<process>\\w+)\\[(?<pid>\\d+)\\]: (?<message>.*)"
+    })
+    public String regex;
 
-    /**
-     * Initialize a map buffer
-     */
-    public MapBuffer() {
-        this.map = new HashMap<K, V>();
-    }
+    private RexExtractModeUDF rexExtractModeUDF;
 
-    /**
-     * Gets the internal map of the buffer
-     * 
-     * @return internal map
-     */
-    public Map<K, V> getMap() {
-        return this.map;
+    @Setup
+    public void setup() {
+        this.rexExtractModeUDF = new RexExtractModeUDF();
     }
 
-    /**
-     * Sets the internal map of the buffer
-     * 
-     * @param map new internal map
-     */
-    public void setMap(Map<K, V> map) {
-        this.map = map;
+    @Benchmark
+    public Map<String, String> extract() throws Exception {
+        return rexExtractModeUDF.call(INPUT, regex);
     }
-
-    /**
-     * Abstract method to merge internal map with another
-     * 
-     * @param another map to merge with
-     */
-    public abstract void mergeMap(Map<K, V> another);
 }
@@ -0,0 +1,147 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.ast.commands.logicalstatement.CaseInsensitiveContains;
+import com.teragrep.pth_10.ast.commands.logicalstatement.GlobColumn;
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the rlike forms previously generated for free-text search terms and field globs against the compiled
+ * contains and startsWith expressions. Each invocation filters {@link #ROWS} cached rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SearchTermBenchmark.ROWS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchTermBenchmark {
+
+    static final int ROWS = 200000;
+
+    @Param({
+            "publickey", "192.168.1.254"
+    })
+    public String term;
+
+    @Param({
+            "host-9*", "*-99"
+    })
+    public String glob;
+
+    private SparkSession sparkSession;
+    private Dataset<Row> dataset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.sparkSession = SparkSession
+                .builder()
+                .appName("pth_10 search term benchmark")
+                .master("local[*]")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .config("spark.ui.enabled", "false")
+                .getOrCreate();
+        sparkSession.sparkContext().setLogLevel("ERROR");
+
+        final List<Row> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            final String host = "host-" + (i % 100);
+            rows
+                    .add(RowFactory.create("Oct 17 12:00:00 " + host + " sshd[" + i + "]: Accepted PublicKey for user" + (i % 1000) + " from 192.168.1." + (i % 255), host));
+        }
+        final StructType schema = new StructType()
+                .add("_raw", DataTypes.StringType, false)
+                .add("host", DataTypes.StringType, false);
+        this.dataset = sparkSession.createDataFrame(rows, schema).cache();
+        dataset.count();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.unpersist();
+        sparkSession.stop();
+    }
+
+    @Benchmark
+    public long termRlike() {
+        return count(functions.col("_raw").rlike("(?i)^.*" + Pattern.quote(term) + ".*"));
+    }
+
+    @Benchmark
+    public long termCompiled() {
+        return count(new CaseInsensitiveContains(functions.col("_raw"), term).column());
+    }
+
+    @Benchmark
+    public long globRlike() {
+        return count(functions.col("host").rlike("(?i)^" + glob.replaceAll("\\*", ".*")));
+    }
+
+    @Benchmark
+    public long globCompiled() {
+        return count(new GlobColumn(functions.col("host"), glob).column());
+    }
+
+    private long count(final Column filter) {
+        return dataset.where(filter).count();
+    }
+}
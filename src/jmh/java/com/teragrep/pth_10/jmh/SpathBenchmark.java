@@ -0,0 +1,101 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.ast.NullValue;
+import com.teragrep.pth_10.ast.commands.evalstatement.UDFs.Spath;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark for spath auto-extraction and path extraction on JSON, XML and invalid input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpathBenchmark {
+
+    private static final String JSON = "{\"host\":\"host-01\",\"event\":{\"id\":123,\"severity\":\"info\",\"tags\":[\"a\",\"b\"]},\"message\":\"Accepted publickey\"}";
+    private static final String INVALID = "123.456;;;abcdQdsdfsdjf__invC<x;?1";
+    private static final String XML = "<event><host>host-01</host><detail><id>123</id><severity>info</severity></detail><message>Accepted publickey</message></event>";
+
+    private Spath spath;
+
+    @Setup
+    public void setup() {
+        this.spath = new Spath(new NullValue());
+    }
+
+    @Benchmark
+    public Map<String, String> jsonAutoExtraction() throws Exception {
+        return spath.call(JSON, null, "_raw", "_raw");
+    }
+
+    @Benchmark
+    public Map<String, String> jsonPath() throws Exception {
+        return spath.call(JSON, "event.severity", "_raw", "severity");
+    }
+
+    @Benchmark
+    public Map<String, String> xmlAutoExtraction() throws Exception {
+        return spath.call(XML, null, "_raw", "_raw");
+    }
+
+    @Benchmark
+    public Map<String, String> xmlPath() throws Exception {
+        return spath.call(XML, "event.detail.severity", "_raw", "severity");
+    }
+
+    @Benchmark
+    public Map<String, String> invalidPath() throws Exception {
+        return spath.call(INVALID, "event.severity", "_raw", "severity");
+    }
+}
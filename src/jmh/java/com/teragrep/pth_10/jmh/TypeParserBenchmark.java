@@ -0,0 +1,120 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.jmh;
+
+import com.teragrep.pth_10.steps.NumericScanner;
+import com.teragrep.pth_10.steps.ParsedResult;
+import com.teragrep.pth_10.steps.TypeParser;
+import org.openjdk.jmh.annotations.*;
+import scala.collection.mutable.WrappedArray;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark for TypeParser with the input types it encounters in the steps, and for the NumericScanner it uses to
+ * classify strings without allocating a ParsedResult.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeParserBenchmark {
+
+    private TypeParser typeParser;
+    private NumericScanner numericScanner;
+    private WrappedArray<String> wrappedArray;
+
+    @Setup
+    public void setup() {
+        this.typeParser = new TypeParser();
+        this.numericScanner = new NumericScanner();
+        this.wrappedArray = WrappedArray.make(new String[] {
+                "1", "2", "3"
+        });
+    }
+
+    @Benchmark
+    public ParsedResult longString() {
+        return typeParser.parse("1234567890");
+    }
+
+    @Benchmark
+    public ParsedResult doubleString() {
+        return typeParser.parse("12345.6789");
+    }
+
+    @Benchmark
+    public ParsedResult textString() {
+        return typeParser.parse("Oct 17 12:00:00 host-01 sshd[1234]: Accepted publickey for user");
+    }
+
+    @Benchmark
+    public ParsedResult longValue() {
+        return typeParser.parse(1234567890L);
+    }
+
+    @Benchmark
+    public ParsedResult wrappedArray() {
+        return typeParser.parse(wrappedArray);
+    }
+
+    @Benchmark
+    public ParsedResult.Type scanLongString() {
+        return numericScanner.scan("1234567890");
+    }
+
+    @Benchmark
+    public ParsedResult.Type scanDoubleString() {
+        return numericScanner.scan("12345.6789");
+    }
+
+    @Benchmark
+    public ParsedResult.Type scanTextString() {
+        return numericScanner.scan("Oct 17 12:00:00 host-01 sshd[1234]: Accepted publickey for user");
+    }
+}
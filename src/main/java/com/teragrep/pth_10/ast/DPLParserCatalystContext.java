@@ -56,6 +56,8 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -219,6 +221,138 @@ public class DPLParserCatalystContext implements Cloneable {
         }
     }
 
+    /**
+     * Whether aggregations like dc() and median() are computed exactly instead of with bounded memory sketches
+     * 
+     * @return true if <code>dpl.pth_10.aggregate.exact</code> is enabled, defaults to false
+     */
+    public boolean exactAggregation() {
+        if (config != null && config.hasPath("dpl.pth_10.aggregate.exact")) {
+            return config.getBoolean("dpl.pth_10.aggregate.exact");
+        }
+        else {
+            return false;
+        }
+    }
+
+    /**
+     * Eval arithmetic with numeric operands results in long and double columns instead of strings. The native
+     * arithmetic follows Spark semantics instead of the exact string arithmetic: long addition, subtraction and
+     * multiplication wrap around on overflow, and division or modulo by zero results in null instead of an error.
+     * Decimal operands keep the string arithmetic.
+     *
+     * @return <code>dpl.pth_10.eval.typedArithmetic</code>, defaults to false which keeps the string formatting
+     */
+    public boolean evalTypedArithmetic() {
+        if (config != null && config.hasPath("dpl.pth_10.eval.typedArithmetic")) {
+            return config.getBoolean("dpl.pth_10.eval.typedArithmetic");
+        }
+        else {
+            return false;
+        }
+    }
+
+    /**
+     * Maximum amount of subsearch result values used for filtering the main search, a subsearch returning more values
+     * fails the query instead of filtering with a part of them
+     *
+     * @return <code>dpl.pth_10.subsearch.maxTerms</code>, defaults to 0 which does not limit the terms
+     */
+    public int subsearchMaxTerms() {
+        if (config != null && config.hasPath("dpl.pth_10.subsearch.maxTerms")) {
+            return config.getInt("dpl.pth_10.subsearch.maxTerms");
+        }
+        else {
+            return 0;
+        }
+    }
+
+    /**
+     * Maximum amount of subsearch result rows kept in memory and broadcast instead of spilling them to disk
+     *
+     * @return <code>dpl.pth_10.subsearch.maxRowsInMemory</code>, defaults to 10000
+     */
+    public long subsearchMaxRowsInMemory() {
+        if (config != null && config.hasPath("dpl.pth_10.subsearch.maxRowsInMemory")) {
+            return config.getLong("dpl.pth_10.subsearch.maxRowsInMemory");
+        }
+        else {
+            return 10000L;
+        }
+    }
+
+    /**
+     * Maximum estimated size of subsearch results kept in memory and broadcast instead of spilling them to disk
+     *
+     * @return <code>dpl.pth_10.subsearch.maxBytesInMemory</code>, defaults to 10 MiB
+     */
+    public long subsearchMaxBytesInMemory() {
+        if (config != null && config.hasPath("dpl.pth_10.subsearch.maxBytesInMemory")) {
+            return config.getBytes("dpl.pth_10.subsearch.maxBytesInMemory");
+        }
+        else {
+            return 10L * 1024 * 1024;
+        }
+    }
+
+    /**
+     * Maximum amount of rows eventstats keeps in memory before spilling its input to disk
+     *
+     * @return <code>dpl.pth_10.eventstats.maxRowsInMemory</code>, defaults to 10000
+     */
+    public int eventstatsMaxRowsInMemory() {
+        if (config != null && config.hasPath("dpl.pth_10.eventstats.maxRowsInMemory")) {
+            return config.getInt("dpl.pth_10.eventstats.maxRowsInMemory");
+        }
+        else {
+            return 10000;
+        }
+    }
+
+    /**
+     * Maximum estimated size of the rows eventstats keeps in memory before spilling its input to disk
+     *
+     * @return <code>dpl.pth_10.eventstats.maxBytesInMemory</code>, defaults to 10 MiB
+     */
+    public long eventstatsMaxBytesInMemory() {
+        if (config != null && config.hasPath("dpl.pth_10.eventstats.maxBytesInMemory")) {
+            return config.getBytes("dpl.pth_10.eventstats.maxBytesInMemory");
+        }
+        else {
+            return 10L * 1024 * 1024;
+        }
+    }
+
+    /**
+     * Amount of rows sampled for discovering the fields of spath auto-extraction. Fields that only appear after the
+     * sample are not extracted, 0 discovers the fields from all rows at the cost of a full extra pass over the data.
+     *
+     * @return <code>dpl.pth_10.spath.sampleSize</code>, defaults to 1000
+     */
+    public int spathSampleSize() {
+        if (config != null && config.hasPath("dpl.pth_10.spath.sampleSize")) {
+            return config.getInt("dpl.pth_10.spath.sampleSize");
+        }
+        else {
+            return 1000;
+        }
+    }
+
+    /**
+     * Fields extracted by spath auto-extraction without discovering them from the data. Used as a fallback for the
+     * spath commands that are not given multiple paths, which select the fields of that command.
+     *
+     * @return <code>dpl.pth_10.spath.fields</code>, defaults to an empty list which discovers the fields from the data
+     */
+    public List<String> spathFields() {
+        if (config != null && config.hasPath("dpl.pth_10.spath.fields")) {
+            return config.getStringList("dpl.pth_10.spath.fields");
+        }
+        else {
+            return Collections.emptyList();
+        }
+    }
+
     private String baseUrl = null;
     private String paragraphUrl = null;
     private String notebookUrl = null;
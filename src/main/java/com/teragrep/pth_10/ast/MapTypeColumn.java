@@ -55,12 +55,16 @@ import org.apache.spark.sql.streaming.StreamingQueryException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a Column that is of MapType
  */
 public class MapTypeColumn {
 
+    private static final long SAMPLE_POLL_MILLIS = 100L;
+
     private Dataset<Row> dataset;
     private String columnName; // name of the column that is of MapType
     private DPLParserCatalystContext catCtx;
@@ -77,21 +81,40 @@ public class MapTypeColumn {
      * @return Keys as a Set of Strings
      */
     public Set<String> getKeys() throws StreamingQueryException {
+        return getKeys(0);
+    }
+
+    /**
+     * Extracts the keys from the Map of the column in the first rows of the dataset. Only the sampled rows need to be
+     * evaluated, instead of all the rows in an extra pass over the data.
+     * 
+     * @param sampleSize amount of rows to sample, all rows if not positive
+     * @return Keys as a Set of Strings
+     */
+    public Set<String> getKeys(final int sampleSize) throws StreamingQueryException {
+        final Dataset<Row> sample;
+        if (sampleSize > 0) {
+            sample = dataset.limit(sampleSize);
+        }
+        else {
+            sample = dataset;
+        }
+
         Set<String> keys;
-        if (dataset.isStreaming()) {
-            keys = this.getKeysParallel();
+        if (sample.isStreaming()) {
+            keys = this.getKeysParallel(sample, sampleSize);
         }
         else {
-            keys = this.getKeysSequential();
+            keys = this.getKeysSequential(sample);
         }
         return keys;
     }
 
     // Extract the keys from a non-streaming dataset
-    private Set<String> getKeysSequential() {
+    private Set<String> getKeysSequential(final Dataset<Row> sample) {
         final Set<String> keys = new HashSet<>();
 
-        dataset
+        sample
                 .select(functions.explode(functions.map_keys(functions.col(this.columnName))))
                 .collectAsList()
                 .forEach(r -> keys.add(r.getString(0)));
@@ -99,26 +122,48 @@ public class MapTypeColumn {
         return keys;
     }
 
-    // Extract the keys from a streaming dataset
-    private Set<String> getKeysParallel() throws StreamingQueryException {
+    // Extract the keys from a streaming dataset, stopping the query once sampleSize rows have been seen
+    private Set<String> getKeysParallel(final Dataset<Row> sample, final int sampleSize)
+            throws StreamingQueryException {
         // set of keys in map
         final Set<String> keys = new HashSet<>();
+        // amount of rows seen by the query, the limit alone does not end it before the source is exhausted
+        final AtomicLong sampledRows = new AtomicLong();
 
-        if (dataset.isStreaming()) { // parallel mode
+        if (sample.isStreaming()) { // parallel mode
             final String id = UUID.randomUUID().toString();
             final String name = "keys_" + id;
-            DataStreamWriter<Row> writer = dataset
-                    .select(functions.explode(functions.map_keys(functions.col(this.columnName))))
+            DataStreamWriter<Row> writer = sample
+                    .select(functions.map_keys(functions.col(this.columnName)))
                     .writeStream()
                     .foreachBatch((batchDs, batchId) -> {
                         // Get all the map's keys
                         // e.g. key->value; key2->value2 ==> key, key2
-                        batchDs.collectAsList().forEach(r -> keys.add(r.getString(0)));
+                        for (final Row r : batchDs.collectAsList()) {
+                            if (!r.isNullAt(0)) {
+                                keys.addAll(r.<String>getList(0));
+                            }
+                            sampledRows.incrementAndGet();
+                        }
                     });
 
             StreamingQuery sq = this.catCtx.getInternalStreamingQueryListener().registerQuery(name, writer);
-            sq.awaitTermination();
-
+            if (sampleSize > 0) {
+                // stopped from this thread, stopping from within foreachBatch would wait for its own thread
+                while (!sq.awaitTermination(SAMPLE_POLL_MILLIS)) {
+                    if (sampledRows.get() >= sampleSize) {
+                        try {
+                            sq.stop();
+                        }
+                        catch (final TimeoutException e) {
+                            throw new RuntimeException("Could not stop key discovery query: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+            else {
+                sq.awaitTermination();
+            }
         }
 
         return keys;
@@ -50,8 +50,6 @@ import com.teragrep.pth_10.ast.bo.ColumnNode;
 import com.teragrep.pth_10.ast.bo.Node;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.*;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.AggregatorMode.EarliestLatestAggregatorMode;
-import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex.FieldIndexImpl;
-import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex.FieldIndexStub;
 import com.teragrep.pth_10.ast.commands.aggregate.utils.PercentileApprox;
 import com.teragrep.pth_03.antlr.DPLLexer;
 import com.teragrep.pth_03.antlr.DPLParser;
@@ -59,14 +57,17 @@ import com.teragrep.pth_03.antlr.DPLParserBaseVisitor;
 import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.tree.ParseTree;
 import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.spark.sql.Column;
-import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.Encoders;
+import org.apache.spark.sql.expressions.Aggregator;
 import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Processes any aggregate functions used for example by the stats command. The aggregation function is returned as a
- * column, which will be applied to the desired dataset using the <code>Dataset.agg()</code> method.
+ * column, which will be applied to the desired dataset using the <code>Dataset.agg()</code> method. Custom aggregators
+ * are given only the columns they need as typed inputs, so the rest of the row is not deserialized for them.
  */
 public class AggregateFunction extends DPLParserBaseVisitor<Node> {
 
@@ -86,6 +87,25 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         return this.aggregateField;
     }
 
+    /** Applies the aggregator to the given field cast to string */
+    private <B, O> Column stringInput(final Aggregator<String, B, O> aggregator, final String field) {
+        return functions.udaf(aggregator, Encoders.STRING()).apply(functions.col(field).cast(DataTypes.StringType));
+    }
+
+    /**
+     * Applies the aggregator to the <code>_time</code> column and the given field. <code>_time</code> is given both as
+     * a timestamp and as a string, as it may be a string typed column.
+     */
+    private <O> Column timedInput(final EarliestLatestAggregator<O> aggregator, final String field) {
+        final Column time = functions.col("_time");
+        return functions
+                .udaf(aggregator, Encoders.tuple(Encoders.TIMESTAMP(), Encoders.STRING(), Encoders.STRING()))
+                .apply(
+                        time.cast(DataTypes.TimestampType), time.cast(DataTypes.StringType),
+                        functions.col(field).cast(DataTypes.StringType)
+                );
+    }
+
     /**
      * Visit aggregate function<br>
      * <code>func( arg )</code>
@@ -120,11 +140,12 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = "count";
 
         if (columnPt != null) {
-            col = new CountAggregator(columnPt.getText(), catCtx.nullValue).toColumn();
+            col = stringInput(new CountAggregator(catCtx.nullValue), columnPt.getText());
             resultColumnName = String.format("count(%s)", columnPt.getText());
         }
         else {
-            col = new CountAggregator(null, catCtx.nullValue).toColumn();
+            // count all rows
+            col = functions.udaf(new CountAggregator(catCtx.nullValue), Encoders.STRING()).apply(functions.lit("*"));
         }
 
         rv = new ColumnNode(col.as(resultColumnName));
@@ -150,12 +171,19 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         ParseTree columnPt = ctx.getChild(1);
         String resultColumnName = "sum";
 
+        // multi-value fields are joined, so each value gets summed
+        final String separator = "\n";
+        final SumAggregator sumAggregator = new SumAggregator(separator, catCtx.nullValue);
         if (columnPt != null) {
-            col = new SumAggregator(new FieldIndexImpl(columnPt.getText()), catCtx.nullValue).toColumn();
+            col = functions
+                    .udaf(sumAggregator, Encoders.STRING())
+                    .apply(functions.concat_ws(separator, functions.col(columnPt.getText())));
             resultColumnName = String.format("sum(%s)", columnPt.getText());
         }
         else {
-            col = new SumAggregator(new FieldIndexStub(), catCtx.nullValue).toColumn();
+            col = functions
+                    .udaf(sumAggregator, Encoders.STRING())
+                    .apply(functions.lit(null).cast(DataTypes.StringType));
         }
 
         rv = new ColumnNode(col.as(resultColumnName));
@@ -163,9 +191,10 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
     }
 
     /**
-     * -- Aggregate method: Median -- Uses the
-     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ExactPercentileAggregator} with
-     * <code>percentile = 0.5d</code> to calculate the median.
+     * -- Aggregate method: Median -- Uses the quantile sketch of Spark's <code>percentile_approx()</code> with
+     * <code>percentile = 0.5d</code> to calculate the median. In exact aggregation mode the
+     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ExactPercentileAggregator} is used instead, which keeps
+     * all values in memory.
      */
     public Node visitAggregateMethodMedian(DPLParser.AggregateMethodMedianContext ctx) {
         Node rv = aggregateMethodMedianEmitCatalyst(ctx);
@@ -182,8 +211,16 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         // Make sure the result column name matches the DPL command
         String resultColumnName = String.format("median(%s)", arg);
 
-        // use ExactPercentileAggregator as median is just percentile x=50
-        Column res = new ExactPercentileAggregator(arg, 0.5d).toColumn();
+        // median is just percentile x=50
+        Column res;
+        if (catCtx.exactAggregation()) {
+            res = functions
+                    .udaf(new ExactPercentileAggregator(0.5d), Encoders.DOUBLE())
+                    .apply(functions.col(arg).cast(DataTypes.DoubleType));
+        }
+        else {
+            res = new PercentileApprox().percentile_approx(functions.col(arg), functions.lit(0.5d));
+        }
 
         rv = new ColumnNode(res.as(resultColumnName));
         return rv;
@@ -191,7 +228,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
 
     /**
      * -- Aggregate method: EstimatedDistinctCount_error -- Uses the
-     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.UDAF_DistinctCount} with built-in spark functions
+     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.DistinctCountAggregator} with built-in spark functions
      * approx_count_distinct(), abs() and divide().
      * <pre>estdc_error = abs(estimate_distinct_count - real_distinct_count)/real_distinct_count</pre>
      */
@@ -217,14 +254,9 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         // Formula for calculating estdc_error:
         // estdc_error (rv) = absolute_value(estimate_distinct_count - real_distinct_count)/real_distinct_count
 
-        // Register UDAF
-        SparkSession ss = SparkSession.builder().getOrCreate();
-        ss.udf().register("UDAF_DistinctCount", new UDAF_DistinctCount());
-
         // Inside the parenthesis of absolute_value:
         Column estimate_distinct_count = functions.approx_count_distinct(arg);
-        Column real_distinct_count = functions.callUDF("UDAF_DistinctCount", functions.col(arg));
-        //Column real_distinct_count = new DistinctCountAggregator(arg).toColumn(); // use aggregator
+        Column real_distinct_count = stringInput(new DistinctCountAggregator(catCtx.nullValue), arg);
         Column estimate_minus_real = estimate_distinct_count.minus(real_distinct_count);
 
         // Calculating the absolute value:
@@ -256,7 +288,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("range(%s)", arg);
 
         // Range is max(arg) - min(arg)
-        Column rangeCol = new MinMaxAggregator(arg, AggregatorMode.MinMaxAggregatorMode.RANGE).toColumn();
+        Column rangeCol = stringInput(new MinMaxAggregator(AggregatorMode.MinMaxAggregatorMode.RANGE), arg);
 
         rv = new ColumnNode(rangeCol.as(resultColumnName));
 
@@ -291,8 +323,10 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
     }
 
     /**
-     * -- Aggregate method: DistinctCount -- Uses the
-     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.DistinctCountAggregator} to perform the aggregation.
+     * -- Aggregate method: DistinctCount -- Uses the HyperLogLog++ sketch of Spark's
+     * <code>approx_count_distinct()</code>. In exact aggregation mode the
+     * {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.DistinctCountAggregator} is used instead, which keeps all
+     * distinct values in memory.
      */
     public Node visitAggregateMethodDistinctCount(DPLParser.AggregateMethodDistinctCountContext ctx) {
         Node rv = aggregateMethodDistinctCountEmitCatalyst(ctx);
@@ -308,8 +342,13 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         // Make sure the result column name matches the DPL command
         String resultColumnName = String.format("dc(%s)", colName);
 
-        // Use aggregator
-        Column col = new DistinctCountAggregator(colName, catCtx.nullValue).toColumn();
+        Column col;
+        if (catCtx.exactAggregation()) {
+            col = stringInput(new DistinctCountAggregator(catCtx.nullValue), colName);
+        }
+        else {
+            col = functions.approx_count_distinct(colName);
+        }
 
         rv = new ColumnNode(col.as(resultColumnName));
 
@@ -358,7 +397,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String inputCol = ctx.getChild(1).getText();
         String resultColName = String.format("max(%s)", inputCol);
 
-        Column col = new MinMaxAggregator(inputCol, AggregatorMode.MinMaxAggregatorMode.MAX).toColumn();
+        Column col = stringInput(new MinMaxAggregator(AggregatorMode.MinMaxAggregatorMode.MAX), inputCol);
 
         rv = new ColumnNode(col.as(resultColName));
 
@@ -382,7 +421,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String inputCol = ctx.getChild(1).getText();
         String resultColName = String.format("min(%s)", inputCol);
 
-        Column col = new MinMaxAggregator(inputCol, AggregatorMode.MinMaxAggregatorMode.MIN).toColumn();
+        Column col = stringInput(new MinMaxAggregator(AggregatorMode.MinMaxAggregatorMode.MIN), inputCol);
 
         rv = new ColumnNode(col.as(resultColName));
 
@@ -515,7 +554,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("mode(%s)", arg);
 
         // Use ModeAggregator
-        Column col = new ModeAggregator(arg).toColumn();
+        Column col = stringInput(new ModeAggregator(), arg);
         rv = new ColumnNode(col.as(resultColumnName));
         return rv;
     }
@@ -571,7 +610,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("earliest(%s)", colName);
 
         // use aggregator
-        Column col = new EarliestLatestAggregator_String(colName, EarliestLatestAggregatorMode.EARLIEST).toColumn();
+        Column col = timedInput(new EarliestLatestAggregator_String(EarliestLatestAggregatorMode.EARLIEST), colName);
 
         return new ColumnNode(col.as(resultColumnName));
     }
@@ -595,10 +634,10 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String columnName = ctx.getChild(1).getText();
         String resultColumnName = String.format("earliest_time(%s)", columnName);
 
-        Column asUnixTime = new EarliestLatestAggregator_String(
-                columnName,
-                AggregatorMode.EarliestLatestAggregatorMode.EARLIEST_TIME
-        ).toColumn();
+        Column asUnixTime = timedInput(
+                new EarliestLatestAggregator_String(AggregatorMode.EarliestLatestAggregatorMode.EARLIEST_TIME),
+                columnName
+        );
 
         return new ColumnNode(asUnixTime.as(resultColumnName));
     }
@@ -622,8 +661,9 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("latest(%s)", colName);
 
         // use aggregator
-        Column col = new EarliestLatestAggregator_String(colName, AggregatorMode.EarliestLatestAggregatorMode.LATEST)
-                .toColumn();
+        Column col = timedInput(
+                new EarliestLatestAggregator_String(AggregatorMode.EarliestLatestAggregatorMode.LATEST), colName
+        );
 
         return new ColumnNode(col.as(resultColumnName));
     }
@@ -647,10 +687,10 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String colName = ctx.getChild(1).getText();
         String resultColumnName = String.format("latest_time(%s)", colName);
 
-        Column asUnixTime = new EarliestLatestAggregator_String(
-                colName,
-                AggregatorMode.EarliestLatestAggregatorMode.LATEST_TIME
-        ).toColumn();
+        Column asUnixTime = timedInput(
+                new EarliestLatestAggregator_String(AggregatorMode.EarliestLatestAggregatorMode.LATEST_TIME),
+                colName
+        );
         return new ColumnNode(asUnixTime.as(resultColumnName));
     }
 
@@ -677,7 +717,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("list(%s)", colName);
 
         // Use ValuesAggregator
-        Column col = new ValuesAggregator(colName, AggregatorMode.ValuesAggregatorMode.LIST).toColumn();
+        Column col = stringInput(new ValuesAggregator(AggregatorMode.ValuesAggregatorMode.LIST), colName);
 
         return new ColumnNode(col.as(resultColumnName));
     }
@@ -702,7 +742,7 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         String resultColumnName = String.format("values(%s)", colName);
 
         // Use ValuesAggregator to generate the column for given colName
-        Column col = new ValuesAggregator(colName, AggregatorMode.ValuesAggregatorMode.VALUES).toColumn();
+        Column col = stringInput(new ValuesAggregator(AggregatorMode.ValuesAggregatorMode.VALUES), colName);
         return new ColumnNode(col.as(resultColumnName));
 
     }
@@ -752,7 +792,9 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
                 break;
 
             case DPLLexer.METHOD_AGGREGATE_EXACTPERC_VARIABLE:
-                col = new ExactPercentileAggregator(colName, xThPercentileArg / 100).toColumn();
+                col = functions
+                        .udaf(new ExactPercentileAggregator(xThPercentileArg / 100), Encoders.DOUBLE())
+                        .apply(functions.col(colName).cast(DataTypes.DoubleType));
                 break;
 
             case DPLLexer.METHOD_AGGREGATE_UPPERPERC_VARIABLE:
@@ -786,8 +828,9 @@ public class AggregateFunction extends DPLParserBaseVisitor<Node> {
         // Make sure the result column name matches the DPL command
         String resultColumnName = String.format("rate(%s)", colName);
 
-        Column res = new EarliestLatestAggregator_Double(colName, AggregatorMode.EarliestLatestAggregatorMode.RATE)
-                .toColumn();
+        Column res = timedInput(
+                new EarliestLatestAggregator_Double(AggregatorMode.EarliestLatestAggregatorMode.RATE), colName
+        );
         return new ColumnNode(res.as(resultColumnName));
     }
 
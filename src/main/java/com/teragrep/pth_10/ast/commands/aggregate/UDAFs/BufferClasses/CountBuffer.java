@@ -46,16 +46,46 @@
 package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Java Bean compliant class to enclose the map with helper methods used in DistinctCountAggregator
+ * Java Bean compliant class to enclose the map with helper methods used in DistinctCountAggregator. Encoded with
+ * <code>Encoders.bean()</code> as a struct with a single map field.
  * 
  * @author eemhu
  */
-public class CountBuffer extends MapBuffer<String, Long> implements Serializable {
+public class CountBuffer implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    private Map<String, Long> map;
+
+    // Required constructors & methods for Java Bean compliance
+
+    /**
+     * Initialize an empty buffer
+     */
+    public CountBuffer() {
+        this.map = new HashMap<>();
+    }
+
+    /**
+     * Gets the internal map of the buffer
+     * 
+     * @return internal map
+     */
+    public Map<String, Long> getMap() {
+        return this.map;
+    }
+
+    /**
+     * Sets the internal map of the buffer. The map is copied, as the decoded map is not guaranteed to be mutable.
+     * 
+     * @param map new internal map
+     */
+    public void setMap(Map<String, Long> map) {
+        this.map = new HashMap<>(map);
+    }
 
     // Helper methods
 
@@ -81,13 +111,7 @@ public class CountBuffer extends MapBuffer<String, Long> implements Serializable
      * @param data string to add
      */
     public void add(String data) {
-        if (this.map.containsKey(data)) {
-            Long currentValue = this.map.get(data);
-            this.map.put(data, currentValue + 1L);
-        }
-        else {
-            this.map.put(data, 1L);
-        }
+        this.map.merge(data, 1L, Long::sum);
     }
 
     /**
@@ -47,12 +47,12 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
 
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.CurrentTimestamp;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.CurrentTimestampStub;
-import org.apache.spark.sql.Row;
 
 import java.io.Serializable;
 
 /**
- * Java Bean compliant class with helper methods used in EarliestLatestAggregator.java
+ * Buffer with helper methods used in EarliestLatestAggregator.java. Only the value of the aggregated field is kept
+ * instead of the whole input row, which keeps the buffer small when it is encoded between aggregation phases.
  * 
  * @author eemhu
  */
@@ -61,30 +61,23 @@ public final class EarliestLatestBuffer implements Serializable {
     private static final long serialVersionUID = 1L;
     private final CurrentTimestamp earliestTimestamp;
     private final CurrentTimestamp latestTimestamp;
-    private final Row earliestRow;
-    private final Row latestRow;
-    private final String colName;
-
-    public EarliestLatestBuffer(final String colName) {
-        this.colName = colName;
-        this.earliestTimestamp = new CurrentTimestampStub();
-        this.latestTimestamp = new CurrentTimestampStub();
-        this.earliestRow = Row.empty();
-        this.latestRow = Row.empty();
+    private final String earliestValue;
+    private final String latestValue;
+
+    public EarliestLatestBuffer() {
+        this(new CurrentTimestampStub(), new CurrentTimestampStub(), "", "");
     }
 
     public EarliestLatestBuffer(
-            final String colName,
             final CurrentTimestamp earliestTimestamp,
             final CurrentTimestamp latestTimestamp,
-            final Row earliestRow,
-            final Row latestRow
+            final String earliestValue,
+            final String latestValue
     ) {
-        this.colName = colName;
         this.earliestTimestamp = earliestTimestamp;
         this.latestTimestamp = latestTimestamp;
-        this.earliestRow = earliestRow;
-        this.latestRow = latestRow;
+        this.earliestValue = earliestValue;
+        this.latestValue = latestValue;
     }
 
     /**
@@ -93,10 +86,10 @@ public final class EarliestLatestBuffer implements Serializable {
      * @return field value as string
      */
     public String earliest() {
-        if (earliestRow.size() == 0) {
+        if (earliestTimestamp.isEmpty()) {
             return "";
         }
-        return earliestRow.get(earliestRow.fieldIndex(colName)).toString();
+        return earliestValue;
     }
 
     /**
@@ -105,10 +98,10 @@ public final class EarliestLatestBuffer implements Serializable {
      * @return field value as string
      */
     public String latest() {
-        if (latestRow.size() == 0) {
+        if (latestTimestamp.isEmpty()) {
             return "";
         }
-        return latestRow.get(latestRow.fieldIndex(colName)).toString();
+        return latestValue;
     }
 
     /**
@@ -169,12 +162,12 @@ public final class EarliestLatestBuffer implements Serializable {
         return rate;
     }
 
-    public Row earliestRow() {
-        return earliestRow;
+    public String earliestValue() {
+        return earliestValue;
     }
 
-    public Row latestRow() {
-        return latestRow;
+    public String latestValue() {
+        return latestValue;
     }
 
     public CurrentTimestamp earliestTimestamp() {
@@ -184,8 +177,4 @@ public final class EarliestLatestBuffer implements Serializable {
     public CurrentTimestamp latestTimestamp() {
         return latestTimestamp;
     }
-
-    public String colName() {
-        return colName;
-    }
 }
@@ -48,15 +48,42 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
 import com.teragrep.pth_10.ast.NullValue;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Buffer used by the {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ModeAggregator#ModeAggregator(String)
- * ModeAggregator}
+ * ModeAggregator}. Java Bean compliant, encoded with <code>Encoders.bean()</code>.
  */
-public class ModeBuffer extends MapBuffer<String, Long> implements Serializable {
+public class ModeBuffer implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    private Map<String, Long> map;
+
+    /**
+     * Initialize an empty buffer
+     */
+    public ModeBuffer() {
+        this.map = new HashMap<>();
+    }
+
+    /**
+     * Gets the internal map of the buffer
+     * 
+     * @return internal map
+     */
+    public Map<String, Long> getMap() {
+        return this.map;
+    }
+
+    /**
+     * Sets the internal map of the buffer. The map is copied, as the decoded map is not guaranteed to be mutable.
+     * 
+     * @param map new internal map
+     */
+    public void setMap(Map<String, Long> map) {
+        this.map = new HashMap<>(map);
+    }
 
     /**
      * Adds a key with currentValue + 1 if it was already in the map, otherwise 1.
@@ -64,13 +91,7 @@ public class ModeBuffer extends MapBuffer<String, Long> implements Serializable
      * @param key Key to add
      */
     public void add(String key) {
-        if (this.map.containsKey(key)) {
-            Long currentValue = this.map.get(key);
-            this.map.put(key, currentValue + 1L);
-        }
-        else {
-            this.map.put(key, 1L);
-        }
+        this.map.merge(key, 1L, Long::sum);
     }
 
     /**
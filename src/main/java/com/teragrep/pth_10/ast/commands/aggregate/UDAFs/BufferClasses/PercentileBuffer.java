@@ -46,23 +46,25 @@
 package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Buffer used for {@link com.teragrep.pth_10.ast.commands.aggregate.UDAFs.ExactPercentileAggregator
- * ExactPercentileAggregator}
+ * ExactPercentileAggregator}. Java Bean compliant, encoded with <code>Encoders.bean()</code>.
  */
-public class PercentileBuffer extends ListBuffer<Double> implements Serializable {
+public class PercentileBuffer implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    private List<Double> list;
     private double percentile = 0.5d;
 
     /**
      * Initialize the buffer with default <code>percentile = 0.5d</code>
      */
     public PercentileBuffer() {
-        super();
+        this.list = new ArrayList<>();
     }
 
     /**
@@ -71,10 +73,28 @@ public class PercentileBuffer extends ListBuffer<Double> implements Serializable
      * @param percentile values 0.0 - 1.0 (0 - 100%)
      */
     public PercentileBuffer(double percentile) {
-        super();
+        this.list = new ArrayList<>();
         this.percentile = percentile;
     }
 
+    /**
+     * Gets the internal list from the buffer
+     * 
+     * @return list of values
+     */
+    public List<Double> getList() {
+        return this.list;
+    }
+
+    /**
+     * Sets the internal list of the buffer. The list is copied, as the decoded list is not guaranteed to be mutable.
+     * 
+     * @param list to set it to
+     */
+    public void setList(List<Double> list) {
+        this.list = new ArrayList<>(list);
+    }
+
     public double getPercentile() {
         return this.percentile;
     }
@@ -46,17 +46,56 @@
 package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Java Bean compliant class to enclose the array with helper methods Used as a buffer for ValuesAggregator
+ * Java Bean compliant class to enclose the array with helper methods Used as a buffer for ValuesAggregator. Encoded
+ * with <code>Encoders.bean()</code> as a struct with a single array field.
  * 
  * @author eemhu
  */
-public class ValuesBuffer extends ListBuffer<String> implements Serializable {
+public class ValuesBuffer implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    private List<String> list;
+
+    // Required constructors & methods for Java Bean compliance
+
+    /**
+     * Initialize an empty buffer
+     */
+    public ValuesBuffer() {
+        this.list = new ArrayList<>();
+    }
+
+    /**
+     * Gets the internal list from the buffer
+     * 
+     * @return list of strings
+     */
+    public List<String> getList() {
+        return this.list;
+    }
+
+    /**
+     * Sets the internal list of the buffer. The list is copied, as the decoded list is not guaranteed to be mutable.
+     * 
+     * @param list to set it to
+     */
+    public void setList(List<String> list) {
+        this.list = new ArrayList<>(list);
+    }
+
+    /**
+     * Gets the size of the internal list
+     * 
+     * @return size of the list as an integer
+     */
+    public int size() {
+        return this.list.size();
+    }
 
     // Helper methods
 
@@ -92,7 +131,7 @@ public class ValuesBuffer extends ListBuffer<String> implements Serializable {
      */
     public String toString() {
         String rv = "";
-        int len = this.getSize();
+        int len = this.size();
 
         for (int i = 0; i < len; ++i) {
             rv = rv.concat(this.list.get(i));
@@ -48,16 +48,17 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.NullValue;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 
-public class CountAggregator extends Aggregator<Row, Long, Long> {
+/**
+ * Aggregator for command count(). Counts the input values, which are the source field cast to string, that are not the
+ * null value.
+ */
+public class CountAggregator extends Aggregator<String, Long, Long> {
 
-    private final String colName;
     private final NullValue nullValue;
 
-    public CountAggregator(String colName, NullValue nullValue) {
-        this.colName = colName;
+    public CountAggregator(NullValue nullValue) {
         this.nullValue = nullValue;
     }
 
@@ -67,16 +68,8 @@ public class CountAggregator extends Aggregator<Row, Long, Long> {
     }
 
     @Override
-    public Long reduce(Long current, Row input) {
-        Object o;
-        if (this.colName != null) {
-            o = input.get(input.fieldIndex(this.colName));
-        }
-        else {
-            o = input.get(0);
-        }
-
-        if (o != nullValue.value()) {
+    public Long reduce(Long current, String input) {
+        if (input != nullValue.value()) {
             current++;
         }
         return current;
@@ -49,38 +49,34 @@ import com.teragrep.pth_10.ast.NullValue;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.CountBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 
 import java.io.Serializable;
 
 /**
- * Aggregator for command dc() Aggregator types: IN=Row, BUF=CountBuffer, OUT=String Serializable
+ * Aggregator for command dc() Aggregator types: IN=String, BUF=CountBuffer, OUT=String Serializable
  * 
  * @author eemhu
  */
-public class DistinctCountAggregator extends Aggregator<Row, CountBuffer, Integer> implements Serializable {
+public class DistinctCountAggregator extends Aggregator<String, CountBuffer, Integer> implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private final String colName;
     private final NullValue nullValue;
 
     /**
-     * Constructor used to feed in the column name
+     * Constructor used to feed in the null value, the source field is given as the single input column
      * 
-     * @param colName Column name for source field
+     * @param nullValue null value used to skip empty input
      */
-    public DistinctCountAggregator(String colName, NullValue nullValue) {
+    public DistinctCountAggregator(NullValue nullValue) {
         super();
-        this.colName = colName;
         this.nullValue = nullValue;
     }
 
-    /** Encoder for the buffer (class: Values) */
+    /** Encoder for the buffer (class: CountBuffer), encoded as a struct with a map field */
     @Override
     public Encoder<CountBuffer> bufferEncoder() {
-        // TODO using kryo should speed this up
-        return Encoders.javaSerialization(CountBuffer.class);
+        return Encoders.bean(CountBuffer.class);
     }
 
     /** Encoder for the output (String of all the values in column, lexicographically sorted) */
@@ -110,10 +106,9 @@ public class DistinctCountAggregator extends Aggregator<Row, CountBuffer, Intege
 
     /** Update array with new input value */
     @Override
-    public CountBuffer reduce(CountBuffer buffer, Row input) {
-        Object inputObject = input.getAs(colName);
-        if (inputObject != nullValue.value()) {
-            buffer.add(inputObject.toString());
+    public CountBuffer reduce(CountBuffer buffer, String input) {
+        if (input != null && input != nullValue.value()) {
+            buffer.add(input);
         }
         return buffer;
     }
@@ -48,8 +48,8 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.EarliestLatestBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
+import scala.Tuple3;
 
 import java.io.Serializable;
 import java.sql.Timestamp;
@@ -60,32 +60,28 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
- * Aggregator for commands earliest() and latest() Aggregator types: IN=Row, BUF=TimestampMapBuffer, OUT=String
- * Serializable
+ * Aggregator for commands earliest() and latest() Aggregator types: IN=(_time as timestamp, _time as string, field
+ * value as string), BUF=EarliestLatestBuffer, OUT=String Serializable
  * 
  * @author eemhu
  */
-public abstract class EarliestLatestAggregator<OUT> extends Aggregator<Row, EarliestLatestBuffer, OUT>
+public abstract class EarliestLatestAggregator<OUT>
+        extends Aggregator<Tuple3<Timestamp, String, String>, EarliestLatestBuffer, OUT>
         implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private final String colName;
 
     /**
-     * Constructor used to feed in the column name
-     * 
-     * @param colName column name for source field
+     * Constructor, the source field is given as the input columns
      */
-    public EarliestLatestAggregator(String colName) {
+    public EarliestLatestAggregator() {
         super();
-        this.colName = colName;
     }
 
-    /** Encoder for the buffer (class: EarliestLatestBuffer) */
+    /** Encoder for the buffer (class: EarliestLatestBuffer), immutable buffer without bean accessors uses kryo */
     @Override
     public Encoder<EarliestLatestBuffer> bufferEncoder() {
-        // TODO using kryo should speed this up
-        return Encoders.javaSerialization(EarliestLatestBuffer.class);
+        return Encoders.kryo(EarliestLatestBuffer.class);
     }
 
     /** Abstract implementation for output encoder */
@@ -95,7 +91,7 @@ public abstract class EarliestLatestAggregator<OUT> extends Aggregator<Row, Earl
     /** Initialization */
     @Override
     public EarliestLatestBuffer zero() {
-        return new EarliestLatestBuffer(colName);
+        return new EarliestLatestBuffer();
     }
 
     /** Perform at the end of the aggregation */
@@ -107,61 +103,61 @@ public abstract class EarliestLatestAggregator<OUT> extends Aggregator<Row, Earl
     public EarliestLatestBuffer merge(EarliestLatestBuffer buffer, EarliestLatestBuffer buffer2) {
         CurrentTimestamp newEarliest = buffer.earliestTimestamp();
         CurrentTimestamp newLatest = buffer.latestTimestamp();
-        Row newEarliestRow = buffer.earliestRow();
-        Row newLatestRow = buffer.latestRow();
+        String newEarliestValue = buffer.earliestValue();
+        String newLatestValue = buffer.latestValue();
 
         if (buffer.earliestTimestamp().isEmpty()) {
             newEarliest = buffer2.earliestTimestamp();
-            newEarliestRow = buffer2.earliestRow();
+            newEarliestValue = buffer2.earliestValue();
         }
 
         if (buffer.latestTimestamp().isEmpty()) {
             newLatest = buffer2.latestTimestamp();
-            newLatestRow = buffer2.latestRow();
+            newLatestValue = buffer2.latestValue();
         }
 
         if (!buffer2.earliestTimestamp().isEmpty() && buffer2.earliestTimestamp().isBefore(newEarliest)) {
             newEarliest = buffer2.earliestTimestamp();
-            newEarliestRow = buffer2.earliestRow();
+            newEarliestValue = buffer2.earliestValue();
         }
 
         if (!buffer2.latestTimestamp().isEmpty() && buffer2.latestTimestamp().isAfter(newLatest)) {
             newLatest = buffer2.latestTimestamp();
-            newLatestRow = buffer2.latestRow();
+            newLatestValue = buffer2.latestValue();
         }
 
-        return new EarliestLatestBuffer(colName, newEarliest, newLatest, newEarliestRow, newLatestRow);
+        return new EarliestLatestBuffer(newEarliest, newLatest, newEarliestValue, newLatestValue);
     }
 
     /** Gets the timestamp column as a timestamp, even if it is a string instead of the proper TimestampType */
-    private Timestamp getColumnAsTimestamp(Row input) {
-        Timestamp rv;
-        try {
-            rv = input.getAs("_time");
-        }
-        catch (ClassCastException cce) {
+    private Timestamp getColumnAsTimestamp(Timestamp time, String timeString) {
+        Timestamp rv = time;
+        // TimestampType cast to string has no 'T' separator, only ISO strings are parsed
+        if (timeString != null && timeString.indexOf('T') >= 0) {
             // This should really never be needed, but it seems like the test reads timestamp in as a stringtype
             // rather than a timestamp
-            String temp = input.getAs("_time").toString();
-
             DateTimeFormatter formatter = DateTimeFormatter.ISO_ZONED_DATE_TIME;
-            ZonedDateTime zonedDateTime = LocalDateTime.from(formatter.parse(temp)).atZone(ZoneId.of("UTC"));
+            ZonedDateTime zonedDateTime = LocalDateTime.from(formatter.parse(timeString)).atZone(ZoneId.of("UTC"));
             rv = Timestamp.from(Instant.ofEpochSecond(zonedDateTime.toEpochSecond()));
         }
 
         return rv;
     }
 
-    /** Update TimestampMapBuffer with new value */
+    /** Update EarliestLatestBuffer with new value */
     @Override
-    public EarliestLatestBuffer reduce(EarliestLatestBuffer buffer, Row input) {
-        Timestamp time = getColumnAsTimestamp(input);
+    public EarliestLatestBuffer reduce(EarliestLatestBuffer buffer, Tuple3<Timestamp, String, String> input) {
+        Timestamp time = getColumnAsTimestamp(input._1(), input._2());
+        String value = input._3();
+        if (time == null || value == null) {
+            return buffer;
+        }
+
         EarliestLatestBuffer newBuffer = new EarliestLatestBuffer(
-                colName,
                 new CurrentTimestampImpl(time),
                 new CurrentTimestampImpl(time),
-                input,
-                input
+                value,
+                value
         );
 
         return merge(buffer, newBuffer);
@@ -60,13 +60,12 @@ public class EarliestLatestAggregator_Double extends EarliestLatestAggregator<Do
     private static final long serialVersionUID = 1L;
 
     /**
-     * Initialize with column and mode
+     * Initialize with mode
      * 
-     * @param colName column name
-     * @param mode    aggregator mode
+     * @param mode aggregator mode
      */
-    public EarliestLatestAggregator_Double(java.lang.String colName, AggregatorMode.EarliestLatestAggregatorMode mode) {
-        super(colName);
+    public EarliestLatestAggregator_Double(AggregatorMode.EarliestLatestAggregatorMode mode) {
+        super();
         this.mode = mode;
     }
 
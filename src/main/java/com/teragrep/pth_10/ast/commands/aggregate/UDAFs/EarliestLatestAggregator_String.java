@@ -60,13 +60,12 @@ public final class EarliestLatestAggregator_String extends EarliestLatestAggrega
     private static final long serialVersionUID = 1L;
 
     /**
-     * Initialize with column name and mode
+     * Initialize with mode
      * 
-     * @param colName column name
-     * @param mode    aggregator mode
+     * @param mode aggregator mode
      */
-    public EarliestLatestAggregator_String(String colName, AggregatorMode.EarliestLatestAggregatorMode mode) {
-        super(colName);
+    public EarliestLatestAggregator_String(AggregatorMode.EarliestLatestAggregatorMode mode) {
+        super();
         this.mode = mode;
     }
 
@@ -48,7 +48,6 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.PercentileBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 
 import java.io.Serializable;
@@ -56,20 +55,18 @@ import java.io.Serializable;
 /**
  * Aggregator used for exactperc() and median()
  */
-public class ExactPercentileAggregator extends Aggregator<Row, PercentileBuffer, Double> implements Serializable {
+public class ExactPercentileAggregator extends Aggregator<Double, PercentileBuffer, Double> implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private String colName = null;
     private double percentile = 0.5d;
 
     /**
-     * Calculates the exact percentile using the Nearest Rank algorithm
+     * Calculates the exact percentile using the Nearest Rank algorithm. The source column is given as the single input
+     * column, cast to double.
      * 
-     * @param colName    Source column name on dataframe
      * @param percentile 0.0d-1.0d percentile to calculate
      */
-    public ExactPercentileAggregator(String colName, double percentile) {
-        this.colName = colName;
+    public ExactPercentileAggregator(double percentile) {
         this.percentile = percentile;
     }
 
@@ -80,8 +77,7 @@ public class ExactPercentileAggregator extends Aggregator<Row, PercentileBuffer,
      */
     @Override
     public Encoder<PercentileBuffer> bufferEncoder() {
-        // TODO using kryo should speed this up
-        return Encoders.javaSerialization(PercentileBuffer.class);
+        return Encoders.bean(PercentileBuffer.class);
     }
 
     /**
@@ -123,31 +119,15 @@ public class ExactPercentileAggregator extends Aggregator<Row, PercentileBuffer,
      * Add new data to buffer
      * 
      * @param buffer Buffer
-     * @param input  input row
+     * @param input  input value
      * @return Buffer with input row added
      */
     @Override
-    public PercentileBuffer reduce(PercentileBuffer buffer, Row input) {
-        Object inputValue = input.getAs(colName);
-        Double value = null;
-
-        if (inputValue instanceof Long) {
-            value = ((Long) inputValue).doubleValue();
-        }
-        else if (inputValue instanceof Integer) {
-            value = ((Integer) inputValue).doubleValue();
-        }
-        else if (inputValue instanceof Float) {
-            value = ((Float) inputValue).doubleValue();
+    public PercentileBuffer reduce(PercentileBuffer buffer, Double input) {
+        // null for missing and non-numeric values
+        if (input != null) {
+            buffer.add(input);
         }
-        else if (inputValue instanceof Double) {
-            value = ((Double) inputValue);
-        }
-        else if (inputValue instanceof String) {
-            value = Double.valueOf((String) inputValue);
-        }
-
-        buffer.add(value);
         return buffer;
     }
 
@@ -48,7 +48,6 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.MinMaxBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 import org.apache.spark.sql.types.DataTypes;
 
@@ -57,21 +56,18 @@ import java.io.Serializable;
 /**
  * Aggregator used for commands min(), max() and range()
  */
-public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> implements Serializable {
+public class MinMaxAggregator extends Aggregator<String, MinMaxBuffer, String> implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private final String colName;
     private final AggregatorMode.MinMaxAggregatorMode mode;
 
     /**
-     * Constructor for MinMaxAggregator, where the column name of the target column and the aggregator mode must be
-     * specified.
+     * Constructor for MinMaxAggregator, where the aggregator mode must be specified. The target column is given as the
+     * single input column, cast to string.
      * 
-     * @param colName target column name
-     * @param mode    MinMaxAggregator mode
+     * @param mode MinMaxAggregator mode
      */
-    public MinMaxAggregator(String colName, AggregatorMode.MinMaxAggregatorMode mode) {
-        this.colName = colName;
+    public MinMaxAggregator(AggregatorMode.MinMaxAggregatorMode mode) {
         this.mode = mode;
     }
 
@@ -89,48 +85,30 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
      * Reduce the buffer, aka add more data to it.
      * 
      * @param minMaxBuffer Buffer
-     * @param input        Row of input
+     * @param input        input value, numeric columns arrive in their string form
      * @return Buffer with input added
      */
     @Override
-    public MinMaxBuffer reduce(MinMaxBuffer minMaxBuffer, Row input) {
-        Object inputValue = input.getAs(colName);
-
-        if (inputValue instanceof Long) {
-            minMaxBuffer.addNumber(((Long) inputValue).doubleValue());
-        }
-        else if (inputValue instanceof Double) {
-            minMaxBuffer.addNumber(((Double) inputValue));
-            minMaxBuffer.setOutputFormatType(DataTypes.DoubleType.typeName()); // set to double
-        }
-        else if (inputValue instanceof Float) {
-            minMaxBuffer.addNumber(((Float) inputValue).doubleValue());
-            minMaxBuffer.setOutputFormatType(DataTypes.DoubleType.typeName()); // set to double
+    public MinMaxBuffer reduce(MinMaxBuffer minMaxBuffer, String input) {
+        if (input == null) {
+            return minMaxBuffer;
         }
-        else if (inputValue instanceof Integer) {
-            minMaxBuffer.addNumber(((Integer) inputValue).doubleValue());
+
+        try { // try parsing in into a long, integral values keep their integral formatting
+            long parsed = Long.parseLong(input);
+            minMaxBuffer.addNumber(parsed);
         }
-        // If input is a string...
-        else if (inputValue instanceof String) {
-            try { // try parsing in into an integer
-                int parsed = Integer.parseInt((String) inputValue);
+        catch (NumberFormatException nfe) {
+            try { // if it fails, try double
+                Double parsed = Double.valueOf(input);
                 minMaxBuffer.addNumber(parsed);
+                minMaxBuffer.setOutputFormatType(DataTypes.DoubleType.typeName()); // set to double
             }
-            catch (NumberFormatException nfe) {
-                try { // if it fails, try double
-                    Double parsed = Double.valueOf((String) inputValue);
-                    minMaxBuffer.addNumber(parsed);
-                    minMaxBuffer.setOutputFormatType(DataTypes.DoubleType.typeName()); // set to double
-                }
-                catch (NumberFormatException nfe2) {
-                    // if that fails, add to string list
-                    minMaxBuffer.addString((String) inputValue);
-                }
+            catch (NumberFormatException nfe2) {
+                // if that fails, add to string list
+                minMaxBuffer.addString(input);
             }
         }
-        else {
-            throw new RuntimeException("MinMaxAggregator: Unknown type for input: " + inputValue.toString());
-        }
 
         return minMaxBuffer;
     }
@@ -144,11 +122,20 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
      */
     @Override
     public MinMaxBuffer merge(MinMaxBuffer buf1, MinMaxBuffer buf2) {
-        buf1.addNumber(buf2.getMinNumber());
-        buf1.addNumber(buf2.getMaxNumber());
+        // a buffer of a partition without numbers or strings has null min and max
+        if (buf2.getMinNumber() != null) {
+            buf1.addNumber(buf2.getMinNumber());
+        }
+        if (buf2.getMaxNumber() != null) {
+            buf1.addNumber(buf2.getMaxNumber());
+        }
 
-        buf1.addString(buf2.getMinString());
-        buf1.addString(buf2.getMaxString());
+        if (buf2.getMinString() != null) {
+            buf1.addString(buf2.getMinString());
+        }
+        if (buf2.getMaxString() != null) {
+            buf1.addString(buf2.getMaxString());
+        }
 
         buf1.setOutputFormatType(buf2.getOutputFormatType()); // merge output format too
 
@@ -171,7 +158,7 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
                 return minMaxBuffer.getMaxNumber().toString();
             }
             else {
-                return String.valueOf(minMaxBuffer.getMaxNumber().intValue());
+                return String.valueOf(minMaxBuffer.getMaxNumber().longValue());
             }
         }
         else if (this.mode == AggregatorMode.MinMaxAggregatorMode.MIN) {
@@ -182,7 +169,7 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
                 return minMaxBuffer.getMinNumber().toString();
             }
             else {
-                return String.valueOf(minMaxBuffer.getMinNumber().intValue());
+                return String.valueOf(minMaxBuffer.getMinNumber().longValue());
             }
         }
         else if (this.mode == AggregatorMode.MinMaxAggregatorMode.RANGE) {
@@ -197,7 +184,7 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
             }
             else {
                 Double range = minMaxBuffer.getMaxNumber() - minMaxBuffer.getMinNumber();
-                return String.valueOf(range.intValue());
+                return String.valueOf(range.longValue());
             }
         }
         throw new IllegalArgumentException("MinMaxAggregator: Invalid aggregator mode: " + this.mode);
@@ -210,8 +197,7 @@ public class MinMaxAggregator extends Aggregator<Row, MinMaxBuffer, String> impl
      */
     @Override
     public Encoder<MinMaxBuffer> bufferEncoder() {
-        // TODO kryo should speed this up
-        return Encoders.javaSerialization(MinMaxBuffer.class);
+        return Encoders.bean(MinMaxBuffer.class);
     }
 
     /**
@@ -48,7 +48,6 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.ModeBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 
 import java.io.Serializable;
@@ -56,18 +55,15 @@ import java.io.Serializable;
 /**
  * Aggregator used for the command mode()
  */
-public class ModeAggregator extends Aggregator<Row, ModeBuffer, String> implements Serializable {
+public class ModeAggregator extends Aggregator<String, ModeBuffer, String> implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private String colName = null;
 
     /**
-     * Initialize with the column name
-     * 
-     * @param colName name of the target column
+     * Initialize the aggregator, the target column is given as the single input column
      */
-    public ModeAggregator(String colName) {
-        this.colName = colName;
+    public ModeAggregator() {
+        super();
     }
 
     /**
@@ -77,8 +73,7 @@ public class ModeAggregator extends Aggregator<Row, ModeBuffer, String> implemen
      */
     @Override
     public Encoder<ModeBuffer> bufferEncoder() {
-        // TODO kryo should speed this up
-        return Encoders.javaSerialization(ModeBuffer.class);
+        return Encoders.bean(ModeBuffer.class);
     }
 
     /**
@@ -119,13 +114,14 @@ public class ModeAggregator extends Aggregator<Row, ModeBuffer, String> implemen
      * Add new data to the buffer
      * 
      * @param buffer target buffer
-     * @param input  input row
+     * @param input  input value
      * @return resulting buffer
      */
     @Override
-    public ModeBuffer reduce(ModeBuffer buffer, Row input) {
-        String inputValue = input.getAs(colName).toString();
-        buffer.add(inputValue);
+    public ModeBuffer reduce(ModeBuffer buffer, String input) {
+        if (input != null) {
+            buffer.add(input);
+        }
 
         return buffer;
     }
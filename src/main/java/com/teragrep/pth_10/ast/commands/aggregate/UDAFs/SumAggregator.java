@@ -47,21 +47,25 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 
 import com.teragrep.pth_10.ast.NullValue;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.SumBuffer;
-import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex.FieldIndex;
 import com.teragrep.pth_10.steps.ParsedResult;
 import com.teragrep.pth_10.steps.TypeParser;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 
-public class SumAggregator extends Aggregator<Row, SumBuffer, String> {
+import java.util.regex.Pattern;
 
-    private final FieldIndex fieldIndex;
+/**
+ * Aggregator for command sum(). The input is the field value as a string, where the values of a multi-value field are
+ * joined with the given separator.
+ */
+public class SumAggregator extends Aggregator<String, SumBuffer, String> {
+
+    private final Pattern separator;
     private final NullValue nullValue;
 
-    public SumAggregator(FieldIndex fieldIndex, NullValue nullValue) {
-        this.fieldIndex = fieldIndex;
+    public SumAggregator(String separator, NullValue nullValue) {
+        this.separator = Pattern.compile(Pattern.quote(separator));
         this.nullValue = nullValue;
     }
 
@@ -71,12 +75,12 @@ public class SumAggregator extends Aggregator<Row, SumBuffer, String> {
     }
 
     @Override
-    public SumBuffer reduce(SumBuffer current, Row input) {
-        final Object inputObj = input.get(fieldIndex.fieldIndex(input));
-
+    public SumBuffer reduce(SumBuffer current, String input) {
         // ignore nulls
-        if (inputObj != nullValue.value()) {
-            current = getAllNumbersFromInput(current, inputObj);
+        if (input != null && input != nullValue.value()) {
+            for (final String value : separator.split(input)) {
+                current = getAllNumbersFromInput(current, value);
+            }
         }
 
         return current;
@@ -94,7 +98,8 @@ public class SumAggregator extends Aggregator<Row, SumBuffer, String> {
 
     @Override
     public Encoder<SumBuffer> bufferEncoder() {
-        return Encoders.javaSerialization(SumBuffer.class);
+        // buffer has no bean accessors, use compact kryo serialization
+        return Encoders.kryo(SumBuffer.class);
     }
 
     @Override
@@ -103,12 +108,12 @@ public class SumAggregator extends Aggregator<Row, SumBuffer, String> {
         return Encoders.STRING();
     }
 
-    private SumBuffer getAllNumbersFromInput(SumBuffer currentSum, Object inputNumber) {
-        // parse object
+    private SumBuffer getAllNumbersFromInput(SumBuffer currentSum, String inputNumber) {
+        // parse string
         TypeParser tp = new TypeParser();
         ParsedResult parsedInputNumber = tp.parse(inputNumber);
 
-        // Skip strings, go through lists
+        // Skip strings
         switch (parsedInputNumber.getType()) {
             case DOUBLE: {
                 currentSum.addNumberToSum(parsedInputNumber.getDouble());
@@ -118,13 +123,6 @@ public class SumAggregator extends Aggregator<Row, SumBuffer, String> {
                 currentSum.addNumberToSum(parsedInputNumber.getLong());
                 break;
             }
-            case LIST: {
-                // go through the list item-by-item
-                for (Object item : parsedInputNumber.getList()) {
-                    currentSum = getAllNumbersFromInput(currentSum, item);
-                }
-                break;
-            }
         }
 
         return currentSum;
@@ -48,7 +48,6 @@ package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
 import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.ValuesBuffer;
 import org.apache.spark.sql.Encoder;
 import org.apache.spark.sql.Encoders;
-import org.apache.spark.sql.Row;
 import org.apache.spark.sql.expressions.Aggregator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,11 +56,11 @@ import java.io.Serializable;
 import java.util.stream.Collectors;
 
 /**
- * Aggregator for commands values() and list() Aggregator types: IN=Row, BUF=Values, OUT=String Serializable
+ * Aggregator for commands values() and list() Aggregator types: IN=String, BUF=Values, OUT=String Serializable
  * 
  * @author eemhu
  */
-public class ValuesAggregator extends Aggregator<Row, ValuesBuffer, String> implements Serializable {
+public class ValuesAggregator extends Aggregator<String, ValuesBuffer, String> implements Serializable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ValuesAggregator.class);
 
@@ -69,19 +68,16 @@ public class ValuesAggregator extends Aggregator<Row, ValuesBuffer, String> impl
     private static final boolean debugEnabled = false;
 
     private static final int maxAmountOfValues = 100; // for list()
-    private String colName = null;
 
     private AggregatorMode.ValuesAggregatorMode mode = AggregatorMode.ValuesAggregatorMode.VALUES; // values() or list()
 
     /**
-     * Constructor used to feed in the column name
+     * Constructor used to feed in the aggregator mode, the source field is given as the single input column
      * 
-     * @param colName column name
-     * @param mode    Aggregator mode
+     * @param mode Aggregator mode
      */
-    public ValuesAggregator(String colName, AggregatorMode.ValuesAggregatorMode mode) {
+    public ValuesAggregator(AggregatorMode.ValuesAggregatorMode mode) {
         super();
-        this.colName = colName;
         this.mode = mode;
     }
 
@@ -95,8 +91,7 @@ public class ValuesAggregator extends Aggregator<Row, ValuesBuffer, String> impl
         if (debugEnabled)
             LOGGER.info("Buffer encoder");
 
-        // TODO using kryo should speed this up
-        return Encoders.javaSerialization(ValuesBuffer.class);
+        return Encoders.bean(ValuesBuffer.class);
     }
 
     /**
@@ -143,7 +138,7 @@ public class ValuesAggregator extends Aggregator<Row, ValuesBuffer, String> impl
         }
         else if (mode == AggregatorMode.ValuesAggregatorMode.LIST) {
             // list() is limited to 100 first values in input order
-            if (buffer.getSize() > maxAmountOfValues) {
+            if (buffer.size() > maxAmountOfValues) {
                 buffer.setList(buffer.getList().stream().limit(maxAmountOfValues).collect(Collectors.toList()));
             }
         }
@@ -171,16 +166,17 @@ public class ValuesAggregator extends Aggregator<Row, ValuesBuffer, String> impl
      * Update array with new input value
      * 
      * @param buffer buffer
-     * @param input  input row
+     * @param input  input value
      * @return resulting buffer
      */
     @Override
-    public ValuesBuffer reduce(ValuesBuffer buffer, Row input) {
+    public ValuesBuffer reduce(ValuesBuffer buffer, String input) {
         if (debugEnabled)
             LOGGER.info("reduce");
 
-        String inputString = input.getAs(colName).toString();
-        buffer.add(inputString);
+        if (input != null) {
+            buffer.add(input);
+        }
 
         return buffer;
     }
@@ -58,6 +58,7 @@ import com.teragrep.pth_03.antlr.DPLParserBaseVisitor;
 import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.ParserRuleContext;
 import com.teragrep.pth_03.shaded.org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.spark.sql.*;
+import org.apache.spark.sql.catalyst.expressions.Literal;
 import org.apache.spark.sql.expressions.UserDefinedFunction;
 import org.apache.spark.sql.types.DataTypes;
 import org.slf4j.Logger;
@@ -161,7 +162,14 @@ public class EvalStatement extends DPLParserBaseVisitor<Node> {
     private Column addOperation(Column source, TerminalNode operation, Column value) {
         Column rv = null;
 
-        if (operation.getSymbol().getType() == DPLLexer.EVAL_LANGUAGE_MODE_LIKE) {
+        if (
+            operation.getSymbol().getType() == DPLLexer.EVAL_LANGUAGE_MODE_LIKE && value.expr() instanceof Literal
+                    && ((Literal) value.expr()).value() != null
+        ) {
+            // literal pattern is compiled once instead of in the UDF
+            rv = new LikeColumn(source, ((Literal) value.expr()).value().toString()).column();
+        }
+        else if (operation.getSymbol().getType() == DPLLexer.EVAL_LANGUAGE_MODE_LIKE) {
             SparkSession ss = catCtx.getSparkSession();
             ss.udf().register("LikeComparison", new LikeComparison(), DataTypes.BooleanType);
             rv = functions.callUDF("LikeComparison", source, value);
@@ -237,7 +245,7 @@ public class EvalStatement extends DPLParserBaseVisitor<Node> {
         Node field = visit(ctx.fieldType());
 
         // Step initialization
-        this.evalStep = new EvalStep();
+        this.evalStep = new EvalStep(catCtx.evalTypedArithmetic());
         this.evalStep.setLeftSide(field.toString()); // eval a = ...
         this.evalStep.setRightSide(((ColumnNode) n).getColumn()); // ... = right side
 
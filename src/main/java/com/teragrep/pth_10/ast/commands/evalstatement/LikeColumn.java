@@ -0,0 +1,87 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.evalstatement;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.types.DataTypes;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@code x LIKE "pattern"} with a literal pattern, where '%' matches any characters and '_' a single character as in
+ * {@link com.teragrep.pth_10.ast.commands.evalstatement.UDFs.LikeComparison}. A pattern without wildcards or regex
+ * characters is compared for equality, others are compiled once by Spark's rlike, anchored to match the whole value.
+ */
+public final class LikeColumn {
+
+    // characters that are matched as themselves by the regex built from the pattern
+    private static final Pattern PLAIN_LITERAL = Pattern.compile("[\\p{L}\\p{N} \\-:/@,'\"=<>!&~#;]*");
+
+    private final Column source;
+    private final String pattern;
+
+    public LikeColumn(final Column source, final String pattern) {
+        this.source = source;
+        this.pattern = pattern;
+    }
+
+    public Column column() {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Provided like pattern was null");
+        }
+        final Column value = source.cast(DataTypes.StringType);
+        final Column rv;
+        if (PLAIN_LITERAL.matcher(pattern).matches()) {
+            rv = value.equalTo(pattern);
+        }
+        else {
+            final String regex = pattern.replaceAll("%", ".*").replaceAll("_", ".");
+            // rlike finds a match anywhere, anchor it to match the whole value like Matcher.matches()
+            rv = value.rlike("\\A(?:" + regex + ")\\z");
+        }
+        return rv;
+    }
+}
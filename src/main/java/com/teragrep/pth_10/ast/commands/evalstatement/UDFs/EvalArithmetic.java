@@ -45,6 +45,7 @@
  */
 package com.teragrep.pth_10.ast.commands.evalstatement.UDFs;
 
+import com.teragrep.pth_10.steps.NumericScanner;
 import com.teragrep.pth_10.steps.ParsedResult;
 import com.teragrep.pth_10.steps.TypeParser;
 import org.apache.spark.sql.api.java.UDF3;
@@ -54,25 +55,123 @@ import java.math.RoundingMode;
 
 /**
  * Checks if left and right side are longs/doubles, and performs basic arithmetic on them if they are, otherwise
- * concatenate them as strings
+ * concatenate them as strings. Results are formatted as plain strings without trailing zeros. Strings are classified
+ * with a {@link NumericScanner} and long operands are computed without BigDecimal unless the result overflows or is
+ * not an integer.
  */
 public class EvalArithmetic implements UDF3<Object, String, Object, String> {
 
+    // each task deserializes its own instance of the UDF, so the scanners are reused between the rows of a task
+    private final NumericScanner leftScanner;
+    private final NumericScanner rightScanner;
+
+    public EvalArithmetic() {
+        this.leftScanner = new NumericScanner();
+        this.rightScanner = new NumericScanner();
+    }
+
     @Override
     public String call(Object l, String op, Object r) throws Exception {
-        // try long
+        final ParsedResult.Type leftType = scan(l, leftScanner);
+        final ParsedResult.Type rightType = scan(r, rightScanner);
+        if (leftType == ParsedResult.Type.LIST || rightType == ParsedResult.Type.LIST) {
+            // not a plain value, keep the original handling
+            return parsedCall(l, op, r);
+        }
+
+        // Check for Strings, concatenate if found
+        if (leftType == ParsedResult.Type.STRING || rightType == ParsedResult.Type.STRING) {
+            return concatenate(l, op, r);
+        }
+
+        if (leftType == ParsedResult.Type.LONG && rightType == ParsedResult.Type.LONG) {
+            final long leftLong = longOf(l, leftScanner);
+            final long rightLong = longOf(r, rightScanner);
+            try {
+                switch (op) {
+                    case "+":
+                        return Long.toString(Math.addExact(leftLong, rightLong));
+                    case "-":
+                        return Long.toString(Math.subtractExact(leftLong, rightLong));
+                    case "*":
+                        return Long.toString(Math.multiplyExact(leftLong, rightLong));
+                    case "/":
+                        if (rightLong != 0 && rightLong != -1 && leftLong % rightLong == 0) {
+                            return Long.toString(leftLong / rightLong);
+                        }
+                        break;
+                    case "%":
+                        if (rightLong != 0) {
+                            return Long.toString(leftLong % rightLong);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            catch (ArithmeticException overflow) {
+                // rare, computed with BigDecimal below
+            }
+        }
+
+        final BigDecimal leftNumber = leftType == ParsedResult.Type.DOUBLE ? BigDecimal
+                .valueOf(doubleOf(l, leftScanner)) : BigDecimal.valueOf(longOf(l, leftScanner));
+        final BigDecimal rightNumber = rightType == ParsedResult.Type.DOUBLE ? BigDecimal
+                .valueOf(doubleOf(r, rightScanner)) : BigDecimal.valueOf(longOf(r, rightScanner));
+        return calculate(leftNumber, op, rightNumber);
+    }
+
+    /**
+     * Classifies the operand without parsing boxed numbers. Float, arrays and other objects are reported as LIST to
+     * get them handled by the {@link TypeParser}.
+     */
+    private ParsedResult.Type scan(final Object operand, final NumericScanner scanner) {
+        if (operand instanceof String) {
+            return scanner.scan((String) operand);
+        }
+        else if (
+            operand instanceof Long || operand instanceof Integer || operand instanceof Short
+                    || operand instanceof Byte
+        ) {
+            return ParsedResult.Type.LONG;
+        }
+        else if (operand instanceof Double) {
+            return ParsedResult.Type.DOUBLE;
+        }
+        return ParsedResult.Type.LIST;
+    }
+
+    private long longOf(final Object operand, final NumericScanner scanner) {
+        if (operand instanceof Number) {
+            return ((Number) operand).longValue();
+        }
+        return scanner.longValue();
+    }
+
+    private double doubleOf(final Object operand, final NumericScanner scanner) {
+        if (operand instanceof Number) {
+            return ((Number) operand).doubleValue();
+        }
+        return scanner.doubleValue();
+    }
+
+    private String concatenate(final Object l, final String op, final Object r) {
+        if (op.equals("+")) {
+            return l.toString().concat(r.toString());
+        }
+        else {
+            throw new IllegalArgumentException("Eval arithmetics only allow Strings for the + operator.");
+        }
+    }
+
+    private String parsedCall(final Object l, final String op, final Object r) {
         TypeParser typeParser = new TypeParser();
         ParsedResult left = typeParser.parse(l);
         ParsedResult right = typeParser.parse(r);
 
         // Check for Strings, concatenate if found
         if (left.getType() == ParsedResult.Type.STRING || right.getType() == ParsedResult.Type.STRING) {
-            if (op.equals("+")) {
-                return l.toString().concat(r.toString());
-            }
-            else {
-                throw new IllegalArgumentException("Eval arithmetics only allow Strings for the + operator.");
-            }
+            return concatenate(l, op, r);
         }
 
         // change left and right numbers into BigDecimal
@@ -80,7 +179,10 @@ public class EvalArithmetic implements UDF3<Object, String, Object, String> {
                 .valueOf(left.getDouble()) : BigDecimal.valueOf(left.getLong());
         BigDecimal rightNumber = right.getType() == ParsedResult.Type.DOUBLE ? BigDecimal
                 .valueOf(right.getDouble()) : BigDecimal.valueOf(right.getLong());
+        return calculate(leftNumber, op, rightNumber);
+    }
 
+    private String calculate(final BigDecimal leftNumber, final String op, final BigDecimal rightNumber) {
         switch (op) {
             case "+":
                 return leftNumber.add(rightNumber).stripTrailingZeros().toPlainString();
@@ -47,27 +47,50 @@ package com.teragrep.pth_10.ast.commands.evalstatement.UDFs;
 
 import org.apache.spark.sql.api.java.UDF2;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * UDF for '| where x like y' command Returns true or false if it matches Uses '%' for multi character wildcard, '_' for
- * single
+ * single. Used when the pattern is not a literal, compiled patterns are kept in a bounded LRU cache as rows often share
+ * the pattern.
  */
 public class LikeComparison implements UDF2<String, String, Boolean> {
 
+    private static final long serialVersionUID = 1L;
+    private static final int CACHE_CAPACITY = 128;
+
+    private transient Map<String, Pattern> patternCache;
+
     @Override
     public Boolean call(String input, String pattern) throws Exception {
         // input is the text to be compared
         // pattern is sql like expression
+        Matcher m = compiled(pattern).matcher(input);
+
+        return m.matches();
+    }
 
-        // replace % and _ with regex equivalents
-        pattern = pattern.replaceAll("%", ".*");
-        pattern = pattern.replaceAll("_", ".");
+    private synchronized Pattern compiled(final String pattern) {
+        if (patternCache == null) {
+            patternCache = new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
 
-        Pattern p = Pattern.compile(pattern);
-        Matcher m = p.matcher(input);
+                private static final long serialVersionUID = 1L;
 
-        return m.matches();
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Pattern> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            };
+        }
+        Pattern p = patternCache.get(pattern);
+        if (p == null) {
+            // replace % and _ with regex equivalents
+            p = Pattern.compile(pattern.replaceAll("%", ".*").replaceAll("_", "."));
+            patternCache.put(pattern, p);
+        }
+        return p;
     }
 }
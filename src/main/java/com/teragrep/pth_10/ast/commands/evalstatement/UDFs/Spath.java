@@ -45,11 +45,13 @@
  */
 package com.teragrep.pth_10.ast.commands.evalstatement.UDFs;
 
-import com.google.gson.*;
+import com.google.gson.JsonElement;
 import com.teragrep.pth_10.ast.NullValue;
 import com.teragrep.pth_10.ast.QuotedText;
 import com.teragrep.pth_10.ast.TextString;
 import com.teragrep.pth_10.ast.UnquotedText;
+import com.teragrep.pth_10.steps.spath.ReusableXmlParser;
+import com.teragrep.pth_10.steps.spath.StreamingJsonPath;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.spark.sql.api.java.UDF4;
 import org.slf4j.Logger;
@@ -57,24 +59,22 @@ import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.xpath.XPathExpressionException;
 import java.io.Serializable;
-import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * UDF for command spath(json/xml, spath)<br>
  * <p>
- * First, the given (assumed to be) JSON/XML string is tried to be parsed as JSON, and if that fails, XML parsing is
- * attempted. Otherwise the function will return an empty result, or the original input if the input and output column
- * are set to the same column.
+ * Input starting with a tag is parsed as XML, and all other input as lenient JSON. Input starting with a tag that is
+ * not well-formed XML is still tried as JSON. Otherwise the function will return an empty result, or the original
+ * input if the input and output column are set to the same column.
+ * </p>
+ * <p>
+ * JSON paths are extracted in a single pass with {@link StreamingJsonPath}. The XML parser and the compiled XPath
+ * expressions are created on first use and reused for the following rows.
  * </p>
  * A separate 'xpath' command can be used for xpath expressions.
  *
@@ -86,6 +86,10 @@ public class Spath implements UDF4<String, String, String, String, Map<String, S
     private static final long serialVersionUID = 1L;
 
     private final NullValue nullValue;
+    // created on the executors on first use
+    private transient ReusableXmlParser xmlParser;
+    private transient StreamingJsonPath jsonDocument;
+    private transient CompiledExpression latestExpression;
 
     public Spath(NullValue nullValue) {
         super();
@@ -107,145 +111,118 @@ public class Spath implements UDF4<String, String, String, String, Map<String, S
             throws Exception {
         // Map to return at the end of this function
         final Map<String, String> result = new HashMap<>();
-        try {
-            // try json
-            final Gson gson = new Gson();
-            final JsonElement jsonElem = gson.fromJson(input, JsonElement.class);
+        if (input == null) {
+            return result;
+        }
+
+        if (startsWithTag(input)) {
+            final Document doc = xmlParser().document(input);
+            if (doc != null) {
+                return xmlResult(doc, input, spathExpr, nameOfInputCol, nameOfOutputCol, result);
+            }
+            // lenient JSON accepts some inputs that start with '<' but are not XML
+        }
 
-            // Auto-extraction (JSON)
-            if (spathExpr == null) {
+        // Auto-extraction (JSON)
+        if (spathExpr == null) {
+            final StreamingJsonPath json = jsonDocument();
+            if (json.read(input)) {
                 // expect topmost element to be an object
-                for (Map.Entry<String, JsonElement> sub : jsonElem.getAsJsonObject().entrySet()) {
+                for (Map.Entry<String, JsonElement> sub : json.value().getAsJsonObject().entrySet()) {
                     // put key:value to map - unescaping result in case was a nested json string
                     result
                             .put(new QuotedText(new TextString(sub.getKey()), "`").read(), new UnquotedText(new TextString(StringEscapeUtils.unescapeJson(sub.getValue().toString()))).read());
                 }
+                return result;
             }
-            // Manual extraction via spath expression (JSON)
-            else {
-                final JsonElement jsonSubElem = getJsonElement(
-                        jsonElem, new UnquotedText(new TextString(spathExpr)).read()
-                );
+        }
+        // Manual extraction via spath expression (JSON)
+        else {
+            final CompiledExpression expression = expression(spathExpr);
+            if (expression.jsonPath.read(input)) {
+                final JsonElement jsonSubElem = expression.jsonPath.value();
                 // put key:value to map - unescaping result in case was a nested json string
                 result
-                        .put(new QuotedText(new TextString(spathExpr), "`").read(), jsonSubElem != null ? new UnquotedText(new TextString(StringEscapeUtils.unescapeJson(jsonSubElem.toString()))).read() : nullValue.value());
+                        .put(expression.key, jsonSubElem != null ? new UnquotedText(new TextString(StringEscapeUtils.unescapeJson(jsonSubElem.toString()))).read() : nullValue.value());
+                return result;
             }
-            return result;
         }
-        catch (JsonSyntaxException | ClassCastException json_fail) {
-            LOGGER.warn("Processing failed as JSON, trying XML parsing. Error: <{}>", json_fail.getMessage());
-            // try xml
-            try {
-                Document doc = getXmlDocFromString(input);
-
-                if (doc == null) {
-                    // failed to make document from string
-                    return result;
-                }
 
-                // Auto-extraction (XML)
-                if (spathExpr == null) {
-                    // Each tag-pair containing text inside will be given a new column
-                    // main-sub-item would contain all for that type of nested tags, etc.
-                    final Node rootNode = doc.getDocumentElement();
-                    buildMapFromXmlNodes(rootNode, ".", result);
-                }
-                // Manual extraction via spath expression (XML)
-                else {
-                    // spath expects spath at all times, even when input is XML
-                    // spath needs to be converted to xpath for xml
-                    final XPath xPath = XPathFactory.newInstance().newXPath();
+        LOGGER.warn("spath: The content couldn't be parsed as JSON or XML.");
+        return result;
+    }
 
-                    // spath is of type main.sub.item, convert to /main/sub/item
-                    String spathAsXpath = "/"
-                            .concat(new UnquotedText(new TextString(spathExpr)).read())
-                            .replaceAll("\\.", "/");
-                    LOGGER.debug("spath->xpath conversion: <[{}]>", spathAsXpath);
+    private Map<String, String> xmlResult(
+            final Document doc,
+            final String input,
+            final String spathExpr,
+            final String nameOfInputCol,
+            final String nameOfOutputCol,
+            final Map<String, String> result
+    ) {
+        // Auto-extraction (XML)
+        if (spathExpr == null) {
+            // Each tag-pair containing text inside will be given a new column
+            // main-sub-item would contain all for that type of nested tags, etc.
+            final Node rootNode = doc.getDocumentElement();
+            buildMapFromXmlNodes(rootNode, ".", result);
+            return result;
+        }
 
-                    String rv = (String) xPath.compile(spathAsXpath).evaluate(doc, XPathConstants.STRING);
-                    result.put(new QuotedText(new TextString(spathExpr), "`").read(), rv.trim());
-                }
-                return result;
+        // Manual extraction via spath expression (XML)
+        final CompiledExpression expression = expression(spathExpr);
+        try {
+            String rv = xmlParser().evaluate(doc, expression.xpath);
+            result.put(expression.key, rv.trim());
+        }
+        catch (XPathExpressionException e) {
+            LOGGER.warn("spath: The content couldn't be parsed as JSON or XML. Details: <{}>", e.getMessage());
+            // return pre-existing content if output is the same as input
+            if (nameOfInputCol.equals(nameOfOutputCol)) {
+                result.put(expression.key, input);
             }
-            catch (Exception e) {
-                LOGGER.warn("spath: The content couldn't be parsed as JSON or XML. Details: <{}>", e.getMessage());
-                // return pre-existing content if output is the same as input
-                if (nameOfInputCol.equals(nameOfOutputCol)) {
-                    result.put(new QuotedText(new TextString(spathExpr), "`").read(), input);
-                }
-                // otherwise output will be empty on error
-                else {
-                    result.put(new QuotedText(new TextString(spathExpr), "`").read(), nullValue.value());
-                }
-                return result;
+            // otherwise output will be empty on error
+            else {
+                result.put(expression.key, nullValue.value());
             }
-
         }
+        return result;
     }
 
     /**
-     * Gets JSON element from JSON based on the given SPath expression
-     * 
-     * @param json  JSONElement to get the (sub)element from
-     * @param spath SPath expression which expresses the element to get
+     * XML can only start with a tag after whitespace, other input doesn't need to be tried as XML
      */
-    private JsonElement getJsonElement(final JsonElement json, final String spath) {
-        final String[] parts = spath.split("[.\\[\\]]");
-        JsonElement rv = json;
-
-        for (String key : parts) {
-            key = key.trim();
-
-            LOGGER.debug("Got key: <{}>", key);
-
-            if (key.isEmpty()) {
-                LOGGER.debug("Key was empty");
-                continue;
-            }
-
-            if (rv == null || rv.isJsonNull()) {
-                LOGGER.debug("Given JsonElement was a NULL");
-                rv = JsonNull.INSTANCE;
-                break;
-            }
-
-            if (rv.isJsonObject()) {
-                LOGGER.debug("Given JsonElement was an OBJECT");
-                rv = ((JsonObject) rv).get(key);
-            }
-            else if (rv.isJsonArray()) {
-                LOGGER.debug("Given JsonElement was an ARRAY");
-                int i = Integer.parseInt(key) - 1;
-                rv = ((JsonArray) rv).get(i);
-            }
-            else {
-                LOGGER.debug("Given JsonElement was something else");
-                break;
+    private boolean startsWithTag(final String input) {
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return c == '<';
             }
         }
-
-        return rv;
+        return false;
     }
 
-    /**
-     * Convert an XML-formatted string to a Document object
-     * 
-     * @param xmlStr XML-formatted string
-     * @return (XML) Document object
-     */
-    private Document getXmlDocFromString(final String xmlStr) {
-        final DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-
-        DocumentBuilder docBuilder;
+    private ReusableXmlParser xmlParser() {
+        if (xmlParser == null) {
+            xmlParser = new ReusableXmlParser();
+        }
+        return xmlParser;
+    }
 
-        try {
-            docBuilder = docBuilderFactory.newDocumentBuilder();
-            return docBuilder.parse(new InputSource(new StringReader(xmlStr)));
+    private StreamingJsonPath jsonDocument() {
+        if (jsonDocument == null) {
+            // path without keys extracts the whole document
+            jsonDocument = new StreamingJsonPath("");
         }
-        catch (Exception e) {
-            LOGGER.warn("Failed to parse XML: <{}>", e);
-            return null;
+        return jsonDocument;
+    }
+
+    private CompiledExpression expression(final String spathExpr) {
+        // the expression is usually the same for every row
+        if (latestExpression == null || !latestExpression.spathExpr.equals(spathExpr)) {
+            latestExpression = new CompiledExpression(spathExpr);
         }
+        return latestExpression;
     }
 
     /**
@@ -295,4 +272,25 @@ public class Spath implements UDF4<String, String, String, String, Map<String, S
             buildMapFromXmlNodes(child, spacer, map);
         }
     }
+
+    /**
+     * Spath expression converted for JSON and XML extraction
+     */
+    private static final class CompiledExpression {
+
+        private final String spathExpr;
+        private final String key;
+        private final String xpath;
+        private final StreamingJsonPath jsonPath;
+
+        private CompiledExpression(final String spathExpr) {
+            this.spathExpr = spathExpr;
+            this.key = new QuotedText(new TextString(spathExpr), "`").read();
+            final String unquoted = new UnquotedText(new TextString(spathExpr)).read();
+            // spath is of type main.sub.item, convert to /main/sub/item
+            this.xpath = "/".concat(unquoted).replaceAll("\\.", "/");
+            LOGGER.debug("spath->xpath conversion: <[{}]>", xpath);
+            this.jsonPath = new StreamingJsonPath(unquoted);
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.logicalstatement;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.functions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case-insensitive glob match of a column that is anchored to the beginning of the value only, so
+ * {@code host=server*} and {@code host=server} both match {@code server-01}. The glob is compiled to the cheapest
+ * expression for its shape: a prefix without wildcards to startsWith, a single term surrounded by wildcards to
+ * contains and anything with inner wildcards to rlike with the literal parts quoted.
+ */
+public final class GlobColumn {
+
+    private final Column source;
+    private final String glob;
+
+    public GlobColumn(final Column source, final String glob) {
+        this.source = source;
+        this.glob = glob;
+    }
+
+    public Column column() {
+        if (glob == null) {
+            throw new IllegalArgumentException("Provided glob string was null");
+        }
+
+        final String[] parts = glob.toLowerCase(Locale.ROOT).split("\\*", -1);
+        final String prefix = parts[0];
+        // consecutive and trailing wildcards do not change the match as the end is not anchored
+        final List<String> terms = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            if (!parts[i].isEmpty()) {
+                terms.add(parts[i]);
+            }
+        }
+
+        final Column rv;
+        if (terms.isEmpty()) {
+            rv = functions.lower(source).startsWith(prefix);
+        }
+        else if (prefix.isEmpty() && terms.size() == 1) {
+            rv = new CaseInsensitiveContains(source, terms.get(0)).column();
+        }
+        else {
+            final StringBuilder regex = new StringBuilder("(?i)^");
+            if (!prefix.isEmpty()) {
+                regex.append(Pattern.quote(prefix));
+            }
+            for (final String term : terms) {
+                regex.append(".*").append(Pattern.quote(term));
+            }
+            rv = source.rlike(regex.toString());
+        }
+        return rv;
+    }
+}
@@ -71,7 +71,6 @@ import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -399,10 +398,8 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
                 statement = statement.substring(0, statement.length() - 1);
             }
 
-            statement = "(?i)^.*".concat(Pattern.quote(statement)).concat(".*"); // prefix with case insensitivity
-            LOGGER.debug("Final : <{}>", statement);
-
-            rv = rv.rlike(statement);
+            // inner wildcards are matched literally, so the term is a plain case-insensitive substring
+            rv = new CaseInsensitiveContains(rv, statement).column();
         }
 
         LOGGER.info("queryId <{}> [CAT] SearchIndexStatement return: <{}>", catCtx.getQueryName(), rv.toString());
@@ -466,9 +463,8 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
 
         // check whether operation is '=' or '!='
         if (left.getSymbol().getType() != DPLLexer.INDEX_IN && operation.getSymbol().getType() == DPLLexer.EQ) {
-            // Use like instead of '=' so that jokers work
-            String rlikeStatement = glob2rlike(value);
-            sQualifier = col.rlike(rlikeStatement);
+            // Use glob instead of '=' so that jokers work
+            sQualifier = new GlobColumn(col, value).column();
 
         }
         else if (left.getSymbol().getType() == DPLLexer.INDEX_IN) {
@@ -476,7 +472,7 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
                     ctx
                             .indexStringType()
                             .stream()
-                            .map(st -> col.rlike(glob2rlike(new UnquotedText(new TextString(st.getText().toLowerCase())).read()))).collect(Collectors.toList())
+                            .map(st -> new GlobColumn(col, new UnquotedText(new TextString(st.getText().toLowerCase())).read()).column()).collect(Collectors.toList())
             );
 
             sQualifier = orColumn.column();
@@ -486,32 +482,18 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
                     ctx
                             .stringType()
                             .stream()
-                            .map(st -> col.rlike(glob2rlike(new UnquotedText(new TextString(st.getText().toLowerCase())).read()))).collect(Collectors.toList())
+                            .map(st -> new GlobColumn(col, new UnquotedText(new TextString(st.getText().toLowerCase())).read()).column()).collect(Collectors.toList())
             );
 
             sQualifier = orColumn.column();
         }
         else {
-            String rlikeStatement = glob2rlike(value);
-            sQualifier = functions.not(col.rlike(rlikeStatement));
+            sQualifier = functions.not(new GlobColumn(col, value).column());
         }
 
         return new ColumnNode(sQualifier);
     }
 
-    /**
-     * Converts glob-type string to one compatible with spark's rlike function
-     *
-     * @param glob glob-type string
-     * @return rlike statement
-     */
-    private String glob2rlike(String glob) {
-        if (glob != null) {
-            return "(?i)^" + glob.replaceAll("\\*", ".*");
-        }
-        throw new RuntimeException("glob2rlike: Provided glob string was null");
-    }
-
     /**
      * stringType WILDCARD? | WILDCARD | termStatement | caseStatement
      *
@@ -586,14 +568,9 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
     }
 
     private Column addOperation(Column source, TerminalNode operation, String value) {
-        Column rv = null;
-
-        SparkSession ss = catCtx.getSparkSession();
-        ss.udf().register("Comparison", new SearchComparison(), DataTypes.BooleanType);
-        rv = functions
-                .callUDF("Comparison", source, functions.lit(operation.getSymbol().getType()), functions.lit(value));
-
-        return rv;
+        // value is analyzed once here instead of on every row
+        final SearchComparison comparison = new SearchComparison(operation.getSymbol().getType(), value);
+        return functions.udf(comparison, DataTypes.BooleanType).apply(source);
     }
 
     @Override
@@ -619,6 +596,9 @@ public class LogicalStatementCatalyst extends DPLParserBaseVisitor<Node> {
         // These have to be set here and not in subVisitor to be the same as in other Steps
         subsearchStep.setListener(this.catCtx.getInternalStreamingQueryListener());
         subsearchStep.setHdfsPath(this.catVisitor.getHdfsPath());
+        subsearchStep.setMaxTerms(this.catCtx.subsearchMaxTerms());
+        subsearchStep
+                .setMemoryLimits(this.catCtx.subsearchMaxRowsInMemory(), this.catCtx.subsearchMaxBytesInMemory());
 
         // add subsearch to stepList
         this.catVisitor.getStepList().add(subsearchStep);
@@ -49,34 +49,73 @@ import com.teragrep.jue_01.GlobToRegEx;
 import com.teragrep.pth_10.steps.ParsedResult;
 import com.teragrep.pth_10.steps.TypeParser;
 import com.teragrep.pth_03.antlr.DPLLexer;
-import org.apache.spark.sql.api.java.UDF3;
+import org.apache.spark.sql.api.java.UDF1;
 
 import java.math.BigDecimal;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * UDF for comparing a field to a value in a search command.
+ * UDF for comparing a field to a value in a search command. The value is a literal of the command, so it is parsed
+ * once when the comparison is created: a numerical value is kept as a number, and a string value used in an equality
+ * is compared with {@link String#equals(Object)} if it contains no wildcards or regex characters, otherwise it is
+ * compiled once to a pattern.
  */
-public class SearchComparison implements UDF3<Object, Integer, Object, Boolean> {
+public class SearchComparison implements UDF1<Object, Boolean> {
+
+    private static final long serialVersionUID = 1L;
+    // characters that GlobToRegEx and Pattern both take as themselves
+    private static final Pattern PLAIN_LITERAL = Pattern.compile("[\\p{L}\\p{N}_ \\-:/@,'\"=<>!%&~#;]*");
+
+    private final int operationType;
+    private final TypeParser typeParser;
+    private final ParsedResult right;
+    private final String rightString;
+    private final BigDecimal rightNumber;
+    private final boolean plainLiteral;
+    private final Pattern pattern;
+
+    public SearchComparison(final int operationType, final Object value) {
+        this(operationType, new TypeParser(), new TypeParser().parse(value));
+    }
+
+    private SearchComparison(final int operationType, final TypeParser typeParser, final ParsedResult right) {
+        this.operationType = operationType;
+        this.typeParser = typeParser;
+        this.right = right;
+        if (right.getType() == ParsedResult.Type.STRING) {
+            this.rightString = right.getString();
+            this.rightNumber = null;
+        }
+        else if (right.getType() == ParsedResult.Type.DOUBLE) {
+            // make into a string through BigDecimal to get it exactly as written in the command
+            this.rightString = BigDecimal.valueOf(right.getDouble()).stripTrailingZeros().toPlainString();
+            this.rightNumber = BigDecimal.valueOf(right.getDouble());
+        }
+        else {
+            this.rightString = BigDecimal.valueOf(right.getLong()).stripTrailingZeros().toPlainString();
+            this.rightNumber = BigDecimal.valueOf(right.getLong());
+        }
+        this.plainLiteral = PLAIN_LITERAL.matcher(rightString).matches();
+        if (plainLiteral) {
+            this.pattern = null;
+        }
+        else {
+            this.pattern = Pattern.compile(GlobToRegEx.regexify(rightString)); //wildcard support
+        }
+    }
 
     @Override
-    public Boolean call(Object l, Integer operationType, Object r) throws Exception {
+    public Boolean call(Object l) throws Exception {
         // Parse in case a number has been set to a String
         // (which would lead to a wrong result)
-        TypeParser typeParser = new TypeParser();
-        ParsedResult left = typeParser.parse(l);
-        ParsedResult right = typeParser.parse(r);
-
-        ParsedResult.Type leftType = left.getType();
-        ParsedResult.Type rightType = right.getType();
+        final ParsedResult left = typeParser.parse(l);
+        final ParsedResult.Type leftType = left.getType();
 
         boolean rv;
 
         // if left or right is a string, compare lexicographically (as if both were strings)
-        if (leftType == ParsedResult.Type.STRING || rightType == ParsedResult.Type.STRING) {
-            String leftString;
-            String rightString;
+        if (leftType == ParsedResult.Type.STRING || right.getType() == ParsedResult.Type.STRING) {
+            final String leftString;
 
             // get left as string
             if (leftType == ParsedResult.Type.STRING) {
@@ -89,35 +128,15 @@ public class SearchComparison implements UDF3<Object, Integer, Object, Boolean>
                 leftString = BigDecimal.valueOf(left.getLong()).toPlainString();
             }
 
-            // get right as string
-            if (rightType == ParsedResult.Type.STRING) {
-                rightString = right.getString();
-            }
-            else if (rightType == ParsedResult.Type.DOUBLE) {
-                // make into a string through BigDecimal to get it exactly as written in the command
-                rightString = BigDecimal.valueOf(right.getDouble()).stripTrailingZeros().toPlainString();
-            }
-            else {
-                rightString = BigDecimal.valueOf(right.getLong()).stripTrailingZeros().toPlainString();
-            }
-
             switch (operationType) {
                 case DPLLexer.EQ:
                 case DPLLexer.EVAL_LANGUAGE_MODE_EQ: {
-                    //rv = source.equalTo(value);
-                    rightString = GlobToRegEx.regexify(rightString); //wildcard support
-                    Pattern p = Pattern.compile(rightString);
-                    Matcher m = p.matcher(leftString);
-                    rv = m.matches();
+                    rv = matches(leftString);
                     break;
                 }
                 case DPLLexer.NEQ:
                 case DPLLexer.EVAL_LANGUAGE_MODE_NEQ: {
-                    //rv = source.notEqual(value);
-                    rightString = GlobToRegEx.regexify(rightString); //wildcard support
-                    Pattern p = Pattern.compile(rightString);
-                    Matcher m = p.matcher(leftString);
-                    rv = !m.matches();
+                    rv = !matches(leftString);
                     break;
                 }
                 case DPLLexer.GT:
@@ -146,10 +165,8 @@ public class SearchComparison implements UDF3<Object, Integer, Object, Boolean>
             }
         }
         else {
-            BigDecimal leftNumber = left.getType() == ParsedResult.Type.DOUBLE ? BigDecimal
+            final BigDecimal leftNumber = leftType == ParsedResult.Type.DOUBLE ? BigDecimal
                     .valueOf(left.getDouble()) : BigDecimal.valueOf(left.getLong());
-            BigDecimal rightNumber = right.getType() == ParsedResult.Type.DOUBLE ? BigDecimal
-                    .valueOf(right.getDouble()) : BigDecimal.valueOf(right.getLong());
 
             switch (operationType) {
                 case DPLLexer.EQ:
@@ -190,4 +207,15 @@ public class SearchComparison implements UDF3<Object, Integer, Object, Boolean>
 
         return rv;
     }
+
+    private boolean matches(final String leftString) {
+        final boolean rv;
+        if (plainLiteral) {
+            rv = leftString.equals(rightString);
+        }
+        else {
+            rv = pattern.matcher(leftString).matches();
+        }
+        return rv;
+    }
 }
@@ -53,11 +53,16 @@ import com.teragrep.pth_03.antlr.DPLParserBaseVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Base transformation class for the command <code>spath</code><br>
  * Allows the user to extract data from JSON or XML data formats using an spath / xpath expression.
  * <pre>spath input=... output=... path=...|...</pre> Defaults: <pre>spath input=_raw output=path path=...</pre> Path
- * omitted -&gt; auto-extract mode: extracts all fields from the first 5000 characters in the input field.
+ * omitted -&gt; auto-extract mode: extracts all fields from the first 5000 characters in the input field. Multiple
+ * paths -&gt; auto-extract mode limited to the given paths, which are not discovered from the data. Without multiple
+ * paths the fields configured in <code>dpl.pth_10.spath.fields</code> are used, if any.
  */
 public class SpathTransformation extends DPLParserBaseVisitor<Node> {
 
@@ -77,13 +82,21 @@ public class SpathTransformation extends DPLParserBaseVisitor<Node> {
         String outputCol = null;
         String path = null;
         boolean autoExtractionMode = true;
+        List<String> fields = catCtx.spathFields();
 
         // Go through parameters
         if (ctx.t_spath_inputParameter(0) != null) {
             inputCol = ctx.t_spath_inputParameter(0).getChild(1).getText();
         }
 
-        if (ctx.t_spath_pathParameter(0) != null) {
+        if (ctx.t_spath_pathParameter().size() > 1) {
+            // several paths extract only those fields, output column is internal like in auto-extraction mode
+            fields = new ArrayList<>();
+            for (final DPLParser.T_spath_pathParameterContext pathParameter : ctx.t_spath_pathParameter()) {
+                fields.add(((StringNode) visit(pathParameter)).toString());
+            }
+        }
+        else if (ctx.t_spath_pathParameter(0) != null) {
             path = ((StringNode) visit(ctx.t_spath_pathParameter(0))).toString();
             autoExtractionMode = false;
         }
@@ -102,13 +115,14 @@ public class SpathTransformation extends DPLParserBaseVisitor<Node> {
             }
         }
 
-        LOGGER.debug("input=<[{}]>, output=<[{}]>, path=<[{}]>", inputCol, outputCol, path);
+        LOGGER.debug("input=<[{}]>, output=<[{}]>, path=<[{}]>, fields=<{}>", inputCol, outputCol, path, fields);
 
         // set parameters for spathStep and use get() to perform the action
         this.spathStep.setPath(path);
         this.spathStep.setInputColumn(inputCol);
         this.spathStep.setOutputColumn(outputCol);
         this.spathStep.setAutoExtractionMode(autoExtractionMode);
+        this.spathStep.setFields(fields);
         this.spathStep.setCatCtx(catCtx);
 
         return new StepNode(spathStep);
@@ -66,7 +66,9 @@ import com.teragrep.pth_10.steps.CustomResultStep;
 import com.teragrep.pth_10.steps.teragrep.*;
 import com.teragrep.pth_10.steps.teragrep.AbstractTokenizerStep;
 import com.teragrep.pth_10.steps.teragrep.TeragrepTokenizerStep;
+import com.teragrep.pth_10.steps.teragrep.dynatrace.DynatraceOptionsFromConfig;
 import com.teragrep.pth_10.steps.teragrep.migrate.TeragrepEpochMigrationStep;
+import com.teragrep.pth_10.steps.teragrep.syslog.SyslogOptionsFromConfig;
 import com.typesafe.config.Config;
 import com.teragrep.pth_03.antlr.DPLLexer;
 import com.teragrep.pth_03.antlr.DPLParser;
@@ -293,7 +295,7 @@ public class TeragrepTransformation extends DPLParserBaseVisitor<Node> {
                 }), catCtx)
         );
 
-        return new StepListNode(Arrays.asList(new TeragrepSyslogStep(host, port), customResultStep));
+        return new StepListNode(Arrays.asList(new TeragrepSyslogStep(host, port, catCtx, new SyslogOptionsFromConfig(zplnConfig)), customResultStep));
     }
 
     // exec hdfs save path retention
@@ -665,7 +667,9 @@ public class TeragrepTransformation extends DPLParserBaseVisitor<Node> {
             url = "http://localhost:9001/metrics/ingest";
         }
 
-        return new StepNode(new TeragrepDynatraceStep(catCtx, metricKey, url));
+        return new StepNode(
+                new TeragrepDynatraceStep(catCtx, metricKey, url, new DynatraceOptionsFromConfig(catCtx.getConfig()))
+        );
     }
 
     // visit the hdfs path String
@@ -0,0 +1,215 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Strict parser for literal IPv4 and IPv6 addresses. Unlike {@link InetAddress#getByName(String)}, a string that is
+ * not an address literal is rejected instead of being resolved with DNS, which would stall on the resolver timeout for
+ * every row on a cluster without name service. Accepts dotted quad IPv4 addresses and IPv6 addresses in full,
+ * compressed or IPv4-suffixed form, optionally in brackets. Shortened IPv4 forms and IPv6 zone ids are rejected.
+ */
+public final class IpAddressLiteral {
+
+    private static final byte[] INVALID = new byte[0];
+
+    private final String value;
+
+    public IpAddressLiteral(final String value) {
+        this.value = value;
+    }
+
+    public boolean isValid() {
+        return bytes().length != 0;
+    }
+
+    /**
+     * @return address of the literal, never resolved
+     * @throws IllegalStateException if the value is not a literal IP address
+     */
+    public InetAddress inetAddress() {
+        final byte[] bytes = bytes();
+        if (bytes.length == 0) {
+            throw new IllegalStateException("Not a literal IP address <[" + value + "]>");
+        }
+        try {
+            // only checks the length of the address
+            return InetAddress.getByAddress(bytes);
+        }
+        catch (UnknownHostException e) {
+            throw new IllegalStateException("Invalid address length for <[" + value + "]>", e);
+        }
+    }
+
+    private byte[] bytes() {
+        if (value == null || value.isEmpty()) {
+            return INVALID;
+        }
+        if (value.indexOf(':') < 0) {
+            final byte[] ipv4 = new byte[4];
+            if (parseIpv4(value, ipv4, 0)) {
+                return ipv4;
+            }
+            return INVALID;
+        }
+        if (value.charAt(0) == '[' && value.charAt(value.length() - 1) == ']') {
+            return parseIpv6(value.substring(1, value.length() - 1));
+        }
+        return parseIpv6(value);
+    }
+
+    /**
+     * Parses a dotted quad of decimal octets into four bytes starting from the offset.
+     */
+    private boolean parseIpv4(final String address, final byte[] bytes, final int offset) {
+        int octet = 0;
+        int digits = 0;
+        int octets = 0;
+        for (int i = 0; i <= address.length(); i++) {
+            if (i == address.length() || address.charAt(i) == '.') {
+                if (digits == 0 || octets == 4) {
+                    return false;
+                }
+                bytes[offset + octets++] = (byte) octet;
+                octet = 0;
+                digits = 0;
+            }
+            else {
+                final char c = address.charAt(i);
+                if (c < '0' || c > '9' || ++digits > 3) {
+                    return false;
+                }
+                octet = octet * 10 + (c - '0');
+                if (octet > 255) {
+                    return false;
+                }
+            }
+        }
+        return octets == 4;
+    }
+
+    private byte[] parseIpv6(final String address) {
+        final int compression = address.indexOf("::");
+        if (compression >= 0 && address.indexOf("::", compression + 1) >= 0) {
+            return INVALID;
+        }
+        final byte[] bytes = new byte[16];
+        final int[] groups = new int[8];
+        final int headCount;
+        final int tailCount;
+        if (compression < 0) {
+            headCount = parseGroups(address, groups, 8, bytes);
+            tailCount = 0;
+            if (headCount != 8) {
+                return INVALID;
+            }
+        }
+        else {
+            headCount = parseGroups(address.substring(0, compression), groups, 7, null);
+            if (headCount < 0) {
+                return INVALID;
+            }
+            final int[] tail = new int[8];
+            tailCount = parseGroups(address.substring(compression + 2), tail, 7 - headCount, bytes);
+            if (tailCount < 0) {
+                return INVALID;
+            }
+            // compressed zero groups are left between the head and the tail
+            System.arraycopy(tail, 0, groups, 8 - tailCount, tailCount);
+        }
+        for (int i = 0; i < 8; i++) {
+            bytes[2 * i] = (byte) (groups[i] >>> 8);
+            bytes[2 * i + 1] = (byte) groups[i];
+        }
+        return bytes;
+    }
+
+    /**
+     * Parses colon separated hexadecimal groups. If ipv4Bytes is given, the last group may be an IPv4 address which
+     * takes the place of two groups.
+     *
+     * @return amount of groups parsed, or -1 if the part is invalid or has more than maxGroups groups
+     */
+    private int parseGroups(final String part, final int[] groups, final int maxGroups, final byte[] ipv4Bytes) {
+        if (part.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        int start = 0;
+        while (start <= part.length()) {
+            int end = part.indexOf(':', start);
+            if (end < 0) {
+                end = part.length();
+            }
+            final String group = part.substring(start, end);
+            if (end == part.length() && ipv4Bytes != null && group.indexOf('.') >= 0) {
+                // IPv4 suffix in the last 4 bytes
+                if (count + 2 > maxGroups || !parseIpv4(group, ipv4Bytes, 12)) {
+                    return -1;
+                }
+                groups[count++] = ((ipv4Bytes[12] & 0xFF) << 8) | (ipv4Bytes[13] & 0xFF);
+                groups[count++] = ((ipv4Bytes[14] & 0xFF) << 8) | (ipv4Bytes[15] & 0xFF);
+                return count;
+            }
+            if (group.isEmpty() || group.length() > 4 || count == maxGroups) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = 0; i < group.length(); i++) {
+                final int digit = Character.digit(group.charAt(i), 16);
+                if (digit < 0 || group.charAt(i) > 'f') {
+                    return -1;
+                }
+                value = (value << 4) | digit;
+            }
+            groups[count++] = value;
+            start = end + 1;
+        }
+        return count;
+    }
+}
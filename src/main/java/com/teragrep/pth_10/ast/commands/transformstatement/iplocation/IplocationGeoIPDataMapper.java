@@ -52,32 +52,43 @@ import com.maxmind.geoip2.model.CountryResponse;
 import com.maxmind.geoip2.record.*;
 import com.teragrep.pth_10.ast.NullValue;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.Row;
 import org.apache.spark.sql.api.java.UDF3;
+import org.apache.spark.sql.catalyst.expressions.GenericRowWithSchema;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Maps each IP address string to location information.<br>
- * Requires either a GeoIP2-City or GeoIP2-Country (or GeoLite) MaxMind database to function.
+ * Requires either a GeoIP2-City or GeoIP2-Country (or GeoLite) MaxMind database to function. The result is a struct
+ * of {@link #schema()}, fields that the database type doesn't provide are null. Strings that are not literal IP
+ * addresses are not resolved and result in null values.
  */
-public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean, Map<String, String>> {
+public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean, Row> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IplocationGeoIPDataMapper.class);
-    private DatabaseReader reader;
+    private static final StructType SCHEMA = new StructType()
+            .add("lat", DataTypes.StringType)
+            .add("lon", DataTypes.StringType)
+            .add("city", DataTypes.StringType)
+            .add("region", DataTypes.StringType)
+            .add("country", DataTypes.StringType)
+            .add("metroCode", DataTypes.StringType)
+            .add("continent", DataTypes.StringType);
+    private static final int MEMO_CAPACITY = 4096;
+
     private final String path;
     private final Map<String, String> hadoopCfgMap;
-    private boolean initialized = false;
     private final NullValue nullValue;
+    // executor-wide database, looked up once per deserialized instance
+    private transient SharedMmdb database;
+    private transient LookupMemo memo;
 
     public IplocationGeoIPDataMapper(String path, NullValue nullValue, Map<String, String> hadoopCfgMap) {
         this.path = path;
@@ -85,36 +96,38 @@ public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean,
         this.hadoopCfgMap = hadoopCfgMap;
     }
 
+    /**
+     * @return struct type of the mapper results
+     */
+    public StructType schema() {
+        return SCHEMA;
+    }
+
     @Override
-    public Map<String, String> call(String ipString, String lang, Boolean allFields) throws Exception {
-        if (!initialized) {
-            // If not initialized, start inputStream from HDFS and use as a source for the db reader
-            InputStream is = initInputStream(this.path, createHadoopCfgFromMap(this.hadoopCfgMap));
-            reader = new DatabaseReader.Builder(is).build();
-            initialized = true;
+    public Row call(String ipString, String lang, Boolean allFields) throws Exception {
+        if (database == null) {
+            database = MmdbCache.instance().database(this.path, createHadoopCfgFromMap(this.hadoopCfgMap));
+            memo = new LookupMemo(MEMO_CAPACITY);
         }
+        final Row memoized = memo.get(ipString, lang);
+        if (memoized != null) {
+            return memoized;
+        }
+        final Row result = lookup(database.databaseReader(), ipString, lang);
+        memo.put(ipString, result);
+        return result;
+    }
 
-        Map<String, String> result;
+    private Row lookup(final DatabaseReader reader, final String ipString, final String lang) {
+        final Row result;
 
         final String dbType = reader.getMetadata().getDatabaseType();
-        InetAddress inetAddress;
-        try {
-            inetAddress = InetAddress.getByName(ipString);
-        }
-        catch (UnknownHostException uhe) {
-            LOGGER.warn("Unknown host exception: <{}>. Returning null result.", uhe);
-            result = new HashMap<>();
-            result.put("lat", nullValue.value());
-            result.put("lon", nullValue.value());
-            result.put("city", nullValue.value());
-            result.put("region", nullValue.value());
-            result.put("country", nullValue.value());
-            if (allFields) {
-                result.put("metroCode", nullValue.value());
-                result.put("continent", nullValue.value());
-            }
-            return result;
+        final IpAddressLiteral ipAddressLiteral = new IpAddressLiteral(ipString);
+        if (!ipAddressLiteral.isValid()) {
+            LOGGER.warn("Not a literal IP address: <[{}]>. Returning null result.", ipString);
+            return nullRow();
         }
+        final InetAddress inetAddress = ipAddressLiteral.inetAddress();
 
         // Check for correct database type, otherwise throw exception and return empty results
         if (dbType.equals("GeoLite2-City") || dbType.equals("GeoIP2-City")) {
@@ -128,7 +141,7 @@ public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean,
                 LOGGER.error("Error occurred reading ip <[{}]> from db", inetAddress.toString());
             }
 
-            result = getMapOfCityResponse(cityResponse, lang);
+            result = getRowOfCityResponse(cityResponse, lang);
         }
         else if (dbType.equals("GeoLite2-Country") || dbType.equals("GeoIP2-Country")) {
             // geoip2 data - country
@@ -141,7 +154,7 @@ public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean,
                 LOGGER.error("Error occurred reading ip <[{}]> from db", inetAddress.toString());
             }
 
-            result = getMapOfCountryResponse(countryResponse, lang);
+            result = getRowOfCountryResponse(countryResponse, lang);
         }
         else {
             throw new RuntimeException("Unknown database type provided: " + dbType);
@@ -150,44 +163,54 @@ public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean,
         return result;
     }
 
+    private Row nullRow() {
+        final Object[] values = new Object[SCHEMA.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = nullValue.value();
+        }
+        return new GenericRowWithSchema(values, SCHEMA);
+    }
+
     /**
      * Gets the location information for a CountryResponse
      * 
      * @param resp CountryResponse
      * @param lang Language, for example 'en', 'ja' or 'zh-CN'.
-     * @return Map containing location data
+     * @return Row containing location data
      */
-    private Map<String, String> getMapOfCountryResponse(CountryResponse resp, String lang) {
-        final Map<String, String> result = new HashMap<>();
+    private Row getRowOfCountryResponse(CountryResponse resp, String lang) {
+        final Object[] values = new Object[SCHEMA.size()];
         if (resp == null) {
             // should be null if not valid response
-            result.put("country", nullValue.value());
-            result.put("continent", nullValue.value());
-            return result;
+            values[SCHEMA.fieldIndex("country")] = nullValue.value();
+            values[SCHEMA.fieldIndex("continent")] = nullValue.value();
+            return new GenericRowWithSchema(values, SCHEMA);
         }
 
-        result.put("country", "");
-        result.put("continent", "");
+        String country = "";
+        String continent = "";
 
         if (resp.getCountry() != null) {
             if (resp.getCountry().getNames() != null && resp.getCountry().getNames().get(lang) != null) {
-                result.put("country", resp.getCountry().getNames().get(lang));
+                country = resp.getCountry().getNames().get(lang);
             }
             else if (resp.getCountry().getName() != null) {
-                result.put("country", resp.getCountry().getName());
+                country = resp.getCountry().getName();
             }
         }
 
         if (resp.getContinent() != null) {
             if (resp.getContinent().getNames() != null && resp.getContinent().getNames().get(lang) != null) {
-                result.put("continent", resp.getContinent().getNames().get(lang));
+                continent = resp.getContinent().getNames().get(lang);
             }
             else if (resp.getCountry().getName() != null) {
-                result.put("continent", resp.getContinent().getName());
+                continent = resp.getContinent().getName();
             }
         }
 
-        return result;
+        values[SCHEMA.fieldIndex("country")] = country;
+        values[SCHEMA.fieldIndex("continent")] = continent;
+        return new GenericRowWithSchema(values, SCHEMA);
     }
 
     /**
@@ -195,122 +218,85 @@ public class IplocationGeoIPDataMapper implements UDF3<String, String, Boolean,
      * 
      * @param resp CityResponse
      * @param lang Language, for example 'en', 'ja' or 'zh-CN'
-     * @return Map of the location information
+     * @return Row of the location information
      */
-    private Map<String, String> getMapOfCityResponse(CityResponse resp, String lang) {
-        final Map<String, String> result = new HashMap<>();
+    private Row getRowOfCityResponse(CityResponse resp, String lang) {
         if (resp == null) {
-            result.put("lat", nullValue.value());
-            result.put("lon", nullValue.value());
-            result.put("city", nullValue.value());
-            result.put("region", nullValue.value());
-            result.put("country", nullValue.value());
-            result.put("metroCode", nullValue.value());
-            result.put("continent", nullValue.value());
-            return result;
+            return nullRow();
         }
 
-        result.put("lat", "");
-        result.put("lon", "");
-        result.put("city", "");
-        result.put("region", "");
-        result.put("country", "");
-        result.put("metroCode", "");
-        result.put("continent", "");
+        String lat = "";
+        String lon = "";
+        String city = "";
+        String region = "";
+        String countryName = "";
+        String metroCode = "";
+        String continentName = "";
 
         Location loc = resp.getLocation();
 
-        if (loc == null) {
-            return result;
-        }
-
-        Double lat = loc.getLatitude();
-        Double lon = loc.getLongitude();
-        Integer mc = loc.getMetroCode();
-
-        if (lat != null && lon != null) {
-            result.put("lat", lat.toString());
-            result.put("lon", lon.toString());
-        }
-
-        if (mc != null) {
-            result.put("metroCode", mc.toString());
-        }
-
-        City c = resp.getCity();
+        if (loc != null) {
+            Double latitude = loc.getLatitude();
+            Double longitude = loc.getLongitude();
+            Integer mc = loc.getMetroCode();
 
-        if (c != null) {
-            if (c.getNames() != null && c.getNames().get(lang) != null) {
-                result.put("city", c.getNames().get(lang));
+            if (latitude != null && longitude != null) {
+                lat = latitude.toString();
+                lon = longitude.toString();
             }
-            else if (c.getName() != null) {
-                result.put("city", c.getName());
+
+            if (mc != null) {
+                metroCode = mc.toString();
             }
-        }
 
-        Subdivision subd = resp.getMostSpecificSubdivision();
+            City c = resp.getCity();
 
-        if (subd != null) {
-            if (subd.getNames() != null && subd.getNames().get(lang) != null) {
-                result.put("region", subd.getNames().get(lang));
+            if (c != null) {
+                if (c.getNames() != null && c.getNames().get(lang) != null) {
+                    city = c.getNames().get(lang);
+                }
+                else if (c.getName() != null) {
+                    city = c.getName();
+                }
             }
-            else if (subd.getName() != null) {
-                result.put("region", subd.getName());
-            }
-        }
 
-        Country country = resp.getCountry();
+            Subdivision subd = resp.getMostSpecificSubdivision();
 
-        if (country != null) {
-            if (country.getNames() != null && country.getNames().get(lang) != null) {
-                result.put("country", country.getNames().get(lang));
+            if (subd != null) {
+                if (subd.getNames() != null && subd.getNames().get(lang) != null) {
+                    region = subd.getNames().get(lang);
+                }
+                else if (subd.getName() != null) {
+                    region = subd.getName();
+                }
             }
-            else if (country.getName() != null) {
-                result.put("country", country.getName());
-            }
-        }
 
-        Continent continent = resp.getContinent();
+            Country country = resp.getCountry();
 
-        if (continent != null) {
-            if (continent.getNames() != null && continent.getNames().get(lang) != null) {
-                result.put("continent", continent.getNames().get(lang));
+            if (country != null) {
+                if (country.getNames() != null && country.getNames().get(lang) != null) {
+                    countryName = country.getNames().get(lang);
+                }
+                else if (country.getName() != null) {
+                    countryName = country.getName();
+                }
             }
-            else if (continent.getName() != null) {
-                result.put("continent", continent.getName());
-            }
-        }
 
-        return result;
-    }
+            Continent continent = resp.getContinent();
 
-    /**
-     * Reads a file from HDFS and prepares an InputStream of it
-     * 
-     * @param path       HDFS (or local) file path
-     * @param hadoopConf Hadoop configuration item required for HDFS reading
-     * @return Java IO InputStream of the file
-     */
-    private InputStream initInputStream(String path, Configuration hadoopConf) {
-        InputStream ioIn;
-        try {
-            FileSystem fs = FileSystem.get(hadoopConf);
-            Path fsPath = new Path(path);
-            LOGGER.info("Attempting to open database file: <[{}]>", fsPath.toUri());
-            if (fs.exists(fsPath) && fs.isFile(fsPath)) {
-                LOGGER.info("Path exists and is a file");
-                FSDataInputStream fsIn = fs.open(fsPath);
-                ioIn = fsIn.getWrappedStream();
+            if (continent != null) {
+                if (continent.getNames() != null && continent.getNames().get(lang) != null) {
+                    continentName = continent.getNames().get(lang);
+                }
+                else if (continent.getName() != null) {
+                    continentName = continent.getName();
+                }
             }
-            else {
-                throw new RuntimeException("Invalid database file path given for iplocation command.");
-            }
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
         }
 
-        return ioIn;
+        return new GenericRowWithSchema(new Object[] {
+                lat, lon, city, region, countryName, metroCode, continentName
+        }, SCHEMA);
     }
 
     /**
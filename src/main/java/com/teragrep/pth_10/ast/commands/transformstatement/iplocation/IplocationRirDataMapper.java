@@ -48,33 +48,37 @@ package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
 import com.maxmind.db.Reader;
 import com.teragrep.pth_10.ast.NullValue;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FSDataInputStream;
-import org.apache.hadoop.fs.FileSystem;
-import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.Row;
 import org.apache.spark.sql.api.java.UDF3;
+import org.apache.spark.sql.catalyst.expressions.GenericRowWithSchema;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Maps each IP address string to location information.<br>
  * Requires a rir-data MaxMind database to function. Expects the rir-data schema to contain "Country" and "Operator",
- * however will skip any null values and return empty strings if encountered.
+ * however will skip any null values and return empty strings if encountered. The result is a struct of
+ * {@link #schema()}. Strings that are not literal IP addresses are not resolved and result in null values.
  */
-public class IplocationRirDataMapper implements UDF3<String, String, Boolean, Map<String, String>> {
+public class IplocationRirDataMapper implements UDF3<String, String, Boolean, Row> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(IplocationRirDataMapper.class);
-    private boolean initialized = false;
+    private static final StructType SCHEMA = new StructType()
+            .add("country", DataTypes.StringType)
+            .add("operator", DataTypes.StringType);
+    private static final int MEMO_CAPACITY = 4096;
+
     private final String path;
     private final Map<String, String> hadoopCfgMap;
-    private Reader reader;
     private final NullValue nullValue;
+    // executor-wide database, looked up once per deserialized instance
+    private transient SharedMmdb database;
+    private transient LookupMemo memo;
 
     public IplocationRirDataMapper(String path, NullValue nullValue, Map<String, String> hadoopCfgMap) {
         this.path = path;
@@ -82,32 +86,42 @@ public class IplocationRirDataMapper implements UDF3<String, String, Boolean, Ma
         this.hadoopCfgMap = hadoopCfgMap;
     }
 
+    /**
+     * @return struct type of the mapper results
+     */
+    public StructType schema() {
+        return SCHEMA;
+    }
+
     @Override
-    public Map<String, String> call(String ipString, String lang, Boolean allFields) throws Exception {
-        if (!initialized) {
-            // If not initialized, start inputStream from HDFS and use as a source for the db reader
-            InputStream is = initInputStream(this.path, createHadoopCfgFromMap(this.hadoopCfgMap));
-            this.reader = new Reader(is);
-            initialized = true;
+    public Row call(String ipString, String lang, Boolean allFields) throws Exception {
+        if (database == null) {
+            database = MmdbCache.instance().database(this.path, createHadoopCfgFromMap(this.hadoopCfgMap));
+            memo = new LookupMemo(MEMO_CAPACITY);
+        }
+        final Row memoized = memo.get(ipString, lang);
+        if (memoized != null) {
+            return memoized;
         }
+        final Row result = lookup(database.reader(), ipString);
+        memo.put(ipString, result);
+        return result;
+    }
 
+    private Row lookup(final Reader reader, final String ipString) throws IOException {
         final String dbType = reader.getMetadata().getDatabaseType();
-        final Map<String, String> result = new HashMap<>();
 
-        InetAddress inetAddress;
-        try {
-            inetAddress = InetAddress.getByName(ipString);
-        }
-        catch (UnknownHostException uhe) {
-            LOGGER.warn("Unknown host exception: <{}>. Returning null result.", uhe);
-            result.put("country", nullValue.value());
-            result.put("operator", nullValue.value());
-            return result;
+        final IpAddressLiteral ipAddressLiteral = new IpAddressLiteral(ipString);
+        if (!ipAddressLiteral.isValid()) {
+            LOGGER.warn("Not a literal IP address: <[{}]>. Returning null result.", ipString);
+            return new GenericRowWithSchema(new Object[] {
+                    nullValue.value(), nullValue.value()
+            }, SCHEMA);
         }
 
         // Check for correct database type, otherwise throw exception
         if (dbType.equals("rir-data")) {
-            RirLookupResult rirResult = reader.get(inetAddress, RirLookupResult.class);
+            RirLookupResult rirResult = reader.get(ipAddressLiteral.inetAddress(), RirLookupResult.class);
             String country = "";
             String operator = "";
             if (rirResult != null) {
@@ -120,43 +134,13 @@ public class IplocationRirDataMapper implements UDF3<String, String, Boolean, Ma
                 }
             }
 
-            result.put("country", country);
-            result.put("operator", operator);
+            return new GenericRowWithSchema(new Object[] {
+                    country, operator
+            }, SCHEMA);
         }
         else {
             throw new RuntimeException("Unknown database type provided for rir mapper: " + dbType);
         }
-
-        return result;
-    }
-
-    /**
-     * Reads a file from HDFS and prepares an InputStream of it
-     * 
-     * @param path       HDFS (or local) file path
-     * @param hadoopConf Hadoop configuration item required for HDFS reading
-     * @return Java IO InputStream of the file
-     */
-    private InputStream initInputStream(String path, Configuration hadoopConf) {
-        InputStream ioIn;
-        try {
-            FileSystem fs = FileSystem.get(hadoopConf);
-            Path fsPath = new Path(path);
-            LOGGER.info("Attempting to open database file: <[{}]>", fsPath.toUri());
-            if (fs.exists(fsPath) && fs.isFile(fsPath)) {
-                LOGGER.info("Path exists and is a file");
-                FSDataInputStream fsIn = fs.open(fsPath);
-                ioIn = fsIn.getWrappedStream();
-            }
-            else {
-                throw new RuntimeException("Invalid database file path given for iplocation command.");
-            }
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        return ioIn;
     }
 
     /**
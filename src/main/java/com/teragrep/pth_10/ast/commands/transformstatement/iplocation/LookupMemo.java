@@ -0,0 +1,102 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import org.apache.spark.sql.Row;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used results of a mapper for a single task. Log data is skewed to a small set of addresses, so most
+ * rows are answered without a database lookup. Results are memoized for a single language, changing the language
+ * clears the memo. Not thread-safe, each task uses its own deserialized mapper.
+ */
+final class LookupMemo {
+
+    // same as the default language of the iplocation command
+    private static final String DEFAULT_LANG = "en";
+
+    private final int capacity;
+    private final LinkedHashMap<String, Row> rows;
+    private String lang;
+
+    LookupMemo(final int capacity) {
+        this.capacity = capacity;
+        this.rows = new LinkedHashMap<String, Row>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Row> eldest) {
+                return size() > LookupMemo.this.capacity;
+            }
+        };
+        this.lang = "";
+    }
+
+    /**
+     * @param lang language of the lookup, null is the default language
+     * @return memoized result, or null if the address has not been looked up in this language
+     */
+    Row get(final String ip, final String lang) {
+        final String language = lang == null ? DEFAULT_LANG : lang;
+        if (!this.lang.equals(language)) {
+            rows.clear();
+            this.lang = language;
+            return null;
+        }
+        return rows.get(ip);
+    }
+
+    void put(final String ip, final Row row) {
+        rows.put(ip, row);
+    }
+
+    int size() {
+        return rows.size();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.CacheKey;
+import com.maxmind.db.DecodedValue;
+import com.maxmind.db.NodeCache;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CHMCache} of decoded database nodes that counts its hits and misses. Shared by all the lookups of a
+ * {@link SharedMmdb}, so the counters cover every task of the executor.
+ */
+public final class MeteredNodeCache implements NodeCache {
+
+    private final NodeCache cache;
+    private final LongAdder lookups;
+    private final LongAdder misses;
+
+    public MeteredNodeCache() {
+        this(new CHMCache());
+    }
+
+    MeteredNodeCache(final NodeCache cache) {
+        this.cache = cache;
+        this.lookups = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    @Override
+    public DecodedValue get(final CacheKey key, final Loader loader) throws IOException {
+        lookups.increment();
+        return cache.get(key, k -> {
+            misses.increment();
+            return loader.load(k);
+        });
+    }
+
+    public long hits() {
+        return lookups.sum() - misses.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return share of lookups served from the cache, 0 if there were none
+     */
+    public double hitRate() {
+        final long total = lookups.sum();
+        if (total == 0) {
+            return 0D;
+        }
+        return (double) (total - misses.sum()) / total;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Executor-wide cache of MaxMind databases keyed by the path of the database. The database is copied once from HDFS
+ * (or the local file system) to a local temporary file, which is then shared by all the tasks of the executor instead
+ * of each deserialized UDF reading its own copy to the heap. A database is copied again when its modification time
+ * changes; the previous copy is deleted, readers still using it keep their mapping until they are garbage collected.
+ */
+public final class MmdbCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MmdbCache.class);
+    private static final MmdbCache INSTANCE = new MmdbCache();
+
+    private final Map<String, SharedMmdb> databases;
+
+    public static MmdbCache instance() {
+        return INSTANCE;
+    }
+
+    MmdbCache() {
+        this.databases = new HashMap<>();
+    }
+
+    /**
+     * Gets the current version of the database, copying it to local disk if it is not cached yet.
+     *
+     * @param path       HDFS (or local) file path
+     * @param hadoopConf Hadoop configuration item required for HDFS reading
+     * @return database shared by the executor
+     */
+    public SharedMmdb database(final String path, final Configuration hadoopConf) {
+        try {
+            final FileSystem fs = FileSystem.get(hadoopConf);
+            final Path fsPath = new Path(path);
+            if (!fs.exists(fsPath) || !fs.isFile(fsPath)) {
+                throw new RuntimeException("Invalid database file path given for iplocation command.");
+            }
+            final FileStatus status = fs.getFileStatus(fsPath);
+
+            synchronized (databases) {
+                final SharedMmdb cached = databases.get(path);
+                if (cached != null && cached.modificationTime() == status.getModificationTime()) {
+                    LOGGER
+                            .debug(
+                                    "Using cached database <[{}]>, node cache hit rate <{}>", path,
+                                    cached.nodeCache().hitRate()
+                            );
+                    return cached;
+                }
+                // tasks wait for the copy, instead of each making their own
+                final SharedMmdb database = new SharedMmdb(
+                        path,
+                        status.getModificationTime(),
+                        copyToLocal(fs, fsPath)
+                );
+                databases.put(path, database);
+                if (cached != null) {
+                    LOGGER.info("Database <[{}]> was modified, replacing the local copy", path);
+                    Files.deleteIfExists(cached.localCopy().toPath());
+                }
+                return database;
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private File copyToLocal(final FileSystem fs, final Path fsPath) throws IOException {
+        final File localCopy = Files.createTempFile("pth_10-iplocation-", ".mmdb").toFile();
+        localCopy.deleteOnExit();
+        LOGGER.info("Copying database file <[{}]> to <[{}]>", fsPath.toUri(), localCopy);
+        try (final FSDataInputStream in = fs.open(fsPath)) {
+            Files.copy(in, localCopy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return localCopy;
+    }
+
+    int size() {
+        synchronized (databases) {
+            return databases.size();
+        }
+    }
+}
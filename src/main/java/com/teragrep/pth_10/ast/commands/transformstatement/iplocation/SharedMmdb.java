@@ -0,0 +1,121 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import com.maxmind.db.Reader;
+import com.maxmind.geoip2.DatabaseReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Local copy of a MaxMind database, opened memory-mapped so that the database stays in the page cache instead of the
+ * heap. The readers are thread-safe and shared by all the tasks of an executor, and so is the cache of decoded nodes.
+ */
+public final class SharedMmdb {
+
+    private final String path;
+    private final long modificationTime;
+    private final File localCopy;
+    private final MeteredNodeCache nodeCache;
+    private DatabaseReader databaseReader;
+    private Reader reader;
+
+    SharedMmdb(final String path, final long modificationTime, final File localCopy) {
+        this.path = path;
+        this.modificationTime = modificationTime;
+        this.localCopy = localCopy;
+        this.nodeCache = new MeteredNodeCache();
+        this.databaseReader = null;
+        this.reader = null;
+    }
+
+    /**
+     * @return reader for GeoIP2 and GeoLite2 databases
+     */
+    public synchronized DatabaseReader databaseReader() {
+        if (databaseReader == null) {
+            try {
+                databaseReader = new DatabaseReader.Builder(localCopy)
+                        .fileMode(Reader.FileMode.MEMORY_MAPPED)
+                        .withCache(nodeCache)
+                        .build();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not open database <[" + path + "]>", e);
+            }
+        }
+        return databaseReader;
+    }
+
+    /**
+     * @return plain reader for databases with a custom schema, such as rir-data
+     */
+    public synchronized Reader reader() {
+        if (reader == null) {
+            try {
+                reader = new Reader(localCopy, Reader.FileMode.MEMORY_MAPPED, nodeCache);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not open database <[" + path + "]>", e);
+            }
+        }
+        return reader;
+    }
+
+    public MeteredNodeCache nodeCache() {
+        return nodeCache;
+    }
+
+    long modificationTime() {
+        return modificationTime;
+    }
+
+    File localCopy() {
+        return localCopy;
+    }
+}
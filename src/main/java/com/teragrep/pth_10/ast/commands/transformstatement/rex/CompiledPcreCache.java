@@ -0,0 +1,137 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.rex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executor-wide cache of compiled PCRE patterns keyed by the regex string. Compiling through JNI costs more than
+ * matching a short event, so rex UDFs borrow compiled handles from here instead of compiling on every row. The least
+ * recently used pattern is evicted when the cache is full, and the native memory of evicted or cached patterns is
+ * freed on eviction and on JVM shutdown.
+ */
+public final class CompiledPcreCache {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    // idle handles of a pattern, enough for the tasks running concurrently on the executor
+    private static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors();
+    private static final CompiledPcreCache INSTANCE = new CompiledPcreCache(DEFAULT_CAPACITY, DEFAULT_MAX_IDLE);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::clear, "pth_10-pcre-cache-cleanup"));
+    }
+
+    private final int capacity;
+    private final int maxIdle;
+    private final LinkedHashMap<String, CompiledPcrePool> pools;
+
+    public static CompiledPcreCache instance() {
+        return INSTANCE;
+    }
+
+    CompiledPcreCache(final int capacity) {
+        this(capacity, DEFAULT_MAX_IDLE);
+    }
+
+    CompiledPcreCache(final int capacity, final int maxIdle) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive, got: " + capacity);
+        }
+        if (maxIdle < 1) {
+            throw new IllegalArgumentException("Idle handles per pattern must be positive, got: " + maxIdle);
+        }
+        this.capacity = capacity;
+        this.maxIdle = maxIdle;
+        this.pools = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Borrows a compiled handle for the given pattern, compiling it if no idle handle is available. Use with
+     * try-with-resources to return the handle.
+     *
+     * @param regex PCRE pattern
+     * @return compiled handle owned by the caller until closed
+     */
+    public BorrowedPcre borrow(final String regex) {
+        final CompiledPcrePool pool;
+        final List<CompiledPcrePool> evicted = new ArrayList<>();
+        synchronized (pools) {
+            pool = pools.computeIfAbsent(regex, r -> new CompiledPcrePool(r, maxIdle));
+            while (pools.size() > capacity) {
+                final Map.Entry<String, CompiledPcrePool> eldest = pools.entrySet().iterator().next();
+                evicted.add(eldest.getValue());
+                pools.remove(eldest.getKey());
+            }
+        }
+        for (final CompiledPcrePool e : evicted) {
+            e.close();
+        }
+        return pool.borrow();
+    }
+
+    /**
+     * Evicts all patterns and frees the idle handles; borrowed handles are freed when returned.
+     */
+    public void clear() {
+        final List<CompiledPcrePool> evicted;
+        synchronized (pools) {
+            evicted = new ArrayList<>(pools.values());
+            pools.clear();
+        }
+        for (final CompiledPcrePool e : evicted) {
+            e.close();
+        }
+    }
+
+    int size() {
+        synchronized (pools) {
+            return pools.size();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.rex;
+
+import com.teragrep.jpr_01.JavaPcre;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Idle compiled {@link JavaPcre} handles of a single pattern. A handle carries the state of its latest match, so a
+ * handle is lent to one thread at a time and new handles are compiled when all of them are in use. At most
+ * {@code maxIdle} handles are kept, handles returned to a full pool are freed. Once the pool is closed, idle handles
+ * are freed immediately and borrowed handles are freed when they are returned.
+ */
+final class CompiledPcrePool {
+
+    private final String regex;
+    private final int maxIdle;
+    private final Deque<JavaPcre> idle;
+    private boolean closed;
+
+    CompiledPcrePool(final String regex, final int maxIdle) {
+        this.regex = regex;
+        this.maxIdle = maxIdle;
+        this.idle = new ArrayDeque<>();
+        this.closed = false;
+    }
+
+    BorrowedPcre borrow() {
+        JavaPcre pcre;
+        synchronized (this) {
+            pcre = idle.pollFirst();
+        }
+        if (pcre == null) {
+            // compile outside the lock, concurrent tasks may compile the same pattern in parallel
+            pcre = new JavaPcre();
+            pcre.compile_java(regex);
+        }
+        return new BorrowedPcre(pcre, this);
+    }
+
+    void release(final JavaPcre pcre) {
+        synchronized (this) {
+            if (!closed && idle.size() < maxIdle) {
+                idle.offerFirst(pcre);
+                return;
+            }
+        }
+        pcre.jcompile_free();
+    }
+
+    void close() {
+        synchronized (this) {
+            closed = true;
+            while (!idle.isEmpty()) {
+                idle.pollFirst().jcompile_free();
+            }
+        }
+    }
+
+    synchronized int idleHandles() {
+        return idle.size();
+    }
+}
@@ -48,6 +48,7 @@ package com.teragrep.pth_10.ast.commands.transformstatement.rex;
 import com.teragrep.jpr_01.JavaPcre;
 import org.apache.spark.sql.api.java.UDF2;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -55,32 +56,33 @@ public class RexExtractModeUDF implements UDF2<String, String, Map<String, Strin
 
     @Override
     public Map<String, String> call(String inputStr, String regexStr) throws Exception {
-        // Create JavaPCRE instance
-        final JavaPcre pcre = new JavaPcre();
+        // Borrow a compiled matcher for given pattern, compiled once per executor
+        try (BorrowedPcre borrowed = CompiledPcreCache.instance().borrow(regexStr)) {
+            final JavaPcre pcre = borrowed.pcre();
 
-        // Compile regex matcher for given pattern
-        pcre.compile_java(regexStr);
+            // Match on input string
+            pcre.singlematch_java(inputStr, 0);
 
-        // Match on input string
-        pcre.singlematch_java(inputStr, 0);
+            // Maps containing matches and names for capture groups, the match table of a reused handle is not read
+            // without a match so that groups of the previous row are never returned
+            final Map<Integer, String> matchTable;
+            if (pcre.get_matchfound()) {
+                matchTable = pcre.get_match_table();
+            }
+            else {
+                matchTable = Collections.emptyMap();
+            }
+            final Map<String, Integer> nameTable = pcre.get_name_table();
 
-        // Maps containing matches and names for capture groups
-        final Map<Integer, String> matchTable = pcre.get_match_table();
-        final Map<String, Integer> nameTable = pcre.get_name_table();
+            // save results on name, value map
+            final Map<String, String> results = new HashMap<>();
+            for (final Map.Entry<String, Integer> me : nameTable.entrySet()) {
+                final String value = matchTable.get(me.getValue());
+                final String name = me.getKey();
+                results.put(name, value);
+            }
 
-        // save results on name, value map
-        final Map<String, String> results = new HashMap<>();
-        for (final Map.Entry<String, Integer> me : nameTable.entrySet()) {
-            final String value = matchTable.get(me.getValue());
-            final String name = me.getKey();
-            results.put(name, value);
+            return results;
         }
-
-        // clean compile
-        // Note: Can throw IllegalStateException if nothing to free but should
-        // realistically never happen as it is only called after compile
-        pcre.jcompile_free();
-
-        return results;
     }
 }
@@ -55,25 +55,24 @@ public class RexSedModeUDF implements UDF2<String, String, String> {
 
     @Override
     public String call(String inputStr, String sedStr) throws Exception {
-        JavaPcre pcre = new JavaPcre();
-
         // regex string is now "s/original/replacement/[g|Ng|N]", n>0
         // check for correct form
         CheckedSedString checkedSedString = new CheckedSedString(sedStr);
 
-        // compile match pattern
-        pcre.compile_java(checkedSedString.toRegexString());
-
         List<int[]> offsets;
-        if (checkedSedString.globalMode()) {
-            // global mode
-            offsets = getAllOccurrences(pcre, inputStr, checkedSedString.replaceOccurrencesAmount());
-        }
-        else {
-            // replace nth occurrence mode
-            offsets = getUpToNthOccurrence(pcre, inputStr, checkedSedString.replaceOccurrencesAmount());
-            // only need the last nth occurrence
-            offsets = offsets.subList(offsets.size() - 1, offsets.size());
+        // borrow a compiled match pattern, compiled once per executor
+        try (BorrowedPcre borrowed = CompiledPcreCache.instance().borrow(checkedSedString.toRegexString())) {
+            final JavaPcre pcre = borrowed.pcre();
+            if (checkedSedString.globalMode()) {
+                // global mode
+                offsets = getAllOccurrences(pcre, inputStr, checkedSedString.replaceOccurrencesAmount());
+            }
+            else {
+                // replace nth occurrence mode
+                offsets = getUpToNthOccurrence(pcre, inputStr, checkedSedString.replaceOccurrencesAmount());
+                // only need the last nth occurrence
+                offsets = offsets.subList(offsets.size() - 1, offsets.size());
+            }
         }
 
         StringBuilder resultStrBuilder = new StringBuilder();
@@ -0,0 +1,121 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.rex4j;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.api.java.UDF1;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts all named groups of a rex4j regex with a single match per row. The result is a struct with one string field
+ * per named group, following the semantics of Spark's regexp_extract: a missing match or a group that did not
+ * participate in the match yields an empty string and a null input yields null.
+ */
+public final class NamedGroupsUDF implements UDF1<String, Row> {
+
+    private final String regex;
+    private final String[] names;
+    private final int[] groupIndexes;
+    private transient Pattern pattern;
+
+    /**
+     * @param regex       regex containing the named groups
+     * @param namedGroups group names and indexes as given by {@link NamedGroupsRex#getNamedGroups(String)}
+     */
+    public NamedGroupsUDF(final String regex, final Map<String, Integer> namedGroups) {
+        this.regex = regex;
+        this.names = new String[namedGroups.size()];
+        this.groupIndexes = new int[namedGroups.size()];
+        int i = 0;
+        for (final Map.Entry<String, Integer> me : namedGroups.entrySet()) {
+            names[i] = me.getKey();
+            groupIndexes[i] = me.getValue();
+            i++;
+        }
+    }
+
+    public StructType schema() {
+        final StructField[] fields = new StructField[names.length];
+        for (int i = 0; i < names.length; i++) {
+            fields[i] = DataTypes.createStructField(names[i], DataTypes.StringType, true);
+        }
+        return DataTypes.createStructType(fields);
+    }
+
+    @Override
+    public Row call(final String input) throws Exception {
+        if (input == null) {
+            return null;
+        }
+
+        if (pattern == null) {
+            // compiled once per deserialized instance
+            pattern = Pattern.compile(regex);
+        }
+
+        final Object[] values = new Object[names.length];
+        final Matcher matcher = pattern.matcher(input);
+        if (matcher.find()) {
+            for (int i = 0; i < groupIndexes.length; i++) {
+                final String group = matcher.group(groupIndexes[i]);
+                values[i] = group == null ? "" : group;
+            }
+        }
+        else {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = "";
+            }
+        }
+        return RowFactory.create(values);
+    }
+}
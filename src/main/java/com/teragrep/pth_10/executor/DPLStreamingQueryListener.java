@@ -54,6 +54,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.UUID;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DPLStreamingQueryListener extends StreamingQueryListener {
 
@@ -63,6 +64,8 @@ public class DPLStreamingQueryListener extends StreamingQueryListener {
     private final StreamingQuery streamingQuery;
     private final Config config;
     private final DPLParserCatalystContext catalystContext;
+    // the context is flushed once per query, either on completion or on termination
+    private final AtomicBoolean flushed;
 
     public DPLStreamingQueryListener(
             StreamingQuery streamingQuery,
@@ -82,6 +85,7 @@ public class DPLStreamingQueryListener extends StreamingQueryListener {
         this.streamingQuery = streamingQuery;
         this.config = config;
         this.catalystContext = catalystContext;
+        this.flushed = new AtomicBoolean(false);
     }
 
     @Override
@@ -95,9 +99,8 @@ public class DPLStreamingQueryListener extends StreamingQueryListener {
 
             LOGGER.debug("Checking for completion");
             if (config.getBoolean("dpl.pth_07.checkCompletion")) {
-                LOGGER.debug("Flushing context");
                 // a flush call for post query actions to finish
-                catalystContext.flush();
+                flush();
                 try {
                     LOGGER.info("queryId <{}> Stopping streaming query", streamingQuery.name());
                     streamingQuery.stop();
@@ -118,7 +121,20 @@ public class DPLStreamingQueryListener extends StreamingQueryListener {
     public void onQueryTerminated(QueryTerminatedEvent queryTerminated) {
         LOGGER.info("queryId <{}> Query terminated: <{}>", streamingQuery.name(), queryTerminated.id());
         if (queryTerminated.id().equals(queryId)) {
-            streamingQuery.sparkSession().streams().removeListener(this);
+            try {
+                // releases the resources of the steps also when the query was not stopped on completion
+                flush();
+            }
+            finally {
+                streamingQuery.sparkSession().streams().removeListener(this);
+            }
+        }
+    }
+
+    private void flush() {
+        if (flushed.compareAndSet(false, true)) {
+            LOGGER.debug("queryId <{}> Flushing context", streamingQuery.name());
+            catalystContext.flush();
         }
     }
 
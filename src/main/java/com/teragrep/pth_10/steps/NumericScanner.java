@@ -0,0 +1,273 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import java.io.Serializable;
+
+/**
+ * Single-pass classifier for strings that might be numbers. Decides whether a string is a long, a double or neither
+ * the same way as {@link Long#valueOf(String)} and {@link Double#valueOf(String)} do, but without throwing an
+ * exception for every string that is not a number. The result of the latest scan is kept in the scanner, so an
+ * instance must not be shared between threads.
+ */
+public final class NumericScanner implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private ParsedResult.Type type;
+    private long longValue;
+    private double doubleValue;
+
+    public NumericScanner() {
+        this.type = ParsedResult.Type.STRING;
+        this.longValue = 0L;
+        this.doubleValue = 0D;
+    }
+
+    /**
+     * Scans the input and keeps its value if it is a number.
+     *
+     * @param input string to scan
+     * @return LONG, DOUBLE or STRING
+     */
+    public ParsedResult.Type scan(final String input) {
+        if (scanLong(input)) {
+            type = ParsedResult.Type.LONG;
+            return type;
+        }
+        return scanDouble(input);
+    }
+
+    /**
+     * Scans the input the way {@link Double#valueOf(String)} parses it, also longs are scanned as doubles.
+     *
+     * @param input string to scan
+     * @return DOUBLE or STRING
+     */
+    public ParsedResult.Type scanDouble(final String input) {
+        if (isDouble(input)) {
+            type = ParsedResult.Type.DOUBLE;
+            // syntax is validated, parsing can't throw
+            doubleValue = Double.parseDouble(input);
+        }
+        else {
+            type = ParsedResult.Type.STRING;
+        }
+        return type;
+    }
+
+    public ParsedResult.Type type() {
+        return type;
+    }
+
+    public long longValue() {
+        if (type != ParsedResult.Type.LONG) {
+            throw new IllegalStateException("Latest scan was not a long but <" + type + ">");
+        }
+        return longValue;
+    }
+
+    public double doubleValue() {
+        if (type != ParsedResult.Type.DOUBLE) {
+            throw new IllegalStateException("Latest scan was not a double but <" + type + ">");
+        }
+        return doubleValue;
+    }
+
+    /**
+     * Same algorithm as {@link Long#parseLong(String)}, accumulating negatively to cover Long.MIN_VALUE. Overflowing
+     * numbers are not longs, they are left for {@link #isDouble(String)}.
+     */
+    private boolean scanLong(final String input) {
+        final int length = input.length();
+        if (length == 0) {
+            return false;
+        }
+        int i = 0;
+        boolean negative = false;
+        final char first = input.charAt(0);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                return false;
+            }
+            negative = first == '-';
+            i++;
+        }
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplicationLimit = limit / 10;
+        long result = 0L;
+        while (i < length) {
+            // Long.parseLong accepts all unicode digits
+            final int digit = Character.digit(input.charAt(i++), 10);
+            if (digit < 0 || result < multiplicationLimit) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        longValue = negative ? result : -result;
+        return true;
+    }
+
+    /**
+     * Validates the syntax accepted by {@link Double#parseDouble(String)}: surrounding whitespace, optional sign,
+     * NaN, Infinity, decimal and hexadecimal numbers with an optional float or double suffix.
+     */
+    private boolean isDouble(final String input) {
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int i = start;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        if (input.startsWith("NaN", i)) {
+            return i + 3 == end;
+        }
+        if (input.startsWith("Infinity", i)) {
+            return i + 8 == end;
+        }
+        if (
+            input.charAt(i) == '0' && i + 1 < end && (input.charAt(i + 1) == 'x' || input.charAt(i + 1) == 'X')
+        ) {
+            return isHexadecimal(input, i + 2, end);
+        }
+
+        int digits = 0;
+        while (i < end && isDecimalDigit(input.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && input.charAt(i) == '.') {
+            i++;
+            while (i < end && isDecimalDigit(input.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            i = exponentEnd(input, i + 1, end);
+            if (i < 0) {
+                return false;
+            }
+        }
+        return suffixEnd(input, i, end) == end;
+    }
+
+    /**
+     * Hexadecimal floating point literal after the 0x prefix, the binary exponent is mandatory.
+     */
+    private boolean isHexadecimal(final String input, final int from, final int end) {
+        int i = from;
+        int digits = 0;
+        while (i < end && isHexadecimalDigit(input.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && input.charAt(i) == '.') {
+            i++;
+            while (i < end && isHexadecimalDigit(input.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0 || i == end || (input.charAt(i) != 'p' && input.charAt(i) != 'P')) {
+            return false;
+        }
+        i = exponentEnd(input, i + 1, end);
+        return i >= 0 && suffixEnd(input, i, end) == end;
+    }
+
+    /**
+     * @return index after the exponent digits, or -1 if there are none
+     */
+    private int exponentEnd(final String input, final int from, final int end) {
+        int i = from;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            i++;
+        }
+        final int digitsStart = i;
+        while (i < end && isDecimalDigit(input.charAt(i))) {
+            i++;
+        }
+        if (i == digitsStart) {
+            return -1;
+        }
+        return i;
+    }
+
+    private int suffixEnd(final String input, final int from, final int end) {
+        if (from < end) {
+            final char c = input.charAt(from);
+            if (c == 'f' || c == 'F' || c == 'd' || c == 'D') {
+                return from + 1;
+            }
+        }
+        return from;
+    }
+
+    private boolean isDecimalDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private boolean isHexadecimalDigit(final char c) {
+        return isDecimalDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.catalyst.expressions.Attribute;
+import org.apache.spark.sql.functions;
+import scala.collection.JavaConverters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates column rewrites of a dataset and applies them with a single select. Each withColumn call on a
+ * {@link Dataset} adds a projection that is analyzed again on top of all the previous ones, so steps rewriting many
+ * columns in a loop grow the analysis time with the number of columns. The operations follow the semantics of the
+ * corresponding Dataset methods as if they were applied one after another: {@link #column(String)} returns the
+ * current expression of a column, so a rewrite may build on the previous rewrites of the same projection.
+ */
+public final class Projection {
+
+    private final Dataset<Row> dataset;
+    private final boolean caseSensitive;
+    private final List<Output> outputs;
+    private boolean changed;
+
+    public Projection(final Dataset<Row> dataset) {
+        this.dataset = dataset;
+        this.caseSensitive = dataset.sparkSession().sessionState().conf().caseSensitiveAnalysis();
+        this.outputs = new ArrayList<>();
+        this.changed = false;
+        for (final Attribute attribute : JavaConverters.seqAsJavaList(dataset.queryExecution().analyzed().output())) {
+            outputs.add(new Output(attribute.name(), new Column(attribute), false));
+        }
+    }
+
+    /**
+     * @return names of the columns in the projection, in output order
+     */
+    public String[] columns() {
+        final String[] names = new String[outputs.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = outputs.get(i).name;
+        }
+        return names;
+    }
+
+    /**
+     * Current expression of a column. Names not in the projection are resolved against the dataset like
+     * {@link functions#col(String)}, e.g. nested fields.
+     *
+     * @param name column name
+     * @return the rewritten expression, or a reference to the input column
+     */
+    public Column column(final String name) {
+        for (final Output output : outputs) {
+            if (matches(output.name, name)) {
+                return output.column;
+            }
+        }
+        return functions.col(name);
+    }
+
+    /**
+     * Replaces the columns with the given name, or adds a new column last if there is none.
+     */
+    public Projection withColumn(final String name, final Column column) {
+        boolean replaced = false;
+        for (int i = 0; i < outputs.size(); i++) {
+            if (matches(outputs.get(i).name, name)) {
+                outputs.set(i, new Output(name, column, true));
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            outputs.add(new Output(name, column, true));
+        }
+        changed = true;
+        return this;
+    }
+
+    /**
+     * Renames the columns with the given name, does nothing if there is none.
+     */
+    public Projection withColumnRenamed(final String existingName, final String newName) {
+        for (int i = 0; i < outputs.size(); i++) {
+            final Output output = outputs.get(i);
+            if (matches(output.name, existingName)) {
+                outputs.set(i, new Output(newName, output.column, true));
+                changed = true;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Removes the columns with the given name, does nothing if there is none.
+     */
+    public Projection drop(final String name) {
+        changed |= outputs.removeIf(output -> matches(output.name, name));
+        return this;
+    }
+
+    /**
+     * @return the dataset with all the rewrites in a single projection, or the dataset itself if nothing was rewritten
+     */
+    public Dataset<Row> build() {
+        if (!changed) {
+            return dataset;
+        }
+        final Column[] columns = new Column[outputs.size()];
+        for (int i = 0; i < columns.length; i++) {
+            final Output output = outputs.get(i);
+            columns[i] = output.aliased ? output.column.as(output.name) : output.column;
+        }
+        return dataset.select(columns);
+    }
+
+    private boolean matches(final String a, final String b) {
+        return caseSensitive ? a.equals(b) : a.equalsIgnoreCase(b);
+    }
+
+    private static final class Output {
+
+        private final String name;
+        private final Column column;
+        private final boolean aliased;
+
+        private Output(final String name, final Column column, final boolean aliased) {
+            this.name = name;
+            this.column = column;
+            this.aliased = aliased;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import com.teragrep.pth_10.ast.DPLInternalStreamingQueryListener;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.streaming.DataStreamWriter;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.StreamingQueryException;
+import org.apache.spark.sql.streaming.Trigger;
+import org.apache.spark.sql.types.Metadata;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.util.SizeEstimator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a streaming dataset to the end with an internal query so that it can be used again as a static dataset. Rows
+ * are kept in driver memory and returned as a local relation, which Spark can broadcast, as long as they stay within
+ * the row and byte limits. Once a limit is exceeded, the buffered rows and all following batches are spilled to avro
+ * files in the data path. The checkpoint path is removed after the query and the spilled files when the buffer is
+ * closed, or at the latest when the file system is closed.
+ */
+public final class StreamBuffer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamBuffer.class);
+
+    private final DPLInternalStreamingQueryListener listener;
+    private final String queryName;
+    private final String checkpointPath;
+    private final String dataPath;
+    private final long maxRows;
+    private final long maxBytes;
+    private final List<Row> rows;
+    private long bytes;
+    private boolean spilled;
+    private FileSystem fs;
+
+    public StreamBuffer(
+            final DPLInternalStreamingQueryListener listener,
+            final String queryName,
+            final String checkpointPath,
+            final String dataPath,
+            final long maxRows,
+            final long maxBytes
+    ) {
+        this.listener = listener;
+        this.queryName = queryName;
+        this.checkpointPath = checkpointPath;
+        this.dataPath = dataPath;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.rows = new ArrayList<>();
+        this.bytes = 0L;
+        this.spilled = false;
+        this.fs = null;
+    }
+
+    /**
+     * Runs the streaming dataset to the end and returns its rows as a static dataset. All columns of the returned
+     * dataset are nullable, as they are when read from files.
+     *
+     * @param stream streaming dataset
+     * @return static dataset of the buffered rows
+     * @throws StreamingQueryException if the internal query fails
+     */
+    public Dataset<Row> dataset(final Dataset<Row> stream) throws StreamingQueryException {
+        final SparkSession ss = stream.sparkSession();
+        final StructType schema = nullable(stream.schema());
+        final StructType encodedSchema = encoded(schema);
+        final DataStreamWriter<Row> writer = stream
+                .writeStream()
+                .trigger(Trigger.ProcessingTime(0))
+                .option("checkpointLocation", checkpointPath)
+                .foreachBatch((batchDs, batchId) -> {
+                    add(ss, batchDs, schema, encodedSchema);
+                });
+
+        final StreamingQuery query = listener.registerQuery(queryName, writer);
+        // Await for StreamingQueryListener to call stop()
+        query.awaitTermination();
+
+        try {
+            final FileSystem fs = FileSystem.get(ss.sparkContext().hadoopConfiguration());
+            fs.delete(new Path(checkpointPath), true);
+            if (spilled()) {
+                // the result is read lazily from the spilled files, they are removed on close()
+                fs.deleteOnExit(new Path(dataPath));
+                synchronized (this) {
+                    this.fs = fs;
+                }
+            }
+        }
+        catch (IOException e) {
+            LOGGER.warn("Could not clean up temporary paths of <{}>: <{}>", queryName, e.getMessage());
+        }
+
+        final Dataset<Row> rv;
+        synchronized (this) {
+            if (spilled) {
+                LOGGER.info("Query <{}> was spilled to <{}>", queryName, dataPath);
+                rv = ss.read().format("avro").schema(encodedSchema).load(dataPath).toDF(schema.fieldNames());
+            }
+            else {
+                LOGGER.info("Query <{}> was buffered in memory: <{}> rows, ~<{}> bytes", queryName, rows.size(), bytes);
+                rv = ss.createDataFrame(new ArrayList<>(rows), schema);
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * @return true if the rows exceeded the limits and were written to the data path
+     */
+    public synchronized boolean spilled() {
+        return spilled;
+    }
+
+    /**
+     * Removes the spilled files. The dataset returned by {@link #dataset(Dataset)} can't be read after closing a spilled
+     * buffer.
+     */
+    @Override
+    public synchronized void close() {
+        if (fs != null) {
+            try {
+                final Path path = new Path(dataPath);
+                fs.delete(path, true);
+                fs.cancelDeleteOnExit(path);
+            }
+            catch (IOException e) {
+                LOGGER.warn("Could not remove spilled files of <{}>: <{}>", queryName, e.getMessage());
+            }
+            fs = null;
+        }
+    }
+
+    private synchronized void add(
+            final SparkSession ss,
+            final Dataset<Row> batch,
+            final StructType schema,
+            final StructType encodedSchema
+    ) {
+        if (!spilled) {
+            // the batch is written again if it does not fit, persist it instead of evaluating it twice
+            batch.persist();
+            try {
+                final long remaining = maxRows - rows.size();
+                final List<Row> batchRows = batch
+                        .limit((int) Math.min(Math.max(remaining, 0L), Integer.MAX_VALUE - 1) + 1)
+                        .collectAsList();
+                final long batchBytes = batchRows.isEmpty() ? 0L : SizeEstimator.estimate(batchRows);
+                if (batchRows.size() <= remaining && bytes + batchBytes <= maxBytes) {
+                    rows.addAll(batchRows);
+                    bytes += batchBytes;
+                    return;
+                }
+                LOGGER
+                        .info(
+                                "Query <{}> exceeded <{}> rows or <{}> bytes, spilling to disk", queryName, maxRows,
+                                maxBytes
+                        );
+                ss.createDataFrame(rows, encodedSchema).write().format("avro").mode(SaveMode.Append).save(dataPath);
+                rows.clear();
+                spilled = true;
+                batch.toDF(encodedSchema.fieldNames()).write().format("avro").mode(SaveMode.Append).save(dataPath);
+            }
+            finally {
+                batch.unpersist();
+            }
+        }
+        else {
+            batch.toDF(encodedSchema.fieldNames()).write().format("avro").mode(SaveMode.Append).save(dataPath);
+        }
+    }
+
+    private StructType nullable(final StructType schema) {
+        final StructField[] fields = new StructField[schema.fields().length];
+        for (int i = 0; i < fields.length; i++) {
+            final StructField field = schema.fields()[i];
+            fields[i] = new StructField(field.name(), field.dataType(), true, Metadata.empty());
+        }
+        return new StructType(fields);
+    }
+
+    // avro restricts field names, hex encode them for the files
+    private StructType encoded(final StructType schema) {
+        final StructField[] fields = new StructField[schema.fields().length];
+        for (int i = 0; i < fields.length; i++) {
+            final StructField field = schema.fields()[i];
+            final String encodedName = "HEX".concat(Hex.encodeHexString(field.name().getBytes(StandardCharsets.UTF_8)));
+            fields[i] = new StructField(encodedName, field.dataType(), true, Metadata.empty());
+        }
+        return new StructType(fields);
+    }
+}
@@ -55,30 +55,36 @@ public class TypeParser implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private final NumericScanner scanner;
+
+    public TypeParser() {
+        this.scanner = new NumericScanner();
+    }
+
     /**
-     * Checks if the Object contains a String, Double or a Long value and returns it as a ParsedResult object.
+     * Checks if the Object contains a String, Double or a Long value and returns it as a ParsedResult object. Strings
+     * are classified with a {@link NumericScanner}, so parsing a non-numerical string doesn't throw and catch
+     * exceptions. The parser keeps the state of the scanner and must not be shared between threads.
      * 
      * @param input Object to parse
      * @return String, Double or Long wrapped in a ParsedResult
      */
     public ParsedResult parse(Object input) {
-        // Default to String
-        ParsedResult parsedResult = new ParsedResult(input.toString());
+        final ParsedResult parsedResult;
 
         // Parse the string in case a command was used that returns all data as String
         if (input instanceof String) {
-            try {
-                // try to parse into long
-                parsedResult = new ParsedResult(Long.valueOf((String) input));
-            }
-            catch (NumberFormatException nfe) {
-                try {
-                    // try to parse into double
-                    parsedResult = new ParsedResult(Double.valueOf((String) input));
-                }
-                catch (NumberFormatException ignored) {
-                    // returns as String
-                }
+            final String string = (String) input;
+            switch (scanner.scan(string)) {
+                case LONG:
+                    parsedResult = new ParsedResult(scanner.longValue());
+                    break;
+                case DOUBLE:
+                    parsedResult = new ParsedResult(scanner.doubleValue());
+                    break;
+                default:
+                    parsedResult = new ParsedResult(string);
+                    break;
             }
         }
         else if (input instanceof Long) {
@@ -95,8 +101,8 @@ public class TypeParser implements Serializable {
                 parsedResult = new ParsedResult("");
             }
             else {
-                // arrays with more than one item will be LIST
-                parsedResult = new ParsedResult(JavaConversions.bufferAsJavaList(wr.toBuffer()));
+                // arrays with more than one item will be LIST, viewed without copying
+                parsedResult = new ParsedResult(JavaConversions.seqAsJavaList(wr));
             }
 
         }
@@ -112,13 +118,21 @@ public class TypeParser implements Serializable {
                 parsedResult = new ParsedResult(l);
             }
         }
+        else if (input instanceof Double) {
+            parsedResult = new ParsedResult((Double) input);
+        }
+        else if (input instanceof Integer || input instanceof Short || input instanceof Byte) {
+            // Turns integers into double as well
+            parsedResult = new ParsedResult(((Number) input).doubleValue());
+        }
         else {
-            try {
-                // Turns integers into double as well
-                parsedResult = new ParsedResult(Double.valueOf(input.toString()));
+            final String string = input.toString();
+            if (scanner.scanDouble(string) == ParsedResult.Type.DOUBLE) {
+                parsedResult = new ParsedResult(scanner.doubleValue());
             }
-            catch (NumberFormatException ignored) {
+            else {
                 // returns as String
+                parsedResult = new ParsedResult(string);
             }
         }
 
@@ -47,8 +47,10 @@ package com.teragrep.pth_10.steps.accum;
 
 import com.teragrep.functions.dpf_02.AbstractStep;
 import com.teragrep.pth_10.ast.NullValue;
+import com.teragrep.pth_10.steps.Flushable;
+import com.teragrep.pth_10.steps.NumericScanner;
 import com.teragrep.pth_10.steps.ParsedResult;
-import com.teragrep.pth_10.steps.TypeParser;
+import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.function.MapFunction;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder;
@@ -57,17 +59,32 @@ import org.apache.spark.sql.streaming.GroupStateTimeout;
 import org.apache.spark.sql.streaming.OutputMode;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
-public class AccumStep extends AbstractStep implements Serializable {
+/**
+ * Cumulative sum of a numerical field. A batch dataset, e.g. a micro-batch in sequential mode, is summed in parallel
+ * with a two-phase prefix sum: the sums of each partition are computed first, and each partition is then scanned
+ * starting from the sum of the partitions and micro-batches preceding it. Both phases follow an explicit ordering key
+ * assigned from the order of the incoming rows. A streaming dataset can't run the two phases, so it is summed in a
+ * single group with the state carried over by flatMapGroupsWithState.
+ */
+public class AccumStep extends AbstractStep implements Serializable, Flushable {
+
+    private static final String ORDER_COL = "$$accum_internal_order_col$$";
 
     private final String sourceField;
     private final String renameField;
     private final NullValue nullValue;
+    // sum of the preceding micro-batches in batch mode, only used on the driver
+    private final IntermediateState carry;
+    // rows of the latest micro-batch, cached for both phases until the next micro-batch or the end of the query
+    private transient JavaRDD<Row> cachedRows;
 
     public AccumStep(final NullValue nullValue, final String sourceField, final String renameField) {
         super();
@@ -75,38 +92,108 @@ public class AccumStep extends AbstractStep implements Serializable {
         this.nullValue = nullValue;
         this.sourceField = sourceField;
         this.renameField = renameField;
+        this.carry = new IntermediateState();
+        this.cachedRows = null;
     }
 
     @Override
     public Dataset<Row> get(Dataset<Row> dataset) {
-        // group all events under the same group (=0)
-        final String groupCol = "$$accum_internal_grouping_col$$";
-        Dataset<Row> dsWithGroupCol = dataset.withColumn(groupCol, functions.lit(0));
+        if (dataset.isStreaming()) {
+            return streamingAccum(dataset);
+        }
+        return parallelAccum(dataset);
+    }
 
-        // Create output encoder for results
-        Encoder<Row> outputEncoder;
+    private Dataset<Row> withStringSource(final Dataset<Row> dataset) {
         if (renameField.isEmpty()) {
             // No rename field: Use source column for results
-            dsWithGroupCol = dsWithGroupCol
-                    .withColumn(sourceField, functions.col(sourceField).cast(DataTypes.StringType));
-            outputEncoder = ExpressionEncoder.apply(dsWithGroupCol.schema());
+            return dataset.withColumn(sourceField, functions.col(sourceField).cast(DataTypes.StringType));
         }
-        else {
-            // Rename field: Used 'as <new-field>', returns StringType
-            final StructType st = dsWithGroupCol.schema().add(renameField, DataTypes.StringType);
-            outputEncoder = ExpressionEncoder.apply(st);
+        return dataset;
+    }
+
+    private StructType outputSchema(final Dataset<Row> dataset) {
+        if (renameField.isEmpty()) {
+            return dataset.schema();
+        }
+        // Rename field: Used 'as <new-field>', returns StringType
+        return dataset.schema().add(renameField, DataTypes.StringType);
+    }
+
+    private Dataset<Row> parallelAccum(final Dataset<Row> dataset) {
+        // explicit ordering key: ids grow with the partition index and with the position inside the partition, so
+        // the partition indices of both phases are in key order and each partition is scanned in key order
+        final Dataset<Row> ds = withStringSource(dataset)
+                .withColumn(ORDER_COL, functions.monotonically_increasing_id())
+                .sortWithinPartitions(ORDER_COL);
+        final StructType schema = outputSchema(ds);
+        // both phases must scan the same partitions in the same order, cached to assign the keys only once
+        unpersistCachedRows();
+        final JavaRDD<Row> rows = ds.javaRDD().persist(StorageLevel.MEMORY_AND_DISK());
+        cachedRows = rows;
+
+        // phase one: sum of each partition
+        final List<IntermediateState> partitionSums = rows.mapPartitions(events -> {
+            final NumericScanner scanner = new NumericScanner();
+            final IntermediateState sum = new IntermediateState();
+            while (events.hasNext()) {
+                final Row r = events.next();
+                accumulate(sum, scanner, r.get(r.fieldIndex(sourceField)));
+            }
+            return Collections.singletonList(sum).iterator();
+        }).collect();
+
+        // exclusive prefix sums of the partitions, starting from the preceding micro-batches
+        final List<IntermediateState> offsets = new ArrayList<>(partitionSums.size());
+        final IntermediateState running = carry.copy();
+        for (final IntermediateState partitionSum : partitionSums) {
+            offsets.add(running.copy());
+            running.accumulate(partitionSum);
+            carry.accumulate(partitionSum);
+        }
+
+        // phase two: scan each partition starting from its offset
+        final JavaRDD<Row> summed = rows.mapPartitionsWithIndex((index, events) -> {
+            final IntermediateState currentState = offsets.get(index).copy();
+            return new AccumIterator(events, currentState);
+        }, true);
+
+        return ds.sparkSession().createDataFrame(summed, schema).drop(ORDER_COL);
+    }
+
+    /**
+     * Releases the cached rows of the last micro-batch after the query.
+     */
+    @Override
+    public void flush() {
+        unpersistCachedRows();
+    }
+
+    private void unpersistCachedRows() {
+        if (cachedRows != null) {
+            cachedRows.unpersist(false);
+            cachedRows = null;
         }
+    }
+
+    private Dataset<Row> streamingAccum(final Dataset<Row> dataset) {
+        // group all events under the same group (=0)
+        final String groupCol = "$$accum_internal_grouping_col$$";
+        final Dataset<Row> dsWithGroupCol = withStringSource(dataset).withColumn(groupCol, functions.lit(0));
+
+        // Create output encoder for results
+        final Encoder<Row> outputEncoder = ExpressionEncoder.apply(outputSchema(dsWithGroupCol));
 
         // group dataset by '0', creating one group
         KeyValueGroupedDataset<Integer, Row> keyValueGroupedDs = dsWithGroupCol
                 .groupByKey((MapFunction<Row, Integer>) (r) -> (Integer) r.getAs(groupCol), Encoders.INT());
 
         // use flatMapGroupsWithState to retain state between rows; grouping really isn't used here.
-        // IntermediateState is used to retain state of cumulative sum.
+        // IntermediateState is used to retain state of cumulative sum, stored with its primitive fields.
         Dataset<Row> rv = keyValueGroupedDs
                 .flatMapGroupsWithState(
                         this::flatMapGroupsWithStateFunc, OutputMode.Append(), Encoders
-                                .javaSerialization(IntermediateState.class),
+                                .bean(IntermediateState.class),
                         outputEncoder, GroupStateTimeout.NoTimeout()
                 );
 
@@ -130,70 +217,80 @@ public class AccumStep extends AbstractStep implements Serializable {
 
         // Perform the cumulative sum aggregation
         final List<Row> newEvents = new ArrayList<>();
-        while (events.hasNext()) {
-            // Holds contents for each row
-            final List<Object> rowContents = new ArrayList<>();
-            // If a row is to be skipped: when it is of a non-numerical value (string)
-            boolean skip = false;
-            // Get next row
-            final Row r = events.next();
+        final AccumIterator it = new AccumIterator(events, currentState);
+        while (it.hasNext()) {
+            newEvents.add(it.next());
+        }
 
-            // Get sourceField content as string
-            final String valueAsString = r.getAs(r.fieldIndex(sourceField)).toString();
-            // Parse to LONG or DOUBLE. Others will be STRING and skipped.
-            TypeParser typeParser = new TypeParser();
-            final ParsedResult parsedResult = typeParser.parse(valueAsString);
-            if (parsedResult.getType().equals(ParsedResult.Type.LONG)) {
-                // got long, accumulate
-                currentState.accumulate(parsedResult.getLong());
-            }
-            else if (parsedResult.getType().equals(ParsedResult.Type.DOUBLE)) {
-                // got double, accumulate
-                currentState.accumulate(parsedResult.getDouble());
-            }
-            else {
-                // string, skip and return empty
-                skip = true;
-            }
+        // Update state and return new events' iterator
+        state.update(currentState);
+        return newEvents.iterator();
+    }
+
+    /**
+     * Adds a value to the sum if it is numerical.
+     *
+     * @return false if the value was skipped
+     */
+    private static boolean accumulate(final IntermediateState state, final NumericScanner scanner, final Object value) {
+        if (value == null) {
+            return false;
+        }
+        // Scan to LONG or DOUBLE. Others will be STRING and skipped.
+        final ParsedResult.Type type = scanner.scan(value.toString());
+        if (type == ParsedResult.Type.LONG) {
+            state.accumulate(scanner.longValue());
+            return true;
+        }
+        else if (type == ParsedResult.Type.DOUBLE) {
+            state.accumulate(scanner.doubleValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Accumulates the rows lazily into the given state and returns them with the cumulative sum.
+     */
+    private final class AccumIterator implements Iterator<Row> {
+
+        private final Iterator<Row> events;
+        private final IntermediateState currentState;
+        private final NumericScanner scanner;
 
-            // Build new row: First, add already existing fields
+        private AccumIterator(final Iterator<Row> events, final IntermediateState currentState) {
+            this.events = events;
+            this.currentState = currentState;
+            this.scanner = new NumericScanner();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return events.hasNext();
+        }
+
+        @Override
+        public Row next() {
+            final Row r = events.next();
+            final int sourceIndex = r.fieldIndex(sourceField);
+            final boolean accumulated = accumulate(currentState, scanner, r.get(sourceIndex));
+
+            final int length = renameField.isEmpty() ? r.length() : r.length() + 1;
+            final Object[] rowContents = new Object[length];
             for (int i = 0; i < r.length(); i++) {
-                if (renameField.isEmpty() && i == r.fieldIndex(sourceField) && !skip) {
-                    // replace old content with cumulative sum if no new field given
-                    rowContents
-                            .add(
-                                    currentState.isLongType() ? currentState.asLong().toString() : currentState
-                                            .asDouble()
-                                            .toString()
-                            );
-                }
-                else {
-                    // return old content if renameField was given or current row is to be skipped
-                    rowContents.add(r.get(i));
-                }
+                rowContents[i] = r.get(i);
             }
-            // Add new field to row if renameField was used
-            if (!renameField.isEmpty()) {
-                // add to new field if given
-                if (skip) {
-                    // on skip return null
-                    rowContents.add(nullValue.value());
-                }
-                else {
-                    rowContents
-                            .add(
-                                    currentState.isLongType() ? currentState.asLong().toString() : currentState
-                                            .asDouble()
-                                            .toString()
-                            );
+            if (renameField.isEmpty()) {
+                // replace old content with cumulative sum if no new field given, keep it if skipped
+                if (accumulated) {
+                    rowContents[sourceIndex] = currentState.asString();
                 }
             }
-            // Add new row to collection of new rows
-            newEvents.add(RowFactory.create(rowContents.toArray()));
+            else {
+                // add to new field, on skip return null
+                rowContents[r.length()] = accumulated ? currentState.asString() : nullValue.value();
+            }
+            return RowFactory.create(rowContents);
         }
-
-        // Update state and return new events' iterator
-        state.update(currentState);
-        return newEvents.iterator();
     }
 }
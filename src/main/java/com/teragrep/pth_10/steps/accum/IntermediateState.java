@@ -47,11 +47,14 @@ package com.teragrep.pth_10.steps.accum;
 
 import java.io.Serializable;
 
+/**
+ * Cumulative sum with primitive fields only, so it can be carried between micro-batches with a compact bean encoder.
+ */
 public class IntermediateState implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private Double aggValueAsDouble;
-    private Long aggValueAsLong;
+    private double aggValueAsDouble;
+    private long aggValueAsLong;
 
     private boolean isLongType;
 
@@ -73,6 +76,23 @@ public class IntermediateState implements Serializable {
         this.aggValueAsDouble += val;
     }
 
+    /**
+     * Adds the sum of a preceding or following range of values, used to combine partition sums.
+     * 
+     * @param other sum of the other range
+     */
+    public void accumulate(IntermediateState other) {
+        this.aggValueAsLong += other.aggValueAsLong;
+        this.aggValueAsDouble += other.aggValueAsDouble;
+        this.isLongType = this.isLongType && other.isLongType;
+    }
+
+    public IntermediateState copy() {
+        final IntermediateState copy = new IntermediateState();
+        copy.accumulate(this);
+        return copy;
+    }
+
     public boolean isLongType() {
         return isLongType;
     }
@@ -97,20 +117,27 @@ public class IntermediateState implements Serializable {
         }
     }
 
+    /**
+     * @return the sum as a long if only longs were accumulated, otherwise as a double
+     */
+    public String asString() {
+        return isLongType ? String.valueOf(aggValueAsLong) : String.valueOf(aggValueAsDouble);
+    }
+
     // getters and setters for java bean compliance
-    public Double getAggValueAsDouble() {
+    public double getAggValueAsDouble() {
         return aggValueAsDouble;
     }
 
-    public Long getAggValueAsLong() {
+    public long getAggValueAsLong() {
         return aggValueAsLong;
     }
 
-    public void setAggValueAsDouble(Double aggValueAsDouble) {
+    public void setAggValueAsDouble(double aggValueAsDouble) {
         this.aggValueAsDouble = aggValueAsDouble;
     }
 
-    public void setAggValueAsLong(Long aggValueAsLong) {
+    public void setAggValueAsLong(long aggValueAsLong) {
         this.aggValueAsLong = aggValueAsLong;
     }
 
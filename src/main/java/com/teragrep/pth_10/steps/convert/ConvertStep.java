@@ -46,6 +46,7 @@
 package com.teragrep.pth_10.steps.convert;
 
 import com.teragrep.pth_10.ast.commands.transformstatement.convert.*;
+import com.teragrep.pth_10.steps.Projection;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.expressions.UserDefinedFunction;
 import org.apache.spark.sql.types.DataTypes;
@@ -81,7 +82,8 @@ public final class ConvertStep extends AbstractConvertStep {
         }
 
         sparkSession = SparkSession.builder().getOrCreate();
-        Dataset<Row> rv = dataset;
+        // all the conversions are applied with a single projection
+        Projection rv = new Projection(dataset);
 
         final Set<String> fieldsToConvert = new HashSet<>();
         // Process all of the convert commands
@@ -141,7 +143,7 @@ public final class ConvertStep extends AbstractConvertStep {
             }
         }
 
-        return rv;
+        return rv.build();
     }
 
     /**
@@ -176,155 +178,155 @@ public final class ConvertStep extends AbstractConvertStep {
     /**
      * Process conversion function auto()
      * 
-     * @param dataset      Input dataset
+     * @param projection   Input projection
      * @param field        Field, where source data is
      * @param renameField  AS new-field-name
      * @param cancelOnNull On null value, cancel and don't return
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> auto(Dataset<Row> dataset, String field, String renameField, boolean cancelOnNull) {
+    private Projection auto(Projection projection, String field, String renameField, boolean cancelOnNull) {
         UserDefinedFunction autoUDF = functions.udf(new Auto(), DataTypes.DoubleType);
         sparkSession.udf().register("UDF_Auto", autoUDF);
 
-        Column udfResult = functions.callUDF("UDF_Auto", functions.col(field));
+        Column udfResult = functions.callUDF("UDF_Auto", projection.column(field));
         if (cancelOnNull) {
-            udfResult = functions.when(udfResult.isNotNull(), udfResult).otherwise(functions.col(field));
+            udfResult = functions.when(udfResult.isNotNull(), udfResult).otherwise(projection.column(field));
         }
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function auto() with cancelOnNull=true (default struck behaviour)
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> auto(Dataset<Row> dataset, String field, String renameField) {
-        return this.auto(dataset, field, renameField, true);
+    private Projection auto(Projection projection, String field, String renameField) {
+        return this.auto(projection, field, renameField, true);
     }
 
     /**
      * Process conversion function num()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> num(Dataset<Row> dataset, String field, String renameField) {
-        return this.auto(dataset, field, renameField, false);
+    private Projection num(Projection projection, String field, String renameField) {
+        return this.auto(projection, field, renameField, false);
     }
 
     /**
      * Process conversion function mktime()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> mktime(Dataset<Row> dataset, String field, String renameField) {
+    private Projection mktime(Projection projection, String field, String renameField) {
         UserDefinedFunction mktimeUDF = functions.udf(new Mktime(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Mktime", mktimeUDF);
 
         Column udfResult = functions
-                .callUDF("UDF_Mktime", functions.col(field).cast(DataTypes.StringType), functions.lit(this.timeformat));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+                .callUDF("UDF_Mktime", projection.column(field).cast(DataTypes.StringType), functions.lit(this.timeformat));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function ctime()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> ctime(Dataset<Row> dataset, String field, String renameField) {
+    private Projection ctime(Projection projection, String field, String renameField) {
         UserDefinedFunction ctimeUDF = functions.udf(new Ctime(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Ctime", ctimeUDF);
 
         Column udfResult = functions
-                .callUDF("UDF_Ctime", functions.col(field).cast(DataTypes.StringType), functions.lit(timeformat));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+                .callUDF("UDF_Ctime", projection.column(field).cast(DataTypes.StringType), functions.lit(timeformat));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function dur2sec()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> dur2sec(Dataset<Row> dataset, String field, String renameField) {
+    private Projection dur2sec(Projection projection, String field, String renameField) {
         UserDefinedFunction dur2secUDF = functions.udf(new Dur2Sec(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Dur2sec", dur2secUDF);
 
-        Column udfResult = functions.callUDF("UDF_Dur2sec", functions.col(field).cast(DataTypes.StringType));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+        Column udfResult = functions.callUDF("UDF_Dur2sec", projection.column(field).cast(DataTypes.StringType));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function memk()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> memk(Dataset<Row> dataset, String field, String renameField) {
+    private Projection memk(Projection projection, String field, String renameField) {
         UserDefinedFunction memkUDF = functions.udf(new Memk(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Memk", memkUDF);
 
-        Column udfResult = functions.callUDF("UDF_Memk", functions.col(field).cast(DataTypes.StringType));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+        Column udfResult = functions.callUDF("UDF_Memk", projection.column(field).cast(DataTypes.StringType));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function mstime()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> mstime(Dataset<Row> dataset, String field, String renameField) {
+    private Projection mstime(Projection projection, String field, String renameField) {
         UserDefinedFunction mstimeUDF = functions.udf(new Mstime(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Mstime", mstimeUDF);
 
-        Column udfResult = functions.callUDF("UDF_Mstime", functions.col(field).cast(DataTypes.StringType));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+        Column udfResult = functions.callUDF("UDF_Mstime", projection.column(field).cast(DataTypes.StringType));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 
     /**
      * Process conversion function rmcomma()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> rmcomma(Dataset<Row> dataset, String field, String renameField) {
-        return dataset
-                .withColumn(renameField == null ? field : renameField, functions.regexp_replace(functions.col(field), ",", ""));
+    private Projection rmcomma(Projection projection, String field, String renameField) {
+        return projection
+                .withColumn(renameField == null ? field : renameField, functions.regexp_replace(projection.column(field), ",", ""));
     }
 
     /**
      * Process conversion function rmunit()
      * 
-     * @param dataset     Input dataset
+     * @param projection  Input projection
      * @param field       Field, where source data is
      * @param renameField AS new-field-name
-     * @return Input dataset with added result column
+     * @return Input projection with added result column
      */
-    private Dataset<Row> rmunit(Dataset<Row> dataset, String field, String renameField) {
+    private Projection rmunit(Projection projection, String field, String renameField) {
         UserDefinedFunction rmunitUDF = functions.udf(new Rmunit(), DataTypes.StringType);
         sparkSession.udf().register("UDF_Rmunit", rmunitUDF);
 
-        Column udfResult = functions.callUDF("UDF_Rmunit", functions.col(field).cast(DataTypes.StringType));
-        return dataset.withColumn(renameField == null ? field : renameField, udfResult);
+        Column udfResult = functions.callUDF("UDF_Rmunit", projection.column(field).cast(DataTypes.StringType));
+        return projection.withColumn(renameField == null ? field : renameField, udfResult);
     }
 }
@@ -47,6 +47,8 @@ package com.teragrep.pth_10.steps.eval;
 
 import com.teragrep.pth_10.ast.TextString;
 import com.teragrep.pth_10.ast.UnquotedText;
+import com.teragrep.pth_10.steps.Projection;
+import org.apache.spark.sql.Column;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.functions;
@@ -56,8 +58,19 @@ import org.apache.spark.sql.types.StructType;
 
 public final class EvalStep extends AbstractEvalStep {
 
+    private final boolean typedArithmetic;
+
     public EvalStep() {
+        this(false);
+    }
+
+    /**
+     * @param typedArithmetic use native arithmetic with long and double results when the operands are numeric instead
+     *                        of formatting all arithmetic results as strings
+     */
+    public EvalStep(final boolean typedArithmetic) {
         super();
+        this.typedArithmetic = typedArithmetic;
     }
 
     @Override
@@ -79,13 +92,26 @@ public final class EvalStep extends AbstractEvalStep {
             timeColumnExists = true;
         }
 
-        // perform eval and long->ts
-        ds = ds.withColumn(new UnquotedText(new TextString(leftSide)).read(), rightSide);
+        // operand types of the arithmetic are known from the schema only now
+        final Column evaluated;
+        if (typedArithmetic) {
+            evaluated = new TypedArithmetic(ds.schema()).column(rightSide);
+        }
+        else {
+            evaluated = rightSide;
+        }
+
+        // perform eval and long->ts in one projection, the conversion applies to the result if eval assigned _time
+        final Projection projection = new Projection(ds);
+        projection.withColumn(new UnquotedText(new TextString(leftSide)).read(), evaluated);
         if (timeColumnExists) {
-            ds = ds.withColumn("_time", functions.from_unixtime(functions.col("_time")).cast(DataTypes.TimestampType));
+            projection
+                    .withColumn(
+                            "_time", functions.from_unixtime(projection.column("_time")).cast(DataTypes.TimestampType)
+                    );
         }
 
-        return ds;
+        return projection.build();
     }
 
     /**
@@ -0,0 +1,174 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.eval;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.catalyst.analysis.UnresolvedAttribute;
+import org.apache.spark.sql.catalyst.analysis.UnresolvedFunction;
+import org.apache.spark.sql.catalyst.expressions.Cast;
+import org.apache.spark.sql.catalyst.expressions.Expression;
+import org.apache.spark.sql.catalyst.expressions.Literal;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.NumericType;
+import org.apache.spark.sql.types.StructType;
+import scala.collection.Seq;
+import scala.runtime.AbstractPartialFunction;
+
+/**
+ * Replaces the calls of the EvalArithmetic UDF with native Catalyst arithmetic where the schema shows both operands to
+ * be numeric. Integral operands are computed as longs and other numbers as doubles, division always results in a
+ * double. Operands of unknown type, such as string fields or results of other functions, keep the UDF which parses
+ * numbers out of strings and concatenates other strings. Decimal operands keep the UDF as well, as a double would lose
+ * their precision.
+ * <p>
+ * Unlike the UDF, which computes with BigDecimal, the native arithmetic follows Spark semantics: long addition,
+ * subtraction and multiplication wrap around on overflow, and division or modulo by zero results in null instead of
+ * failing the query.
+ */
+final class TypedArithmetic {
+
+    // name the UDF is registered with in EvalStatement
+    private static final String UDF_NAME = "EvalArithmetic";
+
+    private final StructType schema;
+
+    TypedArithmetic(final StructType schema) {
+        this.schema = schema;
+    }
+
+    Column column(final Column column) {
+        return new Column(column.expr().transformUp(new NativeArithmetic()));
+    }
+
+    /**
+     * Type of the expression if it is known before analysis. Rewritten arithmetic is wrapped in a cast to its result
+     * type so that the enclosing calls see it as numeric as well.
+     */
+    private DataType knownType(final Expression expression) {
+        if (expression instanceof Cast) {
+            return ((Cast) expression).dataType();
+        }
+        if (expression.resolved()) {
+            return expression.dataType();
+        }
+        if (expression instanceof UnresolvedAttribute) {
+            final Seq<String> nameParts = ((UnresolvedAttribute) expression).nameParts();
+            if (nameParts.size() == 1 && schema.getFieldIndex(nameParts.head()).isDefined()) {
+                return schema.apply(nameParts.head()).dataType();
+            }
+        }
+        // unknown, left for the UDF
+        return DataTypes.StringType;
+    }
+
+    private boolean isIntegral(final DataType dataType) {
+        return dataType.equals(DataTypes.LongType) || dataType.equals(DataTypes.IntegerType)
+                || dataType.equals(DataTypes.ShortType) || dataType.equals(DataTypes.ByteType);
+    }
+
+    private final class NativeArithmetic extends AbstractPartialFunction<Expression, Expression> {
+
+        @Override
+        public boolean isDefinedAt(final Expression expression) {
+            if (!(expression instanceof UnresolvedFunction)) {
+                return false;
+            }
+            final UnresolvedFunction function = (UnresolvedFunction) expression;
+            return function.nameParts().size() == 1 && UDF_NAME.equals(function.nameParts().head())
+                    && function.arguments().size() == 3 && function.arguments().apply(1) instanceof Literal;
+        }
+
+        @Override
+        public Expression apply(final Expression expression) {
+            final Seq<Expression> arguments = ((UnresolvedFunction) expression).arguments();
+            final DataType leftType = knownType(arguments.apply(0));
+            final DataType rightType = knownType(arguments.apply(2));
+            if (!(leftType instanceof NumericType) || !(rightType instanceof NumericType)) {
+                return expression;
+            }
+            if (leftType instanceof DecimalType || rightType instanceof DecimalType) {
+                return expression;
+            }
+
+            final DataType operandType;
+            if (isIntegral(leftType) && isIntegral(rightType)) {
+                operandType = DataTypes.LongType;
+            }
+            else {
+                operandType = DataTypes.DoubleType;
+            }
+            final Column left = new Column(arguments.apply(0)).cast(operandType);
+            final Column right = new Column(arguments.apply(2)).cast(operandType);
+
+            final Column result;
+            switch (String.valueOf(((Literal) arguments.apply(1)).value())) {
+                case "+":
+                    result = left.plus(right).cast(operandType);
+                    break;
+                case "-":
+                    result = left.minus(right).cast(operandType);
+                    break;
+                case "*":
+                    result = left.multiply(right).cast(operandType);
+                    break;
+                case "/":
+                    result = left
+                            .cast(DataTypes.DoubleType)
+                            .divide(right.cast(DataTypes.DoubleType))
+                            .cast(DataTypes.DoubleType);
+                    break;
+                case "%":
+                    result = left.mod(right).cast(operandType);
+                    break;
+                default:
+                    return expression;
+            }
+            return result.expr();
+        }
+    }
+}
@@ -45,11 +45,10 @@
  */
 package com.teragrep.pth_10.steps.eventstats;
 
+import com.teragrep.pth_10.steps.Flushable;
+import com.teragrep.pth_10.steps.StreamBuffer;
 import org.apache.spark.sql.*;
-import org.apache.spark.sql.streaming.DataStreamWriter;
-import org.apache.spark.sql.streaming.StreamingQuery;
 import org.apache.spark.sql.streaming.StreamingQueryException;
-import org.apache.spark.sql.streaming.Trigger;
 import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,13 +61,15 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-public class EventstatsStep extends AbstractEventstatsStep {
+public class EventstatsStep extends AbstractEventstatsStep implements Flushable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EventstatsStep.class);
+    private final List<StreamBuffer> buffers;
 
     public EventstatsStep() {
         super();
         this.properties.add(CommandProperty.AGGREGATE);
+        this.buffers = new ArrayList<>();
     }
 
     @Override
@@ -93,48 +94,17 @@ public class EventstatsStep extends AbstractEventstatsStep {
         StructType schema = dataset.schema();
         StructType aggSchema = aggDs.schema();
 
-        // consts for saving to hdfs
-        final String rndId = UUID.randomUUID().toString();
-        final String pathForSave = this.hdfsPath;
-        final String queryName = "eventstats_query_" + rndId;
-        final String checkpointPath = pathForSave + "checkpoint/" + rndId;
-        final String path = pathForSave + "data/" + rndId + ".avro";
-
-        LOGGER
-                .info(
-                        String
-                                .format(
-                                        "Initializing a stream query for eventstats: name: '%s', Path(avro): '%s', Checkpoint path: '%s'",
-                                        queryName, path, checkpointPath
-                                )
-                );
-
-        // save ds to HDFS, and perform join on that
-        DataStreamWriter<Row> writer = dataset
-                .writeStream()
-                .format("avro")
-                .trigger(Trigger.ProcessingTime(0))
-                .option("spark.cleaner.referenceTracking.cleanCheckpoints", "true")
-                .option("checkpointLocation", checkpointPath)
-                .option("path", path)
-                .outputMode("append");
-
-        // start query and wait for finish
-        SparkSession ss = SparkSession.builder().getOrCreate();
-
-        StreamingQuery query = this.catCtx.getInternalStreamingQueryListener().registerQuery(queryName, writer);
-
-        // Await for StreamingQueryListener to call stop()
-        LOGGER.info("Awaiting for the filesink/hdfs save query to end...");
-        query.awaitTermination();
-
-        // Get saved ds (-> non-streaming) from storage, and join on aggregated (-> streaming) dataset
+        final Dataset<Row> savedDs;
+        if (dataset.isStreaming()) {
+            savedDs = materialize(dataset);
+        }
+        else {
+            // sequential mode, the batch can be joined with its aggregation as is
+            savedDs = dataset;
+        }
 
-        Dataset<Row> savedDs = ss.sqlContext().read().format("avro").schema(schema).load(path);
         Dataset<Row> resultDs = null;
 
-        assert savedDs != null : "Dataset read from file sink was null";
-
         if (byInstruction != null) {
             resultDs = savedDs.join(aggDs, byInstruction);
         }
@@ -160,4 +130,40 @@ public class EventstatsStep extends AbstractEventstatsStep {
 
         return resultDs;
     }
+
+    /**
+     * Reads the streaming dataset into a {@link StreamBuffer} and returns it as a static dataset. The rows are kept in
+     * memory unless there are more than <code>dpl.pth_10.eventstats.maxRowsInMemory</code> of them or they are larger
+     * than <code>dpl.pth_10.eventstats.maxBytesInMemory</code>, in which case they are spilled to avro files under
+     * hdfsPath.
+     */
+    private Dataset<Row> materialize(Dataset<Row> dataset) throws StreamingQueryException {
+        final String rndId = UUID.randomUUID().toString();
+        final String pathForSave = this.hdfsPath;
+        final String queryName = "eventstats_query_" + rndId;
+        final String checkpointPath = pathForSave + "checkpoint/" + rndId;
+        final String path = pathForSave + "data/" + rndId + ".avro";
+
+        LOGGER
+                .info(
+                        "Initializing a stream query for eventstats: name: <{}>, Path(avro): <{}>, Checkpoint path: <{}>",
+                        queryName, path, checkpointPath
+                );
+
+        final StreamBuffer buffer = new StreamBuffer(
+                catCtx.getInternalStreamingQueryListener(), queryName, checkpointPath, path,
+                catCtx.eventstatsMaxRowsInMemory(), catCtx.eventstatsMaxBytesInMemory()
+        );
+        buffers.add(buffer);
+        return buffer.dataset(dataset);
+    }
+
+    /**
+     * Removes the spilled rows after the query.
+     */
+    @Override
+    public void flush() {
+        buffers.forEach(StreamBuffer::close);
+        buffers.clear();
+    }
 }
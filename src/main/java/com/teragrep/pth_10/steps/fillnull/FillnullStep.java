@@ -45,6 +45,8 @@
  */
 package com.teragrep.pth_10.steps.fillnull;
 
+import com.teragrep.pth_10.steps.Projection;
+import org.apache.spark.sql.Column;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.functions;
@@ -65,27 +67,29 @@ public class FillnullStep extends AbstractFillnullStep {
             listOfFields = Arrays.asList(dataset.schema().names());
         }
 
+        final Projection projection = new Projection(dataset);
         for (String field : listOfFields) {
-            if (checkForFieldsExistence(field, dataset.columns())) {
+            if (checkForFieldsExistence(field, projection.columns())) {
                 // field exists
                 // replace all "" (empty string) fields with fillerString
-                dataset = dataset
+                final Column current = projection.column(field);
+                projection
                         .withColumn(field, functions.when( // if field="" return fillerString
-                                functions.col(field).equalTo(functions.lit(nullValue.value())), functions.lit(fillerString)
+                                current.equalTo(functions.lit(nullValue.value())), functions.lit(fillerString)
                         )
                                 .otherwise(
                                         // else if field=null return fillerString
-                                        functions.when(functions.col(field).isNull(), functions.lit(fillerString)).otherwise(functions.col(field))
+                                        functions.when(current.isNull(), functions.lit(fillerString)).otherwise(current)
                                 )
                         ); // else return field
             }
             else {
                 // field does not exist, create it and fill with fillerString
-                dataset = dataset.withColumn(field, functions.lit(fillerString));
+                projection.withColumn(field, functions.lit(fillerString));
             }
         }
 
-        return dataset;
+        return projection.build();
     }
 
     private boolean checkForFieldsExistence(final String fieldToCheck, final String[] existingFields) {
@@ -47,10 +47,10 @@ package com.teragrep.pth_10.steps.iplocation;
 
 import com.teragrep.pth_10.ast.commands.transformstatement.iplocation.IplocationGeoIPDataMapper;
 import com.teragrep.pth_10.ast.commands.transformstatement.iplocation.IplocationRirDataMapper;
+import com.teragrep.pth_10.steps.Projection;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.expressions.UserDefinedFunction;
-import org.apache.spark.sql.types.DataTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,30 +95,22 @@ public final class IplocationStep extends AbstractIplocationStep {
         if (isGeoIPDatabase) {
             LOGGER.info("Detected GeoIP database");
 
-            udf = functions
-                    .udf(
-                            new IplocationGeoIPDataMapper(
-                                    this.pathToDb,
-                                    this.catCtx.nullValue,
-                                    extractMapFromHadoopCfg(
-                                            this.catCtx.getSparkSession().sparkContext().hadoopConfiguration()
-                                    )
-                            ), DataTypes.createMapType(DataTypes.StringType, DataTypes.StringType, true)
-                    );
+            final IplocationGeoIPDataMapper mapper = new IplocationGeoIPDataMapper(
+                    this.pathToDb,
+                    this.catCtx.nullValue,
+                    extractMapFromHadoopCfg(this.catCtx.getSparkSession().sparkContext().hadoopConfiguration())
+            );
+            udf = functions.udf(mapper, mapper.schema());
         }
         else {
             LOGGER.info("Detected rir database");
 
-            udf = functions
-                    .udf(
-                            new IplocationRirDataMapper(
-                                    this.pathToDb,
-                                    this.catCtx.nullValue,
-                                    extractMapFromHadoopCfg(
-                                            this.catCtx.getSparkSession().sparkContext().hadoopConfiguration()
-                                    )
-                            ), DataTypes.createMapType(DataTypes.StringType, DataTypes.StringType, true)
-                    );
+            final IplocationRirDataMapper mapper = new IplocationRirDataMapper(
+                    this.pathToDb,
+                    this.catCtx.nullValue,
+                    extractMapFromHadoopCfg(this.catCtx.getSparkSession().sparkContext().hadoopConfiguration())
+            );
+            udf = functions.udf(mapper, mapper.schema());
         }
 
         this.catCtx.getSparkSession().udf().register("UDF_IPLocation", udf);
@@ -150,16 +142,17 @@ public final class IplocationStep extends AbstractIplocationStep {
             mapKeys = this.columnsRirData;
         }
 
-        // Apply udf result to dataset and extract to columns (with prefix, if any)
-        Dataset<Row> res = dataset.withColumn(this.internalMapColumnName, udfResult);
+        // Apply udf result to dataset and extract the struct fields to columns (with prefix, if any) in one projection
+        final Projection projection = new Projection(dataset.withColumn(this.internalMapColumnName, udfResult));
+        final Column struct = projection.column(this.internalMapColumnName);
         for (String key : mapKeys) {
-            res = res.withColumn(prefix + key, res.col(this.internalMapColumnName).getItem(key));
+            projection.withColumn(prefix + key, struct.getField(key));
         }
 
-        // Remove column containing map, not needed
-        res = res.drop(this.internalMapColumnName);
+        // Remove column containing the struct, not needed
+        projection.drop(this.internalMapColumnName);
 
-        return res;
+        return projection.build();
     }
 
     /**
@@ -45,27 +45,28 @@
  */
 package com.teragrep.pth_10.steps.join;
 
+import com.teragrep.pth_10.steps.Flushable;
+import com.teragrep.pth_10.steps.Projection;
+import com.teragrep.pth_10.steps.StreamBuffer;
 import com.teragrep.pth_10.steps.subsearch.AbstractSubsearchStep;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.streaming.*;
-import org.apache.spark.sql.types.StructField;
-import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
-public final class JoinStep extends AbstractJoinStep {
+public final class JoinStep extends AbstractJoinStep implements Flushable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JoinStep.class);
+    private final List<StreamBuffer> buffers;
 
     public JoinStep() {
         super();
+        this.buffers = new ArrayList<>();
     }
 
     @Override
@@ -91,44 +92,13 @@ public final class JoinStep extends AbstractJoinStep {
         // e.g. "_time" -> "R__time"
         final String subSearchPrefix = "R_";
 
-        final SparkSession ss = SparkSession.builder().getOrCreate();
-
-        // Convert to avro-friendly names before save to bypass naming restrictions
-        final Map<String, String> mapOfColumnNames = new HashMap<>();
-        Dataset<Row> convertedSubSearchDataset = this.subSearchDataset;
-        for (final StructField field : this.subSearchDataset.schema().fields()) {
-            final String encodedName = "HEX".concat(Hex.encodeHexString(field.name().getBytes(StandardCharsets.UTF_8)));
-            convertedSubSearchDataset = convertedSubSearchDataset.withColumnRenamed(field.name(), encodedName);
-            mapOfColumnNames.put(encodedName, field.name());
-        }
-
-        // Create subsearch to disk writer and start query
-        final StructType subSchema = convertedSubSearchDataset.schema();
-        DataStreamWriter<Row> subToDiskWriter = convertedSubSearchDataset
-                .writeStream()
-                .format("avro")
-                .trigger(Trigger.ProcessingTime(0))
-                //  .option("spark.cleaner.referenceTracking.cleanCheckpoints", "true")
-                .option("checkpointLocation", checkpointPath)
-                .option("path", path)
-                .outputMode("append");
-
-        // Use StreamingQueryListener to stop query when no progress is detected
-        StreamingQuery subToDiskQuery = this
-                .getCatCtx()
-                .getInternalStreamingQueryListener()
-                .registerQuery(queryName, subToDiskWriter);
-
-        // Await for StreamingQueryListener to call stop()
-        subToDiskQuery.awaitTermination();
-
-        // Read from disk to dataframe
-        Dataset<Row> readFromDisk = ss.sqlContext().read().format("avro").schema(subSchema).load(path);
-        // retrieve original column names
-        Dataset<Row> out = readFromDisk;
-        for (StructField field : readFromDisk.schema().fields()) {
-            out = out.withColumnRenamed(field.name(), mapOfColumnNames.get(field.name()));
-        }
+        // Read the subsearch results, kept in memory and broadcast if small enough
+        final StreamBuffer buffer = new StreamBuffer(
+                this.catCtx.getInternalStreamingQueryListener(), queryName, checkpointPath, path,
+                this.catCtx.subsearchMaxRowsInMemory(), this.catCtx.subsearchMaxBytesInMemory()
+        );
+        buffers.add(buffer);
+        Dataset<Row> out = buffer.dataset(this.subSearchDataset);
 
         // max parameter
         if (max != null && max != 0) {
@@ -154,12 +124,19 @@ public final class JoinStep extends AbstractJoinStep {
         // to separate them from the left side
         String[] originalLeftSideCols = dataset.columns();
 
+        final Projection prefixed = new Projection(out);
         for (String colName : out.columns()) {
-            out = out.withColumnRenamed(colName, subSearchPrefix + colName);
+            prefixed.withColumnRenamed(colName, subSearchPrefix + colName);
         }
+        out = prefixed.build();
 
         String[] originalRightSideCols = out.columns();
 
+        if (!buffer.spilled()) {
+            // LocalTableScan and BroadcastHashJoin in the plan, instead of an avro FileScan
+            out = functions.broadcast(out);
+        }
+
         // Build joinExpr used for joining left and right side datasets
         // Also rename join fields to include a prefix for subsearch columns (default R_)
         // It is used to remove the duplicates after the join
@@ -213,8 +190,9 @@ public final class JoinStep extends AbstractJoinStep {
         result = dataset.join(out, joinExpr, joinMode == null ? "inner" : joinMode);
 
         // drop all subsearch fields which were used to join the dataframes together
+        final Projection projection = new Projection(result);
         for (String fieldName : listOfFields) {
-            result = result.drop(subSearchPrefix + fieldName);
+            projection.drop(subSearchPrefix + fieldName);
         }
 
         // Overwrite left side dataset's columns with the values from right side
@@ -226,12 +204,22 @@ public final class JoinStep extends AbstractJoinStep {
                     Arrays.toString(originalRightSideCols).contains(subSearchPrefix + colName)
                             && !listOfFields.contains(colName)
                 ) {
-                    result = result
-                            .withColumn(colName, functions.coalesce(functions.col(colName), functions.col(subSearchPrefix + colName))).drop(subSearchPrefix + colName);
+                    projection
+                            .withColumn(colName, functions.coalesce(projection.column(colName), projection.column(subSearchPrefix + colName)))
+                            .drop(subSearchPrefix + colName);
                 }
             }
         }
 
-        return result;
+        return projection.build();
+    }
+
+    /**
+     * Removes the spilled subsearch results after the query.
+     */
+    @Override
+    public void flush() {
+        buffers.forEach(StreamBuffer::close);
+        buffers.clear();
     }
 }
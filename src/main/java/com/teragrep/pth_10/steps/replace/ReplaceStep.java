@@ -46,6 +46,7 @@
 package com.teragrep.pth_10.steps.replace;
 
 import com.teragrep.pth_10.ast.commands.transformstatement.replace.ReplaceCmd;
+import com.teragrep.pth_10.steps.Projection;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.types.DataTypes;
 
@@ -80,15 +81,16 @@ public final class ReplaceStep extends AbstractReplaceStep {
         ss.udf().register("UDF_Replace", new ReplaceCmd(), DataTypes.StringType);
 
         // Apply the replace function to all given fields
+        final Projection projection = new Projection(dataset);
         for (String field : this.listOfFields) {
             for (String contentToReplace : this.replacements.keySet()) {
                 Column res = functions
-                        .callUDF("UDF_Replace", functions.col(field), functions.lit(contentToReplace), functions.lit(this.replacements.get(contentToReplace)));
+                        .callUDF("UDF_Replace", projection.column(field), functions.lit(contentToReplace), functions.lit(this.replacements.get(contentToReplace)));
 
-                dataset = dataset.withColumn(field, res);
+                projection.withColumn(field, res);
             }
         }
 
-        return dataset;
+        return projection.build();
     }
 }
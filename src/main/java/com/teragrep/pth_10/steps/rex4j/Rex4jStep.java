@@ -47,6 +47,8 @@ package com.teragrep.pth_10.steps.rex4j;
 
 import com.teragrep.pth_10.ast.DPLParserCatalystContext;
 import com.teragrep.pth_10.ast.commands.transformstatement.rex4j.NamedGroupsRex;
+import com.teragrep.pth_10.ast.commands.transformstatement.rex4j.NamedGroupsUDF;
+import com.teragrep.pth_10.steps.Projection;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.spark.sql.Column;
 import org.apache.spark.sql.Dataset;
@@ -114,17 +116,20 @@ public final class Rex4jStep extends AbstractRex4jStep {
                 );
             }
 
-            // go through multi extraction groups
-            Dataset<Row> res = dataset;
-            Column rex;
-            for (Map.Entry<String, Integer> me : fields.entrySet()) {
-                Integer in = me.getValue();
-                // perform regexp_extract
-                rex = functions.regexp_extract(functions.col(field), regexStr, in);
-                res = res
-                        .withColumn(me.getKey(), functions.when(rex.eqNullSafe(functions.lit("")), functions.lit(catCtx.nullValue.value())).otherwise(rex));
+            // match once per row and extract all groups into a struct
+            final NamedGroupsUDF namedGroupsUDF = new NamedGroupsUDF(regexStr, fields);
+            final Column extracted = functions.udf(namedGroupsUDF, namedGroupsUDF.schema()).apply(functions.col(field));
+            final String outputCol = "$$dpl_internal_rex4j_result$$";
+            final Projection projection = new Projection(dataset.withColumn(outputCol, extracted));
+
+            // project the struct fields, applying NullValue on empty extractions
+            final Column struct = projection.column(outputCol);
+            for (String name : fields.keySet()) {
+                Column rex = struct.getField(name);
+                projection
+                        .withColumn(name, functions.when(rex.eqNullSafe(functions.lit("")), functions.lit(catCtx.nullValue.value())).otherwise(rex));
             }
-            return res;
+            return projection.drop(outputCol).build();
         }
     }
 }
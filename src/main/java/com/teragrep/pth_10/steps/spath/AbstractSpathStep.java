@@ -48,12 +48,16 @@ package com.teragrep.pth_10.steps.spath;
 import com.teragrep.functions.dpf_02.AbstractStep;
 import com.teragrep.pth_10.ast.DPLParserCatalystContext;
 
+import java.util.Collections;
+import java.util.List;
+
 public abstract class AbstractSpathStep extends AbstractStep {
 
     protected String inputColumn = null;
     protected String outputColumn = null;
     protected String path = null;
     protected Boolean autoExtractionMode = null;
+    protected List<String> fields = Collections.emptyList();
     protected DPLParserCatalystContext catCtx = null;
 
     public AbstractSpathStep() {
@@ -76,6 +80,14 @@ public abstract class AbstractSpathStep extends AbstractStep {
         this.autoExtractionMode = autoExtractionMode;
     }
 
+    /**
+     * @param fields fields extracted in auto-extraction mode without discovering them from the data, empty list
+     *               discovers them
+     */
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
     public void setCatCtx(DPLParserCatalystContext catCtx) {
         this.catCtx = catCtx;
     }
@@ -96,6 +108,10 @@ public abstract class AbstractSpathStep extends AbstractStep {
         return autoExtractionMode;
     }
 
+    public List<String> getFields() {
+        return fields;
+    }
+
     public DPLParserCatalystContext getCatCtx() {
         return catCtx;
     }
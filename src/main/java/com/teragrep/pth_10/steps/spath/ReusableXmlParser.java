@@ -0,0 +1,153 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.spath;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * XML parser that is created once and reused for every document, instead of looking up the parser and XPath
+ * factories for each document. Compiled XPath expressions are cached by the expression. Neither the parser nor the
+ * compiled expressions are thread-safe, so an instance must not be shared between threads.
+ */
+public final class ReusableXmlParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReusableXmlParser.class);
+    private static final int MAX_EXPRESSIONS = 64;
+    private static final ErrorHandler ERROR_HANDLER = new FatalErrorHandler();
+
+    private final DocumentBuilder documentBuilder;
+    private final XPath xPath;
+    private final Map<String, XPathExpression> expressions;
+
+    public ReusableXmlParser() {
+        try {
+            this.documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        }
+        catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Failed to create XML parser: " + e.getMessage(), e);
+        }
+        this.xPath = XPathFactory.newInstance().newXPath();
+        this.expressions = new HashMap<>();
+    }
+
+    /**
+     * Parses an XML-formatted string
+     *
+     * @param xmlStr XML-formatted string
+     * @return (XML) Document object, null if the string is not well-formed XML
+     */
+    public Document document(final String xmlStr) {
+        documentBuilder.reset();
+        documentBuilder.setErrorHandler(ERROR_HANDLER);
+        try {
+            return documentBuilder.parse(new InputSource(new StringReader(xmlStr)));
+        }
+        catch (SAXException | IOException e) {
+            LOGGER.debug("Failed to parse XML: <{}>", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates an XPath expression as a string
+     *
+     * @param document   document to evaluate against
+     * @param expression XPath expression
+     * @return string value of the expression
+     * @throws XPathExpressionException if the expression is invalid
+     */
+    public String evaluate(final Document document, final String expression) throws XPathExpressionException {
+        XPathExpression compiled = expressions.get(expression);
+        if (compiled == null) {
+            if (expressions.size() >= MAX_EXPRESSIONS) {
+                expressions.clear();
+            }
+            compiled = xPath.compile(expression);
+            expressions.put(expression, compiled);
+        }
+        return (String) compiled.evaluate(document, XPathConstants.STRING);
+    }
+
+    /**
+     * Fails on malformed documents without printing every failure to stderr like the default handler does.
+     */
+    private static final class FatalErrorHandler implements ErrorHandler {
+
+        @Override
+        public void warning(final SAXParseException exception) {
+            // non-validating parser, warnings are not relevant
+        }
+
+        @Override
+        public void error(final SAXParseException exception) {
+            // non-validating parser, recoverable errors are not relevant
+        }
+
+        @Override
+        public void fatalError(final SAXParseException exception) throws SAXParseException {
+            throw exception;
+        }
+    }
+}
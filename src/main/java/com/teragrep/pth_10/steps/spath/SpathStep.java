@@ -50,6 +50,7 @@ import com.teragrep.pth_10.ast.QuotedText;
 import com.teragrep.pth_10.ast.TextString;
 import com.teragrep.pth_10.ast.UnquotedText;
 import com.teragrep.pth_10.ast.commands.evalstatement.UDFs.Spath;
+import com.teragrep.pth_10.steps.Projection;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.streaming.StreamingQueryException;
 import org.apache.spark.sql.types.DataTypes;
@@ -96,35 +97,47 @@ public final class SpathStep extends AbstractSpathStep {
         //
 
         // set of keys in map
-        Set<String> keys;
+        final Set<String> keys = new LinkedHashSet<>();
 
         // apply udf
-        Dataset<Row> withAppliedUdfDs = dataset.withColumn(outputColumn, spathExpr);
+        final Dataset<Row> withAppliedUdfDs = dataset.withColumn(outputColumn, spathExpr);
 
-        MapTypeColumn mapColumn = new MapTypeColumn(withAppliedUdfDs, outputColumn, this.getCatCtx());
-        keys = mapColumn.getKeys();
+        if (fields.isEmpty()) {
+            // discover the keys from a sample of the data, or from all of it if no sample size is configured
+            MapTypeColumn mapColumn = new MapTypeColumn(withAppliedUdfDs, outputColumn, this.getCatCtx());
+            keys.addAll(mapColumn.getKeys(catCtx.spathSampleSize()));
+        }
+        else {
+            // fields given to this spath command, keys are wrapped in backticks like the udf keys
+            for (final String field : fields) {
+                keys.add(new QuotedText(new TextString(field), "`").read());
+            }
+        }
 
         // Go through the list and get values for each of the keys
         // Each key is a new column with the cell contents being the value for that key
 
         // Check for nulls; return an empty string if null, otherwise value for given key
         // use substring to remove backticks that were added to escape dots in key name
+        // All the keys are extracted with a single projection
+        final Projection projection = new Projection(withAppliedUdfDs);
         for (String key : keys) {
-            withAppliedUdfDs = withAppliedUdfDs
+            final Column map = projection.column(outputColumn);
+            projection
                     .withColumn(new UnquotedText(new TextString(key)).read(), functions.when(
                             /* if key.value == null */
-                            functions.isnull(withAppliedUdfDs.col(outputColumn).getItem(key)),
+                            functions.isnull(map.getItem(key)),
                             /* then return empty string */
                             functions.lit("")
                     )
                             /* otherwise return key.value */
-                            .otherwise(withAppliedUdfDs.col(outputColumn).getItem(key))
+                            .otherwise(map.getItem(key))
                     );
         }
 
         // Output column can be dropped
-        withAppliedUdfDs = withAppliedUdfDs.drop(outputColumn);
+        projection.drop(outputColumn);
 
-        return withAppliedUdfDs;
+        return projection.build();
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.spath;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts the value of a spath expression from a JSON document in a single pass. The document is tokenized with a
+ * streaming reader that only descends into the objects on the path and skips all other values, so only the extracted
+ * value is built into a {@link JsonElement}. The result is the same as navigating a fully parsed lenient document:
+ * the latest duplicate key wins, a missing key in the middle of the path results in {@link JsonNull} and the path
+ * stops at the first primitive value. An expression without keys extracts the whole document.
+ */
+public final class StreamingJsonPath {
+
+    private final String[] keys;
+    private JsonElement value;
+    // value found by the tokenizer and the depth of the path left to navigate in it
+    private JsonElement pending;
+    private int pendingDepth;
+
+    public StreamingJsonPath(final String spath) {
+        final List<String> nonEmptyKeys = new ArrayList<>();
+        for (final String key : spath.split("[.\\[\\]]")) {
+            final String trimmed = key.trim();
+            if (!trimmed.isEmpty()) {
+                nonEmptyKeys.add(trimmed);
+            }
+        }
+        this.keys = nonEmptyKeys.toArray(new String[0]);
+        this.value = null;
+        this.pending = null;
+        this.pendingDepth = 0;
+    }
+
+    /**
+     * Reads the document and keeps the extracted value.
+     *
+     * @param input JSON document
+     * @return false if the input is not a complete JSON document
+     */
+    public boolean read(final String input) {
+        value = null;
+        pending = null;
+        if (input == null) {
+            return false;
+        }
+        final JsonReader reader = new JsonReader(new StringReader(input));
+        reader.setLenient(true);
+        try {
+            navigate(reader, 0);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                return false;
+            }
+        }
+        catch (IOException | JsonParseException e) {
+            return false;
+        }
+        // the rest of the path is navigated only in a valid document
+        value = navigateTree(pending, pendingDepth);
+        return true;
+    }
+
+    /**
+     * @return value of the latest read document, null if the path was not found
+     */
+    public JsonElement value() {
+        return value;
+    }
+
+    private void navigate(final JsonReader reader, final int depth) throws IOException {
+        if (depth == keys.length) {
+            pending = JsonParser.parseReader(reader);
+            pendingDepth = depth;
+            return;
+        }
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            boolean found = false;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (keys[depth].equals(reader.nextName())) {
+                    // a later duplicate key replaces the value found earlier
+                    navigate(reader, depth + 1);
+                    found = true;
+                }
+                else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (!found) {
+                pending = depth + 1 < keys.length ? JsonNull.INSTANCE : null;
+                pendingDepth = keys.length;
+            }
+        }
+        else if (token == JsonToken.NULL) {
+            reader.nextNull();
+            pending = JsonNull.INSTANCE;
+            pendingDepth = keys.length;
+        }
+        else {
+            // arrays and primitives are rare on a path, they are navigated as a tree
+            pending = JsonParser.parseReader(reader);
+            pendingDepth = depth;
+        }
+    }
+
+    private JsonElement navigateTree(final JsonElement json, final int depth) {
+        JsonElement rv = json;
+        for (int i = depth; i < keys.length; i++) {
+            if (rv == null || rv.isJsonNull()) {
+                rv = JsonNull.INSTANCE;
+                break;
+            }
+            if (rv.isJsonObject()) {
+                rv = ((JsonObject) rv).get(keys[i]);
+            }
+            else if (rv.isJsonArray()) {
+                final int index = Integer.parseInt(keys[i]) - 1;
+                rv = ((JsonArray) rv).get(index);
+            }
+            else {
+                break;
+            }
+        }
+        return rv;
+    }
+}
@@ -60,6 +60,9 @@ public abstract class AbstractSubsearchStep extends AbstractStep {
     protected DPLInternalStreamingQueryListener listener;
     protected String hdfsPath;
     protected SubSearchType type = SubSearchType.MAIN_SEARCH_FILTERING;
+    protected int maxTerms = 0;
+    protected long maxRowsInMemory = 10000L;
+    protected long maxBytesInMemory = 10L * 1024 * 1024;
 
     public void setStepList(StepList stepList) {
         this.stepList = stepList;
@@ -77,6 +80,25 @@ public abstract class AbstractSubsearchStep extends AbstractStep {
         this.type = type;
     }
 
+    /**
+     * @param maxTerms maximum amount of subsearch terms used for filtering the main search, a subsearch returning more
+     *                 terms fails the query. 0 for no limit
+     */
+    public void setMaxTerms(int maxTerms) {
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * Subsearch results within both limits are kept in memory, larger results are spilled to hdfsPath
+     *
+     * @param maxRowsInMemory  maximum rows kept in memory
+     * @param maxBytesInMemory maximum estimated bytes kept in memory
+     */
+    public void setMemoryLimits(long maxRowsInMemory, long maxBytesInMemory) {
+        this.maxRowsInMemory = maxRowsInMemory;
+        this.maxBytesInMemory = maxBytesInMemory;
+    }
+
     public StepList getStepList() {
         return stepList;
     }
@@ -92,4 +114,8 @@ public abstract class AbstractSubsearchStep extends AbstractStep {
     public SubSearchType getType() {
         return type;
     }
+
+    public int getMaxTerms() {
+        return maxTerms;
+    }
 }
@@ -43,11 +43,25 @@
  * Teragrep, the applicable Commercial License may apply to this file if you as
  * a licensee so wish it.
  */
-package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex;
+package com.teragrep.pth_10.steps.subsearch;
 
-import org.apache.spark.sql.Row;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.sql.api.java.UDF1;
 
-public interface FieldIndex {
+/**
+ * Matches a value against the subsearch terms with a broadcast {@link MultiTermMatcher}, so the automaton is shipped to
+ * each executor once instead of with every task.
+ */
+public final class MultiTermMatchUDF implements UDF1<String, Boolean> {
+
+    private final Broadcast<MultiTermMatcher> matcher;
+
+    public MultiTermMatchUDF(final Broadcast<MultiTermMatcher> matcher) {
+        this.matcher = matcher;
+    }
 
-    int fieldIndex(Row row);
+    @Override
+    public Boolean call(final String value) throws Exception {
+        return matcher.value().matches(value);
+    }
 }
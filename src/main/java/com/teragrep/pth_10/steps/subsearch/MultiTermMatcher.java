@@ -0,0 +1,167 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.subsearch;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Case-insensitive Aho-Corasick automaton over a set of literal terms. The automaton is built once on the driver and
+ * scans a value in a single pass, regardless of the amount of terms. Characters are folded with
+ * {@link Character#toLowerCase(char)} on both the terms and the scanned values.
+ */
+public final class MultiTermMatcher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // edges of node n are labels[n] (sorted) pointing to targets[n]
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final boolean[] output;
+
+    public MultiTermMatcher(final List<String> terms) {
+        final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        final List<Boolean> terminal = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        terminal.add(false);
+        for (final String term : terms) {
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                final char c = Character.toLowerCase(term.charAt(i));
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    terminal.add(false);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            terminal.set(node, true);
+        }
+
+        final int size = trie.size();
+        this.labels = new char[size][];
+        this.targets = new int[size][];
+        this.failure = new int[size];
+        this.output = new boolean[size];
+        for (int n = 0; n < size; n++) {
+            final TreeMap<Character, Integer> edges = trie.get(n);
+            labels[n] = new char[edges.size()];
+            targets[n] = new int[edges.size()];
+            int e = 0;
+            for (final Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[n][e] = edge.getKey();
+                targets[n][e] = edge.getValue();
+                e++;
+            }
+            output[n] = terminal.get(n);
+        }
+
+        // breadth-first failure links, a node outputs if any of its suffixes is a term
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (final int child : targets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final int node = queue.poll();
+            for (int e = 0; e < labels[node].length; e++) {
+                final char c = labels[node][e];
+                final int child = targets[node][e];
+                int f = failure[node];
+                int next = step(f, c);
+                while (next < 0 && f != 0) {
+                    f = failure[f];
+                    next = step(f, c);
+                }
+                failure[child] = next < 0 ? 0 : next;
+                output[child] = output[child] || output[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @param value value to scan
+     * @return true if any of the terms is contained in the value, null for a null value
+     */
+    public Boolean matches(final String value) {
+        if (value == null) {
+            return null;
+        }
+        if (output[0]) {
+            // empty term matches everything
+            return true;
+        }
+        int node = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = Character.toLowerCase(value.charAt(i));
+            int next = step(node, c);
+            while (next < 0 && node != 0) {
+                node = failure[node];
+                next = step(node, c);
+            }
+            node = next < 0 ? 0 : next;
+            if (output[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int step(final int node, final char c) {
+        final int e = Arrays.binarySearch(labels[node], c);
+        return e < 0 ? -1 : targets[node][e];
+    }
+}
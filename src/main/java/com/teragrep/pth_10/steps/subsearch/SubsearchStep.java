@@ -46,19 +46,18 @@
 package com.teragrep.pth_10.steps.subsearch;
 
 import com.teragrep.pth_10.ast.StepList;
-import org.apache.commons.codec.binary.Hex;
+import com.teragrep.pth_10.steps.StreamBuffer;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 import org.apache.spark.sql.*;
 import org.apache.spark.sql.streaming.*;
-import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.DataTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 /**
  * Step for filtering the dataset generated in LogicalXMLStep. This Step needs its own StepList. It has to filter the
@@ -68,9 +67,18 @@ import java.util.regex.Pattern;
 public final class SubsearchStep extends AbstractSubsearchStep {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SubsearchStep.class);
+    private SubsearchMetrics metrics;
 
     public SubsearchStep(StepList stepList) {
         this.stepList = stepList;
+        this.metrics = null;
+    }
+
+    /**
+     * @return term counts of the subsearch, null until the step has filtered a main search
+     */
+    public SubsearchMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
@@ -86,71 +94,58 @@ public final class SubsearchStep extends AbstractSubsearchStep {
         Dataset<Row> subSearchDs = this.stepList.executeSubsearch(dataset);
 
         if (getType() == SubSearchType.MAIN_SEARCH_FILTERING) {
-            // Convert column names to avro-friendly names.
-            // Add them to map and also rename in the dataframe.
-            final Map<String, String> mapOfColumnNames = new HashMap<>();
-            final StructField[] subsearchFields = subSearchDs.schema().fields();
-            for (final StructField field : subsearchFields) {
-                final String encodedName = "HEX"
-                        .concat(Hex.encodeHexString(field.name().getBytes(StandardCharsets.UTF_8)));
-                subSearchDs = subSearchDs.withColumnRenamed(field.name(), encodedName);
-                mapOfColumnNames.put(encodedName, field.name());
-            }
-
             final String randomID = UUID.randomUUID().toString();
             final String queryName = "subsearch-" + randomID;
             final String hdfsPath = this.hdfsPath;
             final String cpPath = hdfsPath + "checkpoint/sub/" + randomID;
             final String path = hdfsPath + "data/sub/" + randomID;
-            DataStreamWriter<Row> subToDiskWriter = subSearchDs
-                    .repartition(1)
-                    .writeStream()
-                    .format("avro")
-                    .trigger(Trigger.ProcessingTime(0))
-                    //  .option("spark.cleaner.referenceTracking.cleanCheckpoints", "true")
-                    .option("checkpointLocation", cpPath)
-                    .option("path", path)
-                    .outputMode(OutputMode.Append());
-
-            SparkSession ss = SparkSession.builder().getOrCreate();
-
-            StreamingQuery subToDiskQuery = this.listener.registerQuery(queryName, subToDiskWriter);
-
-            // await for listener to stop the subToDiskQuery
-            subToDiskQuery.awaitTermination();
-
-            // read subsearch data from disk and collect
-            Dataset<Row> readFromDisk = ss.read().schema(subSearchDs.schema()).format("avro").load(path);
-
-            // recover original field names
-            final StructField[] fromDiskSchema = readFromDisk.schema().fields();
-            for (final StructField field : fromDiskSchema) {
-                readFromDisk = readFromDisk.withColumnRenamed(field.name(), mapOfColumnNames.get(field.name()));
-            }
 
-            List<Row> collected = readFromDisk.collectAsList();
+            // read the subsearch results, kept in memory if small enough and removed once collected
+            final List<Row> collected;
+            try (
+                    final StreamBuffer buffer = new StreamBuffer(
+                            this.listener, queryName, cpPath, path, maxRowsInMemory, maxBytesInMemory
+                    )
+            ) {
+                collected = buffer.dataset(subSearchDs).collectAsList();
+            }
 
-            // generate filtering column
-            Column filterColumn = null;
+            // collect the subsearch terms, all of them are needed for the main search to be complete
+            final List<String> terms = new ArrayList<>();
             for (Row collectedRow : collected) {
                 for (int i = 0; i < collectedRow.length(); i++) {
-                    String rowContent = collectedRow.get(i).toString();
-                    if (filterColumn != null) {
-                        filterColumn = filterColumn
-                                .or(functions.col("_raw").rlike("(?i)^.*" + Pattern.quote(rowContent) + ".*$"));
-                    }
-                    else {
-                        filterColumn = functions.col("_raw").rlike("(?i)^.*" + Pattern.quote(rowContent) + ".*$");
+                    if (!collectedRow.isNullAt(i)) {
+                        terms.add(collectedRow.get(i).toString());
                     }
                 }
             }
 
-            if (filterColumn == null) {
+            if (terms.isEmpty()) {
                 throw new IllegalStateException("Generated filter column via subsearch was null!");
             }
-            else {
-                LOGGER.info("Filter column: <{}>", filterColumn);
+
+            if (metrics == null) {
+                metrics = new SubsearchMetrics(subSearchDs.sparkSession().sparkContext());
             }
+            metrics.termsCollected(terms.size());
+            LOGGER.info("Subsearch term count: <{}>, <{}>", terms.size(), metrics);
+
+            if (maxTerms > 0 && terms.size() > maxTerms) {
+                throw new IllegalStateException(
+                        "Subsearch returned " + terms.size() + " terms, exceeding the maximum of " + maxTerms
+                                + " set by dpl.pth_10.subsearch.maxTerms. "
+                                + "Limit the subsearch results or raise the maximum."
+                );
+            }
+
+            // match all terms in a single pass with an automaton built once and broadcast to the executors
+            final Broadcast<MultiTermMatcher> matcher = JavaSparkContext
+                    .fromSparkContext(subSearchDs.sparkSession().sparkContext())
+                    .broadcast(new MultiTermMatcher(terms));
+            final Column filterColumn = functions
+                    .udf(new MultiTermMatchUDF(matcher), DataTypes.BooleanType)
+                    .apply(functions.col("_raw"));
+            LOGGER.info("Filter column: <{}>", filterColumn);
 
             // filter main search dataset with column gotten from subSearch
             return dataset.where(filterColumn);
@@ -170,7 +170,7 @@ public final class TeragrepBloomStep extends AbstractStep {
         final BloomFilterAggregator bloomFilterAggregator = new BloomFilterAggregator(
                 inputCol,
                 estimateCol,
-                new FilterTypes(this.zeppelinConfig).sortedMap()
+                new FilterTypes(this.zeppelinConfig).catalog().sortedMap()
         );
         return colBinaryListingDataset
                 .dataset()
@@ -45,32 +45,25 @@
  */
 package com.teragrep.pth_10.steps.teragrep;
 
-import com.google.gson.*;
-import com.google.gson.JsonObject;
 import com.teragrep.functions.dpf_02.AbstractStep;
 import com.teragrep.pth_10.ast.DPLParserCatalystContext;
 import com.teragrep.pth_10.ast.NumericText;
 import com.teragrep.pth_10.ast.TextString;
 import com.teragrep.pth_10.steps.Flushable;
+import com.teragrep.pth_10.steps.teragrep.dynatrace.DynatraceExportMetrics;
+import com.teragrep.pth_10.steps.teragrep.dynatrace.DynatraceExporter;
 import com.teragrep.pth_10.steps.teragrep.dynatrace.DynatraceItem;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import com.teragrep.pth_10.steps.teragrep.dynatrace.DynatraceOptionsFromConfig;
+import com.teragrep.pth_10.steps.teragrep.dynatrace.MetricPayloads;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 public class TeragrepDynatraceStep extends AbstractStep implements Flushable {
@@ -79,29 +72,40 @@ public class TeragrepDynatraceStep extends AbstractStep implements Flushable {
     private final String metricKey;
     private final String metricsApiUrl;
     private final DPLParserCatalystContext catCtx;
-    private List<DynatraceItem> dynatraceItems;
-
-    public TeragrepDynatraceStep(DPLParserCatalystContext catCtx, String metricKey, String metricsApiUrl) {
+    private final DynatraceOptionsFromConfig options;
+    private List<String> payloads;
+
+    public TeragrepDynatraceStep(
+            DPLParserCatalystContext catCtx,
+            String metricKey,
+            String metricsApiUrl,
+            DynatraceOptionsFromConfig options
+    ) {
         super();
         this.catCtx = catCtx;
         this.metricKey = metricKey;
         this.metricsApiUrl = metricsApiUrl;
+        this.options = options;
+        this.payloads = Collections.emptyList();
         this.properties.add(CommandProperty.SEQUENTIAL_ONLY);
         this.properties.add(CommandProperty.REQUIRE_PRECEDING_AGGREGATE);
     }
 
     @Override
     public Dataset<Row> get(Dataset<Row> dataset) {
-        dynatraceItems = new ArrayList<>();
-        final List<Row> rows = dataset.collectAsList();
+        final MetricPayloads metricPayloads = new MetricPayloads(options.maxLinesPerRequest(), options.maxBytesPerRequest());
+        final String[] names = dataset.schema().names();
+        // rows are fetched a partition at a time and only the packed payloads are kept on the driver
+        final Iterator<Row> rows = dataset.toLocalIterator();
 
-        for (Row row : rows) {
+        while (rows.hasNext()) {
+            final Row row = rows.next();
             final DynatraceItem dti = new DynatraceItem();
             dti.setDplQuery(catCtx.getDplQuery());
             // add metric key
             dti.setMetricKey(metricKey);
             for (int j = 0; j < row.length(); j++) {
-                final String name = row.schema().names()[j];
+                final String name = names[j];
                 if (name.equals("_time")) {
                     // if _time present use as run timestamp
                     dti.setTimestamp(row.getTimestamp(j));
@@ -145,85 +149,34 @@ public class TeragrepDynatraceStep extends AbstractStep implements Flushable {
             if (dti.getTimestamp() == null) {
                 dti.setTimestamp(Timestamp.from(Instant.now()));
             }
-            // add to list of all lines
-            dynatraceItems.add(dti);
+            // add to the payloads of all lines
+            metricPayloads.add(dti);
         }
+        payloads = metricPayloads.payloads();
 
         return dataset;
     }
 
-    private void sendPostReq(String urlStr, DynatraceItem dti) throws IOException {
-        final HttpPost httpPost = new HttpPost(urlStr);
-        httpPost.setHeader("Content-Type", "text/plain; charset=utf-8");
-        httpPost.setEntity(new StringEntity(dti.toString(), "utf-8"));
-
-        try (
-                final CloseableHttpClient client = HttpClients.createDefault();
-                final CloseableHttpResponse response = client.execute(httpPost)
-        ) {
-            final int statusCode = response.getStatusLine().getStatusCode();
-
-            final HttpEntity entity = response.getEntity();
-
-            if (entity == null) {
-                throw new IllegalStateException("Response entity was null!");
-            }
-
-            final JsonObject jsonResp;
-            try (final InputStream respStream = entity.getContent()) {
-                final InputStreamReader inputStreamReader = new InputStreamReader(respStream, StandardCharsets.UTF_8);
-                try {
-                    jsonResp = new Gson().fromJson(inputStreamReader, JsonObject.class);
-                }
-                catch (final JsonIOException | JsonSyntaxException je) {
-                    throw new IllegalArgumentException("Error parsing JSON response, message: " + je.getMessage());
-                }
-            }
-            catch (final IOException | UnsupportedOperationException e) {
-                throw new IllegalStateException("Error getting response stream, message: " + e.getMessage());
-            }
-            if (jsonResp == null || jsonResp.isJsonNull()) {
-                throw new IllegalStateException("Unexpected null JSON response");
-            }
-
-            if (jsonResp.has("error") && !jsonResp.get("error").isJsonNull()) {
-                throw new RuntimeException("Error from server response: " + jsonResp.get("error").toString());
-            }
-
-            final boolean hasValidElem = jsonResp.has("linesValid");
-            if (!hasValidElem) {
-                throw new RuntimeException("Unexpected JSON: Could not find linesValid element.");
-            }
-            LOGGER
-                    .info("queryId <{}> Query has valid lines: <[{}]>", catCtx.getQueryName(), jsonResp.get("linesValid"));
-
-            final boolean hasInvalidElem = jsonResp.has("linesInvalid");
-            if (!hasInvalidElem) {
-                throw new RuntimeException("Unexpected JSON: Could not find linesInvalid element.");
-            }
+    @Override
+    public void flush() {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        try (final DynatraceExporter exporter = new DynatraceExporter(metricsApiUrl, options)) {
+            final long startNanos = System.nanoTime();
+            final DynatraceExportMetrics metrics = exporter.export(payloads);
             LOGGER
-                    .warn(
-                            "queryId <{}> Query has invalid lines: <[{}]>", catCtx.getQueryName(),
-                            jsonResp.get("linesInvalid")
+                    .info(
+                            "queryId <{}> Sent <{}> payloads in <{}> ms: <{}>", catCtx.getQueryName(),
+                            payloads.size(), (System.nanoTime() - startNanos) / 1000000L, metrics
                     );
-
-            if (statusCode != 202 && statusCode != 400) {
-                throw new RuntimeException("Error! Response code: <[" + statusCode + "]>. Expected 202 or 400.");
+            if (metrics.linesInvalid() > 0) {
+                LOGGER
+                        .warn(
+                                "queryId <{}> Query has invalid lines: <[{}]>", catCtx.getQueryName(),
+                                metrics.linesInvalid()
+                        );
             }
         }
     }
-
-    @Override
-    public void flush() {
-        // send post for each line
-        // TODO: Send all in one?
-        dynatraceItems.forEach(dti -> {
-            try {
-                sendPostReq(metricsApiUrl, dti);
-            }
-            catch (IOException e) {
-                throw new RuntimeException("Error sending post request: " + e);
-            }
-        });
-    }
 }
@@ -45,30 +45,20 @@
  */
 package com.teragrep.pth_10.steps.teragrep;
 
-import com.google.gson.Gson;
 import com.teragrep.functions.dpf_02.AbstractStep;
 import com.teragrep.pth_10.ast.DPLParserCatalystContext;
 import com.teragrep.pth_10.datasources.S3CredentialWallet;
 import com.teragrep.pth_10.steps.Flushable;
+import com.teragrep.pth_10.steps.teragrep.kafka.JsonChunks;
+import com.teragrep.pth_10.steps.teragrep.kafka.KafkaSaveOptionsFromConfig;
 import com.typesafe.config.Config;
 import org.apache.spark.SparkContext;
-import org.apache.spark.api.java.function.MapFunction;
 import org.apache.spark.sql.*;
-import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder;
 import org.apache.spark.sql.streaming.DataStreamWriter;
 import org.apache.spark.sql.streaming.OutputMode;
 import org.apache.spark.sql.streaming.StreamingQuery;
 import org.apache.spark.sql.streaming.StreamingQueryException;
-import org.apache.spark.sql.types.DataTypes;
-import org.apache.spark.sql.types.MetadataBuilder;
-import org.apache.spark.sql.types.StructField;
-import org.apache.spark.sql.types.StructType;
-import scala.collection.JavaConversions;
-import scala.collection.Seq;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -178,43 +168,19 @@ public final class TeragrepKafkaStep extends AbstractStep implements Flushable {
                 .withColumn("kafkaSave_runTime", functions.current_timestamp())
                 .withColumn("kafkaSave_appId", functions.lit(sc.applicationId()));
 
+        final KafkaSaveOptionsFromConfig options = new KafkaSaveOptionsFromConfig(zeppelinConfig);
         if (toKafkaDs.isStreaming()) { // parallel mode
             // Convert each row to a single "value" column as JSON
-            toKafkaDs = toKafkaDs
-                    .map(
-                            (MapFunction<Row, Row>) r -> {
-                                // get column names as a scala sequence
-                                Seq<String> seqOfColumnNames = JavaConversions
-                                        .asScalaBuffer(Arrays.asList(r.schema().fieldNames()));
-
-                                // Get values for each of the columns as a map, and create json out of the map
-                                // getValuesMap() returns a Scala map; mapAsJavaMap converts it to a java map which Gson processes correctly
-                                String json = new Gson()
-                                        .toJson(JavaConversions.mapAsJavaMap(r.getValuesMap(seqOfColumnNames)));
-
-                                // Return final row
-                                return RowFactory.create(json);
-                            }, ExpressionEncoder.apply(new StructType(new StructField[] {
-                                    new StructField("value", DataTypes.StringType, true, new MetadataBuilder().build())
-                            }))
-                    );
+            toKafkaDs = toKafkaDs.select(functions.to_json(functions.struct(functions.col("*"))).as("value"));
         }
-        else { // sequential mode, all as one event
-            List<String> jsonList = toKafkaDs.toJSON().collectAsList();
-            final String json;
-
-            if (jsonList.size() == 1) {
-                json = jsonList.get(0);
-            }
-            else {
-                json = Arrays.toString(jsonList.toArray());
-            }
-
-            toKafkaDs = catCtx
-                    .getSparkSession()
-                    .createDataFrame(Collections.singletonList(RowFactory.create(json)), new StructType(new StructField[] {
-                            new StructField("value", DataTypes.StringType, true, new MetadataBuilder().build())
-                    }));
+        else { // sequential mode, rows grouped into messages of bounded size on the executors
+            toKafkaDs = toKafkaDs
+                    .toJSON()
+                    .mapPartitions(
+                            new JsonChunks(options.maxRecordsPerMessage(), options.maxBytesPerMessage()),
+                            Encoders.STRING()
+                    )
+                    .toDF("value");
         }
 
         String kafkaBootstrapServers;
@@ -287,7 +253,8 @@ public final class TeragrepKafkaStep extends AbstractStep implements Flushable {
                     .option("kafka.sasl.jaas.config", jaasConfig)
                     .option("kafka.bootstrap.servers", kafkaBootstrapServers)
                     .option("kafka.sasl.mechanism", kafkaSaslMechanism)
-                    .option("kafka.security.protocol", kafkaSecurityProtocol);
+                    .option("kafka.security.protocol", kafkaSecurityProtocol)
+                    .options(options.producerOptions());
 
             if (!this.aggregatesUsedBefore) {
                 this.dfKafkaWriter.mode(SaveMode.Append);
@@ -309,7 +276,8 @@ public final class TeragrepKafkaStep extends AbstractStep implements Flushable {
                     .option("kafka.sasl.jaas.config", jaasConfig)
                     .option("kafka.bootstrap.servers", kafkaBootstrapServers)
                     .option("kafka.sasl.mechanism", kafkaSaslMechanism)
-                    .option("kafka.security.protocol", kafkaSecurityProtocol);
+                    .option("kafka.security.protocol", kafkaSecurityProtocol)
+                    .options(options.producerOptions());
 
             if (catCtx.getStepList().getAggregateCount() > 0) {
                 kafkaWriter.outputMode(OutputMode.Complete());
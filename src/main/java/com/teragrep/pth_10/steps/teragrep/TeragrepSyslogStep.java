@@ -46,15 +46,28 @@
 package com.teragrep.pth_10.steps.teragrep;
 
 import com.teragrep.functions.dpf_02.AbstractStep;
-import com.teragrep.pth_10.ast.commands.transformstatement.teragrep.SyslogStreamer;
+import com.teragrep.pth_10.ast.DPLParserCatalystContext;
+import com.teragrep.pth_10.steps.teragrep.syslog.RelpDeliveryMetrics;
+import com.teragrep.pth_10.steps.teragrep.syslog.SyslogForeachPartitionFunction;
+import com.teragrep.pth_10.steps.teragrep.syslog.SyslogForeachWriter;
+import com.teragrep.pth_10.steps.teragrep.syslog.SyslogOptionsFromConfig;
+import com.teragrep.pth_10.steps.teragrep.syslog.SyslogRowPlan;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.streaming.DataStreamWriter;
+import org.apache.spark.sql.streaming.StreamingQuery;
+import org.apache.spark.sql.streaming.StreamingQueryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
 /**
  * teragrep exec syslog stream host x port y Sends the topmost dataset popped from the <code>ProcessingStack</code> as a
- * series of syslog messages to the given RELP server.
+ * series of syslog messages to the given RELP server. Each partition sends its rows in batches over a connection of
+ * its own, and every message is acknowledged by the server at least once before the partition is done. In parallel
+ * mode the streaming dataset is forwarded as it is read, otherwise the command runs on the sequential micro-batches.
  */
 public class TeragrepSyslogStep extends AbstractStep {
 
@@ -62,20 +75,54 @@ public class TeragrepSyslogStep extends AbstractStep {
 
     public final String relpHost;
     public final int relpPort;
+    private final DPLParserCatalystContext catCtx;
+    private final SyslogOptionsFromConfig options;
 
-    public TeragrepSyslogStep(String relpHost, int relpPort) {
+    public TeragrepSyslogStep(
+            String relpHost,
+            int relpPort,
+            DPLParserCatalystContext catCtx,
+            SyslogOptionsFromConfig options
+    ) {
         this.relpHost = relpHost;
         this.relpPort = relpPort;
+        this.catCtx = catCtx;
+        this.options = options;
         this.properties.add(CommandProperty.NO_PRECEDING_AGGREGATE);
-        this.properties.add(CommandProperty.SEQUENTIAL_ONLY);
+        if (!options.parallel()) {
+            this.properties.add(CommandProperty.SEQUENTIAL_ONLY);
+        }
     }
 
     @Override
-    public Dataset<Row> get(Dataset<Row> dataset) {
-        LOGGER.info("Calling sendDataframeAsSyslog function");
-        final SyslogStreamer syslogStreamer = new SyslogStreamer(relpHost, relpPort);
+    public Dataset<Row> get(Dataset<Row> dataset) throws StreamingQueryException {
+        final RelpDeliveryMetrics metrics = new RelpDeliveryMetrics(dataset.sparkSession().sparkContext());
+        final SyslogRowPlan plan = new SyslogRowPlan(dataset.schema());
+        final int batchSize = options.batchSize();
+        final long startNanos = System.nanoTime();
+
+        if (dataset.isStreaming()) {
+            LOGGER.info("Forwarding the stream as syslog in parallel with batches of <{}> messages", batchSize);
+            final DataStreamWriter<Row> syslogWriter = dataset
+                    .writeStream()
+                    .foreach(new SyslogForeachWriter(relpHost, relpPort, batchSize, plan, metrics));
+            final StreamingQuery syslogQuery = catCtx
+                    .getInternalStreamingQueryListener()
+                    .registerQuery("syslog_" + UUID.randomUUID(), syslogWriter);
+            syslogQuery.awaitTermination();
+        }
+        else {
+            LOGGER.info("Sending the dataset as syslog with batches of <{}> messages", batchSize);
+            dataset.foreachPartition(new SyslogForeachPartitionFunction(relpHost, relpPort, batchSize, plan, metrics));
+        }
 
-        dataset.foreach(syslogStreamer);
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        LOGGER
+                .info(
+                        "Syslog stream to <[{}]>:<[{}]> delivered at least once: <{}> messages in <{}> batches with <{}> retries in <{}> ms (<{}> messages/s)",
+                        relpHost, relpPort, metrics.delivered(), metrics.batches(), metrics.retries(), elapsedMillis,
+                        elapsedMillis == 0 ? metrics.delivered() : metrics.delivered() * 1000 / elapsedMillis
+                );
         return dataset;
     }
 
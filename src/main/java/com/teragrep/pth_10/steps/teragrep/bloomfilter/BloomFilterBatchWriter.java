@@ -0,0 +1,209 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.bloomfilter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes serialized filters of a single Spark partition with one prepared statement in one transaction. The filter type
+ * ids are resolved once when the writer is opened and rows are sent in JDBC batches of {@code batchSize}. The rows are
+ * committed only by {@link #commit()} once the whole partition is written, closing an uncommitted writer rolls the
+ * transaction back so that a retried task does not find a partial partition. The connection is left open.
+ */
+public final class BloomFilterBatchWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BloomFilterBatchWriter.class);
+
+    private final Connection connection;
+    private final Map<Long, Long> bitSizeToFilterTypeId;
+    private final PreparedStatement stmt;
+    private final int batchSize;
+    private int batched;
+    private int written;
+    private boolean committed;
+
+    public BloomFilterBatchWriter(
+            Connection connection,
+            FilterTypeCatalog filterTypeCatalog,
+            String tableName,
+            String regex,
+            boolean overwrite,
+            int batchSize
+    ) {
+        this.connection = connection;
+        this.bitSizeToFilterTypeId = filterTypeIds(connection, filterTypeCatalog, regex);
+        this.batchSize = batchSize;
+        this.batched = 0;
+        this.written = 0;
+        this.committed = false;
+        final String sql = (overwrite ? "REPLACE" : "INSERT IGNORE") + " INTO `" + tableName
+                + "` (`partition_id`, `filter_type_id`,`filter`) VALUES(?,?,?)";
+        LOGGER.debug("Save filter SQL: <{}>", sql);
+        try {
+            this.stmt = connection.prepareStatement(sql);
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Error generating a prepared statement: " + e);
+        }
+    }
+
+    /**
+     * Maps the bit size of each configured filter size to the id of its filter type with the given pattern.
+     */
+    private static Map<Long, Long> filterTypeIds(
+            final Connection connection,
+            final FilterTypeCatalog filterTypeCatalog,
+            final String regex
+    ) {
+        final Map<Long, Long> bitSizeToExpectedItems = filterTypeCatalog.bitSizeMap();
+        final Map<Long, Long> ids = new HashMap<>();
+        final String sql = "SELECT `id` FROM `filtertype` WHERE expectedElements=? AND targetFpp=? AND pattern=?";
+        try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (final Map.Entry<Long, Long> entry : bitSizeToExpectedItems.entrySet()) {
+                stmt.setLong(1, entry.getValue()); // filtertype.expectedElements
+                stmt.setDouble(2, filterTypeCatalog.fppFor(entry.getValue())); // filtertype.targetFpp
+                stmt.setString(3, regex); // filtertype.pattern
+                try (final ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        ids.put(entry.getKey(), rs.getLong(1));
+                    }
+                }
+            }
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Error reading filter types from database: " + e);
+        }
+        return ids;
+    }
+
+    /**
+     * Adds a filter to the current batch, sending the batch when it is full.
+     *
+     * @param partitionID partition id of the filter
+     * @param filterBytes serialized filter, written as is
+     */
+    public void write(final String partitionID, final byte[] filterBytes) {
+        final long bitSize = new BloomFilterBlob(filterBytes).bitSize();
+        final Long filterTypeId = bitSizeToFilterTypeId.get(bitSize);
+        if (filterTypeId == null) {
+            throw new IllegalArgumentException("no such filterSize <[" + bitSize + "]>");
+        }
+        try {
+            stmt.setLong(1, Long.parseLong(partitionID)); // bloomfilter.partition_id
+            stmt.setLong(2, filterTypeId); // bloomfilter.filter_type_id
+            stmt.setBinaryStream(3, new ByteArrayInputStream(filterBytes), filterBytes.length); // bloomfilter.filter
+            stmt.addBatch();
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Error writing to database: " + e);
+        }
+        batched++;
+        written++;
+        if (batched >= batchSize) {
+            executeBatch();
+        }
+    }
+
+    private void executeBatch() {
+        if (batched > 0) {
+            try {
+                stmt.executeBatch();
+                stmt.clearBatch();
+            }
+            catch (SQLException e) {
+                throw new RuntimeException("Error writing to database: " + e);
+            }
+            batched = 0;
+        }
+    }
+
+    /**
+     * Sends the remaining rows and commits all the rows of the writer. Called once the partition is fully written.
+     */
+    public void commit() {
+        executeBatch();
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Error committing to database: " + e);
+        }
+        committed = true;
+        LOGGER.debug("Committed <{}> filters", written);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!committed && !connection.getAutoCommit()) {
+                LOGGER.warn("Rolling back <{}> uncommitted filters", written);
+                connection.rollback();
+            }
+        }
+        catch (SQLException e) {
+            throw new RuntimeException("Error rolling back database transaction: " + e);
+        }
+        finally {
+            try {
+                stmt.close();
+            }
+            catch (SQLException e) {
+                LOGGER.warn("Error closing prepared statement: <{}>", e.getMessage());
+            }
+        }
+    }
+}
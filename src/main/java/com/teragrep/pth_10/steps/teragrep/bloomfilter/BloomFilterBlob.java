@@ -48,6 +48,7 @@ package com.teragrep.pth_10.steps.teragrep.bloomfilter;
 import org.apache.spark.util.sketch.BloomFilter;
 
 import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 
@@ -75,6 +76,28 @@ public final class BloomFilterBlob {
         return filter;
     }
 
+    /**
+     * Reads the bit size from the serialized header without deserializing the bit array. The header is the format
+     * version, the number of hash functions and the number of 64-bit words in the bit array.
+     *
+     * @return size of the filter in bits
+     */
+    public long bitSize() {
+        final long bitSize;
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final int version = dis.readInt();
+            if (version != 1) {
+                throw new IllegalArgumentException("Unsupported bloom filter serialization version: " + version);
+            }
+            dis.readInt(); // number of hash functions
+            bitSize = dis.readInt() * 64L;
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error reading filter size from bytes: " + e.getMessage());
+        }
+        return bitSize;
+    }
+
     @Override
     public boolean equals(final Object object) {
         if (this == object)
@@ -45,6 +45,9 @@
  */
 package com.teragrep.pth_10.steps.teragrep.bloomfilter;
 
+import com.teragrep.pth_10.steps.teragrep.connection.ConnectionSource;
+import com.teragrep.pth_10.steps.teragrep.connection.DatabaseConfigItems;
+import com.teragrep.pth_10.steps.teragrep.connection.LazyConnectionSource;
 import com.typesafe.config.Config;
 import org.apache.spark.api.java.function.ForeachPartitionFunction;
 import org.apache.spark.sql.Row;
@@ -55,51 +58,91 @@ import java.util.Objects;
 
 public final class BloomFilterForeachPartitionFunction implements ForeachPartitionFunction<Row> {
 
-    private final FilterTypes filterTypes;
-    private final LazyConnection lazyConnection;
+    private final FilterTypeCatalog filterTypeCatalog;
+    private final ConnectionSource connectionSource;
     private final boolean overwrite;
     private final String tableName;
     private final String regex;
+    private final int batchSize;
 
     public BloomFilterForeachPartitionFunction(Config config, String tableName, String regex) {
-        this(new FilterTypes(config), new LazyConnection(config), tableName, regex, false);
+        this(config, tableName, regex, false);
     }
 
     public BloomFilterForeachPartitionFunction(Config config, String tableName, String regex, boolean overwrite) {
-        this(new FilterTypes(config), new LazyConnection(config), tableName, regex, overwrite);
+        this(
+                new FilterTypes(config),
+                new LazyConnectionSource(config, DatabaseConfigItems.bloom()),
+                tableName,
+                regex,
+                overwrite,
+                new BatchOptionsFromConfig(config).batchSize()
+        );
     }
 
     public BloomFilterForeachPartitionFunction(
             FilterTypes filterTypes,
-            LazyConnection lazyConnection,
+            ConnectionSource connectionSource,
             String tableName,
             String regex,
             boolean overwrite
     ) {
-        this.filterTypes = filterTypes;
-        this.lazyConnection = lazyConnection;
+        this(filterTypes, connectionSource, tableName, regex, overwrite, 100);
+    }
+
+    public BloomFilterForeachPartitionFunction(
+            FilterTypes filterTypes,
+            ConnectionSource connectionSource,
+            String tableName,
+            String regex,
+            boolean overwrite,
+            int batchSize
+    ) {
+        // parsed on the driver, executors receive the precomputed catalog
+        this(filterTypes.catalog(), connectionSource, tableName, regex, overwrite, batchSize);
+    }
+
+    public BloomFilterForeachPartitionFunction(
+            FilterTypeCatalog filterTypeCatalog,
+            ConnectionSource connectionSource,
+            String tableName,
+            String regex,
+            boolean overwrite,
+            int batchSize
+    ) {
+        this.filterTypeCatalog = filterTypeCatalog;
+        this.connectionSource = connectionSource;
         this.tableName = tableName;
         this.regex = regex;
         this.overwrite = overwrite;
+        this.batchSize = batchSize;
     }
 
     @Override
     public void call(final Iterator<Row> iter) throws Exception {
-        final Connection conn = lazyConnection.get();
-        while (iter.hasNext()) {
-            final Row row = iter.next(); // Row[partitionID, filterBytes]
-            final String partition = row.getString(0);
-            final byte[] filterBytes = (byte[]) row.get(1);
-            final TeragrepBloomFilter tgFilter = new TeragrepBloomFilter(
-                    partition,
-                    filterBytes,
-                    conn,
-                    filterTypes,
-                    tableName,
-                    regex
-            );
-            tgFilter.saveFilter(overwrite);
-            conn.commit();
+        if (!iter.hasNext()) {
+            return;
+        }
+        // each task leases its own connection, the pool resets auto-commit when the connection is returned
+        try (final Connection conn = connectionSource.get()) {
+            conn.setAutoCommit(false);
+            try (
+                    BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                            conn,
+                            filterTypeCatalog,
+                            tableName,
+                            regex,
+                            overwrite,
+                            batchSize
+                    )
+            ) {
+                while (iter.hasNext()) {
+                    final Row row = iter.next(); // Row[partitionID, filterBytes]
+                    writer.write(row.getString(0), (byte[]) row.get(1));
+                }
+                // commit only a fully written partition, a failed task is rolled back when the writer is closed
+                writer.commit();
+            }
         }
     }
 
@@ -108,12 +151,13 @@ public final class BloomFilterForeachPartitionFunction implements ForeachPartiti
         if (o == null || getClass() != o.getClass())
             return false;
         final BloomFilterForeachPartitionFunction cast = (BloomFilterForeachPartitionFunction) o;
-        return filterTypes.equals(cast.filterTypes) && lazyConnection.equals(cast.lazyConnection)
-                && overwrite == cast.overwrite && tableName.equals(cast.tableName) && regex.equals(cast.regex);
+        return filterTypeCatalog.equals(cast.filterTypeCatalog) && connectionSource.equals(cast.connectionSource)
+                && overwrite == cast.overwrite && tableName.equals(cast.tableName) && regex.equals(cast.regex)
+                && batchSize == cast.batchSize;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(filterTypes, lazyConnection, overwrite, tableName, regex);
+        return Objects.hash(filterTypeCatalog, connectionSource, overwrite, tableName, regex, batchSize);
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.bloomfilter;
+
+import org.apache.spark.util.sketch.BloomFilter;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable catalog of the configured filter types, precomputed once so executors can look up the filter type of a
+ * filter without parsing the configuration or allocating filters.
+ * <p>
+ * Keys of the sorted map are the expected number of items and values the false positive probability. The bit size of
+ * each type is calculated the same way as {@link BloomFilter#create(long, double)} sizes its bit array.
+ */
+public final class FilterTypeCatalog implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TreeMap<Long, Double> expectedToFpp;
+    private final HashMap<Long, Long> bitSizeToExpected;
+
+    public FilterTypeCatalog(final SortedMap<Long, Double> expectedToFpp) {
+        this(new TreeMap<>(expectedToFpp), bitSizes(expectedToFpp));
+    }
+
+    private FilterTypeCatalog(final TreeMap<Long, Double> expectedToFpp, final HashMap<Long, Long> bitSizeToExpected) {
+        this.expectedToFpp = expectedToFpp;
+        this.bitSizeToExpected = bitSizeToExpected;
+    }
+
+    private static HashMap<Long, Long> bitSizes(final SortedMap<Long, Double> expectedToFpp) {
+        final HashMap<Long, Long> bitSizeToExpected = new HashMap<>();
+        for (final Map.Entry<Long, Double> entry : expectedToFpp.entrySet()) {
+            final long numBits = BloomFilter.optimalNumOfBits(entry.getKey(), entry.getValue());
+            // bit array is allocated in 64-bit words
+            final long bitSize = (long) Math.ceil(numBits / 64.0) * 64L;
+            bitSizeToExpected.put(bitSize, entry.getKey());
+        }
+        return bitSizeToExpected;
+    }
+
+    public SortedMap<Long, Double> sortedMap() {
+        return Collections.unmodifiableSortedMap(expectedToFpp);
+    }
+
+    public Map<Long, Long> bitSizeMap() {
+        return Collections.unmodifiableMap(bitSizeToExpected);
+    }
+
+    /**
+     * @param bitSize size of a filter in bits
+     * @return expected number of items of the filter type with the given bit size
+     * @throws IllegalArgumentException if no filter type has the given bit size
+     */
+    public long expectedForBitSize(final long bitSize) {
+        final Long expected = bitSizeToExpected.get(bitSize);
+        if (expected == null) {
+            throw new IllegalArgumentException("no such filterSize <[" + bitSize + "]>");
+        }
+        return expected;
+    }
+
+    /**
+     * @param expected expected number of items of a filter type
+     * @return false positive probability of the filter type
+     * @throws IllegalArgumentException if no filter type has the given expected number of items
+     */
+    public double fppFor(final long expected) {
+        final Double fpp = expectedToFpp.get(expected);
+        if (fpp == null) {
+            throw new IllegalArgumentException("no such filter expected items <[" + expected + "]>");
+        }
+        return fpp;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final FilterTypeCatalog cast = (FilterTypeCatalog) o;
+        return Objects.equals(expectedToFpp, cast.expectedToFpp)
+                && Objects.equals(bitSizeToExpected, cast.bitSizeToExpected);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(expectedToFpp, bitSizeToExpected);
+    }
+}
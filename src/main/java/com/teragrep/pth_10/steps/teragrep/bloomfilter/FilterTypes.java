@@ -49,7 +49,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import com.typesafe.config.Config;
-import org.apache.spark.util.sketch.BloomFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sparkproject.guava.reflect.TypeToken;
@@ -65,9 +64,24 @@ public final class FilterTypes implements Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(FilterTypes.class);
 
     private final Config config;
+    // parsed once per instance, not part of equality
+    private transient FilterTypeCatalog catalog;
 
     public FilterTypes(Config config) {
         this.config = config;
+        this.catalog = null;
+    }
+
+    /**
+     * Filter types parsed from the configuration. Parsed on the first call and reused afterwards.
+     *
+     * @return catalog of the configured filter types
+     */
+    public synchronized FilterTypeCatalog catalog() {
+        if (catalog == null) {
+            catalog = new FilterTypeCatalog(parsedSizes());
+        }
+        return catalog;
     }
 
     /**
@@ -78,6 +92,14 @@ public final class FilterTypes implements Serializable {
      * @return SortedMap of filter configuration
      */
     public SortedMap<Long, Double> sortedMap() {
+        return catalog().sortedMap();
+    }
+
+    public Map<Long, Long> bitSizeMap() {
+        return catalog().bitSizeMap();
+    }
+
+    private SortedMap<Long, Double> parsedSizes() {
         final SortedMap<Long, Double> sizesMapFromJson = new TreeMap<>();
         final List<BloomFilterConfiguration> filterConfigurationList;
 
@@ -106,17 +128,6 @@ public final class FilterTypes implements Serializable {
         return sizesMapFromJson;
     }
 
-    public Map<Long, Long> bitSizeMap() {
-        final Map<Long, Double> filterSizes = sortedMap();
-        final Map<Long, Long> bitsizeToExpectedItemsMap = new HashMap<>();
-        // Calculate bitSizes
-        for (final Map.Entry<Long, Double> entry : filterSizes.entrySet()) {
-            final BloomFilter bf = BloomFilter.create(entry.getKey(), entry.getValue());
-            bitsizeToExpectedItemsMap.put(bf.bitSize(), entry.getKey());
-        }
-        return bitsizeToExpectedItemsMap;
-    }
-
     private String sizesJsonString() {
         final String jsonString;
         final String BLOOM_NUMBER_OF_FIELDS_CONFIG_ITEM = "dpl.pth_06.bloom.db.fields";
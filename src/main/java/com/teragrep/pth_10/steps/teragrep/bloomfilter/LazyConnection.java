@@ -53,6 +53,11 @@ import java.util.Objects;
 
 import com.typesafe.config.Config;
 
+/**
+ * Single connection of the driver used for creating the bloom filter tables and filter types. Executors write filters
+ * to the same database with connections leased from the bloom database pool of
+ * {@link com.teragrep.pth_10.steps.teragrep.connection.ConnectionPoolSingleton}, configured with the same items.
+ */
 public final class LazyConnection implements Serializable {
 
     private static Connection connection = null;
@@ -54,7 +54,6 @@ import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Map;
 import java.util.Objects;
 
 import org.slf4j.Logger;
@@ -105,17 +104,9 @@ public final class TeragrepBloomFilter {
      */
     public void saveFilter(final Boolean overwrite) {
         final long bitSize = filter.bitSize();
-        final long selectedExpectedNumOfItems;
-        final Double selectedFpp;
-        final Map<Long, Long> bitSizeMap = filterTypes.bitSizeMap();
-        if (bitSizeMap.containsKey(bitSize)) {
-            final long expectedItems = bitSizeMap.get(bitSize);
-            selectedExpectedNumOfItems = expectedItems;
-            selectedFpp = filterTypes.sortedMap().get(expectedItems);
-        }
-        else {
-            throw new IllegalArgumentException("no such filterSize <[" + bitSize + "]>");
-        }
+        final FilterTypeCatalog catalog = filterTypes.catalog();
+        final long selectedExpectedNumOfItems = catalog.expectedForBitSize(bitSize);
+        final Double selectedFpp = catalog.fppFor(selectedExpectedNumOfItems);
         final String sql = sqlString(overwrite);
         LOGGER.debug("Save filter SQL: <{}>", sql);
         try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -0,0 +1,155 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.connection;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage of a connection pool: connections in use and idle, threads waiting for a connection, and the time spent
+ * waiting to lease a connection. Registered to the pool as its metrics tracker factory. Connections in use are counted
+ * from leases and returns, the idle and waiting counts are sampled from the pool at most once a second. The pool owner
+ * reports these at info level periodically and when the pool is closed.
+ */
+public final class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder leases;
+    private final LongAdder inUse;
+    private final LongAdder waitNanos;
+    private final AtomicLong maxWaitNanos;
+    private final LongAdder timeouts;
+    private final AtomicLong lastReportMillis;
+    private volatile PoolStats poolStats;
+
+    public ConnectionPoolMetrics() {
+        this.leases = new LongAdder();
+        this.inUse = new LongAdder();
+        this.waitNanos = new LongAdder();
+        this.maxWaitNanos = new AtomicLong();
+        this.timeouts = new LongAdder();
+        this.lastReportMillis = new AtomicLong(System.currentTimeMillis());
+        this.poolStats = null;
+    }
+
+    @Override
+    public IMetricsTracker create(final String poolName, final PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+
+            @Override
+            public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+                leases.increment();
+                inUse.increment();
+                waitNanos.add(elapsedAcquiredNanos);
+                maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
+                inUse.decrement();
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public long active() {
+        return inUse.sum();
+    }
+
+    public int idle() {
+        final PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getIdleConnections();
+    }
+
+    public int waiting() {
+        final PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+    public long leases() {
+        return leases.sum();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    public long totalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public long maxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Checks if the metrics should be reported, at most one caller gets true in each interval.
+     *
+     * @param intervalMillis minimum time between reports
+     * @return true if the previous report is older than the interval
+     */
+    public boolean isReportDue(final long intervalMillis) {
+        final long now = System.currentTimeMillis();
+        final long last = lastReportMillis.get();
+        return now - last >= intervalMillis && lastReportMillis.compareAndSet(last, now);
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" + "active=" + active() + ", idle=" + idle() + ", waiting=" + waiting()
+                + ", leases=" + leases() + ", timeouts=" + timeouts() + ", totalWaitMillis=" + totalWaitMillis()
+                + ", maxWaitMillis=" + maxWaitMillis() + '}';
+    }
+}
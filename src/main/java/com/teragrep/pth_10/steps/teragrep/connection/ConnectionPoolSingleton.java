@@ -51,46 +51,120 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Provides Connection objects from a static HikariCP datasource.
+ * Provides Connection objects from static HikariCP datasources, one for each database.
  * <p>
- * Methods connection() and resetForTesting() are thread locked on the class level
+ * Initialization of the datasources, metrics() and resetForTest() are thread locked on the class level. A datasource
+ * is re-created if the connection settings of its database change, other changes of the config are ignored as the
+ * executors are reused across queries. Usage of each pool is logged at info level once a minute and when the pool is
+ * closed.
  */
 public final class ConnectionPoolSingleton {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPoolSingleton.class);
-    private static DataSourceState state = new StubDataSourceState();
+    private static final long REPORT_INTERVAL_MILLIS = 60000L;
+    private static final Map<DatabaseConfigItems, DataSourceState> states = new HashMap<>();
 
     private ConnectionPoolSingleton() {
         // blocks accidental initialization
     }
 
     /**
-     * Gets a Connection instance using a given config to instantiate a static connection pool.
+     * Gets a Connection instance of the archive database.
      *
-     * @param config config that is used to configure the connection pool, cannot change after initialization
+     * @see #connection(Config, DatabaseConfigItems)
+     */
+    public static Connection connection(final Config config) throws SQLException {
+        return connection(config, DatabaseConfigItems.archive());
+    }
+
+    /**
+     * Gets a Connection instance using a given config to instantiate a static connection pool of the database. Only
+     * the initialization is locked, tasks lease connections from the pool in parallel.
+     *
+     * @param config config that is used to configure the connection pool, the pool is re-created if its connection
+     *               settings change
+     * @param items  configuration items of the database
      * @return Connection instance form the pool
-     * @throws SQLException          if there is an exception getting an SQL connection from the pool
-     * @throws IllegalStateException if the config is changed after initialization
+     * @throws SQLException if there is an exception getting an SQL connection from the pool
      */
-    public static synchronized Connection connection(final Config config) throws SQLException, IllegalStateException {
+    public static Connection connection(final Config config, final DatabaseConfigItems items) throws SQLException {
+        final DataSourceState initialized = initializedState(config, items);
+        final Connection connection = initialized.dataSource().getConnection();
+        if (initialized.metrics().isReportDue(REPORT_INTERVAL_MILLIS)) {
+            LOGGER.info("Connection pool <{}> <{}>", items.name(), initialized.metrics());
+        }
+        return connection;
+    }
+
+    private static synchronized DataSourceState initializedState(
+            final Config config,
+            final DatabaseConfigItems items
+    ) {
         LOGGER.debug("thread entered lock block");
+        final DataSourceState state = states.getOrDefault(items, new StubDataSourceState());
+        final DataSourceState rv;
         if (state.isStub()) {
-            state = new InitializedDataSourceState(config);
+            rv = new InitializedDataSourceState(config, items);
+            states.put(items, rv);
+        }
+        else if (state.config().equals(config)) {
+            rv = state;
         }
-        else if (!state.config().equals(config)) {
-            throw new IllegalStateException("Datasource was already initialized with a different config");
+        else if (!state.settings().equals(new DataSourceFromConfig(config, items, state.metrics()).settings())) {
+            LOGGER.info("Connection settings of pool <{}> changed, re-creating the pool", items.name());
+            close(items, state);
+            rv = new InitializedDataSourceState(config, items);
+            states.put(items, rv);
+        }
+        else {
+            rv = state;
+        }
+        return rv;
+    }
+
+    private static void close(final DatabaseConfigItems items, final DataSourceState state) {
+        LOGGER.info("Closing connection pool <{}> <{}>", items.name(), state.metrics());
+        state.dataSource().close();
+    }
+
+    /**
+     * Usage of the archive database connection pool of this JVM.
+     *
+     * @see #metrics(DatabaseConfigItems)
+     */
+    public static ConnectionPoolMetrics metrics() throws IllegalStateException {
+        return metrics(DatabaseConfigItems.archive());
+    }
+
+    /**
+     * Usage of the connection pool of a database in this JVM.
+     *
+     * @param items configuration items of the database
+     * @return metrics of the pool
+     * @throws IllegalStateException if the pool is not initialized
+     */
+    public static synchronized ConnectionPoolMetrics metrics(
+            final DatabaseConfigItems items
+    ) throws IllegalStateException {
+        final DataSourceState state = states.getOrDefault(items, new StubDataSourceState());
+        if (state.isStub()) {
+            throw new IllegalStateException("Datasource is not initialized");
         }
-        return state.dataSource().getConnection();
+        return state.metrics();
     }
 
     // only for testing
     public static synchronized void resetForTest() {
         LOGGER.warn("resetForTest() called, this should only happen in a test case");
-        if (!state.isStub()) {
-            state.dataSource().close();
+        for (final Map.Entry<DatabaseConfigItems, DataSourceState> entry : states.entrySet()) {
+            if (!entry.getValue().isStub()) {
+                close(entry.getKey(), entry.getValue());
+            }
         }
-        state = new StubDataSourceState();
+        states.clear();
     }
 }
@@ -0,0 +1,133 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.connection;
+
+import java.util.Objects;
+
+/**
+ * Connection-relevant values of a connection pool, resolved from the configuration. Pools are compared with these
+ * instead of the whole configuration, which also carries query specific items that change between queries.
+ */
+public final class ConnectionSettings {
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final long connectionTimeoutMillis;
+    private final long validationTimeoutMillis;
+
+    ConnectionSettings(
+            final String url,
+            final String username,
+            final String password,
+            final int poolSize,
+            final long connectionTimeoutMillis,
+            final long validationTimeoutMillis
+    ) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.validationTimeoutMillis = validationTimeoutMillis;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
+
+    public int poolSize() {
+        return poolSize;
+    }
+
+    public long connectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    public long validationTimeoutMillis() {
+        return validationTimeoutMillis;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        final boolean rv;
+        if (o == null) {
+            rv = false;
+        }
+        else if (getClass() != o.getClass()) {
+            rv = false;
+        }
+        else {
+            final ConnectionSettings that = (ConnectionSettings) o;
+            rv = poolSize == that.poolSize && connectionTimeoutMillis == that.connectionTimeoutMillis
+                    && validationTimeoutMillis == that.validationTimeoutMillis && Objects.equals(url, that.url)
+                    && Objects.equals(username, that.username) && Objects.equals(password, that.password);
+        }
+        return rv;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, username, password, poolSize, connectionTimeoutMillis, validationTimeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        // password is left out on purpose
+        return "ConnectionSettings{" + "url='" + url + '\'' + ", username='" + username + '\'' + ", poolSize="
+                + poolSize + ", connectionTimeoutMillis=" + connectionTimeoutMillis + ", validationTimeoutMillis="
+                + validationTimeoutMillis + '}';
+    }
+}
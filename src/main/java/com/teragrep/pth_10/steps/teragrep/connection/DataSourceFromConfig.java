@@ -51,6 +51,7 @@ import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Supplier;
@@ -61,127 +62,132 @@ final class DataSourceFromConfig implements Supplier<HikariDataSource> {
 
     private final String sourceName;
     private final Config config;
+    private final DatabaseConfigItems items;
+    private final ConnectionPoolMetrics metrics;
 
     DataSourceFromConfig(final Config config) {
-        this("pth_10-pool-" + UUID.randomUUID(), config);
+        this(config, DatabaseConfigItems.archive(), new ConnectionPoolMetrics());
     }
 
-    DataSourceFromConfig(final String sourceName, final Config config) {
+    DataSourceFromConfig(final Config config, final DatabaseConfigItems items, final ConnectionPoolMetrics metrics) {
+        this("pth_10-pool-" + items.name() + "-" + UUID.randomUUID(), config, items, metrics);
+    }
+
+    DataSourceFromConfig(
+            final String sourceName,
+            final Config config,
+            final DatabaseConfigItems items,
+            final ConnectionPoolMetrics metrics
+    ) {
         this.sourceName = sourceName;
         this.config = config;
+        this.items = items;
+        this.metrics = metrics;
     }
 
     @Override
     public HikariDataSource get() {
+        final ConnectionSettings settings = settings();
         final HikariConfig hikariConfig = new HikariConfig();
         // credentials
-        final String url = connectionURL();
+        final String url = settings.url();
         hikariConfig.setJdbcUrl(url);
-        hikariConfig.setUsername(connectionUsername());
-        hikariConfig.setPassword(connectionPassword());
+        hikariConfig.setUsername(settings.username());
+        hikariConfig.setPassword(settings.password());
         // pool configuration
         if (url.startsWith("jdbc:mariadb:")) {
             hikariConfig.setDriverClassName("org.mariadb.jdbc.Driver");
         }
-        hikariConfig.setJdbcUrl(url);
-        hikariConfig.setMaximumPoolSize(256); // limit for safety, should not be reached
+        // one pool per executor JVM, each task leases its own connection
+        hikariConfig.setMaximumPoolSize(settings.poolSize());
         hikariConfig.setMinimumIdle(0); // no hanging connections inside executor
         hikariConfig.setAutoCommit(true);
-        hikariConfig.setConnectionTimeout(30000);
-        hikariConfig.setValidationTimeout(5000);
+        hikariConfig.setConnectionTimeout(settings.connectionTimeoutMillis());
+        // connections are validated when leased after being idle
+        hikariConfig.setValidationTimeout(settings.validationTimeoutMillis());
         hikariConfig.setPoolName(sourceName);
+        hikariConfig.setMetricsTrackerFactory(metrics);
         return new HikariDataSource(hikariConfig);
     }
 
-    private String connectionUsername() {
-
-        final String archiveUsernameConfigurationItem = "dpl.pth_10.archive.db.username";
-
-        final String BLOOMDB_USERNAME_CONFIG_ITEM = "dpl.pth_10.bloom.db.username";
-
-        final String username;
-        if (config.hasPath(archiveUsernameConfigurationItem)) {
-            username = config.getString(archiveUsernameConfigurationItem);
+    /**
+     * @return connection-relevant values of the config, a pool is re-created only if these change
+     */
+    ConnectionSettings settings() {
+        return new ConnectionSettings(
+                connectionURL(),
+                connectionUsername(),
+                connectionPassword(),
+                poolSize(),
+                30000L,
+                5000L
+        );
+    }
 
-        }
-        else if (config.hasPath(BLOOMDB_USERNAME_CONFIG_ITEM)) {
-            LOGGER
-                    .warn(
-                            "Using deprecated configuration item <{}>, use <{}> instead", BLOOMDB_USERNAME_CONFIG_ITEM,
-                            archiveUsernameConfigurationItem
-                    );
-            username = config.getString(BLOOMDB_USERNAME_CONFIG_ITEM);
+    private int poolSize() {
+        final String poolSizeConfigurationItem = items.poolSizeItem();
+        final int poolSize;
+        if (config.hasPath(poolSizeConfigurationItem)) {
+            poolSize = config.getInt(poolSizeConfigurationItem);
+            if (poolSize < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + poolSizeConfigurationItem + "' must be a positive integer, got: "
+                                + poolSize
+                );
+            }
         }
         else {
-            throw new RuntimeException("Missing configuration item: '" + archiveUsernameConfigurationItem + "'.");
+            // each executor JVM has its own pool per database, keep the total connections to the database moderate
+            poolSize = 16;
         }
+        return poolSize;
+    }
 
+    private String connectionUsername() {
+        final String username = configured(items.usernameItems());
         if (username == null || username.isEmpty()) {
             throw new RuntimeException("Database username not set.");
         }
-
         return username;
     }
 
     private String connectionPassword() {
-
-        final String archivePasswordConfigurationItem = "dpl.pth_10.archive.db.password";
-
-        final String BLOOMDB_PASSWORD_CONFIG_ITEM = "dpl.pth_10.bloom.db.password";
-
-        final String password;
-        if (config.hasPath(archivePasswordConfigurationItem)) {
-            password = config.getString(archivePasswordConfigurationItem);
-
-        }
-        else if (config.hasPath(BLOOMDB_PASSWORD_CONFIG_ITEM)) {
-            LOGGER
-                    .warn(
-                            "Using deprecated configuration item <{}>, use <{}> instead", BLOOMDB_PASSWORD_CONFIG_ITEM,
-                            archivePasswordConfigurationItem
-                    );
-            password = config.getString(BLOOMDB_PASSWORD_CONFIG_ITEM);
-        }
-        else {
-            throw new RuntimeException("Missing configuration item: '" + archivePasswordConfigurationItem + "'.");
-        }
-
+        final String password = configured(items.passwordItems());
         if (password == null) {
             throw new RuntimeException("Database password not set.");
         }
-
         return password;
     }
 
     private String connectionURL() {
-
-        final String archiveDBConfigurationItem = "dpl.pth_10.archive.db.url";
-
-        final String BLOOMDB_URL_CONFIG_ITEM = "dpl.pth_06.bloom.db.url";
-
-        final String databaseUrl;
-        if (config.hasPath(archiveDBConfigurationItem)) {
-            databaseUrl = config.getString(archiveDBConfigurationItem);
-        }
-        else if (config.hasPath(BLOOMDB_URL_CONFIG_ITEM)) {
-            LOGGER
-                    .warn(
-                            "Using deprecated configuration item <{}>, use <{}> instead", BLOOMDB_URL_CONFIG_ITEM,
-                            archiveDBConfigurationItem
-                    );
-            databaseUrl = config.getString(BLOOMDB_URL_CONFIG_ITEM);
-        }
-        else {
-            throw new RuntimeException("Missing configuration item: '" + archiveDBConfigurationItem + "'.");
-        }
-
+        final String databaseUrl = configured(items.urlItems());
         if (databaseUrl == null || databaseUrl.isEmpty()) {
             throw new RuntimeException("Database url not set.");
         }
-
         return databaseUrl;
     }
 
+    /**
+     * @param configurationItems current configuration item followed by its deprecated fallbacks
+     * @return value of the first configuration item present
+     */
+    private String configured(final List<String> configurationItems) {
+        final String currentConfigurationItem = configurationItems.get(0);
+        for (final String configurationItem : configurationItems) {
+            if (config.hasPath(configurationItem)) {
+                if (!configurationItem.equals(currentConfigurationItem)) {
+                    LOGGER
+                            .warn(
+                                    "Using deprecated configuration item <{}>, use <{}> instead", configurationItem,
+                                    currentConfigurationItem
+                            );
+                }
+                return config.getString(configurationItem);
+            }
+        }
+        throw new RuntimeException("Missing configuration item: '" + currentConfigurationItem + "'.");
+    }
+
     @Override
     public boolean equals(final Object o) {
         final boolean rv;
@@ -193,13 +199,14 @@ final class DataSourceFromConfig implements Supplier<HikariDataSource> {
         }
         else {
             final DataSourceFromConfig that = (DataSourceFromConfig) o;
-            rv = Objects.equals(sourceName, that.sourceName) && Objects.equals(config, that.config);
+            rv = Objects.equals(sourceName, that.sourceName) && Objects.equals(config, that.config)
+                    && Objects.equals(items, that.items) && Objects.equals(metrics, that.metrics);
         }
         return rv;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sourceName, config);
+        return Objects.hash(sourceName, config, items, metrics);
     }
 }
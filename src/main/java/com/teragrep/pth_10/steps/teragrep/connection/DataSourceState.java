@@ -56,4 +56,8 @@ public interface DataSourceState {
 
     public abstract Config config();
 
+    public abstract ConnectionSettings settings();
+
+    public abstract ConnectionPoolMetrics metrics();
+
 }
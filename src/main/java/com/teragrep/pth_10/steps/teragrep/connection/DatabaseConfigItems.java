@@ -0,0 +1,152 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.connection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration items of a database. Each database has its own connection pool on the executors, so writers of
+ * different databases do not share connections. The first item of each list is the current one, the rest are
+ * deprecated fallbacks.
+ */
+public final class DatabaseConfigItems implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final List<String> urlItems;
+    private final List<String> usernameItems;
+    private final List<String> passwordItems;
+    private final String poolSizeItem;
+
+    /**
+     * Archive database written by the epoch migration, the bloom database items are deprecated fallbacks.
+     */
+    public static DatabaseConfigItems archive() {
+        return new DatabaseConfigItems(
+                "archive",
+                Arrays.asList("dpl.pth_10.archive.db.url", "dpl.pth_06.bloom.db.url"),
+                Arrays.asList("dpl.pth_10.archive.db.username", "dpl.pth_10.bloom.db.username"),
+                Arrays.asList("dpl.pth_10.archive.db.password", "dpl.pth_10.bloom.db.password"),
+                "dpl.pth_10.archive.db.poolSize"
+        );
+    }
+
+    /**
+     * Bloom filter database, same items as used by the driver for the bloom filter tables and filter types.
+     */
+    public static DatabaseConfigItems bloom() {
+        return new DatabaseConfigItems(
+                "bloom",
+                Collections.singletonList("dpl.pth_06.bloom.db.url"),
+                Collections.singletonList("dpl.pth_10.bloom.db.username"),
+                Collections.singletonList("dpl.pth_10.bloom.db.password"),
+                "dpl.pth_10.bloom.db.poolSize"
+        );
+    }
+
+    DatabaseConfigItems(
+            final String name,
+            final List<String> urlItems,
+            final List<String> usernameItems,
+            final List<String> passwordItems,
+            final String poolSizeItem
+    ) {
+        this.name = name;
+        this.urlItems = urlItems;
+        this.usernameItems = usernameItems;
+        this.passwordItems = passwordItems;
+        this.poolSizeItem = poolSizeItem;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public List<String> urlItems() {
+        return urlItems;
+    }
+
+    public List<String> usernameItems() {
+        return usernameItems;
+    }
+
+    public List<String> passwordItems() {
+        return passwordItems;
+    }
+
+    public String poolSizeItem() {
+        return poolSizeItem;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        final boolean rv;
+        if (o == null) {
+            rv = false;
+        }
+        else if (getClass() != o.getClass()) {
+            rv = false;
+        }
+        else {
+            final DatabaseConfigItems that = (DatabaseConfigItems) o;
+            rv = Objects.equals(name, that.name) && Objects.equals(urlItems, that.urlItems)
+                    && Objects.equals(usernameItems, that.usernameItems)
+                    && Objects.equals(passwordItems, that.passwordItems)
+                    && Objects.equals(poolSizeItem, that.poolSizeItem);
+        }
+        return rv;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, urlItems, usernameItems, passwordItems, poolSizeItem);
+    }
+}
@@ -51,19 +51,44 @@ import com.zaxxer.hikari.HikariDataSource;
 public final class InitializedDataSourceState implements DataSourceState {
 
     private final HikariDataSource dataSource;
+    private final ConnectionSettings settings;
     private final Config config;
+    private final ConnectionPoolMetrics metrics;
 
     public InitializedDataSourceState(final Config config) {
-        this(new DataSourceFromConfig(config), config);
+        this(config, DatabaseConfigItems.archive());
     }
 
-    private InitializedDataSourceState(final DataSourceFromConfig dataSourceFromConfig, final Config config) {
-        this(dataSourceFromConfig.get(), config);
+    public InitializedDataSourceState(final Config config, final DatabaseConfigItems items) {
+        this(config, items, new ConnectionPoolMetrics());
     }
 
-    private InitializedDataSourceState(final HikariDataSource dataSource, final Config config) {
+    private InitializedDataSourceState(
+            final Config config,
+            final DatabaseConfigItems items,
+            final ConnectionPoolMetrics metrics
+    ) {
+        this(new DataSourceFromConfig(config, items, metrics), config, metrics);
+    }
+
+    private InitializedDataSourceState(
+            final DataSourceFromConfig dataSourceFromConfig,
+            final Config config,
+            final ConnectionPoolMetrics metrics
+    ) {
+        this(dataSourceFromConfig.get(), dataSourceFromConfig.settings(), config, metrics);
+    }
+
+    private InitializedDataSourceState(
+            final HikariDataSource dataSource,
+            final ConnectionSettings settings,
+            final Config config,
+            final ConnectionPoolMetrics metrics
+    ) {
         this.dataSource = dataSource;
+        this.settings = settings;
         this.config = config;
+        this.metrics = metrics;
     }
 
     @Override
@@ -81,4 +106,14 @@ public final class InitializedDataSourceState implements DataSourceState {
         return config;
     }
 
+    @Override
+    public ConnectionSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public ConnectionPoolMetrics metrics() {
+        return metrics;
+    }
+
 }
@@ -51,23 +51,31 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Objects;
 
 /**
- * Provides connections from a static ExecutorDataSourceRegistry initialized from a given Config
+ * Provides connections from the static connection pool of a database on the executor initialized from a given Config.
+ * Each connection is leased to a single task and must be closed to return it to the pool.
  */
 public final class LazyConnectionSource implements ConnectionSource, Serializable {
 
     private final Config config;
+    private final DatabaseConfigItems items;
 
     public LazyConnectionSource(final Config config) {
+        this(config, DatabaseConfigItems.archive());
+    }
+
+    public LazyConnectionSource(final Config config, final DatabaseConfigItems items) {
         this.config = config;
+        this.items = items;
     }
 
     @Override
     public Connection get() {
         final Connection connection;
         try {
-            connection = ConnectionPoolSingleton.connection(config);
+            connection = ConnectionPoolSingleton.connection(config, items);
         }
         catch (final SQLException e) {
             throw new RuntimeException("Error getting connection from source: " + e.getMessage(), e);
@@ -79,4 +87,25 @@ public final class LazyConnectionSource implements ConnectionSource, Serializabl
     public void close() throws IOException {
         // no-op
     }
+
+    @Override
+    public boolean equals(final Object o) {
+        final boolean rv;
+        if (o == null) {
+            rv = false;
+        }
+        else if (getClass() != o.getClass()) {
+            rv = false;
+        }
+        else {
+            final LazyConnectionSource that = (LazyConnectionSource) o;
+            rv = Objects.equals(config, that.config) && Objects.equals(items, that.items);
+        }
+        return rv;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(config, items);
+    }
 }
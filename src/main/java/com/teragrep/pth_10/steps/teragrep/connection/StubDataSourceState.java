@@ -64,4 +64,14 @@ public final class StubDataSourceState implements DataSourceState {
     public Config config() {
         throw new UnsupportedOperationException("config() not supported for StubDataSourceState");
     }
+
+    @Override
+    public ConnectionSettings settings() {
+        throw new UnsupportedOperationException("settings() not supported for StubDataSourceState");
+    }
+
+    @Override
+    public ConnectionPoolMetrics metrics() {
+        throw new UnsupportedOperationException("metrics() not supported for StubDataSourceState");
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result of a metric export: metric lines accepted and rejected by the ingest API, requests answered and retried, and
+ * the time from sending a request to receiving its response. Updated concurrently by the requests in flight.
+ */
+public final class DynatraceExportMetrics {
+
+    private final LongAdder linesValid;
+    private final LongAdder linesInvalid;
+    private final LongAdder requests;
+    private final LongAdder retries;
+    private final LongAdder latencyNanos;
+    private final AtomicLong maxLatencyNanos;
+
+    public DynatraceExportMetrics() {
+        this.linesValid = new LongAdder();
+        this.linesInvalid = new LongAdder();
+        this.requests = new LongAdder();
+        this.retries = new LongAdder();
+        this.latencyNanos = new LongAdder();
+        this.maxLatencyNanos = new AtomicLong();
+    }
+
+    void responded(final long elapsedNanos) {
+        requests.increment();
+        latencyNanos.add(elapsedNanos);
+        maxLatencyNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    void linesIngested(final long valid, final long invalid) {
+        linesValid.add(valid);
+        linesInvalid.add(invalid);
+    }
+
+    void retried() {
+        retries.increment();
+    }
+
+    public long linesValid() {
+        return linesValid.sum();
+    }
+
+    public long linesInvalid() {
+        return linesInvalid.sum();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long totalLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos.sum());
+    }
+
+    public long maxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "DynatraceExportMetrics{" + "linesValid=" + linesValid() + ", linesInvalid=" + linesInvalid()
+                + ", requests=" + requests() + ", retries=" + retries() + ", totalLatencyMillis="
+                + totalLatencyMillis() + ", maxLatencyMillis=" + maxLatencyMillis() + '}';
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends metric payloads to the Dynatrace metrics ingest API. All requests share one pooled client, so connections are
+ * kept alive between requests, and at most the configured amount of requests are in flight at the same time. A request
+ * that fails to connect or gets a 429 or 503 response is retried with exponential backoff, in those cases the server
+ * has not ingested the payload. Other failures, including timeouts after the request was sent, fail the export without
+ * a retry so that lines are not ingested twice.
+ */
+public final class DynatraceExporter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynatraceExporter.class);
+    private static final Gson GSON = new Gson();
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final String url;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final CloseableHttpClient client;
+    private final ExecutorService executor;
+
+    public DynatraceExporter(final String url, final DynatraceOptionsFromConfig options) {
+        this.url = url;
+        this.maxRetries = options.maxRetries();
+        this.retryBackoffMillis = options.retryBackoff().toMillis();
+
+        final int concurrency = options.concurrency();
+        final int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, options.timeout().toMillis());
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(concurrency);
+        connectionManager.setDefaultMaxPerRoute(concurrency);
+        final RequestConfig requestConfig = RequestConfig
+                .custom()
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build();
+        this.client = HttpClients
+                .custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableAutomaticRetries()
+                .build();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final Thread thread = new Thread(runnable, "pth_10-dynatrace-export-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends the payloads and waits for all of them to be answered.
+     *
+     * @param payloads newline separated metric lines, see {@link MetricPayloads}
+     * @return lines ingested and request latency of the export
+     * @throws RuntimeException the first failure of a request, the remaining requests are cancelled
+     */
+    public DynatraceExportMetrics export(final List<String> payloads) {
+        final DynatraceExportMetrics metrics = new DynatraceExportMetrics();
+        final List<Future<?>> futures = new ArrayList<>(payloads.size());
+        for (final String payload : payloads) {
+            futures.add(executor.submit(() -> send(payload, metrics)));
+        }
+
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (final ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Error sending post request: " + cause, cause);
+        }
+        catch (final InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending post requests", e);
+        }
+        return metrics;
+    }
+
+    private void send(final String payload, final DynatraceExportMetrics metrics) {
+        for (int attempt = 0;; attempt++) {
+            final HttpPost httpPost = new HttpPost(url);
+            httpPost.setHeader("Content-Type", "text/plain; charset=utf-8");
+            httpPost.setEntity(new StringEntity(payload, "utf-8"));
+
+            final long start = System.nanoTime();
+            try (final CloseableHttpResponse response = client.execute(httpPost)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                if ((statusCode == 429 || statusCode == 503) && attempt < maxRetries) {
+                    // release the connection back to the pool before waiting
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    LOGGER.warn("Retrying post request after response code <[{}]>", statusCode);
+                    metrics.retried();
+                    backoff(attempt);
+                    continue;
+                }
+
+                final JsonObject jsonResp = responseJson(response.getEntity());
+                metrics.responded(System.nanoTime() - start);
+                validate(jsonResp, statusCode, metrics);
+                return;
+            }
+            catch (final IOException e) {
+                if (!isConnectFailure(e) || attempt >= maxRetries) {
+                    throw new RuntimeException("Error sending post request: " + e, e);
+                }
+                LOGGER.warn("Retrying post request after error <{}>", e.getMessage());
+                metrics.retried();
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * @return true if the request failed before it was sent, so the server could not have ingested it
+     */
+    private boolean isConnectFailure(final IOException e) {
+        return e instanceof ConnectException || e instanceof ConnectTimeoutException
+                || e instanceof ConnectionPoolTimeoutException || e instanceof UnknownHostException;
+    }
+
+    private void backoff(final int attempt) {
+        try {
+            Thread.sleep(retryBackoffMillis << Math.min(attempt, 16));
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying post request", e);
+        }
+    }
+
+    private JsonObject responseJson(final HttpEntity entity) {
+        if (entity == null) {
+            throw new IllegalStateException("Response entity was null!");
+        }
+
+        final JsonObject jsonResp;
+        try (final InputStream respStream = entity.getContent()) {
+            final InputStreamReader inputStreamReader = new InputStreamReader(respStream, StandardCharsets.UTF_8);
+            try {
+                jsonResp = GSON.fromJson(inputStreamReader, JsonObject.class);
+            }
+            catch (final JsonIOException | JsonSyntaxException je) {
+                throw new IllegalArgumentException("Error parsing JSON response, message: " + je.getMessage());
+            }
+        }
+        catch (final IOException | UnsupportedOperationException e) {
+            throw new IllegalStateException("Error getting response stream, message: " + e.getMessage());
+        }
+        if (jsonResp == null || jsonResp.isJsonNull()) {
+            throw new IllegalStateException("Unexpected null JSON response");
+        }
+        return jsonResp;
+    }
+
+    private void validate(final JsonObject jsonResp, final int statusCode, final DynatraceExportMetrics metrics) {
+        if (jsonResp.has("error") && !jsonResp.get("error").isJsonNull()) {
+            throw new RuntimeException("Error from server response: " + jsonResp.get("error").toString());
+        }
+
+        if (!jsonResp.has("linesValid")) {
+            throw new RuntimeException("Unexpected JSON: Could not find linesValid element.");
+        }
+        if (!jsonResp.has("linesInvalid")) {
+            throw new RuntimeException("Unexpected JSON: Could not find linesInvalid element.");
+        }
+        final long linesValid = jsonResp.get("linesValid").getAsLong();
+        final long linesInvalid = jsonResp.get("linesInvalid").getAsLong();
+        metrics.linesIngested(linesValid, linesInvalid);
+        LOGGER.debug("Post request has valid lines: <[{}]> invalid lines: <[{}]>", linesValid, linesInvalid);
+
+        if (statusCode != 202 && statusCode != 400) {
+            throw new RuntimeException("Error! Response code: <[" + statusCode + "]>. Expected 202 or 400.");
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            client.close();
+        }
+        catch (final IOException e) {
+            LOGGER.warn("Error closing the http client: <{}>", e.getMessage());
+        }
+    }
+}
@@ -150,27 +150,36 @@ public class DynatraceItem implements Serializable {
 
     @Override
     public String toString() {
-        return buildOutputString();
+        return metricLine() + "\n" + metadata();
     }
 
-    private String buildOutputString() {
+    /**
+     * @return metric line of the item without its metadata line
+     */
+    public String metricLine() {
         // metricKey.otherAggregates,dimensions "gauge,"min=X,max=X,sum=X,count=X timestamp(epochMilli UTC)
-        // metadata is of format: '#metric.key <payload-format> dt.meta.<prop>="value"'
-        // where payload-format is gauge or count
-        // prop can be displayName, description or unit
-        final DynatraceMetadata dtMeta = new DynatraceMetadata(dplQuery, metricKey);
-        final String format = "%s.%s%s gauge,min=%s,max=%s,sum=%s,count=%s %s\n%s";
+        final String format = "%s.%s%s gauge,min=%s,max=%s,sum=%s,count=%s %s";
         final String otherAggs = buildOtherAggregatesString();
         final String dims = buildDimensionString(!otherAggs.isEmpty());
         final String output = String
                 .format(
                         format, metricKey, otherAggs, dims, minString(), maxString(), sumString(), countString(),
-                        timestamp.toInstant().getEpochSecond() * 1000L, dtMeta
+                        timestamp.toInstant().getEpochSecond() * 1000L
                 );
 
         return output;
     }
 
+    /**
+     * @return metadata of the metric key
+     */
+    public DynatraceMetadata metadata() {
+        // metadata is of format: '#metric.key <payload-format> dt.meta.<prop>="value"'
+        // where payload-format is gauge or count
+        // prop can be displayName, description or unit
+        return new DynatraceMetadata(dplQuery, metricKey);
+    }
+
     private String buildDimensionString(boolean hasOtherAggs) {
         StringBuilder builder = new StringBuilder();
         if (!dimensions.isEmpty()) {
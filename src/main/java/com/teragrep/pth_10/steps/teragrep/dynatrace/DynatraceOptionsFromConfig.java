@@ -0,0 +1,203 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import com.typesafe.config.Config;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Batching and delivery of teragrep exec dynatrace: metric lines and bytes packed into a single ingest request,
+ * requests sent concurrently, and how many times a failed request is retried with exponential backoff.
+ */
+public final class DynatraceOptionsFromConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_MAX_LINES = 1000;
+    private static final long DEFAULT_MAX_BYTES = 1000L * 1000;
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofMillis(500);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final String MAX_LINES_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.maxLinesPerRequest";
+    private static final String MAX_BYTES_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.maxBytesPerRequest";
+    private static final String CONCURRENCY_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.concurrency";
+    private static final String MAX_RETRIES_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.maxRetries";
+    private static final String RETRY_BACKOFF_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.retryBackoff";
+    private static final String TIMEOUT_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.dynatrace.timeout";
+
+    private final Config config;
+
+    public DynatraceOptionsFromConfig(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * @return lines per ingest request, metadata lines included, defaults to 1000
+     */
+    public int maxLinesPerRequest() {
+        final int value;
+        if (config != null && config.hasPath(MAX_LINES_CONFIG_ITEM)) {
+            value = config.getInt(MAX_LINES_CONFIG_ITEM);
+            // a metric line is sent with the metadata line of its key
+            if (value < 2) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + MAX_LINES_CONFIG_ITEM + "' must be at least 2, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_MAX_LINES;
+        }
+        return value;
+    }
+
+    /**
+     * @return bytes per ingest request, defaults to 1 MB
+     */
+    public long maxBytesPerRequest() {
+        final long value;
+        if (config != null && config.hasPath(MAX_BYTES_CONFIG_ITEM)) {
+            value = config.getBytes(MAX_BYTES_CONFIG_ITEM);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + MAX_BYTES_CONFIG_ITEM + "' must be a positive size, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_MAX_BYTES;
+        }
+        return value;
+    }
+
+    /**
+     * @return ingest requests in flight at the same time, defaults to 4
+     */
+    public int concurrency() {
+        return positiveInt(CONCURRENCY_CONFIG_ITEM, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * @return retries of a request that failed to connect or got a 429 or 5xx response, defaults to 3
+     */
+    public int maxRetries() {
+        final int value;
+        if (config != null && config.hasPath(MAX_RETRIES_CONFIG_ITEM)) {
+            value = config.getInt(MAX_RETRIES_CONFIG_ITEM);
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + MAX_RETRIES_CONFIG_ITEM + "' must not be negative, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_MAX_RETRIES;
+        }
+        return value;
+    }
+
+    /**
+     * @return wait before the first retry, doubled for each following retry, defaults to 500 milliseconds
+     */
+    public Duration retryBackoff() {
+        return duration(RETRY_BACKOFF_CONFIG_ITEM, DEFAULT_RETRY_BACKOFF);
+    }
+
+    /**
+     * @return connect and response timeout of a request, defaults to 30 seconds
+     */
+    public Duration timeout() {
+        return duration(TIMEOUT_CONFIG_ITEM, DEFAULT_TIMEOUT);
+    }
+
+    private int positiveInt(final String configItem, final int defaultValue) {
+        final int value;
+        if (config != null && config.hasPath(configItem)) {
+            value = config.getInt(configItem);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must be a positive integer, got: " + value
+                );
+            }
+        }
+        else {
+            value = defaultValue;
+        }
+        return value;
+    }
+
+    private Duration duration(final String configItem, final Duration defaultValue) {
+        final Duration value;
+        if (config != null && config.hasPath(configItem)) {
+            value = config.getDuration(configItem);
+            if (value.isNegative()) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must not be negative, got: " + value
+                );
+            }
+        }
+        else {
+            value = defaultValue;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final DynatraceOptionsFromConfig cast = (DynatraceOptionsFromConfig) o;
+        return Objects.equals(config, cast.config);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(config);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Packs metric lines into ingest request payloads, separated by newlines. The metadata line of a metric key is written
+ * once per payload, before the first metric line of the key. A payload holds at most the given amount of lines,
+ * metadata lines included, and, unless a single metric line with its metadata line is larger, at most the given amount
+ * of UTF-8 bytes.
+ */
+public final class MetricPayloads {
+
+    private final int maxLines;
+    private final long maxBytes;
+    private final List<String> payloads;
+    private final StringBuilder current;
+    private final Set<String> currentMetadata;
+    private int currentLines;
+    private long currentBytes;
+    private long lines;
+
+    public MetricPayloads(final int maxLines, final long maxBytes) {
+        if (maxLines < 2) {
+            throw new IllegalArgumentException(
+                    "Lines per payload must be at least 2 to fit a metric line with its metadata line, got: " + maxLines
+            );
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Bytes per payload must be positive, got: " + maxBytes);
+        }
+        this.maxLines = maxLines;
+        this.maxBytes = maxBytes;
+        this.payloads = new ArrayList<>();
+        this.current = new StringBuilder();
+        this.currentMetadata = new HashSet<>();
+        this.currentLines = 0;
+        this.currentBytes = 0;
+        this.lines = 0;
+    }
+
+    /**
+     * @param item metric line and metadata line of the item are added
+     */
+    public void add(final DynatraceItem item) {
+        add(item.metadata().toString(), item.metricLine());
+    }
+
+    /**
+     * @param metadataLine metadata line of the metric key, added if the current payload does not contain it yet
+     * @param metricLine   metric line
+     */
+    public void add(final String metadataLine, final String metricLine) {
+        if (currentLines > 0 && !fits(metadataLine, metricLine)) {
+            complete();
+        }
+        if (currentMetadata.add(metadataLine)) {
+            append(metadataLine);
+        }
+        append(metricLine);
+        lines++;
+    }
+
+    private boolean fits(final String metadataLine, final String metricLine) {
+        int addedLines = 1;
+        long addedBytes = 1 + bytes(metricLine);
+        if (!currentMetadata.contains(metadataLine)) {
+            addedLines++;
+            addedBytes += 1 + bytes(metadataLine);
+        }
+        return currentLines + addedLines <= maxLines && currentBytes + addedBytes <= maxBytes;
+    }
+
+    private void append(final String line) {
+        if (currentLines > 0) {
+            current.append('\n');
+            currentBytes++;
+        }
+        current.append(line);
+        currentBytes += bytes(line);
+        currentLines++;
+    }
+
+    private long bytes(final String line) {
+        return line.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private void complete() {
+        payloads.add(current.toString());
+        current.setLength(0);
+        currentMetadata.clear();
+        currentLines = 0;
+        currentBytes = 0;
+    }
+
+    /**
+     * @return payloads of all the added lines
+     */
+    public List<String> payloads() {
+        if (currentLines > 0) {
+            complete();
+        }
+        return Collections.unmodifiableList(payloads);
+    }
+
+    /**
+     * @return amount of added metric lines, metadata lines excluded
+     */
+    public long lines() {
+        return lines;
+    }
+}
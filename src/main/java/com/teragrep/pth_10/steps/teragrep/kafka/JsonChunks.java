@@ -0,0 +1,163 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.kafka;
+
+import org.apache.spark.api.java.function.MapPartitionsFunction;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Groups the JSON rows of a partition into messages of bounded size. A message with a single row is the row itself,
+ * a message with more rows is a JSON array of them. A message holds at most the given amount of rows and, unless a
+ * single row is larger, at most the given amount of UTF-8 bytes.
+ */
+public final class JsonChunks implements MapPartitionsFunction<String, String> {
+
+    private static final long serialVersionUID = 1L;
+    private static final String SEPARATOR = ", ";
+
+    private final int maxRecords;
+    private final long maxBytes;
+
+    public JsonChunks(final int maxRecords, final long maxBytes) {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("Records per message must be positive, got: " + maxRecords);
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Bytes per message must be positive, got: " + maxBytes);
+        }
+        this.maxRecords = maxRecords;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public Iterator<String> call(final Iterator<String> rows) {
+        return new ChunkIterator(rows);
+    }
+
+    private static long utf8Length(final String s) {
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            }
+            else if (c < 0x800) {
+                length += 2;
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            }
+            else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private final class ChunkIterator implements Iterator<String> {
+
+        private final Iterator<String> rows;
+        // first row of the next message, read ahead when the previous message was full
+        private String carried;
+        private long carriedBytes;
+
+        private ChunkIterator(final Iterator<String> rows) {
+            this.rows = rows;
+            this.carried = null;
+            this.carriedBytes = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return carried != null || rows.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String first;
+            long bytes;
+            if (carried != null) {
+                first = carried;
+                bytes = carriedBytes;
+                carried = null;
+            }
+            else {
+                first = rows.next();
+                bytes = utf8Length(first);
+            }
+
+            StringBuilder message = null;
+            int records = 1;
+            while (records < maxRecords && rows.hasNext()) {
+                final String row = rows.next();
+                final long rowBytes = utf8Length(row);
+                // brackets of the array and the separator before the row
+                if (bytes + rowBytes + SEPARATOR.length() + 2 > maxBytes) {
+                    carried = row;
+                    carriedBytes = rowBytes;
+                    break;
+                }
+                if (message == null) {
+                    message = new StringBuilder().append('[').append(first);
+                }
+                message.append(SEPARATOR).append(row);
+                bytes += rowBytes + SEPARATOR.length();
+                records++;
+            }
+
+            if (message == null) {
+                return first;
+            }
+            return message.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.kafka;
+
+import com.typesafe.config.Config;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Message size limits of the sequential kafka save, and the producer batching and compression options passed to the
+ * kafka sink as <code>kafka.</code> prefixed options.
+ */
+public final class KafkaSaveOptionsFromConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final String CONFIG_PREFIX = "dpl.pth_10.transform.teragrep.kafka.save.";
+    private static final int DEFAULT_MAX_RECORDS = 1000;
+    private static final long DEFAULT_MAX_BYTES = 512L * 1024;
+    private static final String[] PRODUCER_OPTIONS = new String[] {
+            "linger.ms", "batch.size", "compression.type"
+    };
+
+    private final Config config;
+
+    public KafkaSaveOptionsFromConfig(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * @return rows per kafka message in sequential mode, <code>maxRecordsPerMessage</code> defaults to 1000
+     */
+    public int maxRecordsPerMessage() {
+        final String configItem = CONFIG_PREFIX + "maxRecordsPerMessage";
+        final int value;
+        if (config.hasPath(configItem)) {
+            value = config.getInt(configItem);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must be a positive integer, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_MAX_RECORDS;
+        }
+        return value;
+    }
+
+    /**
+     * @return bytes per kafka message in sequential mode, <code>maxBytesPerMessage</code> defaults to 512 KiB
+     */
+    public long maxBytesPerMessage() {
+        final String configItem = CONFIG_PREFIX + "maxBytesPerMessage";
+        final long value;
+        if (config.hasPath(configItem)) {
+            value = config.getBytes(configItem);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must be a positive size, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_MAX_BYTES;
+        }
+        return value;
+    }
+
+    /**
+     * @return configured producer options, <code>linger.ms</code>, <code>batch.size</code> and
+     *         <code>compression.type</code>, as kafka sink options
+     */
+    public Map<String, String> producerOptions() {
+        final Map<String, String> options = new HashMap<>();
+        for (final String option : PRODUCER_OPTIONS) {
+            if (config.hasPath(CONFIG_PREFIX + option)) {
+                options.put("kafka." + option, config.getString(CONFIG_PREFIX + option));
+            }
+        }
+        return options;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final KafkaSaveOptionsFromConfig cast = (KafkaSaveOptionsFromConfig) o;
+        return Objects.equals(config, cast.config);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(config);
+    }
+}
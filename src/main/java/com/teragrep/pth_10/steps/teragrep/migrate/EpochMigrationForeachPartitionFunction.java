@@ -50,8 +50,10 @@ import com.teragrep.pth_10.steps.teragrep.connection.LazyConnectionSource;
 import com.typesafe.config.Config;
 import org.apache.spark.api.java.function.ForeachPartitionFunction;
 import org.apache.spark.sql.Row;
+import org.apache.spark.util.LongAccumulator;
 import org.jooq.DSLContext;
 import org.jooq.Loader;
+import org.jooq.LoaderOptionsStep;
 import org.jooq.SQLDialect;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DSL;
@@ -71,39 +73,84 @@ final class EpochMigrationForeachPartitionFunction implements ForeachPartitionFu
     private final ConnectionSource connectionSource;
     private final String journalDBName;
     private final int batchSize;
+    private final int bulkSize;
+    private final int commitInterval;
     private final Settings settings;
+    private final LongAccumulator migratedRows;
 
-    EpochMigrationForeachPartitionFunction(final Config config, final String journalDBName) {
-        this(config, journalDBName, new Settings());
+    EpochMigrationForeachPartitionFunction(
+            final Config config,
+            final String journalDBName,
+            final EpochMigrationOptionsFromConfig options,
+            final LongAccumulator migratedRows
+    ) {
+        this(
+                new LazyConnectionSource(config),
+                journalDBName,
+                options.batchSize(),
+                options.bulkSize(),
+                options.commitInterval(),
+                new Settings(),
+                migratedRows
+        );
     }
 
-    EpochMigrationForeachPartitionFunction(final Config config, final String journalDBName, final Settings settings) {
-        this(new LazyConnectionSource(config), journalDBName, 500, settings);
+    EpochMigrationForeachPartitionFunction(
+            final ConnectionSource connectionSource,
+            final String journalDBName,
+            final int batchSize,
+            final Settings settings,
+            final LongAccumulator migratedRows
+    ) {
+        this(connectionSource, journalDBName, batchSize, 1, 1, settings, migratedRows);
     }
 
     EpochMigrationForeachPartitionFunction(
             final ConnectionSource connectionSource,
             final String journalDBName,
             final int batchSize,
-            final Settings settings
+            final int bulkSize,
+            final int commitInterval,
+            final Settings settings,
+            final LongAccumulator migratedRows
     ) {
+        // an unregistered accumulator is not merged back from the executors
+        if (!migratedRows.isRegistered()) {
+            throw new IllegalArgumentException("Migrated rows accumulator must be registered to the SparkContext");
+        }
         this.connectionSource = connectionSource;
         this.journalDBName = journalDBName;
         this.batchSize = batchSize;
+        this.bulkSize = bulkSize;
+        this.commitInterval = commitInterval;
         this.settings = settings;
+        this.migratedRows = migratedRows;
     }
 
     @Override
     public void call(final Iterator<Row> iter) {
+        if (!iter.hasNext()) {
+            // nothing to migrate, skip leasing a connection and calling the procedure
+            return;
+        }
         try (final Connection conn = connectionSource.get()) {
             final DSLContext ctx = DSL.using(conn, SQLDialect.MYSQL, settings);
+            // temporary tables are visible only to their own connection, concurrent partitions don't share them
             final EpochMigrationTempTable epochMigrationTempTable = new EpochMigrationTempTable(ctx, journalDBName);
             epochMigrationTempTable.create();
 
-            final Loader<?> loaderResult = ctx
+            final LoaderOptionsStep<?> batchedLoader = ctx
                     .loadInto(epochMigrationTempTable.table())
-                    .batchAfter(batchSize)
-                    .commitEach() // commit after each batch
+                    .bulkAfter(bulkSize)
+                    .batchAfter(batchSize);
+            final LoaderOptionsStep<?> loader;
+            if (commitInterval == 1) {
+                loader = batchedLoader.commitEach(); // commit after each batch
+            }
+            else {
+                loader = batchedLoader.commitAfter(commitInterval);
+            }
+            final Loader<?> loaderResult = loader
                     .loadArrays(new EpochMigrationIterator(iter))
                     .fields(
                             epochMigrationTempTable.logfileIdField(), epochMigrationTempTable.epochHourField(),
@@ -116,7 +163,10 @@ final class EpochMigrationForeachPartitionFunction implements ForeachPartitionFu
                         "Loader encountered execution errors during migration: <" + loaderResult.errors() + ">"
                 );
             }
+            // migrates all the loaded rows of the partition in one set-based call
             epochMigrationTempTable.callMigrationProcedure();
+            migratedRows.add(loaderResult.stored());
+            LOGGER.debug("Migrated <{}> rows of partition", loaderResult.stored());
         }
         catch (IOException | SQLException e) {
             throw new RuntimeException("Exception during migration: " + e.getMessage(), e);
@@ -134,14 +184,17 @@ final class EpochMigrationForeachPartitionFunction implements ForeachPartitionFu
         }
         else {
             final EpochMigrationForeachPartitionFunction that = (EpochMigrationForeachPartitionFunction) o;
-            rv = batchSize == that.batchSize && Objects.equals(connectionSource, that.connectionSource)
-                    && Objects.equals(journalDBName, that.journalDBName) && Objects.equals(settings, that.settings);
+            rv = batchSize == that.batchSize && bulkSize == that.bulkSize && commitInterval == that.commitInterval
+                    && Objects.equals(connectionSource, that.connectionSource)
+                    && Objects.equals(journalDBName, that.journalDBName) && Objects.equals(settings, that.settings)
+                    && Objects.equals(migratedRows, that.migratedRows);
         }
         return rv;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(connectionSource, journalDBName, batchSize, settings);
+        return Objects
+                .hash(connectionSource, journalDBName, batchSize, bulkSize, commitInterval, settings, migratedRows);
     }
 }
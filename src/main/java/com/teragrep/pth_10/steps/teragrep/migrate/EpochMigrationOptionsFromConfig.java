@@ -0,0 +1,183 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.migrate;
+
+import com.typesafe.config.Config;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Throughput and resumability of teragrep exec migrate epoch. Rows are loaded with multi-row inserts of
+ * <code>bulkSize</code> rows, sent in JDBC batches of <code>batchSize</code> statements and committed every
+ * <code>commitInterval</code> batches. <code>parallelism</code> sets the amount of partitions, and thus concurrent
+ * loads and migration procedure calls, of each micro-batch. With a <code>checkpointPath</code> an interrupted migration
+ * continues from the last completed micro-batch of the same journaldb and query.
+ */
+public final class EpochMigrationOptionsFromConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final String CONFIG_PREFIX = "dpl.pth_10.transform.teragrep.migrate.";
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_BULK_SIZE = 1;
+    private static final int DEFAULT_COMMIT_INTERVAL = 1;
+
+    private final Config config;
+
+    public EpochMigrationOptionsFromConfig(final Config config) {
+        this.config = config;
+    }
+
+    /**
+     * @return insert statements per JDBC batch, <code>batchSize</code> defaults to 500
+     */
+    public int batchSize() {
+        return positiveInt("batchSize", DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @return rows per insert statement, <code>bulkSize</code> defaults to 1
+     */
+    public int bulkSize() {
+        return positiveInt("bulkSize", DEFAULT_BULK_SIZE);
+    }
+
+    /**
+     * @return batches per commit, <code>commitInterval</code> defaults to 1
+     */
+    public int commitInterval() {
+        return positiveInt("commitInterval", DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     * @return partitions of each micro-batch, <code>parallelism</code> defaults to 0 which keeps the partitions of the
+     *         datasource
+     */
+    public int parallelism() {
+        final String configItem = CONFIG_PREFIX + "parallelism";
+        final int value;
+        if (config.hasPath(configItem)) {
+            value = config.getInt(configItem);
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must not be negative, got: " + value
+                );
+            }
+        }
+        else {
+            value = 0;
+        }
+        return value;
+    }
+
+    /**
+     * @return base directory of the migration checkpoints, <code>checkpointPath</code> defaults to empty which starts
+     *         every migration from the beginning
+     */
+    public String checkpointPath() {
+        final String configItem = CONFIG_PREFIX + "checkpointPath";
+        final String value;
+        if (config.hasPath(configItem)) {
+            value = config.getString(configItem);
+        }
+        else {
+            value = "";
+        }
+        return value;
+    }
+
+    /**
+     * @param journalDBName journaldb the migration writes to
+     * @param query         DPL query selecting the migrated rows
+     * @return checkpoint location of the migration stream in a subdirectory of <code>checkpointPath</code> named by the
+     *         journaldb and the query, or empty if no <code>checkpointPath</code> is configured
+     */
+    public String checkpointLocation(final String journalDBName, final String query) {
+        final String checkpointPath = checkpointPath();
+        final String value;
+        if (checkpointPath.isEmpty()) {
+            value = "";
+        }
+        else {
+            // offsets are only valid for the source they were read from, another migration must not resume from them
+            final String base = checkpointPath.endsWith("/") ? checkpointPath : checkpointPath + "/";
+            value = base + journalDBName + "-" + UUID.nameUUIDFromBytes(query.getBytes(StandardCharsets.UTF_8));
+        }
+        return value;
+    }
+
+    private int positiveInt(final String name, final int defaultValue) {
+        final String configItem = CONFIG_PREFIX + name;
+        final int value;
+        if (config.hasPath(configItem)) {
+            value = config.getInt(configItem);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + configItem + "' must be a positive integer, got: " + value
+                );
+            }
+        }
+        else {
+            value = defaultValue;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final EpochMigrationOptionsFromConfig cast = (EpochMigrationOptionsFromConfig) o;
+        return Objects.equals(config, cast.config);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(config);
+    }
+}
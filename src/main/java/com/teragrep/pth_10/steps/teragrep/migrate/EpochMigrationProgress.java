@@ -0,0 +1,122 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.migrate;
+
+import org.apache.spark.sql.streaming.SourceProgress;
+import org.apache.spark.sql.streaming.StreamingQueryProgress;
+import org.apache.spark.util.LongAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Progress of an epoch migration, logged on the driver after each micro-batch: rows migrated by the micro-batch and in
+ * total, their rate in rows per second, and the offsets of the source left to migrate.
+ */
+final class EpochMigrationProgress {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EpochMigrationProgress.class);
+
+    private final LongAccumulator migratedRows;
+    private final long startNanos;
+
+    EpochMigrationProgress(final LongAccumulator migratedRows) {
+        this(migratedRows, System.nanoTime());
+    }
+
+    EpochMigrationProgress(final LongAccumulator migratedRows, final long startNanos) {
+        this.migratedRows = migratedRows;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @param batchId      id of the completed micro-batch
+     * @param batchRows    rows migrated by the micro-batch
+     * @param batchNanos   duration of the micro-batch
+     * @param lastProgress progress of the preceding micro-batch, null for the first one
+     */
+    void batchCompleted(
+            final long batchId,
+            final long batchRows,
+            final long batchNanos,
+            final StreamingQueryProgress lastProgress
+    ) {
+        final long totalRows = migratedRows.sum();
+        LOGGER
+                .info(
+                        "Epoch migration batch <{}> migrated <{}> rows at <{}> rows/s, total <{}> rows at <{}> rows/s, "
+                                + "remaining source offsets <{}>",
+                        batchId, batchRows, rowsPerSecond(batchRows, batchNanos), totalRows,
+                        rowsPerSecond(totalRows, System.nanoTime() - startNanos), remaining(lastProgress)
+                );
+    }
+
+    private static long rowsPerSecond(final long rows, final long nanos) {
+        final long rv;
+        if (nanos <= 0) {
+            rv = 0;
+        }
+        else {
+            rv = (long) (rows / (nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        }
+        return rv;
+    }
+
+    private static String remaining(final StreamingQueryProgress lastProgress) {
+        if (lastProgress == null) {
+            return "unknown";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final SourceProgress source : lastProgress.sources()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(source.endOffset()).append(" -> ").append(source.latestOffset());
+        }
+        return sb.toString();
+    }
+}
@@ -55,11 +55,13 @@ import org.apache.spark.sql.functions;
 import org.apache.spark.sql.streaming.DataStreamWriter;
 import org.apache.spark.sql.streaming.StreamingQuery;
 import org.apache.spark.sql.streaming.StreamingQueryException;
+import org.apache.spark.util.LongAccumulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class TeragrepEpochMigrationStep extends AbstractStep {
 
@@ -94,14 +96,42 @@ public final class TeragrepEpochMigrationStep extends AbstractStep {
         final Column rawCol = functions.col("_raw");
         final Column partitionCol = functions.col("partition");
         final Dataset<Row> selectedColumnsDataset = dataset.select(timeCol, rawCol, partitionCol);
+        final EpochMigrationOptionsFromConfig options = new EpochMigrationOptionsFromConfig(config);
+        final int parallelism = options.parallelism();
+        final LongAccumulator migratedRows = catCtx
+                .getSparkSession()
+                .sparkContext()
+                .longAccumulator("epoch migration migrated rows");
+        final EpochMigrationProgress progress = new EpochMigrationProgress(migratedRows);
+        final AtomicReference<StreamingQuery> streamingQueryReference = new AtomicReference<>();
         final DataStreamWriter<Row> dataStreamWriter = selectedColumnsDataset.writeStream().foreachBatch((ds, id) -> {
-            ds.foreachPartition(new EpochMigrationForeachPartitionFunction(config, journalDBName));
+            final long batchStartNanos = System.nanoTime();
+            final long rowsBefore = migratedRows.sum();
+            final Dataset<Row> partitionedDs = parallelism > 0 ? ds.repartition(parallelism) : ds;
+            partitionedDs
+                    .foreachPartition(
+                            new EpochMigrationForeachPartitionFunction(config, journalDBName, options, migratedRows)
+                    );
+            final StreamingQuery query = streamingQueryReference.get();
+            progress
+                    .batchCompleted(
+                            id, migratedRows.sum() - rowsBefore, System.nanoTime() - batchStartNanos,
+                            query == null ? null : query.lastProgress()
+                    );
         });
+        final String checkpointLocation = options.checkpointLocation(journalDBName, catCtx.getDplQuery());
+        if (!checkpointLocation.isEmpty()) {
+            // offsets of the completed micro-batches are kept, a restarted migration continues after them
+            LOGGER.info("Using epoch migration checkpoint location <{}>", checkpointLocation);
+            dataStreamWriter.option("checkpointLocation", checkpointLocation);
+        }
         final String streamingQueryName = "epoch-migration-stream-" + UUID.randomUUID();
         final StreamingQuery streamingQuery = catCtx
                 .getInternalStreamingQueryListener()
                 .registerQuery(streamingQueryName, dataStreamWriter);
+        streamingQueryReference.set(streamingQuery);
         streamingQuery.awaitTermination();
+        LOGGER.info("Epoch migration completed, migrated <{}> rows", migratedRows.sum());
         return selectedColumnsDataset;
 
     }
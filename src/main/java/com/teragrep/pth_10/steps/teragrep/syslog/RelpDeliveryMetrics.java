@@ -43,84 +43,64 @@
  * Teragrep, the applicable Commercial License may apply to this file if you as
  * a licensee so wish it.
  */
-package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses;
+package com.teragrep.pth_10.steps.teragrep.syslog;
+
+import org.apache.spark.SparkContext;
+import org.apache.spark.util.LongAccumulator;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
- * An abstract class to be List-based aggregation buffers on
- * 
- * @author eemhu
- * @param <T> Type of data in list
+ * Delivery counters of a syslog stream, summed from all the executors. A message is counted as delivered once the
+ * RELP server has acknowledged it, and a retry is counted each time a batch is committed again after a failure.
+ * Retried batches are resent as a whole, so the stream delivers each message at least once.
  */
-public abstract class ListBuffer<T> implements Serializable {
+public final class RelpDeliveryMetrics implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    protected List<T> list;
 
-    // Required constructors & methods for Java Bean compliance
+    private final LongAccumulator delivered;
+    private final LongAccumulator batches;
+    private final LongAccumulator retries;
 
-    /**
-     * Initialize a ListBuffer with an arraylist of type T
-     */
-    public ListBuffer() {
-        this.list = new ArrayList<T>();
+    public RelpDeliveryMetrics(final SparkContext sparkContext) {
+        this(
+                sparkContext.longAccumulator("syslog stream delivered messages"),
+                sparkContext.longAccumulator("syslog stream committed batches"),
+                sparkContext.longAccumulator("syslog stream retried batches")
+        );
     }
 
-    /**
-     * Initialize a ListBuffer with an existing list of type T
-     * 
-     * @param list existing list to initialize the buffer with
-     */
-    public ListBuffer(List<T> list) {
-        this.list = list;
+    RelpDeliveryMetrics(final LongAccumulator delivered, final LongAccumulator batches, final LongAccumulator retries) {
+        this.delivered = delivered;
+        this.batches = batches;
+        this.retries = retries;
     }
 
-    /**
-     * Gets the internal list from the buffer
-     * 
-     * @return list of type T
-     */
-    public List<T> getList() {
-        return this.list;
+    void batchDelivered(final int messages) {
+        delivered.add(messages);
+        batches.add(1);
     }
 
-    /**
-     * Sets the internal list of the buffer
-     * 
-     * @param list to set it to
-     */
-    public void setList(List<T> list) {
-        this.list = list;
+    void batchRetried() {
+        retries.add(1);
     }
 
-    /**
-     * Gets the size of the internal list
-     * 
-     * @return size of the list as an integer
-     */
-    public int getSize() {
-        return this.list.size();
+    public long delivered() {
+        return delivered.sum();
     }
 
-    /**
-     * Abstract method for sorting the internal list
-     */
-    public abstract void sortInternalList();
+    public long batches() {
+        return batches.sum();
+    }
 
-    /**
-     * Abstract method for merging the internal list with another
-     * 
-     * @param another list to merge with
-     */
-    public abstract void mergeList(List<T> another);
+    public long retries() {
+        return retries.sum();
+    }
 
-    /**
-     * Abstract method for adding data to the buffer
-     * 
-     * @param data to add to the buffer
-     */
-    public abstract void add(T data);
+    @Override
+    public String toString() {
+        return "RelpDeliveryMetrics{" + "delivered=" + delivered() + ", batches=" + batches() + ", retries="
+                + retries() + '}';
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.syslog;
+
+import com.teragrep.rlp_01.RelpBatch;
+import com.teragrep.rlp_01.RelpConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RELP connection of a single partition that sends messages in batches. The messages of a batch are committed as one
+ * RELP transaction window, so the batch size is also the amount of messages in flight without an acknowledgement. A
+ * batch that can't be verified is retried after reconnecting until all of its messages are acknowledged. Not
+ * thread-safe, each task uses its own sink.
+ */
+public final class RelpSink implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RelpSink.class);
+
+    // timeouts
+    private static final int CONNECTION_TIMEOUT = 0;
+    private static final int READ_TIMEOUT = 0;
+    private static final int WRITE_TIMEOUT = 0;
+    private static final int RECONNECT_INTERVAL = 500;
+    // how many reconnection attempts until an exception will be thrown?
+    private static final int MAX_FAILED_CONNECTION_ATTEMPTS = 10;
+
+    private final String relpHost;
+    private final int relpPort;
+    private final int batchSize;
+    private final RelpDeliveryMetrics metrics;
+    private final RelpConnection sender;
+    private RelpBatch batch;
+    private int pending;
+    private int failedConnectionAttempts;
+    private boolean connected;
+
+    public RelpSink(final String relpHost, final int relpPort, final int batchSize, final RelpDeliveryMetrics metrics) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.sender = new RelpConnection();
+        this.relpHost = relpHost;
+        this.relpPort = relpPort;
+        this.batchSize = batchSize;
+        this.metrics = metrics;
+        this.batch = new RelpBatch();
+        this.pending = 0;
+        this.failedConnectionAttempts = 0;
+        this.connected = false;
+
+        sender.setConnectionTimeout(CONNECTION_TIMEOUT);
+        sender.setReadTimeout(READ_TIMEOUT);
+        sender.setWriteTimeout(WRITE_TIMEOUT);
+    }
+
+    /**
+     * Adds the message to the current batch and commits the batch once it is full.
+     *
+     * @param message RFC 5424 syslog message
+     */
+    public void append(final byte[] message) {
+        if (!connected) {
+            connect();
+        }
+        batch.insert(message);
+        pending++;
+        if (pending >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Commits the current batch and blocks until the server has acknowledged all of its messages.
+     */
+    public void flush() {
+        if (pending == 0) {
+            return;
+        }
+        if (!connected) {
+            connect();
+        }
+
+        boolean notSent = true;
+        while (notSent) {
+            LOGGER.debug("Attempting to send relpBatch of <{}> messages", pending);
+            try {
+                sender.commit(batch);
+            }
+            catch (IllegalStateException | IOException | TimeoutException e) {
+                LOGGER.error("Error occurred while committing syslog messages! error=<{}>", e.getMessage());
+            }
+
+            if (!batch.verifyTransactionAll()) {
+                LOGGER.warn("RELPBatch transaction could not be verified, retrying all failed");
+                metrics.batchRetried();
+                batch.retryAllFailed();
+                sender.tearDown();
+                connected = false;
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting to reconnect to the RELP server", e);
+                }
+                connect();
+            }
+            else {
+                LOGGER.debug("RELPBatch was sent successfully.");
+                notSent = false;
+            }
+        }
+
+        metrics.batchDelivered(pending);
+        batch = new RelpBatch();
+        pending = 0;
+    }
+
+    /**
+     * Commits the remaining messages and disconnects.
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        }
+        finally {
+            disconnect();
+        }
+    }
+
+    /**
+     * Disconnects without committing the remaining messages, used when the task has failed and will be retried.
+     */
+    public void abort() {
+        disconnect();
+    }
+
+    /**
+     * Connects to the RELP server <code>relpHost:relpPort</code>
+     *
+     * @throws RuntimeException if the server is unavailable for more than {@link #MAX_FAILED_CONNECTION_ATTEMPTS}
+     */
+    private void connect() {
+        while (!connected) {
+            try {
+                connected = sender.connect(relpHost, relpPort);
+            }
+            catch (Exception e) {
+                LOGGER.error("An exception occurred while trying to connect to RELP server: <{}>", e.getMessage());
+            }
+
+            if (connected) {
+                LOGGER.info("Connected to RELP server host=<[{}]> port=<[{}]> !", relpHost, relpPort);
+                failedConnectionAttempts = 0;
+            }
+            else {
+                if (failedConnectionAttempts++ >= MAX_FAILED_CONNECTION_ATTEMPTS) {
+                    throw new RuntimeException(
+                            "Connection to RELP server failed more times than allowed. " + "(Maximum "
+                                    + MAX_FAILED_CONNECTION_ATTEMPTS + " times)"
+                    );
+                }
+
+                LOGGER
+                        .warn(
+                                "Connection to RELP server was unsuccessful, attempting again in <{}> ms",
+                                RECONNECT_INTERVAL
+                        );
+                try {
+                    Thread.sleep(RECONNECT_INTERVAL);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting to reconnect to the RELP server", e);
+                }
+            }
+        }
+    }
+
+    private void disconnect() {
+        if (!connected) {
+            return;
+        }
+        connected = false;
+        try {
+            sender.disconnect();
+        }
+        catch (IllegalStateException | IOException | TimeoutException e) {
+            LOGGER.error("An exception occurred while attempting to disconnect from RELP server: <{}>", e.getMessage());
+        }
+        finally {
+            sender.tearDown();
+        }
+    }
+}
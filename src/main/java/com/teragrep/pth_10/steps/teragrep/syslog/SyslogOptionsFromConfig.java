@@ -0,0 +1,109 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.syslog;
+
+import com.typesafe.config.Config;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Batching and parallelism of teragrep exec syslog stream: messages committed per RELP batch, and whether the stream is
+ * forwarded in parallel from the partitions of the streaming dataset instead of from the sequential micro-batches.
+ */
+public final class SyslogOptionsFromConfig implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final String BATCH_SIZE_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.syslog.batchSize";
+    private static final String PARALLEL_CONFIG_ITEM = "dpl.pth_10.transform.teragrep.syslog.parallel";
+
+    private final Config config;
+
+    public SyslogOptionsFromConfig(Config config) {
+        this.config = config;
+    }
+
+    public int batchSize() {
+        final int value;
+        if (config != null && config.hasPath(BATCH_SIZE_CONFIG_ITEM)) {
+            value = config.getInt(BATCH_SIZE_CONFIG_ITEM);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                        "Configuration item '" + BATCH_SIZE_CONFIG_ITEM + "' must be a positive integer, got: " + value
+                );
+            }
+        }
+        else {
+            value = DEFAULT_BATCH_SIZE;
+        }
+        return value;
+    }
+
+    public boolean parallel() {
+        final boolean value;
+        if (config != null && config.hasPath(PARALLEL_CONFIG_ITEM)) {
+            value = config.getBoolean(PARALLEL_CONFIG_ITEM);
+        }
+        else {
+            value = false;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final SyslogOptionsFromConfig cast = (SyslogOptionsFromConfig) o;
+        return Objects.equals(config, cast.config);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(config);
+    }
+}
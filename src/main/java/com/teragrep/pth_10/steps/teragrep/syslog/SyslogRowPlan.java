@@ -0,0 +1,149 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.syslog;
+
+import com.cloudbees.syslog.Facility;
+import com.cloudbees.syslog.SDElement;
+import com.cloudbees.syslog.Severity;
+import com.cloudbees.syslog.SyslogMessage;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts rows into syslog messages. The positions of the fields are resolved once from the schema instead of
+ * looking up each field of each row by name. <code>_time</code> is used as the message time, <code>_raw</code> as the
+ * message and all other fields are added into the teragrep-output@48577 SDElement.
+ */
+public final class SyslogRowPlan implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int timeIndex;
+    private final int rawIndex;
+    private final int[] paramIndices;
+    private final String[] paramNames;
+    private final String appName;
+    private final String hostname;
+
+    public SyslogRowPlan(final StructType schema) {
+        this(schema, "teragrep", "localhost");
+    }
+
+    public SyslogRowPlan(final StructType schema, final String appName, final String hostname) {
+        int timeIndex = -1;
+        int rawIndex = -1;
+        final List<Integer> indices = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        final StructField[] fields = schema.fields();
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].name().equals("_time")) {
+                timeIndex = i;
+            }
+            else if (fields[i].name().equals("_raw")) {
+                rawIndex = i;
+            }
+            else {
+                indices.add(i);
+                names.add(fields[i].name());
+            }
+        }
+        this.timeIndex = timeIndex;
+        this.rawIndex = rawIndex;
+        this.paramIndices = indices.stream().mapToInt(Integer::intValue).toArray();
+        this.paramNames = names.toArray(new String[0]);
+        this.appName = appName;
+        this.hostname = hostname;
+    }
+
+    public SyslogMessage message(final Row row) {
+        final SDElement teragrepOutput = new SDElement("teragrep-output@48577");
+        for (int i = 0; i < paramIndices.length; i++) {
+            // Check for null
+            final Object elem = row.get(paramIndices[i]);
+            teragrepOutput.addSDParam(paramNames[i], elem == null ? "null" : elem.toString());
+        }
+
+        final long time;
+        if (timeIndex >= 0) {
+            // Convert timestamp to epoch and use as syslog message time
+            final Timestamp timeStamp = row.getAs(timeIndex);
+            time = timeStamp.getTime();
+        }
+        else {
+            // If _time column didn't exist, get current time as the syslog message time
+            time = Instant.now().getEpochSecond() * 1000L;
+        }
+
+        final String payload;
+        if (rawIndex >= 0) {
+            payload = row.get(rawIndex).toString();
+        }
+        else {
+            payload = "";
+        }
+
+        return new SyslogMessage()
+                .withTimestamp(time)
+                .withSeverity(Severity.WARNING)
+                .withAppName(appName)
+                .withHostname(hostname)
+                .withFacility(Facility.USER)
+                .withSDElement(teragrepOutput)
+                .withMsg(payload);
+    }
+
+    public byte[] bytes(final Row row) {
+        return message(row).toRfc5424SyslogMessage().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -175,4 +175,23 @@ public class AccumTransformationStreamingTest {
             Assertions.assertTrue(newCol.containsAll(expected));
         });
     }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void accumAfterSortQueryTest() {
+        // accum after sort runs in batch mode with the partition-parallel prefix sum
+        streamingTestUtil.performDPLTest("index=* | sort + num(_raw) | accum _raw as new", numberDataTestFile, ds -> {
+            List<Object> newCol = ds
+                    .select("new")
+                    .collectAsList()
+                    .stream()
+                    .map(r -> r.getAs(0))
+                    .collect(Collectors.toList());
+            List<Object> expected = Arrays.asList("-10", "-10", "0", "35", "82.2");
+            Assertions.assertEquals(expected, newCol);
+        });
+    }
 }
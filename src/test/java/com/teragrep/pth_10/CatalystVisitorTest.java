@@ -95,7 +95,7 @@ public class CatalystVisitorTest {
 
         this.streamingTestUtil.performDPLTest(q, this.testFile, res -> {
             //        e = "((`index` LIKE 'cpu' AND `sourcetype` LIKE 'log:cpu:0') AND (NOT `_raw` LIKE '%src%'))";
-            String e = "(RLIKE(index, (?i)^cpu$) AND (RLIKE(sourcetype, (?i)^log:cpu:0) AND (NOT RLIKE(_raw, (?i)^.*\\Qsrc\\E.*))))";
+            String e = "(RLIKE(index, (?i)^cpu$) AND (startswith(lower(sourcetype), log:cpu:0) AND (NOT contains(lower(_raw), src))))";
 
             String result = this.streamingTestUtil.getCtx().getSparkQuery();
             Assertions.assertEquals(e, result);
@@ -109,7 +109,7 @@ public class CatalystVisitorTest {
     )
     void searchQueryWithOrTest() {
         final String query = "(index!=strawberry sourcetype=example:strawberry:strawberry host=loadbalancer.example.com) OR (index=* host=firewall.example.com earliest=2021-01-26T00:00:00Z latest=2021-04-26T00:00:00Z \"Denied\")";
-        final String expected = "(((NOT RLIKE(index, (?i)^strawberry$)) AND (RLIKE(sourcetype, (?i)^example:strawberry:strawberry) AND RLIKE(host, (?i)^loadbalancer.example.com))) OR (RLIKE(index, (?i)^.*$) AND (((RLIKE(host, (?i)^firewall.example.com) AND (_time >= from_unixtime(1611619200, yyyy-MM-dd HH:mm:ss))) AND (_time < from_unixtime(1619395200, yyyy-MM-dd HH:mm:ss))) AND RLIKE(_raw, (?i)^.*\\QDenied\\E.*))))";
+        final String expected = "(((NOT RLIKE(index, (?i)^strawberry$)) AND (startswith(lower(sourcetype), example:strawberry:strawberry) AND startswith(lower(host), loadbalancer.example.com))) OR (RLIKE(index, (?i)^.*$) AND (((startswith(lower(host), firewall.example.com) AND (_time >= from_unixtime(1611619200, yyyy-MM-dd HH:mm:ss))) AND (_time < from_unixtime(1619395200, yyyy-MM-dd HH:mm:ss))) AND contains(lower(_raw), denied))))";
         this.streamingTestUtil.performDPLTest(query, this.testFile, res -> {
             DPLParserCatalystContext ctx = this.streamingTestUtil.getCtx();
             Assertions.assertEquals(expected, ctx.getSparkQuery());
@@ -132,7 +132,7 @@ public class CatalystVisitorTest {
                 long latestEpoch = new DPLTimeFormat("MM/dd/yyyy:HH:mm:ss")
                         .instantOf("01/01/2030:00:00:00")
                         .getEpochSecond();
-                String e = "(((RLIKE(index, (?i)^cpu$) AND RLIKE(host, (?i)^sc-99-99-14-25)) AND RLIKE(sourcetype, (?i)^log:cpu:0)) AND ((_time >= from_unixtime("
+                String e = "(((RLIKE(index, (?i)^cpu$) AND startswith(lower(host), sc-99-99-14-25)) AND startswith(lower(sourcetype), log:cpu:0)) AND ((_time >= from_unixtime("
                         + earliestEpoch + ", yyyy-MM-dd HH:mm:ss)) AND (_time < from_unixtime(" + latestEpoch
                         + ", yyyy-MM-dd HH:mm:ss))))";
                 DPLParserCatalystContext ctx = this.streamingTestUtil.getCtx();
@@ -155,7 +155,7 @@ public class CatalystVisitorTest {
         //LOGGER.info("------ AND ---------");
         String q = "index =\"strawberry\" AND sourcetype =\"example:strawberry:strawberry\"";
         this.streamingTestUtil.performDPLTest(q, this.testFile, res -> {
-            String e = "(RLIKE(index, (?i)^strawberry$) AND RLIKE(sourcetype, (?i)^example:strawberry:strawberry))";
+            String e = "(RLIKE(index, (?i)^strawberry$) AND startswith(lower(sourcetype), example:strawberry:strawberry))";
             DPLParserCatalystContext ctx = this.streamingTestUtil.getCtx();
 
             String result = ctx.getSparkQuery();
@@ -172,7 +172,7 @@ public class CatalystVisitorTest {
         //LOGGER.info("------ OR ---------");
         String q = "index != \"strawberry\" OR sourcetype =\"example:strawberry:strawberry\"";
         this.streamingTestUtil.performDPLTest(q, this.testFile, res -> {
-            String e = "((NOT RLIKE(index, (?i)^strawberry$)) OR RLIKE(sourcetype, (?i)^example:strawberry:strawberry))";
+            String e = "((NOT RLIKE(index, (?i)^strawberry$)) OR startswith(lower(sourcetype), example:strawberry:strawberry))";
             DPLParserCatalystContext ctx = this.streamingTestUtil.getCtx();
 
             String result = ctx.getSparkQuery();
@@ -266,7 +266,7 @@ public class CatalystVisitorTest {
 
             // get logical part
             String logicalPart = this.streamingTestUtil.getCtx().getSparkQuery();
-            String e = "(RLIKE(index, (?i)^index_A$) AND RLIKE(_raw, (?i)^.*\\Q(1)(enTIty)\\E.*))";
+            String e = "(RLIKE(index, (?i)^index_A$) AND contains(lower(_raw), (1)(entity)))";
             Assertions.assertEquals(e, logicalPart);
         });
     }
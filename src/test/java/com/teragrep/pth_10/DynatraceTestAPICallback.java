@@ -50,6 +50,8 @@ import org.mockserver.mock.action.ExpectationResponseCallback;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -66,19 +68,31 @@ public class DynatraceTestAPICallback implements ExpectationResponseCallback {
         int invalidCount = 0;
         int statusCode = 500; //500=server error, 202=all lines ok, 400=some lines may be ok
 
-        Pattern p = Pattern
+        final Pattern metricPattern = Pattern
                 .compile(
-                        ".*(\\.[^()]*)*\\sgauge,"
-                                + "min=\\d+(\\.\\d+)?,max=\\d+(\\.\\d+)?,sum=\\d+(\\.\\d+)?,count=\\d+\\s\\d+\n"
-                                + "#.*\\sgauge\\sdt\\.meta\\.displayName=.*,\\sdt\\.meta\\.description=.*,\\sdt\\.meta\\.unit=.*"
+                        "[^#].*(\\.[^()]*)*\\sgauge,"
+                                + "min=\\d+(\\.\\d+)?,max=\\d+(\\.\\d+)?,sum=\\d+(\\.\\d+)?,count=\\d+\\s\\d+"
+                );
+        final Pattern metadataPattern = Pattern
+                .compile(
+                        "#(\\S+)\\sgauge\\sdt\\.meta\\.displayName=.*,\\sdt\\.meta\\.description=.*,\\sdt\\.meta\\.unit=.*"
                 );
-        Matcher m = p.matcher(reqString);
 
-        if (m.matches()) {
-            validCount++;
-        }
-        else {
-            invalidCount++;
+        // a request contains the metadata line of each metric key once, before the metric lines of the key
+        final Set<String> metadataKeys = new HashSet<>();
+        for (final String line : reqString.split("\n")) {
+            final Matcher metadata = metadataPattern.matcher(line);
+            final Matcher metric = metricPattern.matcher(line);
+            if (metadata.matches()) {
+                Assertions
+                        .assertTrue(metadataKeys.add(metadata.group(1)), "Repeated metadata line in message: " + reqString);
+            }
+            else if (metric.matches() && metadataKeys.stream().anyMatch(key -> line.startsWith(key + "."))) {
+                validCount++;
+            }
+            else {
+                invalidCount++;
+            }
         }
 
         Assertions.assertEquals(0, invalidCount, "Received invalid message: " + reqString);
@@ -884,7 +884,7 @@ public class EarliestLatestTest {
         // Case: can't match XYZ="yes asd" _raw column, except by omitting double quotes entirely
         String query = " index=abc earliest=\"01/01/2022:00:00:00\" latest=\"01/02/2022:00:00:00\" \"XYZ=\\\"yes asd\\\"\" ";
         this.streamingTestUtil.performDPLTest(query, this.testFile, res -> {
-            final String expectedSpark = "(RLIKE(index, (?i)^abc$) AND (((_time >= from_unixtime(1640988000, yyyy-MM-dd HH:mm:ss)) AND (_time < from_unixtime(1641074400, yyyy-MM-dd HH:mm:ss))) AND RLIKE(_raw, (?i)^.*\\QXYZ=\"yes asd\"\\E.*)))";
+            final String expectedSpark = "(RLIKE(index, (?i)^abc$) AND (((_time >= from_unixtime(1640988000, yyyy-MM-dd HH:mm:ss)) AND (_time < from_unixtime(1641074400, yyyy-MM-dd HH:mm:ss))) AND contains(lower(_raw), xyz=\"yes asd\")))";
             Assertions.assertEquals(expectedSpark, this.streamingTestUtil.getCtx().getSparkQuery());
         });
     }
@@ -902,7 +902,7 @@ public class EarliestLatestTest {
 
         });
 
-        final String expectedSpark = "(RLIKE(index, (?i)^abc$) AND RLIKE(_raw, (?i)^.*\\QXYZ=\"yes asd\"\\E.*))";
+        final String expectedSpark = "(RLIKE(index, (?i)^abc$) AND contains(lower(_raw), xyz=\"yes asd\"))";
         Assertions.assertEquals(expectedSpark, this.streamingTestUtil.getCtx().getSparkQuery());
     }
 
@@ -208,6 +208,39 @@ public final class EpochMigrationStepTest {
         });
     }
 
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testMigrateEpochWithConfiguredLoader() {
+        final Path checkpointPath = Assertions.assertDoesNotThrow(() -> Files.createTempDirectory("epoch-migration"));
+        final Map<String, String> opts = new HashMap<>();
+        opts.put("dpl.pth_10.archive.db.username", mariadb.getUsername());
+        opts.put("dpl.pth_10.archive.db.password", mariadb.getPassword());
+        opts.put("dpl.pth_10.archive.db.url", mariadb.getJdbcUrl());
+        opts.put("dpl.pth_10.transform.teragrep.migrate.batchSize", "2");
+        opts.put("dpl.pth_10.transform.teragrep.migrate.bulkSize", "2");
+        opts.put("dpl.pth_10.transform.teragrep.migrate.commitInterval", "2");
+        opts.put("dpl.pth_10.transform.teragrep.migrate.parallelism", "3");
+        opts.put("dpl.pth_10.transform.teragrep.migrate.checkpointPath", checkpointPath.toString());
+        streamingTestUtil.setCustomConfigOptions(opts);
+
+        streamingTestUtil.performDPLTest("index=index_A | teragrep exec migrate epoch", testFile, ds -> {
+            final String selectMigrated = "SELECT COUNT(*) FROM journaldb.logfile WHERE epoch_hour IS NOT NULL AND object_format_id IS NOT NULL";
+            Assertions.assertDoesNotThrow(() -> {
+                try (
+                        final Connection conn = DriverManager
+                                .getConnection(mariadb.getJdbcUrl(), mariadb.getUsername(), mariadb.getPassword()); final PreparedStatement preparedStatement = conn.prepareStatement(selectMigrated)
+                ) {
+                    final ResultSet resultSet = preparedStatement.executeQuery();
+                    Assertions.assertTrue(resultSet.next());
+                    Assertions.assertEquals(10, resultSet.getInt(1));
+                }
+            });
+        });
+    }
+
     @Test
     @DisabledIfSystemProperty(
             named = "skipSparkTest",
@@ -54,6 +54,7 @@ import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -137,6 +138,66 @@ public class EventstatsTransformationTest {
         });
     }
 
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    ) // Input exceeding the in-memory limit is spilled to disk
+    public void eventstats_test_NoByClause_Spilled() {
+        streamingTestUtil
+                .setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.eventstats.maxRowsInMemory", "1"));
+        streamingTestUtil.performDPLTest("index=index_A | eventstats avg(offset) AS avg_offset", testFile, ds -> {
+            final StructType expectedSchema = new StructType(new StructField[] {
+                    new StructField("_time", DataTypes.TimestampType, true, new MetadataBuilder().build()),
+                    new StructField("id", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("_raw", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("index", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("sourcetype", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("host", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("source", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("partition", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("offset", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("avg_offset", DataTypes.DoubleType, true, new MetadataBuilder().build())
+            });
+            Assertions
+                    .assertEquals(
+                            expectedSchema, ds.schema(),
+                            "Batch handler dataset contained an unexpected column arrangement !"
+                    ); //check schema
+
+            List<String> listOfOffset = ds
+                    .select("avg_offset")
+                    .dropDuplicates()
+                    .collectAsList()
+                    .stream()
+                    .map(r -> r.getAs(0).toString())
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(1, listOfOffset.size());
+            Assertions.assertEquals("5.5", listOfOffset.get(0));
+        });
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    ) // Input exceeding the in-memory byte limit is spilled to disk
+    public void eventstats_test_NoByClause_SpilledBytes() {
+        streamingTestUtil
+                .setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.eventstats.maxBytesInMemory", "1"));
+        streamingTestUtil.performDPLTest("index=index_A | eventstats avg(offset) AS avg_offset", testFile, ds -> {
+            List<String> listOfOffset = ds
+                    .select("avg_offset")
+                    .dropDuplicates()
+                    .collectAsList()
+                    .stream()
+                    .map(r -> r.getAs(0).toString())
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(1, listOfOffset.size());
+            Assertions.assertEquals("5.5", listOfOffset.get(0));
+        });
+    }
+
     @Test
     @DisabledIfSystemProperty(
             named = "skipSparkTest",
@@ -151,11 +151,12 @@ public class IplocationTransformationTest {
             int executedLoops = 0;
             int executedLoops2 = 0;
             for (Row ip : ips) {
-                final Map<String, String> result = Assertions
+                final Row result = Assertions
                         .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                 for (String col : expectedCols) {
-                    Assertions.assertEquals(result.get(col), ip.getAs(ip.fieldIndex(col)));
+                    final String expected = result.getAs(col);
+                    Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                     executedLoops2++;
                 }
                 executedLoops++;
@@ -195,11 +196,11 @@ public class IplocationTransformationTest {
             int executedLoops = 0;
             int executedLoops2 = 0;
             for (Row ip : ips) {
-                Map<String, String> result = Assertions
+                Row result = Assertions
                         .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                 for (String col : expectedCols) {
-                    String expected = result.get(col);
+                    String expected = result.getAs(col);
                     Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                     executedLoops2++;
                 }
@@ -244,11 +245,12 @@ public class IplocationTransformationTest {
             int executedLoops = 0;
             int executedLoops2 = 0;
             for (Row ip : ips) {
-                Map<String, String> result = Assertions
+                Row result = Assertions
                         .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                 for (String col : expectedCols) {
-                    Assertions.assertEquals(result.get(col), ip.getAs(ip.fieldIndex(col)));
+                    final String expected = result.getAs(col);
+                    Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                     executedLoops2++;
                 }
                 executedLoops++;
@@ -292,11 +294,12 @@ public class IplocationTransformationTest {
             int executedLoops = 0;
             int executedLoops2 = 0;
             for (Row ip : ips) {
-                Map<String, String> result = Assertions
+                Row result = Assertions
                         .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                 for (String col : expectedCols) {
-                    Assertions.assertEquals(result.get(col), ip.getAs(ip.fieldIndex(col)));
+                    final String expected = result.getAs(col);
+                    Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                     executedLoops2++;
                 }
                 executedLoops++;
@@ -345,11 +348,12 @@ public class IplocationTransformationTest {
                     int executedLoops = 0;
                     int executedLoops2 = 0;
                     for (Row ip : ips) {
-                        Map<String, String> result = Assertions
+                        Row result = Assertions
                                 .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                         for (String col : expectedCols) {
-                            Assertions.assertEquals(result.get(col), ip.getAs(ip.fieldIndex(col)));
+                            final String expected = result.getAs(col);
+                            Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                             executedLoops2++;
                         }
                         executedLoops++;
@@ -398,11 +402,12 @@ public class IplocationTransformationTest {
                     int executedLoops = 0;
                     int executedLoops2 = 0;
                     for (Row ip : ips) {
-                        Map<String, String> result = Assertions
+                        Row result = Assertions
                                 .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                         for (String col : expectedCols) {
-                            Assertions.assertEquals(result.get(col), ip.getAs(ip.fieldIndex(col)));
+                            final String expected = result.getAs(col);
+                            Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                             executedLoops2++;
                         }
                         executedLoops++;
@@ -451,11 +456,11 @@ public class IplocationTransformationTest {
                     int executedLoops = 0;
                     int executedLoops2 = 0;
                     for (Row ip : ips) {
-                        Map<String, String> result = Assertions
+                        Row result = Assertions
                                 .assertDoesNotThrow(() -> mapper.call(ip.getAs(ip.fieldIndex(ipColumn)), "en", true));
 
                         for (String col : expectedCols) {
-                            String expected = result.get(col);
+                            String expected = result.getAs(col);
                             Assertions.assertEquals(expected, ip.getAs(ip.fieldIndex(col)));
                             executedLoops2++;
                         }
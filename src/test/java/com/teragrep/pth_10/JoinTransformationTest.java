@@ -56,6 +56,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -399,6 +400,67 @@ public class JoinTransformationTest {
                 );
     }
 
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void joinSpilledSubsearchTest() {
+        // subsearch results over the in-memory limit are spilled to disk instead of broadcast
+        streamingTestUtil
+                .setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.subsearch.maxRowsInMemory", "1"));
+        streamingTestUtil
+                .performDPLTest(
+                        "index=index_A | join max=0 overwrite=true offset [ search index=index_A | eval a=case(sourcetype=\"stream1\", \"1\", sourcetype=\"stream2\", \"2\") ]",
+                        testFile, ds -> {
+                            final StructType expectedSchema = new StructType(new StructField[] {
+                                    new StructField(
+                                            "_time",
+                                            DataTypes.TimestampType,
+                                            true,
+                                            new MetadataBuilder().build()
+                                    ),
+                                    new StructField("id", DataTypes.LongType, true, new MetadataBuilder().build()),
+                                    new StructField("_raw", DataTypes.StringType, true, new MetadataBuilder().build()),
+                                    new StructField("index", DataTypes.StringType, true, new MetadataBuilder().build()),
+                                    new StructField(
+                                            "sourcetype",
+                                            DataTypes.StringType,
+                                            true,
+                                            new MetadataBuilder().build()
+                                    ),
+                                    new StructField("host", DataTypes.StringType, true, new MetadataBuilder().build()),
+                                    new StructField(
+                                            "source",
+                                            DataTypes.StringType,
+                                            true,
+                                            new MetadataBuilder().build()
+                                    ),
+                                    new StructField(
+                                            "partition",
+                                            DataTypes.StringType,
+                                            true,
+                                            new MetadataBuilder().build()
+                                    ),
+                                    new StructField("offset", DataTypes.LongType, true, new MetadataBuilder().build()),
+                                    new StructField("R_a", DataTypes.StringType, true, new MetadataBuilder().build())
+                            });
+                            Assertions
+                                    .assertEquals(
+                                            expectedSchema, ds.schema(),
+                                            "Batch handler dataset contained an unexpected column arrangement !"
+                                    );
+
+                            List<Row> listOfRows = ds.collectAsList();
+                            Assertions
+                                    .assertEquals(
+                                            10, listOfRows.size(),
+                                            "Should return 10 rows, instead returned: " + listOfRows.size()
+                                    );
+                        }
+                );
+    }
+
     // max=0, usetime=true, earlier=true
     @Test
     @DisabledIfSystemProperty(
@@ -45,6 +45,7 @@
  */
 package com.teragrep.pth_10;
 
+import com.typesafe.config.ConfigFactory;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.types.DataTypes;
@@ -56,6 +57,7 @@ import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -725,4 +727,105 @@ public class SpathTransformationTest {
             Assertions.assertEquals("xml", lil);
         });
     }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void spathTestAutoExtractionSampledFields() {
+        streamingTestUtil.setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.spath.sampleSize", "1"));
+        streamingTestUtil.performDPLTest("index=index_A | spath", JSON_DATA_1, ds -> {
+            final StructType expectedSchema = new StructType(new StructField[] {
+                    new StructField("_time", DataTypes.TimestampType, true, new MetadataBuilder().build()),
+                    new StructField("id", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("_raw", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("index", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("sourcetype", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("host", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("source", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("partition", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("offset", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("json", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("lil", DataTypes.StringType, true, new MetadataBuilder().build())
+            });
+            Assertions
+                    .assertEquals(
+                            expectedSchema, ds.schema(),
+                            "Batch handler dataset contained an unexpected column arrangement !"
+                    );
+            // all rows are extracted, not only the sampled one
+            List<Row> rows = ds.select("json", "lil").distinct().collectAsList();
+            Assertions.assertEquals(1, rows.size());
+            Assertions.assertEquals("debugo", rows.get(0).getAs("json"));
+            Assertions.assertEquals("xml", rows.get(0).getAs("lil"));
+        });
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void spathTestAutoExtractionProvidedFields() {
+        streamingTestUtil.getCtx().setConfig(ConfigFactory.parseString("dpl.pth_10.spath.fields = [lil, missing]"));
+        streamingTestUtil.performDPLTest("index=index_A | spath", JSON_DATA_1, ds -> {
+            final StructType expectedSchema = new StructType(new StructField[] {
+                    new StructField("_time", DataTypes.TimestampType, true, new MetadataBuilder().build()),
+                    new StructField("id", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("_raw", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("index", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("sourcetype", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("host", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("source", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("partition", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("offset", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("lil", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("missing", DataTypes.StringType, true, new MetadataBuilder().build())
+            });
+            Assertions
+                    .assertEquals(
+                            expectedSchema, ds.schema(),
+                            "Batch handler dataset contained an unexpected column arrangement !"
+                    );
+            List<Row> rows = ds.select("lil", "missing").distinct().collectAsList();
+            Assertions.assertEquals(1, rows.size());
+            Assertions.assertEquals("xml", rows.get(0).getAs("lil"));
+            Assertions.assertEquals("", rows.get(0).getAs("missing"));
+        });
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void spathTestAutoExtractionCommandFields() {
+        // fields of the command take precedence over the configured fallback
+        streamingTestUtil.getCtx().setConfig(ConfigFactory.parseString("dpl.pth_10.spath.fields = [json]"));
+        streamingTestUtil.performDPLTest("index=index_A | spath path=lil path=missing", JSON_DATA_1, ds -> {
+            final StructType expectedSchema = new StructType(new StructField[] {
+                    new StructField("_time", DataTypes.TimestampType, true, new MetadataBuilder().build()),
+                    new StructField("id", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("_raw", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("index", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("sourcetype", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("host", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("source", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("partition", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("offset", DataTypes.LongType, true, new MetadataBuilder().build()),
+                    new StructField("lil", DataTypes.StringType, true, new MetadataBuilder().build()),
+                    new StructField("missing", DataTypes.StringType, true, new MetadataBuilder().build())
+            });
+            Assertions
+                    .assertEquals(
+                            expectedSchema, ds.schema(),
+                            "Batch handler dataset contained an unexpected column arrangement !"
+                    );
+            List<Row> rows = ds.select("lil", "missing").distinct().collectAsList();
+            Assertions.assertEquals(1, rows.size());
+            Assertions.assertEquals("xml", rows.get(0).getAs("lil"));
+            Assertions.assertEquals("", rows.get(0).getAs("missing"));
+        });
+    }
 }
@@ -66,8 +66,11 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
@@ -202,6 +205,44 @@ public class SyslogStreamTest {
                 );
     }
 
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    ) // teragrep exec syslog stream, batches smaller than the partitions
+    public void syslogStreamBatchedSendingTest() {
+        streamingTestUtil
+                .setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.transform.teragrep.syslog.batchSize", "3"));
+        streamingTestUtil
+                .performDPLTest(
+                        "index=index_A | teragrep exec syslog stream host 127.0.0.1 port " + listenPort, testFile,
+                        ds -> {
+                            Assertions.assertEquals(10, messages.size());
+                            Assertions.assertEquals(10, new HashSet<>(messages).size());
+                        }
+                );
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    ) // teragrep exec syslog stream, forwarded from the streaming dataset
+    public void syslogStreamParallelSendingTest() {
+        final Map<String, String> opts = new HashMap<>();
+        opts.put("dpl.pth_10.transform.teragrep.syslog.batchSize", "4");
+        opts.put("dpl.pth_10.transform.teragrep.syslog.parallel", "true");
+        streamingTestUtil.setCustomConfigOptions(opts);
+        streamingTestUtil
+                .performDPLTest(
+                        "index=index_A | teragrep exec syslog stream host 127.0.0.1 port " + listenPort, testFile,
+                        ds -> {
+                            Assertions.assertEquals(10, messages.size());
+                            Assertions.assertEquals(10, new HashSet<>(messages).size());
+                        }
+                );
+    }
+
     @Test
     @DisabledIfSystemProperty(
             named = "skipSparkTest",
@@ -60,6 +60,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.mockserver.model.HttpRequest.request;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -130,7 +133,39 @@ public class TeragrepDynatraceTest {
                         }
                 );
 
-        // two lines received
+        // two lines received in one request
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.once());
+
+        mockServer
+                .clear(request().withPath("/metrics/ingest").withMethod("POST").withHeader("Content-Type", "text/plain; charset=utf-8"));
+
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void tgDynatraceMaxLinesPerRequestTest() {
+        // respond to metrics ingest
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST").withHeader("Content-Type", "text/plain; charset=utf-8")).respond(HttpClassCallback.callback(DynatraceTestAPICallback.class));
+
+        final Map<String, String> opts = new HashMap<>();
+        // the metadata line and one metric line per request
+        opts.put("dpl.pth_10.transform.teragrep.dynatrace.maxLinesPerRequest", "2");
+        this.streamingTestUtil.setCustomConfigOptions(opts);
+
+        // send post
+        this.streamingTestUtil
+                .performDPLTest(
+                        "index=* " + "| stats count(_raw) avg(_raw) by sourcetype "
+                                + "| teragrep exec dynatrace metric write",
+                        testFile, ds -> {
+                        }
+                );
+
+        // two lines received in separate requests
         mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.exactly(2));
 
         mockServer
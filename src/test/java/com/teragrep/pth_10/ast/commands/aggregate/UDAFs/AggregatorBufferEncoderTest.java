@@ -0,0 +1,190 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.aggregate.UDAFs;
+
+import com.teragrep.pth_10.ast.NullValue;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.CountBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.EarliestLatestBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.MinMaxBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.ModeBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.PercentileBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.SumBuffer;
+import com.teragrep.pth_10.ast.commands.aggregate.UDAFs.BufferClasses.ValuesBuffer;
+import org.apache.spark.sql.Encoder;
+import org.apache.spark.sql.SparkSession;
+import org.junit.jupiter.api.*;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public final class AggregatorBufferEncoderTest {
+
+    private SparkSession spark;
+
+    @BeforeAll
+    void setEnv() {
+        spark = SparkSession.builder().appName("AggregatorBufferEncoderTest").master("local[2]").getOrCreate();
+        spark.sparkContext().setLogLevel("ERROR");
+    }
+
+    private <T> T roundTrip(final T buffer, final Encoder<T> encoder) {
+        final List<T> collected = spark.createDataset(Collections.singletonList(buffer), encoder).collectAsList();
+        Assertions.assertEquals(1, collected.size());
+        return collected.get(0);
+    }
+
+    @Test
+    void testCountBufferRoundTrip() {
+        final DistinctCountAggregator aggregator = new DistinctCountAggregator(new NullValue());
+        final CountBuffer buffer = aggregator.zero();
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("a");
+
+        final CountBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        Assertions.assertEquals(2, decoded.dc());
+        // decoded buffer must remain mutable for merge
+        decoded.add("c");
+        Assertions.assertEquals(3, aggregator.finish(aggregator.merge(decoded, buffer)));
+    }
+
+    @Test
+    void testModeBufferRoundTrip() {
+        final ModeAggregator aggregator = new ModeAggregator();
+        final ModeBuffer buffer = aggregator.zero();
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("b");
+
+        final ModeBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        decoded.add("a");
+        decoded.add("a");
+        Assertions.assertEquals("a", aggregator.finish(decoded));
+    }
+
+    @Test
+    void testValuesBufferRoundTrip() {
+        final ValuesAggregator aggregator = new ValuesAggregator(AggregatorMode.ValuesAggregatorMode.VALUES);
+        final ValuesBuffer buffer = aggregator.zero();
+        buffer.add("c");
+        buffer.add("a");
+
+        final ValuesBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        decoded.add("b");
+        Assertions.assertEquals("a\nb\nc", aggregator.finish(decoded));
+    }
+
+    @Test
+    void testPercentileBufferRoundTrip() {
+        final ExactPercentileAggregator aggregator = new ExactPercentileAggregator(0.5d);
+        final PercentileBuffer buffer = aggregator.zero();
+        buffer.add(3d);
+        buffer.add(1d);
+
+        final PercentileBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        Assertions.assertEquals(0.5d, decoded.getPercentile());
+        decoded.add(2d);
+        Assertions.assertEquals(2d, aggregator.finish(decoded));
+    }
+
+    @Test
+    void testMinMaxBufferRoundTrip() {
+        final MinMaxAggregator aggregator = new MinMaxAggregator(AggregatorMode.MinMaxAggregatorMode.MAX);
+        final MinMaxBuffer buffer = aggregator.zero();
+        buffer.addNumber(1d);
+        buffer.addNumber(5d);
+
+        final MinMaxBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        Assertions.assertEquals(1d, decoded.getMinNumber());
+        Assertions.assertEquals("5", aggregator.finish(decoded));
+    }
+
+    @Test
+    void testSumBufferRoundTrip() {
+        final SumAggregator aggregator = new SumAggregator("\n", new NullValue());
+        final SumBuffer buffer = aggregator.zero();
+        buffer.addNumberToSum(2L);
+        buffer.addNumberToSum(3L);
+
+        final SumBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        Assertions.assertEquals("5", aggregator.finish(decoded));
+    }
+
+    @Test
+    void testEarliestLatestBufferRoundTrip() {
+        final EarliestLatestAggregator_String aggregator = new EarliestLatestAggregator_String(
+                AggregatorMode.EarliestLatestAggregatorMode.EARLIEST
+        );
+        final EarliestLatestBuffer buffer = aggregator
+                .merge(
+                        aggregator.zero(),
+                        new EarliestLatestBuffer(
+                                new CurrentTimestampImpl(new Timestamp(1000L)),
+                                new CurrentTimestampImpl(new Timestamp(2000L)),
+                                "first",
+                                "last"
+                        )
+                );
+
+        final EarliestLatestBuffer decoded = roundTrip(buffer, aggregator.bufferEncoder());
+        Assertions.assertEquals("first", decoded.earliest());
+        Assertions.assertEquals("last", decoded.latest());
+        Assertions.assertEquals("1", decoded.earliest_time());
+        Assertions.assertEquals("2", decoded.latest_time());
+    }
+
+    @Test
+    void testEmptyEarliestLatestBufferRoundTrip() {
+        final EarliestLatestAggregator_String aggregator = new EarliestLatestAggregator_String(
+                AggregatorMode.EarliestLatestAggregatorMode.EARLIEST
+        );
+        final EarliestLatestBuffer decoded = roundTrip(aggregator.zero(), aggregator.bufferEncoder());
+        Assertions.assertEquals("", decoded.earliest());
+        Assertions.assertEquals("", decoded.latest_time());
+    }
+}
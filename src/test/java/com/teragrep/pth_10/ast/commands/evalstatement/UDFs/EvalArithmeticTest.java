@@ -0,0 +1,108 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.evalstatement.UDFs;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EvalArithmeticTest {
+
+    @Test
+    public void testLongOperands() {
+        final EvalArithmetic arithmetic = new EvalArithmetic();
+        Assertions.assertEquals("7", Assertions.assertDoesNotThrow(() -> arithmetic.call(3L, "+", "4")));
+        Assertions.assertEquals("-1", Assertions.assertDoesNotThrow(() -> arithmetic.call("3", "-", 4)));
+        Assertions.assertEquals("12", Assertions.assertDoesNotThrow(() -> arithmetic.call("3", "*", "4")));
+        Assertions.assertEquals("2", Assertions.assertDoesNotThrow(() -> arithmetic.call("8", "/", "4")));
+        Assertions.assertEquals("2.5", Assertions.assertDoesNotThrow(() -> arithmetic.call("10", "/", "4")));
+        Assertions.assertEquals("0.3333333", Assertions.assertDoesNotThrow(() -> arithmetic.call("1", "/", "3")));
+        Assertions.assertEquals("-1", Assertions.assertDoesNotThrow(() -> arithmetic.call("-7", "%", "3")));
+    }
+
+    @Test
+    public void testOverflow() {
+        final EvalArithmetic arithmetic = new EvalArithmetic();
+        Assertions
+                .assertEquals(
+                        "9223372036854775808",
+                        Assertions.assertDoesNotThrow(() -> arithmetic.call(Long.MAX_VALUE, "+", 1L))
+                );
+        Assertions
+                .assertEquals(
+                        "9223372036854775808",
+                        Assertions.assertDoesNotThrow(() -> arithmetic.call(Long.MIN_VALUE, "/", -1L))
+                );
+        Assertions
+                .assertEquals(
+                        "18446744073709551614",
+                        Assertions.assertDoesNotThrow(() -> arithmetic.call(Long.MAX_VALUE, "*", "2"))
+                );
+    }
+
+    @Test
+    public void testDoubleOperands() {
+        final EvalArithmetic arithmetic = new EvalArithmetic();
+        Assertions.assertEquals("3.7", Assertions.assertDoesNotThrow(() -> arithmetic.call("1.5", "+", 2.2D)));
+        Assertions.assertEquals("3", Assertions.assertDoesNotThrow(() -> arithmetic.call("1.5", "*", "2")));
+        Assertions.assertEquals("100", Assertions.assertDoesNotThrow(() -> arithmetic.call("1e2", "*", "1")));
+        Assertions.assertEquals("0.5", Assertions.assertDoesNotThrow(() -> arithmetic.call("1.5", "%", "1")));
+    }
+
+    @Test
+    public void testStringOperands() {
+        final EvalArithmetic arithmetic = new EvalArithmetic();
+        Assertions.assertEquals("a1", Assertions.assertDoesNotThrow(() -> arithmetic.call("a", "+", "1")));
+        Assertions.assertEquals("1.5.", Assertions.assertDoesNotThrow(() -> arithmetic.call("1.5", "+", ".")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> arithmetic.call("a", "-", 1L));
+    }
+
+    @Test
+    public void testDivisionByZero() {
+        final EvalArithmetic arithmetic = new EvalArithmetic();
+        Assertions.assertThrows(ArithmeticException.class, () -> arithmetic.call(1L, "/", 0L));
+        Assertions.assertThrows(ArithmeticException.class, () -> arithmetic.call(1L, "%", 0L));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.logicalstatement.UDFs;
+
+import com.teragrep.pth_03.antlr.DPLLexer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SearchComparisonTest {
+
+    @Test
+    public void testLiteralEquality() {
+        final SearchComparison eq = new SearchComparison(DPLLexer.EQ, "server-01");
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> eq.call("server-01")));
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> eq.call("server-011")));
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> eq.call("SERVER-01")));
+
+        final SearchComparison neq = new SearchComparison(DPLLexer.NEQ, "server-01");
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> neq.call("server-01")));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> neq.call("server-02")));
+    }
+
+    @Test
+    public void testGlobEquality() {
+        final SearchComparison eq = new SearchComparison(DPLLexer.EQ, "server*");
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> eq.call("server-01")));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> eq.call("server")));
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> eq.call("my-server")));
+    }
+
+    @Test
+    public void testNumericComparison() {
+        final SearchComparison gt = new SearchComparison(DPLLexer.GT, "10");
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> gt.call("10.5")));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> gt.call(11L)));
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> gt.call("9")));
+
+        final SearchComparison eq = new SearchComparison(DPLLexer.EQ, "1.50");
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> eq.call("1.5")));
+    }
+
+    @Test
+    public void testNumberComparedToString() {
+        // a string operand compares both sides as strings
+        final SearchComparison eq = new SearchComparison(DPLLexer.EQ, "10");
+        Assertions.assertFalse(Assertions.assertDoesNotThrow(() -> eq.call("ten")));
+        final SearchComparison lt = new SearchComparison(DPLLexer.LT, "b");
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> lt.call("a")));
+        Assertions.assertTrue(Assertions.assertDoesNotThrow(() -> lt.call(5L)));
+    }
+
+    @Test
+    public void testUnknownOperation() {
+        final SearchComparison comparison = new SearchComparison(-1, "a");
+        Assertions.assertThrows(RuntimeException.class, () -> comparison.call("a"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+public class IpAddressLiteralTest {
+
+    @Test
+    public void testValidLiterals() {
+        final String[] literals = new String[] {
+                "1.2.3.4", "255.255.255.255", "0.0.0.0", "::", "::1", "1::", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:7::",
+                "fe80::1:2", "::ffff:1.2.3.4", "1:2:3:4:5:6:1.2.3.4", "[::1]", "2001:DB8::8a2e:370:7334"
+        };
+        for (final String literal : literals) {
+            final IpAddressLiteral ipAddressLiteral = new IpAddressLiteral(literal);
+            Assertions.assertTrue(ipAddressLiteral.isValid(), literal);
+            final InetAddress expected = Assertions.assertDoesNotThrow(() -> InetAddress.getByName(literal));
+            Assertions.assertEquals(expected, ipAddressLiteral.inetAddress(), literal);
+        }
+    }
+
+    @Test
+    public void testInvalidLiterals() {
+        final String[] values = new String[] {
+                "", "localhost", "example.com", "1.2.3", "127.1", "1.2.3.4.5", "256.1.1.1", "1..2.3", "1.2.3.4.",
+                ":::", "1::2::3", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "::1%eth0", "12345::", "g::1",
+                "1:2:3:4:5:6:7:1.2.3.4", "1.2.3.4::", "1::2:", " 1.2.3.4"
+        };
+        for (final String value : values) {
+            final IpAddressLiteral ipAddressLiteral = new IpAddressLiteral(value);
+            Assertions.assertFalse(ipAddressLiteral.isValid(), value);
+            Assertions.assertThrows(IllegalStateException.class, ipAddressLiteral::inetAddress, value);
+        }
+        Assertions.assertFalse(new IpAddressLiteral(null).isValid());
+    }
+}
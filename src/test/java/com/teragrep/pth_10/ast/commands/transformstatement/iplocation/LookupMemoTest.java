@@ -0,0 +1,94 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LookupMemoTest {
+
+    @Test
+    public void testMemoizedInSameLanguage() {
+        final LookupMemo memo = new LookupMemo(10);
+        final Row row = RowFactory.create("Finland");
+        Assertions.assertNull(memo.get("1.2.3.4", "en"));
+        memo.put("1.2.3.4", row);
+        Assertions.assertSame(row, memo.get("1.2.3.4", "en"));
+    }
+
+    @Test
+    public void testLanguageChangeClears() {
+        final LookupMemo memo = new LookupMemo(10);
+        Assertions.assertNull(memo.get("1.2.3.4", "en"));
+        memo.put("1.2.3.4", RowFactory.create("Finland"));
+        Assertions.assertNull(memo.get("1.2.3.4", "ja"));
+        Assertions.assertEquals(0, memo.size());
+    }
+
+    @Test
+    public void testNullLanguage() {
+        final LookupMemo memo = new LookupMemo(10);
+        final Row row = RowFactory.create("Finland");
+        Assertions.assertNull(memo.get("1.2.3.4", null));
+        memo.put("1.2.3.4", row);
+        Assertions.assertSame(row, Assertions.assertDoesNotThrow(() -> memo.get("1.2.3.4", null)));
+        // null is the default language
+        Assertions.assertSame(row, memo.get("1.2.3.4", "en"));
+    }
+
+    @Test
+    public void testCapacity() {
+        final LookupMemo memo = new LookupMemo(2);
+        memo.get("1.1.1.1", "en");
+        memo.put("1.1.1.1", RowFactory.create("a"));
+        memo.put("2.2.2.2", RowFactory.create("b"));
+        memo.put("3.3.3.3", RowFactory.create("c"));
+        Assertions.assertEquals(2, memo.size());
+        Assertions.assertNull(memo.get("1.1.1.1", "en"));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.iplocation;
+
+import com.teragrep.pth_10.ast.NullValue;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.spark.sql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+
+public class MmdbCacheTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private File sampleCopy() throws Exception {
+        final Path copy = tempDir.resolve("rir-data.sample.mmdb");
+        Files.copy(Paths.get("src/test/resources/rir-data.sample.mmdb"), copy);
+        return copy.toFile();
+    }
+
+    @Test
+    public void testDatabaseIsShared() throws Exception {
+        final File database = sampleCopy();
+        final MmdbCache cache = new MmdbCache();
+        final SharedMmdb first = cache.database(database.getPath(), new Configuration());
+        final SharedMmdb second = cache.database(database.getPath(), new Configuration());
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.reader(), second.reader());
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertNotEquals(database, first.localCopy());
+        Assertions.assertEquals(database.length(), first.localCopy().length());
+        Assertions.assertEquals("rir-data", first.reader().getMetadata().getDatabaseType());
+        Assertions.assertEquals(0D, first.nodeCache().hitRate());
+    }
+
+    @Test
+    public void testModifiedDatabaseIsCopiedAgain() throws Exception {
+        final File database = sampleCopy();
+        final MmdbCache cache = new MmdbCache();
+        final SharedMmdb first = cache.database(database.getPath(), new Configuration());
+
+        Assertions.assertTrue(database.setLastModified(database.lastModified() + 10000L));
+        final SharedMmdb second = cache.database(database.getPath(), new Configuration());
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertFalse(first.localCopy().exists());
+        Assertions.assertTrue(second.localCopy().exists());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidPath() {
+        final MmdbCache cache = new MmdbCache();
+        final RuntimeException exception = Assertions
+                .assertThrows(
+                        RuntimeException.class,
+                        () -> cache.database(tempDir.resolve("missing.mmdb").toString(), new Configuration())
+                );
+        Assertions.assertEquals("Invalid database file path given for iplocation command.", exception.getMessage());
+    }
+
+    @Test
+    public void testMapperUsesSharedDatabase() throws Exception {
+        final String path = "src/test/resources/rir-data.sample.mmdb";
+        final IplocationRirDataMapper mapper = new IplocationRirDataMapper(path, new NullValue(), new HashMap<>());
+        final Row result = mapper.call("127.0.0.1", "en", true);
+        Assertions.assertEquals(mapper.schema(), result.schema());
+        // repeated addresses are memoized
+        Assertions.assertSame(result, mapper.call("127.0.0.1", "en", true));
+        // not resolved with DNS
+        final Row hostname = mapper.call("localhost", "en", true);
+        Assertions.assertNull(hostname.getAs("country"));
+        Assertions.assertNull(hostname.getAs("operator"));
+        Assertions
+                .assertSame(
+                        MmdbCache.instance().database(path, new Configuration()),
+                        MmdbCache.instance().database(path, new Configuration())
+                );
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.rex;
+
+import com.teragrep.jpr_01.JavaPcre;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public final class CompiledPcreCacheTest {
+
+    @Test
+    public void testHandleIsReused() {
+        final CompiledPcreCache cache = new CompiledPcreCache(4);
+        final JavaPcre first;
+        try (BorrowedPcre borrowed = cache.borrow("(?<host>host-\\d+)")) {
+            first = borrowed.pcre();
+            first.singlematch_java("Oct 17 host-01 sshd", 0);
+            Assertions.assertEquals("host-01", first.get_match_table().get(first.get_name_table().get("host")));
+        }
+        try (BorrowedPcre borrowed = cache.borrow("(?<host>host-\\d+)")) {
+            Assertions.assertSame(first, borrowed.pcre());
+        }
+        cache.clear();
+    }
+
+    @Test
+    public void testConcurrentBorrowsGetSeparateHandles() {
+        final CompiledPcreCache cache = new CompiledPcreCache(4);
+        try (BorrowedPcre a = cache.borrow("(?<n>\\d+)"); BorrowedPcre b = cache.borrow("(?<n>\\d+)")) {
+            Assertions.assertNotSame(a.pcre(), b.pcre());
+            a.pcre().singlematch_java("abc 123", 0);
+            b.pcre().singlematch_java("xyz 456", 0);
+            final Map<String, Integer> names = a.pcre().get_name_table();
+            Assertions.assertEquals("123", a.pcre().get_match_table().get(names.get("n")));
+            Assertions.assertEquals("456", b.pcre().get_match_table().get(names.get("n")));
+        }
+        cache.clear();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        final CompiledPcreCache cache = new CompiledPcreCache(2);
+        final JavaPcre first;
+        try (BorrowedPcre borrowed = cache.borrow("a")) {
+            first = borrowed.pcre();
+        }
+        cache.borrow("b").close();
+        cache.borrow("c").close();
+        Assertions.assertEquals(2, cache.size());
+        try (BorrowedPcre borrowed = cache.borrow("a")) {
+            // evicted pattern is compiled again into a fresh handle
+            Assertions.assertNotSame(first, borrowed.pcre());
+        }
+        Assertions.assertEquals(2, cache.size());
+        cache.clear();
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testHandleReturnedAfterEvictionIsNotPooled() {
+        final CompiledPcreCache cache = new CompiledPcreCache(1);
+        final BorrowedPcre borrowed = cache.borrow("a");
+        cache.borrow("b").close();
+        borrowed.close();
+        try (BorrowedPcre again = cache.borrow("a")) {
+            Assertions.assertNotSame(borrowed.pcre(), again.pcre());
+        }
+        cache.clear();
+    }
+
+    @Test
+    public void testNoMatchAfterMatchOnReusedHandle() {
+        final CompiledPcreCache cache = new CompiledPcreCache(4);
+        final String regex = "(?<host>host-\\d+)";
+        final JavaPcre first;
+        try (BorrowedPcre borrowed = cache.borrow(regex)) {
+            first = borrowed.pcre();
+            first.singlematch_java("Oct 17 host-01 sshd", 0);
+            Assertions.assertTrue(first.get_matchfound());
+        }
+        try (BorrowedPcre borrowed = cache.borrow(regex)) {
+            Assertions.assertSame(first, borrowed.pcre());
+            borrowed.pcre().singlematch_java("Oct 17 sshd", 0);
+            Assertions.assertFalse(borrowed.pcre().get_matchfound());
+        }
+        cache.clear();
+    }
+
+    @Test
+    public void testExtractionDoesNotReturnPreviousMatch() {
+        final RexExtractModeUDF udf = new RexExtractModeUDF();
+        final String regex = "(?<host>host-\\d+)";
+        final Map<String, String> matched = Assertions.assertDoesNotThrow(() -> udf.call("Oct 17 host-01 sshd", regex));
+        Assertions.assertEquals("host-01", matched.get("host"));
+        // the same handle of the executor-wide cache is reused for the next row
+        final Map<String, String> unmatched = Assertions.assertDoesNotThrow(() -> udf.call("Oct 17 sshd", regex));
+        Assertions.assertTrue(unmatched.containsKey("host"));
+        Assertions.assertNull(unmatched.get("host"));
+    }
+
+    @Test
+    public void testCloseIsIdempotent() {
+        final CompiledPcreCache cache = new CompiledPcreCache(4);
+        final BorrowedPcre borrowed = cache.borrow("a");
+        borrowed.close();
+        borrowed.close();
+        Assertions.assertThrows(IllegalStateException.class, borrowed::pcre);
+        try (BorrowedPcre a = cache.borrow("a"); BorrowedPcre b = cache.borrow("a")) {
+            // the handle was returned once, so it is lent to only one of the borrowers
+            Assertions.assertNotSame(a.pcre(), b.pcre());
+        }
+        cache.clear();
+    }
+
+    @Test
+    public void testIdleHandlesAreCapped() {
+        final CompiledPcrePool pool = new CompiledPcrePool("a", 2);
+        final BorrowedPcre a = pool.borrow();
+        final BorrowedPcre b = pool.borrow();
+        final BorrowedPcre c = pool.borrow();
+        a.close();
+        b.close();
+        c.close();
+        Assertions.assertEquals(2, pool.idleHandles());
+        pool.close();
+        Assertions.assertEquals(0, pool.idleHandles());
+    }
+
+    @Test
+    public void testInvalidMaxIdle() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CompiledPcreCache(1, 0));
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CompiledPcreCache(0));
+    }
+}
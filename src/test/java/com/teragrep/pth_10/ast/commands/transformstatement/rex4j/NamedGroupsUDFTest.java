@@ -0,0 +1,93 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.ast.commands.transformstatement.rex4j;
+
+import org.apache.spark.sql.Row;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public final class NamedGroupsUDFTest {
+
+    private static final String REGEX = "(?<host>host-\\d+) (?<process>\\w+)(?<pid>\\[\\d+\\])?:";
+
+    @Test
+    public void testAllGroupsExtracted() throws Exception {
+        final Map<String, Integer> groups = NamedGroupsRex.getNamedGroups(REGEX);
+        final NamedGroupsUDF udf = new NamedGroupsUDF(REGEX, groups);
+        final Row row = udf.call("Oct 17 12:00:00 host-01 sshd[1234]: Accepted publickey");
+        Assertions.assertEquals("host-01", row.getString(0));
+        Assertions.assertEquals("sshd", row.getString(1));
+        Assertions.assertEquals("[1234]", row.getString(2));
+        Assertions.assertEquals("[host, process, pid]", Arrays.toString(udf.schema().fieldNames()));
+    }
+
+    @Test
+    public void testNonParticipatingGroupIsEmpty() throws Exception {
+        final NamedGroupsUDF udf = new NamedGroupsUDF(REGEX, NamedGroupsRex.getNamedGroups(REGEX));
+        final Row row = udf.call("host-02 cron: job started");
+        Assertions.assertEquals("host-02", row.getString(0));
+        Assertions.assertEquals("cron", row.getString(1));
+        Assertions.assertEquals("", row.getString(2));
+    }
+
+    @Test
+    public void testNoMatchIsEmpty() throws Exception {
+        final NamedGroupsUDF udf = new NamedGroupsUDF(REGEX, NamedGroupsRex.getNamedGroups(REGEX));
+        final Row row = udf.call("no match here");
+        for (int i = 0; i < row.length(); i++) {
+            Assertions.assertEquals("", row.getString(i));
+        }
+    }
+
+    @Test
+    public void testNullInput() throws Exception {
+        final NamedGroupsUDF udf = new NamedGroupsUDF(REGEX, NamedGroupsRex.getNamedGroups(REGEX));
+        Assertions.assertNull(udf.call(null));
+    }
+}
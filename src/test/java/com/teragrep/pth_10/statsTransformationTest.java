@@ -102,14 +102,14 @@ public class statsTransformationTest {
      * earliest_time() 	aggregator
      * values() 		aggregator
      * list() 			aggregator
-     * median() 		aggregator
+     * median() 		spark(sketch), aggregator in exact mode
      * mode() 			aggregator
      * min() 			spark
      * max() 			spark
      * stdev stdevp() 	spark
      * sum() 			spark
      * sumsq() 			spark
-     * dc() 			aggregator
+     * dc() 			spark(sketch), aggregator in exact mode
      * estdc() 			spark
      * estdc_error() 	udaf*
      * range() 			spark
@@ -318,13 +318,14 @@ public class statsTransformationTest {
         });
     }
 
-    // Test median()
+    // Test median() in exact mode
     @Test
     @DisabledIfSystemProperty(
             named = "skipSparkTest",
             matches = "true"
     )
     void statsTransform_AggMedian_Test() {
+        streamingTestUtil.setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.aggregate.exact", "true"));
         streamingTestUtil.performDPLTest("index=index_A | stats median(offset) AS median_offset", testFile, ds -> {
             Assertions.assertEquals("[median_offset]", Arrays.toString(ds.columns()));
 
@@ -338,6 +339,26 @@ public class statsTransformationTest {
         });
     }
 
+    // Test median() with the default quantile sketch, which returns the nearest rank value
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    void statsTransform_AggMedian_Sketch_Test() {
+        streamingTestUtil.performDPLTest("index=index_A | stats median(offset) AS median_offset", testFile, ds -> {
+            Assertions.assertEquals("[median_offset]", Arrays.toString(ds.columns()));
+
+            List<String> destAsList = ds
+                    .select("median_offset")
+                    .collectAsList()
+                    .stream()
+                    .map(r -> r.getAs(0).toString())
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(Collections.singletonList("6"), destAsList);
+        });
+    }
+
     // Test mode()
     @Test
     @DisabledIfSystemProperty(
@@ -589,6 +610,27 @@ public class statsTransformationTest {
         });
     }
 
+    // Test dc() in exact mode
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    void statsTransform_AggDc_Exact_Test() {
+        streamingTestUtil.setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.aggregate.exact", "true"));
+        streamingTestUtil.performDPLTest("index=index_A | stats dc(offset) AS dc_offset", testFile, ds -> {
+            Assertions.assertEquals("[dc_offset]", Arrays.toString(ds.columns()));
+
+            List<String> destAsList = ds
+                    .select("dc_offset")
+                    .collectAsList()
+                    .stream()
+                    .map(r -> r.getAs(0).toString())
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(Collections.singletonList("11"), destAsList);
+        });
+    }
+
     // Test dc() with NULL data
     @Test
     @DisabledIfSystemProperty(
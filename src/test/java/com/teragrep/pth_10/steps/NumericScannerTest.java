@@ -0,0 +1,96 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NumericScannerTest {
+
+    @Test
+    public void testLongs() {
+        final NumericScanner scanner = new NumericScanner();
+        Assertions.assertEquals(ParsedResult.Type.LONG, scanner.scan("123"));
+        Assertions.assertEquals(123L, scanner.longValue());
+        Assertions.assertEquals(ParsedResult.Type.LONG, scanner.scan("-9223372036854775808"));
+        Assertions.assertEquals(Long.MIN_VALUE, scanner.longValue());
+        Assertions.assertEquals(ParsedResult.Type.LONG, scanner.scan("+9223372036854775807"));
+        Assertions.assertEquals(Long.MAX_VALUE, scanner.longValue());
+        // arabic-indic digits are accepted by Long.valueOf
+        Assertions.assertEquals(ParsedResult.Type.LONG, scanner.scan("\u0661\u0662"));
+        Assertions.assertEquals(12L, scanner.longValue());
+    }
+
+    @Test
+    public void testDoubles() {
+        final NumericScanner scanner = new NumericScanner();
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("9223372036854775808"));
+        Assertions.assertEquals(9223372036854775808D, scanner.doubleValue());
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("1.5"));
+        Assertions.assertEquals(1.5D, scanner.doubleValue());
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan(" -.5e-3f "));
+        Assertions.assertEquals(-0.0005D, scanner.doubleValue());
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("1."));
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("NaN"));
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("-Infinity"));
+        Assertions.assertEquals(ParsedResult.Type.DOUBLE, scanner.scan("0x1.8p1"));
+        Assertions.assertEquals(3D, scanner.doubleValue());
+    }
+
+    @Test
+    public void testStrings() {
+        final NumericScanner scanner = new NumericScanner();
+        final String[] strings = new String[] {
+                "", "-", "+", ".", "e5", "1e", "1e+", "1.5.", "1ff", "NaNd", "Infinityx", "0x1f", "0x.p1", "1 2",
+                "host-01", "\u0661.5"
+        };
+        for (final String string : strings) {
+            Assertions.assertEquals(ParsedResult.Type.STRING, scanner.scan(string), string);
+            Assertions.assertThrows(NumberFormatException.class, () -> Double.valueOf(string), string);
+        }
+        Assertions.assertThrows(IllegalStateException.class, scanner::longValue);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import org.apache.spark.sql.*;
+import org.apache.spark.sql.catalyst.plans.logical.LogicalPlan;
+import org.apache.spark.sql.catalyst.plans.logical.Project;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+
+import java.util.Collections;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ProjectionTest {
+
+    SparkSession spark;
+    Dataset<Row> dataset;
+
+    @BeforeAll
+    public void setup() {
+        spark = SparkSession
+                .builder()
+                .appName("Java Spark SQL basic example")
+                .master("local[2]")
+                .config("spark.driver.extraJavaOptions", "-Duser.timezone=EET")
+                .config("spark.executor.extraJavaOptions", "-Duser.timezone=EET")
+                .config("spark.sql.session.timeZone", "UTC")
+                .config("spark.network.timeout", "5s")
+                .config("spark.network.timeoutInterval", "5s") // should be less than or equal to spark.network.timeout
+                .config("spark.executor.heartbeatInterval", "2s") // should be "significantly less" than spark.network.timeout
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .config("spark.jars.packages", "org.apache.spark:spark-sql-kafka-0-10_2.12:3.5.7") // added for kafka tests
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("ERROR");
+
+        StructType schema = DataTypes.createStructType(new StructField[] {
+                DataTypes.createStructField("a", DataTypes.StringType, true),
+                DataTypes.createStructField("b.c", DataTypes.LongType, true),
+                DataTypes.createStructField("d", DataTypes.StringType, true)
+        });
+        dataset = spark.createDataFrame(Collections.singletonList(RowFactory.create("x", 1L, "y")), schema);
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testUnchangedReturnsDataset() {
+        Projection projection = new Projection(dataset);
+        Assertions.assertArrayEquals(dataset.columns(), projection.columns());
+        Assertions.assertSame(dataset, projection.build());
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testRewritesInSingleProjection() {
+        Projection projection = new Projection(dataset);
+        projection.withColumn("a", functions.concat(projection.column("a"), functions.lit("1")));
+        projection.withColumn("a", functions.concat(projection.column("a"), functions.lit("2")));
+        projection.withColumn("b.c", projection.column("b.c").plus(1));
+        projection.withColumn("e", projection.column("d"));
+        projection.drop("d");
+        Dataset<Row> result = projection.build();
+
+        Dataset<Row> expected = dataset
+                .withColumn("a", functions.concat(functions.col("a"), functions.lit("1")))
+                .withColumn("a", functions.concat(functions.col("a"), functions.lit("2")))
+                .withColumn("b.c", functions.col("`b.c`").plus(1))
+                .withColumn("e", functions.col("d"))
+                .drop("d");
+
+        Assertions.assertEquals(expected.schema(), result.schema());
+        Assertions.assertEquals(expected.collectAsList(), result.collectAsList());
+        Assertions.assertEquals(RowFactory.create("x12", 2L, "y"), result.first());
+
+        LogicalPlan plan = result.queryExecution().analyzed();
+        Assertions.assertTrue(plan instanceof Project);
+        Assertions.assertEquals(dataset.queryExecution().analyzed(), plan.children().head());
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testCaseInsensitiveNames() {
+        Projection projection = new Projection(dataset);
+        projection.withColumn("A", functions.lit("z"));
+        projection.withColumnRenamed("D", "f");
+        projection.drop("B.C");
+        Dataset<Row> result = projection.build();
+
+        Assertions.assertArrayEquals(new String[] {
+                "A", "f"
+        }, result.columns());
+        Assertions.assertEquals(RowFactory.create("z", "y"), result.first());
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testMissingNamesAreIgnored() {
+        Projection projection = new Projection(dataset);
+        projection.withColumnRenamed("missing", "other");
+        projection.drop("missing");
+        Assertions.assertSame(dataset, projection.build());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import scala.collection.JavaConversions;
+import scala.collection.mutable.WrappedArray;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the parser classifies generated inputs the same way as the exception based parser it replaced.
+ */
+public class TypeParserTest {
+
+    private static final String ALPHABET = "0123456789+-.eExXpPfFdDaINnty \t\u0661\u00e4";
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void testGeneratedStrings() {
+        final TypeParser typeParser = new TypeParser();
+        for (int i = 0; i < 200000; i++) {
+            final String input = randomString(random.nextInt(10));
+            assertEquivalent(referenceParse(input), typeParser.parse(input), input);
+        }
+    }
+
+    @Test
+    public void testGeneratedNumbers() {
+        final TypeParser typeParser = new TypeParser();
+        for (int i = 0; i < 100000; i++) {
+            final long l = random.nextLong() >> random.nextInt(64);
+            final double d = Double.longBitsToDouble(random.nextLong());
+            final Object[] inputs = new Object[] {
+                    l, (int) l, (short) l, (byte) l, d, (float) d, Long.toString(l), Double.toString(d),
+                    Float.toString((float) d), BigDecimal.valueOf(l, random.nextInt(20) - 10),
+                    BigDecimal.valueOf(l).toPlainString() + "0"
+            };
+            for (final Object input : inputs) {
+                assertEquivalent(referenceParse(input), typeParser.parse(input), input);
+            }
+        }
+    }
+
+    @Test
+    public void testEdgeCases() {
+        final TypeParser typeParser = new TypeParser();
+        final Object[] inputs = new Object[] {
+                "", " ", "-", "+", ".", "NaN", "-Infinity", "0x1p3", "0x1f", "1e", "1d", " 5", "5 ",
+                "9223372036854775807", "9223372036854775808", "-9223372036854775809", "\u0661\u0662", true, 'c'
+        };
+        for (final Object input : inputs) {
+            assertEquivalent(referenceParse(input), typeParser.parse(input), input);
+        }
+    }
+
+    @Test
+    public void testCollections() {
+        final TypeParser typeParser = new TypeParser();
+        final List<Object> inputs = Arrays
+                .asList(
+                        WrappedArray.make(new String[] {}), WrappedArray.make(new String[] {
+                                "12"
+                        }), WrappedArray.make(new String[] {
+                                "a", "1", "2.5"
+                        }), new ArrayList<String>(), Arrays.asList("12"), Arrays.asList("a", "b")
+                );
+        for (final Object input : inputs) {
+            assertEquivalent(referenceParse(input), typeParser.parse(input), input);
+        }
+    }
+
+    private String randomString(final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+
+    private void assertEquivalent(final ParsedResult expected, final ParsedResult actual, final Object input) {
+        final String message = "input <[" + input + "]>";
+        Assertions.assertEquals(expected.getType(), actual.getType(), message);
+        switch (expected.getType()) {
+            case LONG:
+                Assertions.assertEquals(expected.getLong(), actual.getLong(), message);
+                break;
+            case DOUBLE:
+                Assertions
+                        .assertEquals(
+                                Double.doubleToLongBits(expected.getDouble()),
+                                Double.doubleToLongBits(actual.getDouble()), message
+                        );
+                break;
+            case STRING:
+                Assertions.assertEquals(expected.getString(), actual.getString(), message);
+                break;
+            default:
+                Assertions.assertEquals(expected.getList(), actual.getList(), message);
+                break;
+        }
+    }
+
+    /**
+     * The parser before the numeric scanner, classifying strings by catching NumberFormatExceptions.
+     */
+    private ParsedResult referenceParse(final Object input) {
+        ParsedResult parsedResult = new ParsedResult(input.toString());
+        if (input instanceof String) {
+            try {
+                parsedResult = new ParsedResult(Long.valueOf((String) input));
+            }
+            catch (NumberFormatException nfe) {
+                try {
+                    parsedResult = new ParsedResult(Double.valueOf((String) input));
+                }
+                catch (NumberFormatException ignored) {
+                    // returns as String
+                }
+            }
+        }
+        else if (input instanceof Long) {
+            parsedResult = new ParsedResult((Long) input);
+        }
+        else if (input instanceof WrappedArray) {
+            final WrappedArray<String> wr = (WrappedArray<String>) input;
+            if (wr.length() == 1) {
+                parsedResult = referenceParse(wr.head());
+            }
+            else if (wr.isEmpty()) {
+                parsedResult = new ParsedResult("");
+            }
+            else {
+                parsedResult = new ParsedResult(JavaConversions.bufferAsJavaList(wr.toBuffer()));
+            }
+        }
+        else if (input instanceof List) {
+            final List<String> l = (List<String>) input;
+            if (l.size() == 1) {
+                parsedResult = new ParsedResult(String.valueOf(l.get(0)));
+            }
+            else if (l.isEmpty()) {
+                parsedResult = new ParsedResult("");
+            }
+            else {
+                parsedResult = new ParsedResult(l);
+            }
+        }
+        else {
+            try {
+                parsedResult = new ParsedResult(Double.valueOf(input.toString()));
+            }
+            catch (NumberFormatException ignored) {
+                // returns as String
+            }
+        }
+        return parsedResult;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.accum;
+
+import com.teragrep.pth_10.ast.NullValue;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+
+import java.util.List;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AccumStepTest {
+
+    private SparkSession spark;
+
+    @BeforeAll
+    public void setup() {
+        spark = SparkSession
+                .builder()
+                .appName("AccumStepTest")
+                .master("local[2]")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("ERROR");
+    }
+
+    @AfterAll
+    public void tearDown() {
+        spark.stop();
+    }
+
+    // values 1..rows shuffled into several partitions
+    private Dataset<Row> shuffled(final long from, final long to) {
+        return spark
+                .range(from, to + 1)
+                .select(functions.col("id").cast(DataTypes.StringType).as("value"))
+                .repartition(4);
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testShuffledPartitions() {
+        final AccumStep step = new AccumStep(new NullValue(), "value", "sum");
+        final Dataset<Row> input = shuffled(1, 100);
+        Assertions.assertEquals(4, input.rdd().getNumPartitions());
+
+        final List<Row> rows = step.get(input).collectAsList();
+        step.flush();
+
+        Assertions.assertEquals(100, rows.size());
+        Assertions.assertEquals(2, rows.get(0).length());
+        // each row continues the sum of the row preceding it in the output order
+        long expected = 0L;
+        for (final Row row : rows) {
+            expected += Long.parseLong(row.getString(0));
+            Assertions.assertEquals(String.valueOf(expected), row.getString(1));
+        }
+        Assertions.assertEquals(5050L, expected);
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testSumCarriedOverMicroBatches() {
+        final AccumStep step = new AccumStep(new NullValue(), "value", "");
+        step.get(shuffled(1, 10)).collectAsList();
+        final List<Row> rows = step.get(shuffled(11, 20)).collectAsList();
+        step.flush();
+
+        Assertions.assertEquals(10, rows.size());
+        Assertions.assertEquals(1, rows.get(0).length());
+        long previous = 55L;
+        for (final Row row : rows) {
+            final long sum = Long.parseLong(row.getString(0));
+            Assertions.assertTrue(sum > previous);
+            previous = sum;
+        }
+        Assertions.assertEquals(210L, previous);
+    }
+}
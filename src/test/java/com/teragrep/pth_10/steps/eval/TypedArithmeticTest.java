@@ -0,0 +1,161 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.eval;
+
+import org.apache.spark.sql.Column;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.catalyst.expressions.Cast;
+import org.apache.spark.sql.functions;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TypedArithmeticTest {
+
+    private final StructType schema = new StructType()
+            .add("count", DataTypes.LongType)
+            .add("ratio", DataTypes.DoubleType)
+            .add("amount", DataTypes.createDecimalType(20, 2))
+            .add("_raw", DataTypes.StringType);
+    private SparkSession spark;
+
+    @BeforeAll
+    public void setup() {
+        spark = SparkSession
+                .builder()
+                .appName("TypedArithmeticTest")
+                .master("local[1]")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("ERROR");
+    }
+
+    @AfterAll
+    public void tearDown() {
+        spark.stop();
+    }
+
+    private Column arithmetic(final Column left, final String op, final Column right) {
+        return functions.callUDF("EvalArithmetic", left, functions.lit(op), right);
+    }
+
+    // evaluates the rewritten arithmetic, the UDF is not registered so it must have been replaced
+    private Row evaluate(final Column column) {
+        return spark.range(1).select(new TypedArithmetic(schema).column(column)).first();
+    }
+
+    @Test
+    public void testIntegralOperands() {
+        final Column column = new TypedArithmetic(schema)
+                .column(arithmetic(functions.col("count"), "*", functions.lit(2)));
+        Assertions.assertTrue(column.expr() instanceof Cast);
+        Assertions.assertEquals(DataTypes.LongType, column.expr().dataType());
+    }
+
+    @Test
+    public void testDivisionResultsInDouble() {
+        final Column column = new TypedArithmetic(schema)
+                .column(arithmetic(functions.col("count"), "/", functions.lit(2)));
+        Assertions.assertEquals(DataTypes.DoubleType, ((Cast) column.expr()).dataType());
+    }
+
+    @Test
+    public void testNestedOperands() {
+        final Column inner = arithmetic(functions.col("count"), "+", functions.col("ratio"));
+        final Column column = new TypedArithmetic(schema).column(arithmetic(inner, "-", functions.lit(1)));
+        Assertions.assertEquals(DataTypes.DoubleType, ((Cast) column.expr()).dataType());
+        Assertions.assertFalse(column.toString().contains("EvalArithmetic"));
+    }
+
+    @Test
+    public void testStringOperandKeepsUdf() {
+        final Column original = arithmetic(functions.col("_raw"), "+", functions.col("count"));
+        final Column column = new TypedArithmetic(schema).column(original);
+        Assertions.assertEquals(original.expr(), column.expr());
+    }
+
+    @Test
+    public void testUnknownFieldKeepsUdf() {
+        final Column original = arithmetic(functions.col("missing"), "+", functions.lit(1));
+        final Column column = new TypedArithmetic(schema).column(original);
+        Assertions.assertEquals(original.expr(), column.expr());
+    }
+
+    @Test
+    public void testDecimalOperandKeepsUdf() {
+        final Column original = arithmetic(functions.col("amount"), "*", functions.lit(2));
+        final Column column = new TypedArithmetic(schema).column(original);
+        Assertions.assertEquals(original.expr(), column.expr());
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testLongOverflowWraps() {
+        final Row row = evaluate(arithmetic(functions.lit(Long.MAX_VALUE), "+", functions.lit(1L)));
+        Assertions.assertEquals(Long.MIN_VALUE, row.getLong(0));
+    }
+
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    public void testDivisionByZeroIsNull() {
+        Assertions.assertTrue(evaluate(arithmetic(functions.lit(1L), "/", functions.lit(0L))).isNullAt(0));
+        Assertions.assertTrue(evaluate(arithmetic(functions.lit(1L), "%", functions.lit(0L))).isNullAt(0));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.spath;
+
+import com.google.gson.JsonNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StreamingJsonPathTest {
+
+    @Test
+    public void testNestedPath() {
+        final StreamingJsonPath path = new StreamingJsonPath("event.severity");
+        Assertions.assertTrue(path.read("{\"host\":\"h\",\"event\":{\"id\":123,\"severity\":\"info\"},\"m\":[1,2]}"));
+        Assertions.assertEquals("\"info\"", path.value().toString());
+        Assertions.assertTrue(path.read("{\"event\":{\"severity\":{\"level\":1.50}}}"));
+        Assertions.assertEquals("{\"level\":1.50}", path.value().toString());
+    }
+
+    @Test
+    public void testDuplicateKeyLatestWins() {
+        final StreamingJsonPath path = new StreamingJsonPath("a.b");
+        Assertions.assertTrue(path.read("{\"a\":{\"b\":1},\"a\":{\"b\":2}}"));
+        Assertions.assertEquals("2", path.value().toString());
+        // an array navigated earlier must not fail when a later duplicate replaces it
+        Assertions.assertTrue(path.read("{\"a\":[1],\"a\":{\"b\":3}}"));
+        Assertions.assertEquals("3", path.value().toString());
+    }
+
+    @Test
+    public void testMissingKeys() {
+        final StreamingJsonPath path = new StreamingJsonPath("a.b.c");
+        Assertions.assertTrue(path.read("{\"a\":{\"x\":1}}"));
+        Assertions.assertEquals(JsonNull.INSTANCE, path.value());
+        Assertions.assertTrue(path.read("{\"a\":{\"b\":{\"x\":1}}}"));
+        Assertions.assertNull(path.value());
+        // the path stops at a primitive
+        Assertions.assertTrue(path.read("{\"a\":\"text\"}"));
+        Assertions.assertEquals("\"text\"", path.value().toString());
+    }
+
+    @Test
+    public void testArrayIndex() {
+        final StreamingJsonPath path = new StreamingJsonPath("a.b[2].c");
+        Assertions.assertTrue(path.read("{\"a\":{\"b\":[1,{\"c\":\"d\"}]}}"));
+        Assertions.assertEquals("\"d\"", path.value().toString());
+    }
+
+    @Test
+    public void testWholeDocument() {
+        final StreamingJsonPath path = new StreamingJsonPath("");
+        Assertions.assertTrue(path.read("{\"json\": \"debugo\", \"lil\": \"xml\"}"));
+        Assertions.assertEquals("{\"json\":\"debugo\",\"lil\":\"xml\"}", path.value().toString());
+        Assertions.assertTrue(path.read("12.34"));
+        Assertions.assertEquals("12.34", path.value().toString());
+    }
+
+    @Test
+    public void testInvalidDocuments() {
+        final StreamingJsonPath path = new StreamingJsonPath("a");
+        Assertions.assertFalse(path.read("123.456;;;abcdQdsdfsdjf__invC<x;?1"));
+        Assertions.assertFalse(path.read("<main><sub>Hello</sub></main>"));
+        // trailing content after the path is still validated
+        Assertions.assertFalse(path.read("{\"a\":1} x"));
+        Assertions.assertFalse(path.read(null));
+        Assertions.assertNull(path.value());
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.subsearch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public final class MultiTermMatcherTest {
+
+    @Test
+    public void testMatchesAnyTermCaseInsensitive() {
+        final MultiTermMatcher matcher = new MultiTermMatcher(Arrays.asList("host-01", "Firewall", "sshd[12]"));
+        Assertions.assertTrue(matcher.matches("Oct 17 HOST-01 kernel: up"));
+        Assertions.assertTrue(matcher.matches("firewall denied"));
+        Assertions.assertTrue(matcher.matches("x sshd[12]: session"));
+        Assertions.assertFalse(matcher.matches("host-02 sshd[123]"));
+        Assertions.assertNull(matcher.matches(null));
+    }
+
+    @Test
+    public void testOverlappingTermsUseFailureLinks() {
+        final MultiTermMatcher matcher = new MultiTermMatcher(Arrays.asList("abcd", "bce", "cx"));
+        Assertions.assertTrue(matcher.matches("zzabcezz"));
+        Assertions.assertTrue(matcher.matches("abcx"));
+        Assertions.assertFalse(matcher.matches("abcabdbc"));
+    }
+
+    @Test
+    public void testTermInsideLongerTerm() {
+        final MultiTermMatcher matcher = new MultiTermMatcher(Arrays.asList("server-100", "er-1"));
+        Assertions.assertTrue(matcher.matches("server-1"));
+        Assertions.assertFalse(matcher.matches("server-"));
+    }
+
+    @Test
+    public void testEmptyTermMatchesEverything() {
+        final MultiTermMatcher matcher = new MultiTermMatcher(Collections.singletonList(""));
+        Assertions.assertTrue(matcher.matches(""));
+        Assertions.assertTrue(matcher.matches("anything"));
+    }
+
+    @Test
+    public void testNoTerms() {
+        final MultiTermMatcher matcher = new MultiTermMatcher(Collections.emptyList());
+        Assertions.assertFalse(matcher.matches("anything"));
+    }
+}
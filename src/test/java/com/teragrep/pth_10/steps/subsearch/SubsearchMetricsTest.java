@@ -43,18 +43,21 @@
  * Teragrep, the applicable Commercial License may apply to this file if you as
  * a licensee so wish it.
  */
-package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex;
+package com.teragrep.pth_10.steps.subsearch;
 
-import org.apache.spark.sql.Row;
+import org.apache.spark.util.LongAccumulator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
-import java.io.Serializable;
+public class SubsearchMetricsTest {
 
-public class FieldIndexStub implements FieldIndex, Serializable {
-
-    private static final long serialVersionUID = 1L;
-
-    @Override
-    public int fieldIndex(Row row) {
-        return 0;
+    @Test
+    public void testTermsCollected() {
+        final SubsearchMetrics metrics = new SubsearchMetrics(new LongAccumulator(), new LongAccumulator());
+        metrics.termsCollected(3);
+        metrics.termsCollected(2);
+        Assertions.assertEquals(5L, metrics.terms());
+        Assertions.assertEquals(2L, metrics.subsearches());
+        Assertions.assertEquals("SubsearchMetrics{terms=5, subsearches=2}", metrics.toString());
     }
 }
@@ -0,0 +1,273 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.bloomfilter;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.apache.spark.util.sketch.BloomFilter;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BloomFilterBatchWriterTest {
+
+    private final String pattern = "[a-zA-Z]*$";
+    private final String tableName = "bloomfilter_batch_test";
+    private final String connectionUrl = "jdbc:h2:mem:batchtest;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+    private final Connection conn = Assertions
+            .assertDoesNotThrow(() -> DriverManager.getConnection(connectionUrl, "sa", ""));
+    private FilterTypes filterTypes;
+    private SortedMap<Long, Double> sizeMap;
+
+    @BeforeAll
+    void setEnv() {
+        Properties properties = new Properties();
+        properties
+                .put("dpl.pth_06.bloom.db.fields", "[{expected: 10000, fpp: 0.01},{expected: 20000, fpp: 0.03}]");
+        Config config = ConfigFactory.parseProperties(properties);
+        filterTypes = new FilterTypes(config);
+        sizeMap = filterTypes.sortedMap();
+        String createFilterType = "CREATE TABLE `filtertype` ("
+                + "`id`               bigint(20) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,"
+                + "`expectedElements` bigint(20) NOT NULL," + "`targetFpp`        DOUBLE UNSIGNED NOT NULL,"
+                + "`pattern`          VARCHAR(255) NOT NULL)";
+        String createTable = "CREATE TABLE `" + tableName + "` ("
+                + "    `id` BIGINT(20) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,"
+                + "    `partition_id` BIGINT(20) UNSIGNED NOT NULL UNIQUE,"
+                + "    `filter_type_id` BIGINT(20) UNSIGNED NOT NULL," + "    `filter` LONGBLOB NOT NULL" + ");";
+        String insertSql = "INSERT INTO `filtertype` (`expectedElements`, `targetFpp`, `pattern`) VALUES (?, ?, ?)";
+        Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement statement = conn.prepareStatement(createFilterType)) {
+                statement.execute();
+            }
+            try (PreparedStatement statement = conn.prepareStatement(createTable)) {
+                statement.execute();
+            }
+            for (Map.Entry<Long, Double> entry : sizeMap.entrySet()) {
+                try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                    stmt.setLong(1, entry.getKey());
+                    stmt.setDouble(2, entry.getValue());
+                    stmt.setString(3, pattern);
+                    stmt.executeUpdate();
+                }
+            }
+        });
+    }
+
+    @AfterAll
+    public void tearDown() {
+        Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement statement = conn.prepareStatement("DROP ALL OBJECTS")) {
+                statement.execute(); // h2 clear database
+            }
+        });
+    }
+
+    @BeforeEach
+    public void clearTable() {
+        Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement statement = conn.prepareStatement("DELETE FROM `" + tableName + "`")) {
+                statement.execute();
+            }
+        });
+    }
+
+    @Test
+    void testWritesAllFiltersInBatches() {
+        try (
+                BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                        conn,
+                        filterTypes.catalog(),
+                        tableName,
+                        pattern,
+                        false,
+                        2
+                )
+        ) {
+            for (int i = 0; i < 5; i++) {
+                writer.write(String.valueOf(i), filterBytes(20000L, "token" + i));
+            }
+            writer.commit();
+        }
+        String sql = "SELECT `partition_id`, `filter_type_id`, `filter` FROM `" + tableName
+                + "` ORDER BY `partition_id`";
+        long expectedTypeId = filterTypeId(20000L);
+        Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+                int loops = 0;
+                while (rs.next()) {
+                    Assertions.assertEquals(loops, rs.getLong(1));
+                    Assertions.assertEquals(expectedTypeId, rs.getLong(2));
+                    BloomFilter filter = BloomFilter.readFrom(new ByteArrayInputStream(rs.getBytes(3)));
+                    Assertions.assertTrue(filter.mightContain("token" + loops));
+                    loops++;
+                }
+                Assertions.assertEquals(5, loops);
+            }
+        });
+    }
+
+    @Test
+    void testOverwrite() {
+        try (
+                BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                        conn,
+                        filterTypes.catalog(),
+                        tableName,
+                        pattern,
+                        false,
+                        10
+                )
+        ) {
+            writer.write("1", filterBytes(10000L, "one"));
+            writer.commit();
+        }
+        try (
+                BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                        conn,
+                        filterTypes.catalog(),
+                        tableName,
+                        pattern,
+                        true,
+                        10
+                )
+        ) {
+            writer.write("1", filterBytes(10000L, "neo"));
+            writer.commit();
+        }
+        String sql = "SELECT `filter` FROM `" + tableName + "`";
+        Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+                Assertions.assertTrue(rs.next());
+                BloomFilter filter = BloomFilter.readFrom(new ByteArrayInputStream(rs.getBytes(1)));
+                Assertions.assertTrue(filter.mightContain("neo"));
+                Assertions.assertFalse(filter.mightContain("one"));
+                Assertions.assertFalse(rs.next());
+            }
+        });
+    }
+
+    @Test
+    void testUnknownFilterSize() {
+        try (
+                BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                        conn,
+                        filterTypes.catalog(),
+                        tableName,
+                        pattern,
+                        false,
+                        10
+                )
+        ) {
+            byte[] bytes = filterBytes(123L, "one");
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write("1", bytes));
+        }
+    }
+
+    @Test
+    void testFailedWriteRollsBackPartition() {
+        Assertions.assertDoesNotThrow(() -> conn.setAutoCommit(false));
+        try {
+            try (
+                    BloomFilterBatchWriter writer = new BloomFilterBatchWriter(
+                            conn,
+                            filterTypes.catalog(),
+                            tableName,
+                            pattern,
+                            false,
+                            2
+                    )
+            ) {
+                // the first batch is sent to the database before the write fails
+                writer.write("1", filterBytes(10000L, "one"));
+                writer.write("2", filterBytes(10000L, "two"));
+                writer.write("3", filterBytes(10000L, "three"));
+                byte[] bytes = filterBytes(123L, "four");
+                Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write("4", bytes));
+            }
+            String sql = "SELECT COUNT(*) FROM `" + tableName + "`";
+            Assertions.assertDoesNotThrow(() -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+                    Assertions.assertTrue(rs.next());
+                    Assertions.assertEquals(0, rs.getLong(1));
+                }
+            });
+        }
+        finally {
+            Assertions.assertDoesNotThrow(() -> conn.setAutoCommit(true));
+        }
+    }
+
+    private long filterTypeId(long expected) {
+        String sql = "SELECT `id` FROM `filtertype` WHERE expectedElements=?";
+        return Assertions.assertDoesNotThrow(() -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, expected);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    Assertions.assertTrue(rs.next());
+                    return rs.getLong(1);
+                }
+            }
+        });
+    }
+
+    private byte[] filterBytes(long expected, String token) {
+        BloomFilter bf = BloomFilter.create(expected, sizeMap.getOrDefault(expected, 0.01));
+        bf.put(token);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Assertions.assertDoesNotThrow(() -> bf.writeTo(baos));
+        return baos.toByteArray();
+    }
+}
@@ -124,6 +124,11 @@ public class BloomFilterBlobTest {
         Assertions.assertFalse(filter.mightContain("three"));
     }
 
+    @Test
+    void testBitSize() {
+        Assertions.assertEquals(BloomFilter.create(1000, 0.01).bitSize(), new BloomFilterBlob(bytes).bitSize());
+    }
+
     @Test
     void testEquality() {
         Assertions.assertEquals(new BloomFilterBlob(bytes), new BloomFilterBlob(bytes));
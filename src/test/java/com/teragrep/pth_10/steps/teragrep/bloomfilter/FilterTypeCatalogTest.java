@@ -0,0 +1,107 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.bloomfilter;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.apache.spark.util.sketch.BloomFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class FilterTypeCatalogTest {
+
+    private SortedMap<Long, Double> sizes() {
+        final SortedMap<Long, Double> sizes = new TreeMap<>();
+        sizes.put(1000L, 0.01);
+        sizes.put(20000L, 0.03);
+        sizes.put(3000000L, 0.001);
+        return sizes;
+    }
+
+    @Test
+    public void testBitSizesMatchBloomFilter() {
+        final FilterTypeCatalog catalog = new FilterTypeCatalog(sizes());
+        final Map<Long, Long> bitSizeMap = catalog.bitSizeMap();
+        Assertions.assertEquals(3, bitSizeMap.size());
+        for (final Map.Entry<Long, Double> entry : sizes().entrySet()) {
+            final long bitSize = BloomFilter.create(entry.getKey(), entry.getValue()).bitSize();
+            Assertions.assertEquals(entry.getKey(), bitSizeMap.get(bitSize));
+            Assertions.assertEquals(entry.getKey(), catalog.expectedForBitSize(bitSize));
+        }
+    }
+
+    @Test
+    public void testFppFor() {
+        final FilterTypeCatalog catalog = new FilterTypeCatalog(sizes());
+        Assertions.assertEquals(0.03, catalog.fppFor(20000L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> catalog.fppFor(20001L));
+    }
+
+    @Test
+    public void testUnknownBitSize() {
+        final FilterTypeCatalog catalog = new FilterTypeCatalog(sizes());
+        final IllegalArgumentException exception = Assertions
+                .assertThrows(IllegalArgumentException.class, () -> catalog.expectedForBitSize(64L));
+        Assertions.assertEquals("no such filterSize <[64]>", exception.getMessage());
+    }
+
+    @Test
+    public void testSortedMapIsImmutable() {
+        final FilterTypeCatalog catalog = new FilterTypeCatalog(sizes());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> catalog.sortedMap().put(1L, 0.5));
+    }
+
+    @Test
+    public void testEqualsVerifier() {
+        EqualsVerifier
+                .forClass(FilterTypeCatalog.class)
+                .withNonnullFields("expectedToFpp", "bitSizeToExpected")
+                .verify();
+    }
+}
@@ -144,6 +144,16 @@ public final class FilterTypesTest {
 
     }
 
+    @Test
+    public void testCatalogIsParsedOnce() {
+        Config config = ConfigFactory.parseProperties(defaultProperties());
+        FilterTypes filterTypes = new FilterTypes(config);
+        FilterTypeCatalog catalog = filterTypes.catalog();
+        Assertions.assertSame(catalog, filterTypes.catalog());
+        Assertions.assertEquals(catalog.sortedMap(), filterTypes.sortedMap());
+        Assertions.assertEquals(catalog.bitSizeMap(), filterTypes.bitSizeMap());
+    }
+
     @Test
     public void testWriteFilterTypesToDatabase() {
         String regex = "test_regex";
@@ -90,26 +90,102 @@ public final class ConnectionPoolSingletonTest {
     }
 
     @Test
-    public void throwsIfReinitializedWithDifferentConfig() {
-        final Config config1 = defaultConfig();
-        final Config config2 = ConfigFactory.parseProperties(new Properties());
+    public void testReusesPoolWhenUnrelatedConfigChanges() {
+        final Properties properties = defaultProperties();
+        final Config config1 = ConfigFactory.parseProperties(properties);
+        properties.put("dpl.pth_10.spath.sampleSize", "10");
+        final Config config2 = ConfigFactory.parseProperties(properties);
         Assertions.assertNotEquals(config1, config2);
         Assertions.assertDoesNotThrow(() -> {
             try (final Connection connection = ConnectionPoolSingleton.connection(config1)) {
                 Assertions.assertFalse(connection.isClosed());
             }
         });
+        final ConnectionPoolMetrics metrics = ConnectionPoolSingleton.metrics();
+        Assertions.assertDoesNotThrow(() -> {
+            try (final Connection connection = ConnectionPoolSingleton.connection(config2)) {
+                Assertions.assertFalse(connection.isClosed());
+            }
+        });
+        Assertions.assertSame(metrics, ConnectionPoolSingleton.metrics());
+        Assertions.assertEquals(2, metrics.leases());
+    }
+
+    @Test
+    public void testRecreatesPoolWhenConnectionSettingsChange() {
+        final Properties properties = defaultProperties();
+        final Config config1 = ConfigFactory.parseProperties(properties);
+        properties.put("dpl.pth_10.archive.db.poolSize", "4");
+        final Config config2 = ConfigFactory.parseProperties(properties);
+        Assertions.assertDoesNotThrow(() -> {
+            try (final Connection connection = ConnectionPoolSingleton.connection(config1)) {
+                Assertions.assertFalse(connection.isClosed());
+            }
+        });
+        final ConnectionPoolMetrics metrics = ConnectionPoolSingleton.metrics();
+        Assertions.assertDoesNotThrow(() -> {
+            try (final Connection connection = ConnectionPoolSingleton.connection(config2)) {
+                Assertions.assertFalse(connection.isClosed());
+            }
+        });
+        Assertions.assertNotSame(metrics, ConnectionPoolSingleton.metrics());
+        Assertions.assertEquals(1, ConnectionPoolSingleton.metrics().leases());
+    }
+
+    @Test
+    public void testConcurrentLeases() {
+        final Config config = defaultConfig();
+        final Connection c1 = Assertions.assertDoesNotThrow(() -> ConnectionPoolSingleton.connection(config));
+        final Connection c2 = Assertions.assertDoesNotThrow(() -> ConnectionPoolSingleton.connection(config));
+        Assertions.assertNotSame(c1, c2);
+        final ConnectionPoolMetrics metrics = ConnectionPoolSingleton.metrics();
+        Assertions.assertEquals(2, metrics.active());
+        Assertions.assertEquals(2, metrics.leases());
+        Assertions.assertDoesNotThrow(c1::close);
+        Assertions.assertDoesNotThrow(c2::close);
+        Assertions.assertEquals(0, metrics.active());
+    }
+
+    @Test
+    public void testSeparatePoolPerDatabase() {
+        final String bloomUrl = "jdbc:h2:mem:test_" + UUID.randomUUID()
+                + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+        final Properties properties = new Properties();
+        properties.put("dpl.pth_10.archive.db.username", username);
+        properties.put("dpl.pth_10.archive.db.password", password);
+        properties.put("dpl.pth_10.archive.db.url", url);
+        properties.put("dpl.pth_10.bloom.db.username", username);
+        properties.put("dpl.pth_10.bloom.db.password", password);
+        properties.put("dpl.pth_06.bloom.db.url", bloomUrl);
+        final Config config = ConfigFactory.parseProperties(properties);
+        Assertions.assertDoesNotThrow(() -> {
+            try (
+                    final Connection archive = ConnectionPoolSingleton.connection(config); final Connection bloom = ConnectionPoolSingleton.connection(config, DatabaseConfigItems.bloom())
+            ) {
+                Assertions.assertEquals(url, archive.getMetaData().getURL());
+                Assertions.assertEquals(bloomUrl, bloom.getMetaData().getURL());
+            }
+        });
+        Assertions.assertEquals(1, ConnectionPoolSingleton.metrics().leases());
+        Assertions.assertEquals(1, ConnectionPoolSingleton.metrics(DatabaseConfigItems.bloom()).leases());
+    }
+
+    @Test
+    public void metricsThrowsIfNotInitialized() {
         final IllegalStateException exception = Assertions
-                .assertThrows(IllegalStateException.class, () -> ConnectionPoolSingleton.connection(config2));
-        final String expected = "Datasource was already initialized with a different config";
-        Assertions.assertEquals(expected, exception.getMessage());
+                .assertThrows(IllegalStateException.class, ConnectionPoolSingleton::metrics);
+        Assertions.assertEquals("Datasource is not initialized", exception.getMessage());
     }
 
     private static Config defaultConfig() {
+        return ConfigFactory.parseProperties(defaultProperties());
+    }
+
+    private static Properties defaultProperties() {
         final Properties properties = new Properties();
         properties.put("dpl.pth_10.archive.db.username", username);
         properties.put("dpl.pth_10.archive.db.password", password);
         properties.put("dpl.pth_10.archive.db.url", url);
-        return ConfigFactory.parseProperties(properties);
+        return properties;
     }
 }
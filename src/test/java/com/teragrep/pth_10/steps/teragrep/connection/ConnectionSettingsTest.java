@@ -43,24 +43,22 @@
  * Teragrep, the applicable Commercial License may apply to this file if you as
  * a licensee so wish it.
  */
-package com.teragrep.pth_10.ast.commands.aggregate.UDAFs.FieldIndex;
+package com.teragrep.pth_10.steps.teragrep.connection;
 
-import org.apache.spark.sql.Row;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
-import java.io.Serializable;
+public final class ConnectionSettingsTest {
 
-public class FieldIndexImpl implements FieldIndex, Serializable {
-
-    private static final long serialVersionUID = 1L;
-    private final String field;
-
-    public FieldIndexImpl(String field) {
-        this.field = field;
+    @Test
+    public void testPasswordNotInToString() {
+        final ConnectionSettings settings = new ConnectionSettings("jdbc:h2:mem:x", "user", "secret", 16, 30000L, 5000L);
+        Assertions.assertFalse(settings.toString().contains("secret"));
     }
 
-    @Override
-    public int fieldIndex(Row row) {
-        return row.fieldIndex(field);
+    @Test
+    public void testContract() {
+        EqualsVerifier.forClass(ConnectionSettings.class).verify();
     }
-
 }
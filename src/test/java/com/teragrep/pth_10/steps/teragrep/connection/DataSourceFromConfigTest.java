@@ -82,7 +82,7 @@ public final class DataSourceFromConfigTest {
         final Config config = ConfigFactory.parseProperties(props);
         Assertions.assertDoesNotThrow(() -> {
             try (final HikariDataSource hikariDataSource = new DataSourceFromConfig(config).get()) {
-                Assertions.assertEquals(256, hikariDataSource.getMaximumPoolSize());
+                Assertions.assertEquals(16, hikariDataSource.getMaximumPoolSize());
                 Assertions.assertEquals(0, hikariDataSource.getMinimumIdle());
                 Assertions.assertEquals(30000, hikariDataSource.getConnectionTimeout());
                 Assertions.assertEquals(5000, hikariDataSource.getValidationTimeout());
@@ -95,6 +95,36 @@ public final class DataSourceFromConfigTest {
         });
     }
 
+    @Test
+    public void testConfiguredPoolSize() {
+        final Properties props = defaultProperties();
+        props.put("dpl.pth_10.archive.db.poolSize", "4");
+        final Config config = ConfigFactory.parseProperties(props);
+        Assertions.assertDoesNotThrow(() -> {
+            try (final HikariDataSource hikariDataSource = new DataSourceFromConfig(config).get()) {
+                Assertions.assertEquals(4, hikariDataSource.getMaximumPoolSize());
+            }
+        });
+    }
+
+    @Test
+    public void testSettingsIgnoreUnrelatedItems() {
+        final Properties props = defaultProperties();
+        final Config config = ConfigFactory.parseProperties(props);
+        props.put("dpl.pth_10.spath.sampleSize", "10");
+        final Config otherQueryConfig = ConfigFactory.parseProperties(props);
+        Assertions.assertNotEquals(config, otherQueryConfig);
+        final ConnectionSettings settings = new DataSourceFromConfig(config).settings();
+        Assertions.assertEquals(settings, new DataSourceFromConfig(otherQueryConfig).settings());
+        Assertions.assertEquals(url, settings.url());
+        Assertions.assertEquals(username, settings.username());
+        Assertions.assertEquals(password, settings.password());
+        Assertions.assertEquals(16, settings.poolSize());
+        props.put("dpl.pth_10.archive.db.poolSize", "4");
+        final Config resizedConfig = ConfigFactory.parseProperties(props);
+        Assertions.assertNotEquals(settings, new DataSourceFromConfig(resizedConfig).settings());
+    }
+
     @Test
     public void missingUrlThrows() {
         final Properties props = defaultProperties();
@@ -129,9 +159,50 @@ public final class DataSourceFromConfigTest {
 
     }
 
+    @Test
+    public void testBloomDatabaseIgnoresArchiveItems() {
+        final String bloomUrl = "jdbc:h2:mem:test_" + UUID.randomUUID()
+                + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+        final Properties props = defaultProperties();
+        props.put("dpl.pth_10.bloom.db.username", "bloomuser");
+        props.put("dpl.pth_10.bloom.db.password", "bloompass");
+        props.put("dpl.pth_06.bloom.db.url", bloomUrl);
+        props.put("dpl.pth_10.bloom.db.poolSize", "2");
+        final Config config = ConfigFactory.parseProperties(props);
+        Assertions.assertDoesNotThrow(() -> {
+            try (
+                    final HikariDataSource hikariDataSource = new DataSourceFromConfig(config, DatabaseConfigItems.bloom(), new ConnectionPoolMetrics()).get()
+            ) {
+                Assertions.assertEquals(bloomUrl, hikariDataSource.getJdbcUrl());
+                Assertions.assertEquals("bloomuser", hikariDataSource.getUsername());
+                Assertions.assertEquals("bloompass", hikariDataSource.getPassword());
+                Assertions.assertEquals(2, hikariDataSource.getMaximumPoolSize());
+                Assertions.assertTrue(hikariDataSource.getPoolName().startsWith("pth_10-pool-bloom-"));
+            }
+        });
+    }
+
+    @Test
+    public void missingBloomUrlThrows() {
+        final Properties props = defaultProperties();
+        props.put("dpl.pth_10.bloom.db.username", username);
+        props.put("dpl.pth_10.bloom.db.password", password);
+        final Config config = ConfigFactory.parseProperties(props);
+        final RuntimeException exception = Assertions
+                .assertThrows(
+                        RuntimeException.class,
+                        new DataSourceFromConfig(config, DatabaseConfigItems.bloom(), new ConnectionPoolMetrics())::get
+                );
+        final String expected = "Missing configuration item: 'dpl.pth_06.bloom.db.url'.";
+        Assertions.assertEquals(expected, exception.getMessage());
+    }
+
     @Test
     public void testContract() {
-        EqualsVerifier.forClass(DataSourceFromConfig.class).verify();
+        EqualsVerifier
+                .forClass(DataSourceFromConfig.class)
+                .withPrefabValues(ConnectionPoolMetrics.class, new ConnectionPoolMetrics(), new ConnectionPoolMetrics())
+                .verify();
     }
 
     private Properties defaultProperties() {
@@ -81,6 +81,30 @@ public final class InitializedDataSourceStateTest {
         Assertions.assertEquals(defaultConfig(), state.config());
     }
 
+    @Test
+    public void testSettings() {
+        final DataSourceState state = new InitializedDataSourceState(defaultConfig());
+        Assertions.assertEquals(url, state.settings().url());
+        Assertions.assertEquals(state.dataSource().getMaximumPoolSize(), state.settings().poolSize());
+        state.dataSource().close();
+    }
+
+    @Test
+    public void testMetrics() {
+        final DataSourceState state = new InitializedDataSourceState(defaultConfig());
+        final ConnectionPoolMetrics metrics = state.metrics();
+        Assertions.assertDoesNotThrow(() -> {
+            try (final Connection conn = state.dataSource().getConnection()) {
+                Assertions.assertFalse(conn.isClosed());
+                Assertions.assertEquals(1, metrics.active());
+            }
+        });
+        Assertions.assertEquals(1, metrics.leases());
+        Assertions.assertEquals(0, metrics.active());
+        Assertions.assertEquals(0, metrics.timeouts());
+        state.dataSource().close();
+    }
+
     @Test
     public void testIsStub() {
         final DataSourceState state = new InitializedDataSourceState(defaultConfig());
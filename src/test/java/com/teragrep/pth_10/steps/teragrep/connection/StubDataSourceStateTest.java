@@ -72,6 +72,26 @@ public final class StubDataSourceStateTest {
         Assertions.assertEquals(expected, exception.getMessage());
     }
 
+    @Test
+    public void testSettings() {
+        final DataSourceState state = new StubDataSourceState();
+        final UnsupportedOperationException exception = assertThrows(
+                UnsupportedOperationException.class, state::settings
+        );
+        final String expected = "settings() not supported for StubDataSourceState";
+        Assertions.assertEquals(expected, exception.getMessage());
+    }
+
+    @Test
+    public void testMetrics() {
+        final DataSourceState state = new StubDataSourceState();
+        final UnsupportedOperationException exception = assertThrows(
+                UnsupportedOperationException.class, state::metrics
+        );
+        final String expected = "metrics() not supported for StubDataSourceState";
+        Assertions.assertEquals(expected, exception.getMessage());
+    }
+
     @Test
     public void testIsStub() {
         final DataSourceState state = new StubDataSourceState();
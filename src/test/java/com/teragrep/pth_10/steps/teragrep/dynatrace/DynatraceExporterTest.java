@@ -0,0 +1,242 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import com.teragrep.pth_10.DynatraceNullAPICallback;
+import com.teragrep.pth_10.DynatraceTestAPICallback;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.*;
+import org.mockserver.integration.ClientAndServer;
+import org.mockserver.matchers.Times;
+import org.mockserver.model.Delay;
+import org.mockserver.model.HttpClassCallback;
+import org.mockserver.model.HttpResponse;
+import org.mockserver.verify.VerificationTimes;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockserver.model.HttpRequest.request;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DynatraceExporterTest {
+
+    private final int port = 9002;
+    private final String url = "http://localhost:" + port + "/metrics/ingest";
+    private ClientAndServer mockServer;
+
+    @BeforeAll
+    void startServer() {
+        mockServer = ClientAndServer.startClientAndServer(port);
+    }
+
+    @AfterEach
+    void reset() {
+        mockServer.reset();
+    }
+
+    @AfterAll
+    void stopServer() {
+        mockServer.stop();
+    }
+
+    private List<String> payloads(final int lines, final int maxLinesPerRequest) {
+        final MetricPayloads payloads = new MetricPayloads(maxLinesPerRequest, 1000000);
+        for (int i = 0; i < lines; i++) {
+            final DynatraceItem dti = new DynatraceItem();
+            dti.setDplQuery("| makeresults | stats count");
+            dti.setMetricKey("metric");
+            dti.setCount(String.valueOf(i));
+            dti.setTimestamp(Timestamp.from(Instant.ofEpochSecond(1700000000L + i)));
+            payloads.add(dti);
+        }
+        return payloads.payloads();
+    }
+
+    private DynatraceOptionsFromConfig options(final int maxRetries) {
+        return options(maxRetries, "30s");
+    }
+
+    private DynatraceOptionsFromConfig options(final int maxRetries, final String timeout) {
+        final Map<String, Object> opts = new HashMap<>();
+        opts.put("dpl.pth_10.transform.teragrep.dynatrace.timeout", timeout);
+        opts.put("dpl.pth_10.transform.teragrep.dynatrace.maxRetries", maxRetries);
+        opts.put("dpl.pth_10.transform.teragrep.dynatrace.retryBackoff", "10ms");
+        opts.put("dpl.pth_10.transform.teragrep.dynatrace.concurrency", 2);
+        return new DynatraceOptionsFromConfig(ConfigFactory.parseMap(opts));
+    }
+
+    @Test
+    public void testBatchedExport() {
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(HttpClassCallback.callback(DynatraceTestAPICallback.class));
+
+        final DynatraceExportMetrics metrics;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(0))) {
+            // one metadata line and at most two metric lines per request
+            metrics = exporter.export(payloads(5, 3));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.exactly(3));
+        Assertions.assertEquals(5, metrics.linesValid());
+        Assertions.assertEquals(0, metrics.linesInvalid());
+        Assertions.assertEquals(3, metrics.requests());
+        Assertions.assertEquals(0, metrics.retries());
+    }
+
+    @Test
+    public void testRetryOnServerError() {
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"), Times.once())
+                .respond(HttpResponse.response().withStatusCode(503));
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(HttpClassCallback.callback(DynatraceTestAPICallback.class));
+
+        final DynatraceExportMetrics metrics;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(1))) {
+            metrics = exporter.export(payloads(2, 10));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.exactly(2));
+        Assertions.assertEquals(2, metrics.linesValid());
+        Assertions.assertEquals(1, metrics.requests());
+        Assertions.assertEquals(1, metrics.retries());
+    }
+
+    @Test
+    public void testRetriesExhausted() {
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(
+                        HttpResponse
+                                .response("{\"error\": null, \"linesValid\": 0, \"linesInvalid\": 0}")
+                                .withStatusCode(503)
+                );
+
+        final RuntimeException exception;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(2))) {
+            exception = Assertions.assertThrows(RuntimeException.class, () -> exporter.export(payloads(1, 10)));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.exactly(3));
+        Assertions.assertEquals("Error! Response code: <[503]>. Expected 202 or 400.", exception.getMessage());
+    }
+
+    @Test
+    public void testNullResponseIsNotRetried() {
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(HttpClassCallback.callback(DynatraceNullAPICallback.class));
+
+        final IllegalStateException exception;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(3))) {
+            exception = Assertions.assertThrows(IllegalStateException.class, () -> exporter.export(payloads(1, 10)));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.once());
+        Assertions.assertEquals("Unexpected null JSON response", exception.getMessage());
+    }
+
+    @Test
+    public void testInternalServerErrorIsNotRetried() {
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(
+                        HttpResponse
+                                .response("{\"error\": null, \"linesValid\": 0, \"linesInvalid\": 0}")
+                                .withStatusCode(500)
+                );
+
+        final RuntimeException exception;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(2))) {
+            exception = Assertions.assertThrows(RuntimeException.class, () -> exporter.export(payloads(1, 10)));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.once());
+        Assertions.assertEquals("Error! Response code: <[500]>. Expected 202 or 400.", exception.getMessage());
+    }
+
+    @Test
+    public void testReadTimeoutIsNotRetried() {
+        // request reaches the server, retrying could ingest the lines twice
+        mockServer
+                .when(request().withPath("/metrics/ingest").withMethod("POST"))
+                .respond(
+                        HttpResponse
+                                .response("{\"error\": null, \"linesValid\": 1, \"linesInvalid\": 0}")
+                                .withStatusCode(202)
+                                .withDelay(new Delay(TimeUnit.SECONDS, 2))
+                );
+
+        final RuntimeException exception;
+        try (final DynatraceExporter exporter = new DynatraceExporter(url, options(2, "200ms"))) {
+            exception = Assertions.assertThrows(RuntimeException.class, () -> exporter.export(payloads(1, 10)));
+        }
+
+        mockServer.verify(request().withPath("/metrics/ingest"), VerificationTimes.once());
+        Assertions.assertTrue(exception.getCause() instanceof SocketTimeoutException);
+    }
+
+    @Test
+    public void testConnectFailureIsRetried() {
+        // nothing listens on the port
+        final String closedUrl = "http://localhost:9003/metrics/ingest";
+        final RuntimeException exception;
+        try (final DynatraceExporter exporter = new DynatraceExporter(closedUrl, options(2))) {
+            exception = Assertions.assertThrows(RuntimeException.class, () -> exporter.export(payloads(1, 10)));
+        }
+
+        Assertions.assertTrue(exception.getCause() instanceof ConnectException);
+    }
+}
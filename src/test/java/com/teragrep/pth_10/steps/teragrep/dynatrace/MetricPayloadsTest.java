@@ -0,0 +1,128 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.dynatrace;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class MetricPayloadsTest {
+
+    @Test
+    public void testMaxLines() {
+        // the metadata line counts against the limit
+        final MetricPayloads payloads = new MetricPayloads(3, 1000);
+        payloads.add("#m", "m gauge,1");
+        payloads.add("#m", "m gauge,2");
+        payloads.add("#m", "m gauge,3");
+        Assertions.assertEquals(Arrays.asList("#m\nm gauge,1\nm gauge,2", "#m\nm gauge,3"), payloads.payloads());
+        Assertions.assertEquals(3, payloads.lines());
+    }
+
+    @Test
+    public void testMetadataOncePerKey() {
+        final MetricPayloads payloads = new MetricPayloads(100, 1000);
+        payloads.add("#a", "a gauge,1");
+        payloads.add("#b", "b gauge,2");
+        payloads.add("#a", "a gauge,3");
+        Assertions
+                .assertEquals(
+                        Collections.singletonList("#a\na gauge,1\n#b\nb gauge,2\na gauge,3"), payloads.payloads()
+                );
+        Assertions.assertEquals(3, payloads.lines());
+    }
+
+    @Test
+    public void testNewMetadataDoesNotFit() {
+        // the metric line of a new key fits, but not with its metadata line
+        final MetricPayloads payloads = new MetricPayloads(3, 1000);
+        payloads.add("#a", "a gauge,1");
+        payloads.add("#b", "b gauge,2");
+        Assertions.assertEquals(Arrays.asList("#a\na gauge,1", "#b\nb gauge,2"), payloads.payloads());
+    }
+
+    @Test
+    public void testMaxBytes() {
+        // 2 + 1 + 9 bytes for the first line with metadata, 1 + 9 bytes for each following line
+        final MetricPayloads payloads = new MetricPayloads(100, 22);
+        payloads.add("#m", "m gauge,1");
+        payloads.add("#m", "m gauge,2");
+        payloads.add("#m", "m gauge,3");
+        Assertions.assertEquals(Arrays.asList("#m\nm gauge,1\nm gauge,2", "#m\nm gauge,3"), payloads.payloads());
+
+        // a line larger than the limit is sent alone with its metadata
+        final MetricPayloads oversized = new MetricPayloads(100, 5);
+        oversized.add("#m", "m gauge,1");
+        oversized.add("#m", "m gauge,2");
+        Assertions.assertEquals(Arrays.asList("#m\nm gauge,1", "#m\nm gauge,2"), oversized.payloads());
+    }
+
+    @Test
+    public void testItem() {
+        final DynatraceItem dti = new DynatraceItem();
+        dti.setDplQuery("query");
+        dti.setMetricKey("metric");
+        dti.setCount("1");
+        dti.setTimestamp(Timestamp.from(Instant.ofEpochSecond(1700000000L)));
+
+        final MetricPayloads payloads = new MetricPayloads(10, 1000);
+        payloads.add(dti);
+        payloads.add(dti);
+        final String expected = dti.metadata() + "\n" + dti.metricLine() + "\n" + dti.metricLine();
+        Assertions.assertEquals(Collections.singletonList(expected), payloads.payloads());
+    }
+
+    @Test
+    public void testNoLines() {
+        final MetricPayloads payloads = new MetricPayloads(10, 1000);
+        Assertions.assertEquals(Collections.emptyList(), payloads.payloads());
+        Assertions.assertEquals(0, payloads.lines());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.kafka;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class JsonChunksTest {
+
+    private List<String> chunks(final JsonChunks jsonChunks, final String... rows) {
+        final List<String> messages = new ArrayList<>();
+        final Iterator<String> it = jsonChunks.call(Arrays.asList(rows).iterator());
+        while (it.hasNext()) {
+            messages.add(it.next());
+        }
+        return messages;
+    }
+
+    @Test
+    public void testSingleRowIsNotWrapped() {
+        Assertions
+                .assertEquals(
+                        Collections.singletonList("{\"offset\":1}"), chunks(new JsonChunks(10, 1000), "{\"offset\":1}")
+                );
+    }
+
+    @Test
+    public void testMaxRecords() {
+        final List<String> messages = chunks(
+                new JsonChunks(2, 1000), "{\"offset\":1}", "{\"offset\":2}", "{\"offset\":3}", "{\"offset\":4}",
+                "{\"offset\":5}"
+        );
+        Assertions
+                .assertEquals(
+                        Arrays
+                                .asList(
+                                        "[{\"offset\":1}, {\"offset\":2}]", "[{\"offset\":3}, {\"offset\":4}]",
+                                        "{\"offset\":5}"
+                                ),
+                        messages
+                );
+    }
+
+    @Test
+    public void testMaxBytes() {
+        // each row is 12 bytes, two rows with brackets and separator are 28 bytes
+        final List<String> messages = chunks(
+                new JsonChunks(100, 28), "{\"offset\":1}", "{\"offset\":2}", "{\"offset\":3}"
+        );
+        Assertions.assertEquals(Arrays.asList("[{\"offset\":1}, {\"offset\":2}]", "{\"offset\":3}"), messages);
+        for (final String message : messages) {
+            Assertions.assertTrue(message.length() <= 28);
+        }
+        // a row larger than the limit is sent alone
+        Assertions
+                .assertEquals(
+                        Arrays.asList("{\"offset\":1}", "{\"offset\":2}"),
+                        chunks(new JsonChunks(100, 5), "{\"offset\":1}", "{\"offset\":2}")
+                );
+    }
+
+    @Test
+    public void testMultibyteCharacters() {
+        // ä is two bytes and 😀 four bytes in UTF-8, 12 bytes per row
+        final List<String> messages = chunks(
+                new JsonChunks(100, 27), "{\"a\":\"ää\"}", "{\"a\":\"😀\"}"
+        );
+        Assertions.assertEquals(Arrays.asList("{\"a\":\"ää\"}", "{\"a\":\"😀\"}"), messages);
+        Assertions.assertEquals(1, chunks(new JsonChunks(100, 28), "{\"a\":\"ää\"}", "{\"a\":\"😀\"}").size());
+    }
+
+    @Test
+    public void testEmptyPartition() {
+        Assertions.assertEquals(Collections.emptyList(), chunks(new JsonChunks(10, 1000)));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.kafka;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class KafkaSaveOptionsFromConfigTest {
+
+    @Test
+    public void testDefaults() {
+        final KafkaSaveOptionsFromConfig options = new KafkaSaveOptionsFromConfig(ConfigFactory.empty());
+        Assertions.assertEquals(1000, options.maxRecordsPerMessage());
+        Assertions.assertEquals(512L * 1024, options.maxBytesPerMessage());
+        Assertions.assertTrue(options.producerOptions().isEmpty());
+    }
+
+    @Test
+    public void testConfigured() {
+        final Config config = ConfigFactory
+                .parseString(
+                        "dpl.pth_10.transform.teragrep.kafka.save { maxRecordsPerMessage = 10, "
+                                + "maxBytesPerMessage = 1MiB, linger.ms = 20, compression.type = lz4 }"
+                );
+        final KafkaSaveOptionsFromConfig options = new KafkaSaveOptionsFromConfig(config);
+        Assertions.assertEquals(10, options.maxRecordsPerMessage());
+        Assertions.assertEquals(1024L * 1024, options.maxBytesPerMessage());
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("kafka.linger.ms", "20");
+        expected.put("kafka.compression.type", "lz4");
+        Assertions.assertEquals(expected, options.producerOptions());
+    }
+
+    @Test
+    public void testInvalidRecords() {
+        final KafkaSaveOptionsFromConfig options = new KafkaSaveOptionsFromConfig(
+                ConfigFactory.parseString("dpl.pth_10.transform.teragrep.kafka.save.maxRecordsPerMessage = 0")
+        );
+        Assertions.assertThrows(IllegalArgumentException.class, options::maxRecordsPerMessage);
+    }
+
+    @Test
+    public void testEquals() {
+        Assertions
+                .assertEquals(
+                        new KafkaSaveOptionsFromConfig(ConfigFactory.empty()),
+                        new KafkaSaveOptionsFromConfig(ConfigFactory.empty())
+                );
+    }
+}
@@ -50,11 +50,13 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalyst.expressions.GenericRowWithSchema;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.MetadataBuilder;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.util.LongAccumulator;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.InsertValuesStep1;
@@ -65,6 +67,7 @@ import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -101,6 +104,7 @@ public final class EpochMigrationForeachPartitionFunctionTest {
             .withPassword("test");
 
     private TestingConnectionSource connectionSource;
+    private SparkSession spark;
 
     private final StructType testSchema = new StructType(new StructField[] {
             new StructField("_time", DataTypes.TimestampType, false, new MetadataBuilder().build()),
@@ -113,6 +117,18 @@ public final class EpochMigrationForeachPartitionFunctionTest {
             new StructField("offset", DataTypes.LongType, false, new MetadataBuilder().build())
     });
 
+    @BeforeAll
+    void startSpark() {
+        spark = SparkSession
+                .builder()
+                .appName("EpochMigrationForeachPartitionFunctionTest")
+                .master("local[1]")
+                .config("spark.driver.host", "localhost")
+                .config("spark.driver.bindAddress", "localhost")
+                .getOrCreate();
+        spark.sparkContext().setLogLevel("ERROR");
+    }
+
     @BeforeEach
     void setup() {
         Assertions.assertDoesNotThrow(() -> {
@@ -163,6 +179,7 @@ public final class EpochMigrationForeachPartitionFunctionTest {
     @AfterAll
     void close() {
         connectionSource.close();
+        spark.stop();
     }
 
     @Test
@@ -171,7 +188,8 @@ public final class EpochMigrationForeachPartitionFunctionTest {
                 connectionSource,
                 "journaldb",
                 3,
-                new Settings()
+                new Settings(),
+                spark.sparkContext().longAccumulator()
         );
         foreachPartitionFunction
                 .call(Arrays.asList(genericResultRow(1, 3650), genericResultRow(2, 3650 * 2), genericResultRow(3, 3650 * 3)).iterator());
@@ -187,7 +205,8 @@ public final class EpochMigrationForeachPartitionFunctionTest {
                 connectionSource,
                 "journaldb",
                 2,
-                new Settings()
+                new Settings(),
+                spark.sparkContext().longAccumulator()
         );
         foreachPartitionFunction
                 .call(Arrays.asList(genericResultRow(1, 3650), genericResultRow(2, 3650 * 2), genericResultRow(3, 3650 * 3), genericResultRow(4, 3650 * 4), genericResultRow(5, 3650 * 5), genericResultRow(6, 3650 * 6)).iterator());
@@ -197,6 +216,27 @@ public final class EpochMigrationForeachPartitionFunctionTest {
                 .assertIterableEquals(Arrays.asList(3600L, 3600 * 2L, 3600 * 3L, 3600 * 4L, 3600 * 5L, 3600 * 6L), results.values());
     }
 
+    @Test
+    public void testBulkInsertsCountMigratedRows() {
+        final LongAccumulator migratedRows = spark.sparkContext().longAccumulator();
+        final EpochMigrationForeachPartitionFunction foreachPartitionFunction = new EpochMigrationForeachPartitionFunction(
+                connectionSource,
+                "journaldb",
+                2,
+                2,
+                2,
+                new Settings(),
+                migratedRows
+        );
+        foreachPartitionFunction
+                .call(Arrays.asList(genericResultRow(1, 3650), genericResultRow(2, 3650 * 2), genericResultRow(3, 3650 * 3), genericResultRow(4, 3650 * 4), genericResultRow(5, 3650 * 5)).iterator());
+        final Map<Long, Long> results = Assertions.assertDoesNotThrow(this::nonNullLogfilesMap);
+        Assertions.assertIterableEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), results.keySet());
+        Assertions
+                .assertIterableEquals(Arrays.asList(3600L, 3600 * 2L, 3600 * 3L, 3600 * 4L, 3600 * 5L), results.values());
+        Assertions.assertEquals(5L, migratedRows.sum());
+    }
+
     @Test
     public void testEmptyIteratorCallDoesNothing() {
         final Map<Long, Long> resultsBefore = Assertions.assertDoesNotThrow(this::nonNullLogfilesMap);
@@ -205,7 +245,8 @@ public final class EpochMigrationForeachPartitionFunctionTest {
                 connectionSource,
                 "journaldb",
                 3,
-                new Settings()
+                new Settings(),
+                spark.sparkContext().longAccumulator()
         );
         final List<Row> emptyList = Collections.emptyList();
         foreachPartitionFunction.call(emptyList.iterator());
@@ -213,9 +254,30 @@ public final class EpochMigrationForeachPartitionFunctionTest {
         Assertions.assertTrue(resultsAfter.isEmpty());
     }
 
+    @Test
+    public void testUnregisteredAccumulator() {
+        final IllegalArgumentException exception = Assertions
+                .assertThrows(
+                        IllegalArgumentException.class,
+                        () -> new EpochMigrationForeachPartitionFunction(
+                                connectionSource,
+                                "journaldb",
+                                3,
+                                new Settings(),
+                                new LongAccumulator()
+                        )
+                );
+        Assertions
+                .assertEquals("Migrated rows accumulator must be registered to the SparkContext", exception.getMessage());
+    }
+
     @Test
     public void testContract() {
-        EqualsVerifier.forClass(EpochMigrationForeachPartitionFunction.class).withIgnoredFields("LOGGER").verify();
+        EqualsVerifier
+                .forClass(EpochMigrationForeachPartitionFunction.class)
+                .withPrefabValues(LongAccumulator.class, new LongAccumulator(), new LongAccumulator())
+                .withIgnoredFields("LOGGER")
+                .verify();
     }
 
     private Row genericResultRow(long id, long epochSeconds) {
@@ -0,0 +1,117 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.migrate;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public final class EpochMigrationOptionsFromConfigTest {
+
+    @Test
+    public void testDefaults() {
+        final EpochMigrationOptionsFromConfig options = new EpochMigrationOptionsFromConfig(ConfigFactory.empty());
+        Assertions.assertEquals(500, options.batchSize());
+        Assertions.assertEquals(1, options.bulkSize());
+        Assertions.assertEquals(1, options.commitInterval());
+        Assertions.assertEquals(0, options.parallelism());
+        Assertions.assertEquals("", options.checkpointPath());
+    }
+
+    @Test
+    public void testConfigured() {
+        final Config config = ConfigFactory
+                .parseString(
+                        "dpl.pth_10.transform.teragrep.migrate { batchSize = 100, bulkSize = 50, commitInterval = 10, "
+                                + "parallelism = 8, checkpointPath = \"/tmp/migration\" }"
+                );
+        final EpochMigrationOptionsFromConfig options = new EpochMigrationOptionsFromConfig(config);
+        Assertions.assertEquals(100, options.batchSize());
+        Assertions.assertEquals(50, options.bulkSize());
+        Assertions.assertEquals(10, options.commitInterval());
+        Assertions.assertEquals(8, options.parallelism());
+        Assertions.assertEquals("/tmp/migration", options.checkpointPath());
+    }
+
+    @Test
+    public void testCheckpointLocation() {
+        final EpochMigrationOptionsFromConfig options = new EpochMigrationOptionsFromConfig(
+                ConfigFactory.parseString("dpl.pth_10.transform.teragrep.migrate.checkpointPath = \"/tmp/migration/\"")
+        );
+        final String query = "index=a | teragrep exec migrate epoch";
+        final String location = options.checkpointLocation("journaldb", query);
+        Assertions.assertTrue(location.startsWith("/tmp/migration/journaldb-"), location);
+        // the same migration resumes from the same location, another journaldb or query does not
+        Assertions.assertEquals(location, options.checkpointLocation("journaldb", query));
+        Assertions.assertNotEquals(location, options.checkpointLocation("journaldb2", query));
+        Assertions.assertNotEquals(location, options.checkpointLocation("journaldb", "index=b " + query));
+
+        final EpochMigrationOptionsFromConfig defaults = new EpochMigrationOptionsFromConfig(ConfigFactory.empty());
+        Assertions.assertEquals("", defaults.checkpointLocation("journaldb", query));
+    }
+
+    @Test
+    public void testInvalidValues() {
+        final Config config = ConfigFactory
+                .parseString("dpl.pth_10.transform.teragrep.migrate { batchSize = 0, parallelism = -1 }");
+        final EpochMigrationOptionsFromConfig options = new EpochMigrationOptionsFromConfig(config);
+        final IllegalArgumentException batchSizeException = Assertions
+                .assertThrows(IllegalArgumentException.class, options::batchSize);
+        Assertions
+                .assertEquals(
+                        "Configuration item 'dpl.pth_10.transform.teragrep.migrate.batchSize' must be a positive integer, got: 0",
+                        batchSizeException.getMessage()
+                );
+        Assertions.assertThrows(IllegalArgumentException.class, options::parallelism);
+    }
+
+    @Test
+    public void testContract() {
+        EqualsVerifier.forClass(EpochMigrationOptionsFromConfig.class).verify();
+    }
+}
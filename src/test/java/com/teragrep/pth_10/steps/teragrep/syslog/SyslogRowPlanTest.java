@@ -0,0 +1,101 @@
+/*
+ * Teragrep Data Processing Language (DPL) translator for Apache Spark (pth_10)
+ * Copyright (C) 2019-2026 Suomen Kanuuna Oy
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ *
+ * Additional permission under GNU Affero General Public License version 3
+ * section 7
+ *
+ * If you modify this Program, or any covered work, by linking or combining it
+ * with other code, such other code is not for that reason alone subject to any
+ * of the requirements of the GNU Affero GPL version 3 as long as this Program
+ * is the same Program as licensed from Suomen Kanuuna Oy without any additional
+ * modifications.
+ *
+ * Supplemented terms under GNU Affero General Public License version 3
+ * section 7
+ *
+ * Origin of the software must be attributed to Suomen Kanuuna Oy. Any modified
+ * versions must be marked as "Modified version of" The Program.
+ *
+ * Names of the licensors and authors may not be used for publicity purposes.
+ *
+ * No rights are granted for use of trade names, trademarks, or service marks
+ * which are in The Program if any.
+ *
+ * Licensee must indemnify licensors and authors for any liability that these
+ * contractual assumptions impose on licensors and authors.
+ *
+ * To the extent this program is licensed as part of the Commercial versions of
+ * Teragrep, the applicable Commercial License may apply to this file if you as
+ * a licensee so wish it.
+ */
+package com.teragrep.pth_10.steps.teragrep.syslog;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.catalyst.expressions.GenericRowWithSchema;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+public class SyslogRowPlanTest {
+
+    @Test
+    public void testMessage() {
+        final StructType schema = new StructType(new StructField[] {
+                DataTypes.createStructField("host", DataTypes.StringType, true),
+                DataTypes.createStructField("_raw", DataTypes.StringType, true),
+                DataTypes.createStructField("_time", DataTypes.TimestampType, true),
+                DataTypes.createStructField("offset", DataTypes.LongType, true)
+        });
+        final SyslogRowPlan plan = new SyslogRowPlan(schema);
+        final Row row = new GenericRowWithSchema(new Object[] {
+                "host-01", "raw message", new Timestamp(1000L), null
+        }, schema);
+
+        final String message = new String(plan.bytes(row), StandardCharsets.UTF_8);
+        // facility user and severity warning
+        Assertions.assertTrue(message.startsWith("<12>1 "), message);
+        Assertions.assertTrue(message.contains(" localhost teragrep "), message);
+        Assertions
+                .assertTrue(
+                        message.contains("[teragrep-output@48577 host=\"host-01\" offset=\"null\"]"), message
+                );
+        Assertions.assertTrue(message.endsWith(" raw message"), message);
+        Assertions.assertEquals(1000L, plan.message(row).getTimestamp().getTime());
+    }
+
+    @Test
+    public void testMissingTimeAndRaw() {
+        final StructType schema = new StructType(new StructField[] {
+                DataTypes.createStructField("count", DataTypes.LongType, true)
+        });
+        final SyslogRowPlan plan = new SyslogRowPlan(schema);
+        final long before = System.currentTimeMillis() / 1000L * 1000L;
+        final Row row = new GenericRowWithSchema(new Object[] {
+                5L
+        }, schema);
+
+        final String message = new String(plan.bytes(row), StandardCharsets.UTF_8);
+        Assertions.assertTrue(message.contains("[teragrep-output@48577 count=\"5\"]"), message);
+        Assertions.assertTrue(plan.message(row).getTimestamp().getTime() >= before);
+    }
+}
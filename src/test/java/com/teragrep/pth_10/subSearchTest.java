@@ -51,6 +51,7 @@ import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -99,6 +100,30 @@ public class subSearchTest {
         });
     }
 
+    @Test
+    @DisabledIfSystemProperty(
+            named = "skipSparkTest",
+            matches = "true"
+    )
+    void testSubSearchMaxTermsExceeded() {
+        String q = "index = index_A [ search sourcetype= A:X:0 | top limit=3 host | fields + host]";
+        String testFile = "src/test/resources/subsearchData*.jsonl"; // * to make the path into a directory path
+
+        // two hosts returned from the subsearch, only one allowed
+        this.streamingTestUtil
+                .setCustomConfigOptions(Collections.singletonMap("dpl.pth_10.subsearch.maxTerms", "1"));
+        IllegalStateException exception = this.streamingTestUtil
+                .performThrowingDPLTest(IllegalStateException.class, q, testFile, res -> {
+                });
+
+        Assertions
+                .assertEquals(
+                        "Subsearch returned 2 terms, exceeding the maximum of 1 set by dpl.pth_10.subsearch.maxTerms. "
+                                + "Limit the subsearch results or raise the maximum.",
+                        exception.getMessage()
+                );
+    }
+
     @Test
     @DisabledIfSystemProperty(
             named = "skipSparkTest",
@@ -80,7 +80,7 @@ public class ChartTest {
 
         Assertions
                 .assertEquals(
-                        "[countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`]",
+                        "[countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`]",
                         Arrays.toString(cs.aggrExpressionsList().toArray())
                 );
         Assertions.assertEquals("[_time]", Arrays.toString(cs.groupByList().toArray()));
@@ -104,7 +104,7 @@ public class ChartTest {
 
         Assertions
                 .assertEquals(
-                        "[countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`]",
+                        "[countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`]",
                         Arrays.toString(cs.aggrExpressionsList().toArray())
                 );
         Assertions.assertEquals("[_time, fieldTwo]", Arrays.toString(cs.groupByList().toArray()));
@@ -127,7 +127,7 @@ public class ChartTest {
 
         Assertions
                 .assertEquals(
-                        "[countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`]",
+                        "[countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`]",
                         Arrays.toString(cs.aggrExpressionsList().toArray())
                 );
         Assertions.assertEquals("[fieldTwo, _time]", Arrays.toString(cs.groupByList().toArray()));
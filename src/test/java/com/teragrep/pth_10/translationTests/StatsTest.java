@@ -78,7 +78,7 @@ public class StatsTest {
 
         Assertions
                 .assertEquals(
-                        "countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`",
+                        "countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`",
                         cs.getListOfAggregationExpressions().get(0).toString()
                 );
         Assertions.assertEquals("_time", cs.getListOfGroupBys().get(0).toString());
@@ -102,7 +102,7 @@ public class StatsTest {
 
         Assertions
                 .assertEquals(
-                        "countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`",
+                        "countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`",
                         cs.getListOfAggregationExpressions().get(0).toString()
                 );
         Assertions.assertEquals("avg(_raw) AS `avg(_raw)`", cs.getListOfAggregationExpressions().get(1).toString());
@@ -126,7 +126,7 @@ public class StatsTest {
 
         Assertions
                 .assertEquals(
-                        "countaggregator(input[0, java.lang.Long, true].longValue AS value, staticinvoke(class java.lang.Long, ObjectType(class java.lang.Long), valueOf, input[0, bigint, true], true, false, true), input[0, java.lang.Long, true].longValue) AS `count(_raw)`",
+                        "countaggregator(CAST(_raw AS STRING)) AS `count(_raw)`",
                         cs.getListOfAggregationExpressions().get(0).toString()
                 );
         Assertions.assertEquals("avg(_raw) AS `avg(_raw)`", cs.getListOfAggregationExpressions().get(1).toString());
@@ -167,6 +167,35 @@ public class TeragrepTest {
         Assertions.assertEquals(CustomResultStep.class, step2.getClass());
     }
 
+    @Test
+    void testTeragrepSyslogParallelConfigTranslation() {
+        final String query = "| teragrep exec syslog stream";
+        final CharStream inputStream = CharStreams.fromString(query);
+        final DPLLexer lexer = new DPLLexer(inputStream);
+        final DPLParser parser = new DPLParser(new CommonTokenStream(lexer));
+        final ParseTree tree = parser.root();
+
+        // Create config
+        HashMap<String, Object> map = new HashMap<>();
+        map.put("dpl.pth_10.transform.teragrep.syslog.parallel", true);
+        Config c = ConfigFactory.parseMap(map);
+
+        final DPLParserCatalystContext ctx = new DPLParserCatalystContext(null, "testQueryName");
+        ctx.setEarliest("-1w");
+        ctx.setConfig(c);
+        final DPLParserCatalystVisitor visitor = new DPLParserCatalystVisitor(ctx);
+
+        final TeragrepTransformation ct = new TeragrepTransformation(ctx, visitor);
+        final StepListNode stepNode = (StepListNode) ct
+                .visitTeragrepTransformation((DPLParser.TeragrepTransformationContext) tree.getChild(1).getChild(0));
+        final List<AbstractStep> steps = stepNode.asList();
+        final AbstractStep step = steps.get(0);
+
+        Assertions.assertEquals(TeragrepSyslogStep.class, step.getClass());
+        Assertions.assertFalse(step.hasProperty(AbstractStep.CommandProperty.SEQUENTIAL_ONLY));
+        Assertions.assertTrue(step.hasProperty(AbstractStep.CommandProperty.NO_PRECEDING_AGGREGATE));
+    }
+
     @Test
     void testTeragrepHdfsSaveTranslation() {
         final String query = "| teragrep exec hdfs save /tmp/path";